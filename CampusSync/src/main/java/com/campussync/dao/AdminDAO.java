@@ -1,10 +1,26 @@
 package com.campussync.dao;
 
+import com.campussync.model.Faculty;
+import com.campussync.model.Notice;
 import com.campussync.model.Student;
+import com.campussync.util.BeanRowMapper;
 import com.campussync.util.DBConnection;
+import com.campussync.util.HotQuery;
+import com.campussync.util.Keyset;
+import com.campussync.util.Page;
+import com.campussync.util.PageRequest;
+import com.campussync.util.QueryStream;
+import com.campussync.util.RowMapper;
+import com.campussync.util.TableExport;
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * AdminDAO handles all database operations required by the Admin module.
@@ -14,6 +30,14 @@ import java.util.List;
  * Refactored to return List objects instead of ResultSet for better MVC separation
  * and automatic resource management in JSP views.
  *
+ * Large listings (notices, faculty, students) are also available as streaming
+ * cursors (streamXxx / forEachXxx) built on QueryStream: rows are fetched in
+ * chunks and the connection is released as soon as iteration ends.
+ *
+ * Full-table exports for the registrar (exportXxx) stream rows straight into
+ * the response through TableExport, in primary key order, never including
+ * password columns.
+ *
  * DAO Layer Purpose:
  * - To separate database logic from servlets (clean MVC structure)
  * - To ensure modular, reusable, and maintainable data access code
@@ -21,6 +45,36 @@ import java.util.List;
  */
 public class AdminDAO {
 
+    // Notice boards list every notice; the budget flags unbounded growth
+    @HotQuery(maxRows = 5_000, allowFullScan = true)
+    private static final String SQL_NOTICES =
+            "SELECT notice_id, title, message, posted_at FROM notice ORDER BY posted_at DESC";
+    private static final String SQL_FACULTY =
+            "SELECT faculty_id, name, email, department FROM faculty";
+    private static final String SQL_STUDENTS =
+            "SELECT student_id, name, email, course, semester FROM student";
+
+    // Registrar exports: primary key order = plain clustered index scan
+    private static final String SQL_EXPORT_STUDENTS =
+            "SELECT student_id, name, email, course, semester, created_at FROM student ORDER BY student_id";
+    // Live table, then the terms AttendancePartitionJob moved to attendance_archive
+    private static final List<String> SQL_EXPORT_ATTENDANCE = Arrays.asList(
+            "SELECT attendance_id, student_id, subject_id, att_date, status FROM attendance ORDER BY attendance_id",
+            "SELECT attendance_id, student_id, subject_id, att_date, status FROM attendance_archive ORDER BY attendance_id");
+    private static final String SQL_EXPORT_MARKS =
+            "SELECT marks_id, student_id, subject_id, assessment, marks FROM marks ORDER BY marks_id";
+
+    // Row mappers shared by the List and streaming variants (columns → setters by name)
+    private static final RowMapper<Notice> NOTICE_MAPPER = BeanRowMapper.of(Notice.class);
+    private static final RowMapper<Faculty> FACULTY_MAPPER = BeanRowMapper.of(Faculty.class);
+    private static final RowMapper<Student> STUDENT_MAPPER = BeanRowMapper.of(Student.class);
+
+    // Keyset pagination for the admin tables (student: id or name order, faculty: id order)
+    private static final Keyset<Student> STUDENT_PAGES = new Keyset<>(SQL_STUDENTS,
+            "student_id", "name", STUDENT_MAPPER, Student::getStudentId, Student::getName);
+    private static final Keyset<Faculty> FACULTY_PAGES = new Keyset<>(SQL_FACULTY,
+            "faculty_id", null, FACULTY_MAPPER, Faculty::getFacultyId, Faculty::getName);
+
     /**
      * Validates admin credentials by checking username and password in the database.
      * @param username Admin's username
@@ -31,7 +85,11 @@ public class AdminDAO {
      * - A DB connection is created
      * - Query checks if username & password exist
      * - Returns a ResultSet so servlet can read login details
+     *
+     * @deprecated Leaks its connection (nothing can close it). AuthServlet
+     *             performs admin login itself; do not use in new code.
      */
+    @Deprecated
     public ResultSet login(String username, String password) throws SQLException {
         Connection conn = DBConnection.getConnection();
 
@@ -57,19 +115,18 @@ public class AdminDAO {
      * - executeUpdate() returns number of rows affected (1 if success)
      */
     public boolean addStudent(String name, String email, String password, String course, int semester) throws SQLException {
-        Connection conn = DBConnection.getConnection();
-
-        PreparedStatement ps = conn.prepareStatement(
-                "INSERT INTO student(name, email, password, course, semester) VALUES(?,?,?,?,?)"
-        );
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO student(name, email, password, course, semester) VALUES(?,?,?,?,?)")) {
 
-        ps.setString(1, name);
-        ps.setString(2, email);
-        ps.setString(3, password);
-        ps.setString(4, course);
-        ps.setInt(5, semester);
+            ps.setString(1, name);
+            ps.setString(2, email);
+            ps.setString(3, password);
+            ps.setString(4, course);
+            ps.setInt(5, semester);
 
-        return ps.executeUpdate() > 0; // true if row inserted
+            return ps.executeUpdate() > 0; // true if row inserted
+        }
     }
 
     /**
@@ -81,18 +138,17 @@ public class AdminDAO {
      * - Stores faculty name, email, password & department
      */
     public boolean addFaculty(String name, String email, String password, String dept) throws SQLException {
-        Connection conn = DBConnection.getConnection();
-
-        PreparedStatement ps = conn.prepareStatement(
-                "INSERT INTO faculty(name, email, password, department) VALUES(?,?,?,?)"
-        );
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO faculty(name, email, password, department) VALUES(?,?,?,?)")) {
 
-        ps.setString(1, name);
-        ps.setString(2, email);
-        ps.setString(3, password);
-        ps.setString(4, dept);
+            ps.setString(1, name);
+            ps.setString(2, email);
+            ps.setString(3, password);
+            ps.setString(4, dept);
 
-        return ps.executeUpdate() > 0;
+            return ps.executeUpdate() > 0;
+        }
     }
 
     /**
@@ -104,16 +160,15 @@ public class AdminDAO {
      * - Used in admin dashboard to broadcast announcements
      */
     public boolean addNotice(String title, String message) throws SQLException {
-        Connection conn = DBConnection.getConnection();
-
-        PreparedStatement ps = conn.prepareStatement(
-                "INSERT INTO notice(title, message) VALUES(?,?)"
-        );
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO notice(title, message) VALUES(?,?)")) {
 
-        ps.setString(1, title);
-        ps.setString(2, message);
+            ps.setString(1, title);
+            ps.setString(2, message);
 
-        return ps.executeUpdate() > 0;
+            return ps.executeUpdate() > 0;
+        }
     }
 
     /**
@@ -126,32 +181,47 @@ public class AdminDAO {
      */
     public List<Student> listStudentsAsList() throws SQLException {
         List<Student> students = new ArrayList<>();
-        String sql = "SELECT student_id, name, email, course, semester FROM student";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Student s = new Student();
-                s.setStudentId(rs.getInt("student_id"));
-                s.setName(rs.getString("name"));
-                s.setEmail(rs.getString("email"));
-                s.setCourse(rs.getString("course"));
-                s.setSemester(rs.getInt("semester"));
-                students.add(s);
-            }
-        }
+        QueryStream.forEach(SQL_STUDENTS, QueryStream.Binder.none(), STUDENT_MAPPER, students::add);
         return students;
     }
 
+    /**
+     * Loads one page of students for the admin "Manage Students" table.
+     *
+     * @param request sort (ID / NAME), page size (capped at PageRequest.MAX_SIZE)
+     *                and the cursor from the previous page's Next/Previous link
+     * @return Page<Student> with at most request.getSize() rows
+     *
+     * Working:
+     * - Keyset pagination on student_id or (name, student_id): the query seeks
+     *   to the cursor through an index instead of skipping rows with OFFSET,
+     *   so every page costs the same regardless of table size
+     */
+    public Page<Student> pageStudents(PageRequest request) throws SQLException {
+        return STUDENT_PAGES.fetch(request);
+    }
+
+    /**
+     * Streams all students without materializing the full list.
+     * The connection is released when the stream is exhausted or closed,
+     * so callers should use try-with-resources.
+     *
+     * @return lazy Stream<Student> backed by a server-side cursor
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<Student> streamStudents() throws SQLException {
+        return QueryStream.stream(SQL_STUDENTS, QueryStream.Binder.none(), STUDENT_MAPPER);
+    }
+
     /**
      * Retrieves list of all students as ResultSet (backward compatibility).
      * Deprecated in favor of listStudentsAsList(); kept for compatibility
      *
      * @return ResultSet with student details
      * @throws SQLException if database operation fails
+     * @deprecated Leaks its connection; use listStudentsAsList() or streamStudents()
      */
+    @Deprecated
     public ResultSet listStudents() throws SQLException {
         Connection conn = DBConnection.getConnection();
 
@@ -169,7 +239,11 @@ public class AdminDAO {
      * Working:
      * - Same pattern as listStudents()
      * - Used to display faculty table in admin panel
+     *
+     * @deprecated Keeps the connection open while the caller iterates and never
+     *             closes it; use streamFaculty() or forEachFaculty()
      */
+    @Deprecated
     public ResultSet listFaculty() throws SQLException {
         Connection conn = DBConnection.getConnection();
 
@@ -180,15 +254,124 @@ public class AdminDAO {
         return ps.executeQuery();
     }
 
+    /**
+     * Streams all faculty members (admin faculty table).
+     * Connection is released when the stream is exhausted or closed.
+     *
+     * @return lazy Stream<Faculty> with id, name, email and department
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<Faculty> streamFaculty() throws SQLException {
+        return QueryStream.stream(SQL_FACULTY, QueryStream.Binder.none(), FACULTY_MAPPER);
+    }
+
+    /**
+     * Loads one page of faculty members (ordered by faculty_id) for the admin
+     * "Manage Faculty" table. faculty.name is nullable, so name order is not
+     * offered; a NAME request is served in id order.
+     */
+    public Page<Faculty> pageFaculty(PageRequest request) throws SQLException {
+        return FACULTY_PAGES.fetch(request);
+    }
+
+    /**
+     * Pushes every faculty member to the given consumer.
+     * Connection is released before this method returns.
+     */
+    public void forEachFaculty(Consumer<? super Faculty> action) throws SQLException {
+        QueryStream.forEach(SQL_FACULTY, QueryStream.Binder.none(), FACULTY_MAPPER, action);
+    }
+
+    /**
+     * Streams all notices ordered by most recent first.
+     * Connection is released when the stream is exhausted or closed.
+     *
+     * @return lazy Stream<Notice>
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<Notice> streamNotices() throws SQLException {
+        return QueryStream.stream(SQL_NOTICES, QueryStream.Binder.none(), NOTICE_MAPPER);
+    }
+
+    /**
+     * Loads all notices (most recent first) into an unmodifiable list.
+     * Used by the faculty/student notice boards, which render after the
+     * connection has been released.
+     */
+    public List<Notice> listNotices() throws SQLException {
+        List<Notice> notices = new ArrayList<>();
+        forEachNotice(notices::add);
+        return Collections.unmodifiableList(notices);
+    }
+
+    /**
+     * Pushes every notice (most recent first) to the given consumer.
+     * Connection is released before this method returns.
+     */
+    public void forEachNotice(Consumer<? super Notice> action) throws SQLException {
+        QueryStream.forEach(SQL_NOTICES, QueryStream.Binder.none(), NOTICE_MAPPER, action);
+    }
+
     /**
      * Retrieves all notices ordered by most recent first.
      * @return ResultSet with notice details
      * @throws SQLException if database operation fails
+     * @deprecated Keeps the connection open for the whole JSP render and never
+     *             closes it; use streamNotices() or forEachNotice()
      */
+    @Deprecated
     public ResultSet getAllNotices() throws SQLException {
         Connection con = DBConnection.getConnection();
         String sql = "SELECT notice_id, title, message, posted_at FROM notice ORDER BY posted_at DESC";
         PreparedStatement ps = con.prepareStatement(sql);
         return ps.executeQuery();
     }
+
+    // ---------------------------------------------------------------------
+    // Registrar exports (streamed, constant memory)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Writes every student (without password) to out.
+     * @return number of rows written
+     */
+    public long exportStudents(TableExport.Format format, Writer out) throws SQLException, IOException {
+        return TableExport.write(SQL_EXPORT_STUDENTS, QueryStream.Binder.none(), format, out);
+    }
+
+    /**
+     * Writes every attendance record to out, including terms already moved to
+     * attendance_archive: the live rows, then the archived ones, each in
+     * attendance_id order, from one snapshot (no UNION ... ORDER BY, which
+     * would sort 10M rows in a server temp table before the first byte).
+     * attendance is read first so the export holds its metadata lock from the
+     * start: an archive run's EXCHANGE PARTITION waits for the export instead
+     * of moving a term between the two reads.
+     * @return number of rows written
+     * @throws IllegalStateException in sessions mode (see isAttendanceExportAvailable)
+     */
+    public long exportAttendance(TableExport.Format format, Writer out) throws SQLException, IOException {
+        if (!isAttendanceExportAvailable()) {
+            throw new IllegalStateException("Attendance export reads the attendance table, which the "
+                    + AttendanceDAO.STORE_MODE + " store does not write");
+        }
+        return TableExport.writeAll(SQL_EXPORT_ATTENDANCE, QueryStream.Binder.none(), format, out);
+    }
+
+    /**
+     * The export reads one row per mark from attendance; in sessions mode the
+     * marks live in attendance_session bitmaps, so an export would be empty or
+     * stop at the switch-over date.
+     */
+    public static boolean isAttendanceExportAvailable() {
+        return AttendanceStore.MODE_ROWS.equals(AttendanceDAO.STORE_MODE);
+    }
+
+    /**
+     * Writes every marks record to out.
+     * @return number of rows written
+     */
+    public long exportMarks(TableExport.Format format, Writer out) throws SQLException, IOException {
+        return TableExport.write(SQL_EXPORT_MARKS, QueryStream.Binder.none(), format, out);
+    }
 }
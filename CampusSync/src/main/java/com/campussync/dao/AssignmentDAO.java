@@ -0,0 +1,49 @@
+package com.campussync.dao;
+
+import com.campussync.model.Assignment;
+import com.campussync.util.BeanRowMapper;
+import com.campussync.util.HotQuery;
+import com.campussync.util.QueryStream;
+import com.campussync.util.RowMapper;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AssignmentDAO (Data Access Object)
+ *
+ * Handles read operations on the 'assignment' table for the student portal.
+ *
+ * Responsibilities:
+ * - Load open (not yet due) assignments together with their subject name
+ * - Return fully materialized lists so servlets can release the connection
+ *   before forwarding to the JSP
+ */
+public class AssignmentDAO {
+
+    private static final RowMapper<Assignment> ASSIGNMENT_MAPPER = BeanRowMapper.of(Assignment.class);
+
+    // Range scan of idx_assignment_due_date: only future deadlines are read
+    @HotQuery(maxRows = 1_000)
+    private static final String SQL_OPEN =
+            "SELECT a.assignment_id, a.title, a.description, a.due_date, s.subject_name " +
+            "FROM assignment a " +
+            "JOIN subject s ON a.subject_id = s.subject_id " +
+            "WHERE a.due_date >= CURDATE() " +
+            "ORDER BY a.due_date ASC";
+
+    /**
+     * Retrieves all assignments whose due date is today or later,
+     * earliest deadline first.
+     *
+     * @return unmodifiable List<Assignment> with subject names filled in
+     * @throws SQLException if database operation fails
+     */
+    public List<Assignment> listOpenAssignments() throws SQLException {
+        List<Assignment> list = new ArrayList<>();
+        QueryStream.forEach(SQL_OPEN, QueryStream.Binder.none(), ASSIGNMENT_MAPPER, list::add);
+        return Collections.unmodifiableList(list);
+    }
+}
@@ -0,0 +1,188 @@
+package com.campussync.dao;
+
+import com.campussync.model.AttendanceEntry;
+import com.campussync.model.RegisterResult;
+import com.campussync.util.AcademicTerm;
+import com.campussync.util.Logger;
+import com.campussync.util.RetryPolicy;
+import com.campussync.util.TransactionManager;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * AttendanceDAO
+ *
+ * Single owner of attendance writes (previously inline SQL in
+ * AttendanceServlet and FacultyServlet).
+ *
+ * Responsibilities:
+ * - Save a faculty member's full P/A register with per-student results; the
+ *   only write path, so every mark passes the subject ownership and
+ *   enrollment checks
+ * - Load the saved register of a subject and date (to pre-fill the grid)
+ * - Load a student's attendance history
+ *
+ * Working:
+ * - attendance has a natural unique key (student_id, subject_id, att_date),
+ *   so a row can exist only once per student, subject and day
+ * - Every write is an upsert (INSERT ... ON DUPLICATE KEY UPDATE status):
+ *   a double-click, browser retry or deadlock replay overwrites the same row
+ *   instead of adding a second one, and re-submitting an unchanged register
+ *   changes nothing
+ * - Registers are sent as one batch in one transaction; with
+ *   rewriteBatchedStatements=true that is a single multi-row statement
+ * - Rows are written in student_id order, so two faculty saving overlapping
+ *   registers lock rows in the same order and do not deadlock each other
+ * - Marks are stored by the configured AttendanceStore: one row per student
+ *   (rows, default) or one bitmap record per class session (sessions);
+ *   everything above the store is the same in both modes
+ * - Terms older than AcademicTerm.oldestLive() are read-only: the partition
+ *   job moves them to attendance_archive, and a late row would land in the
+ *   next partition and be counted twice by the summary rebuild
+ * - Every write also updates attendance_summary in the same transaction
+ *   (AttendanceSummaryDAO): the register's current statuses are read with
+ *   FOR UPDATE first (AttendanceStore.lockRegister), so the summary gets exactly the rows that were added or
+ *   changed and cannot drift under concurrent saves of the same class
+ */
+public class AttendanceDAO {
+
+    public static final String PRESENT = "P";
+    public static final String ABSENT = "A";
+
+    /**
+     * Server time a 200-student register should stay under; slower saves are
+     * logged, and mvn -Pregister-bench verify fails when its p95 is over.
+     */
+    public static final long REGISTER_BUDGET_MS = 50;
+
+    /** Storage mode: "rows" (default) or "sessions"; see AttendanceStore. */
+    public static final String STORE_MODE =
+            System.getProperty("campussync.attendance.store", AttendanceStore.MODE_ROWS);
+
+    private static final AttendanceStore STORE = AttendanceStore.forMode(STORE_MODE);
+
+    /** listForStudent lower bound covering all live terms (MySQL's smallest DATE). */
+    public static final LocalDate ALL_TERMS = LocalDate.of(1000, 1, 1);
+
+    private final SubjectDAO subjectDAO = new SubjectDAO();
+    private final EnrollmentDAO enrollmentDAO = new EnrollmentDAO();
+    private final AttendanceSummaryDAO summaryDAO = new AttendanceSummaryDAO();
+
+    /**
+     * Saves a faculty member's full P/A register for one subject and date in a
+     * single transaction, and reports the outcome per student.
+     *
+     * Working:
+     * - The subject must be taught by facultyId (IllegalArgumentException otherwise)
+     * - The date must not fall in an archived term, i.e. before
+     *   AcademicTerm.oldestLive() (IllegalArgumentException otherwise)
+     * - Students with a missing/invalid status or not enrolled in the subject
+     *   are rejected individually (one read of the subject's enrollment); they never
+     *   reach the INSERT, so they cannot fail the batch
+     * - Everyone else is written in one statement (multi-row upsert, or one
+     *   session row in sessions mode)
+     *
+     * @param statusByStudent student_id → "P" / "A" as submitted by the grid
+     */
+    public RegisterResult saveRegister(int facultyId, int subjectId, LocalDate date,
+                                       Map<Integer, String> statusByStudent) throws SQLException {
+        long start = System.nanoTime();
+        Map<Integer, String> submitted = new TreeMap<>(statusByStudent);
+
+        List<RegisterResult.Line> lines = TransactionManager.execute(RetryPolicy.DEFAULT, conn -> {
+            if (!subjectDAO.isTaughtBy(conn, subjectId, facultyId)) {
+                throw new IllegalArgumentException("Subject " + subjectId + " is not assigned to you");
+            }
+            Set<Integer> enrolled = enrollmentDAO.findEnrolled(conn, subjectId, submitted.keySet());
+
+            List<RegisterResult.Line> result = new ArrayList<>(submitted.size());
+            Map<Integer, String> accepted = new TreeMap<>();
+            for (Map.Entry<Integer, String> e : submitted.entrySet()) {
+                int studentId = e.getKey();
+                String status = e.getValue();
+                if (!PRESENT.equals(status) && !ABSENT.equals(status)) {
+                    result.add(new RegisterResult.Line(studentId, status, false, "Choose present or absent"));
+                } else if (!enrolled.contains(studentId)) {
+                    result.add(new RegisterResult.Line(studentId, status, false, "Not enrolled in this subject"));
+                } else {
+                    accepted.put(studentId, status);
+                    result.add(new RegisterResult.Line(studentId, status, true, null));
+                }
+            }
+
+            writeBatch(conn, subjectId, date, accepted);
+            return result;
+        });
+
+        RegisterResult result = new RegisterResult(subjectId, date, lines,
+                (System.nanoTime() - start) / 1_000_000);
+        if (result.getElapsedMs() > REGISTER_BUDGET_MS) {
+            Logger.warn("Slow attendance register: " + result);
+        } else {
+            Logger.info("Attendance register saved: " + result);
+        }
+        return result;
+    }
+
+    /**
+     * Saved statuses of one class: student_id → "P" / "A".
+     */
+    public Map<Integer, String> findRegister(int subjectId, LocalDate date) throws SQLException {
+        return STORE.findRegister(subjectId, date);
+    }
+
+    /**
+     * A student's attendance in the current academic term, most recent class
+     * first (reads only the current term's partition).
+     *
+     * @return unmodifiable List<AttendanceEntry>, fully loaded
+     */
+    public List<AttendanceEntry> listForStudent(int studentId) throws SQLException {
+        return STORE.listForStudent(studentId, AcademicTerm.current().getStart());
+    }
+
+    /**
+     * A student's attendance since a date; ALL_TERMS for every term still in
+     * the live table (archived terms are not included).
+     */
+    public List<AttendanceEntry> listForStudent(int studentId, LocalDate from) throws SQLException {
+        return STORE.listForStudent(studentId, from);
+    }
+
+    /**
+     * Recomputes attendance_summary from the stored marks (batch job).
+     *
+     * @return students (rows mode) or subjects (sessions mode) processed
+     */
+    public int rebuildSummary(int chunkSize) throws SQLException {
+        return STORE.rebuildSummary(chunkSize);
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers (run on the transaction's connection)
+    // ---------------------------------------------------------------------
+
+    private void writeBatch(Connection conn, int subjectId, LocalDate date, Map<Integer, String> register)
+            throws SQLException {
+        if (register.isEmpty()) return;
+
+        Map<Integer, String> saved = STORE.lockRegister(conn, subjectId, date);
+
+        // Checked after the FOR UPDATE read: from here to commit this transaction
+        // holds attendance's metadata lock, so an archive of the term (EXCHANGE
+        // PARTITION) waits for these rows; a save arriving after the term closed
+        // is refused instead of landing in the next partition
+        LocalDate oldestWritable = AcademicTerm.oldestLive().getStart();
+        if (date.isBefore(oldestWritable)) {
+            throw new IllegalArgumentException("Attendance before " + oldestWritable
+                    + " belongs to an archived term and can no longer be changed");
+        }
+        STORE.writeRegister(conn, subjectId, date, saved, register);
+        summaryDAO.applyChanges(conn, subjectId, saved, register);
+    }
+}
@@ -0,0 +1,195 @@
+package com.campussync.dao;
+
+import com.campussync.util.AcademicTerm;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * AttendancePartitionDAO
+ *
+ * Partition maintenance of the attendance table (range-partitioned on
+ * att_date by migration V10): one partition per academic term, named after
+ * the term's first day (p20260701 holds dates before the next term start),
+ * plus p_future (MAXVALUE) that is split as terms are added.
+ *
+ * Responsibilities:
+ * - List the partitions with their upper bounds (information_schema)
+ * - Add term partitions by splitting p_future
+ * - Archive a closed term: exchange its partition into a staging table, copy
+ *   that into attendance_archive, drop the emptied partition
+ *
+ * Working:
+ * - Every method runs on the caller's connection; AttendancePartitionJob
+ *   holds a named lock on it so only one server maintains partitions
+ * - DDL commits implicitly; archive() commits the archive copy before any
+ *   DROP and keeps the staging table until then, so an interrupted archive
+ *   can simply run again
+ */
+public class AttendancePartitionDAO {
+
+    public static final String FUTURE_PARTITION = "p_future";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd");
+    private static final Pattern TERM_PARTITION = Pattern.compile("p\\d{8}");
+
+    private static final String SQL_PARTITIONS =
+            "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'attendance' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private static final String SQL_EARLIEST = "SELECT MIN(att_date) FROM attendance";
+
+    /** Unpartitioned copy of attendance's structure that a partition is exchanged into. */
+    static final String STAGING_TABLE = "attendance_archive_staging";
+
+    private static final String SQL_STAGING_EXISTS =
+            "SELECT 1 FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+    /**
+     * One partition of attendance.
+     */
+    public static final class Partition {
+        private final String name;
+        private final LocalDate upperBound;     // exclusive; null for MAXVALUE
+        private final long estimatedRows;       // information_schema estimate
+
+        Partition(String name, LocalDate upperBound, long estimatedRows) {
+            this.name = name;
+            this.upperBound = upperBound;
+            this.estimatedRows = estimatedRows;
+        }
+
+        public String getName() { return name; }
+        public LocalDate getUpperBound() { return upperBound; }
+        public long getEstimatedRows() { return estimatedRows; }
+
+        @Override
+        public String toString() {
+            return name + " < " + (upperBound == null ? "MAXVALUE" : upperBound.toString());
+        }
+    }
+
+    /**
+     * Partitions in bound order; empty if attendance is not partitioned
+     * (migration V10 not applied).
+     */
+    public List<Partition> listPartitions(Connection conn) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(SQL_PARTITIONS);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String bound = rs.getString("PARTITION_DESCRIPTION");
+                partitions.add(new Partition(rs.getString("PARTITION_NAME"),
+                        "MAXVALUE".equals(bound) ? null : LocalDate.parse(bound.replace("'", "")),
+                        rs.getLong("TABLE_ROWS")));
+            }
+        }
+        return partitions;
+    }
+
+    /** Oldest att_date in attendance, or null if it is empty. */
+    public LocalDate findEarliestDate(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_EARLIEST);
+             ResultSet rs = ps.executeQuery()) {
+            Date date = rs.next() ? rs.getDate(1) : null;
+            return date == null ? null : date.toLocalDate();
+        }
+    }
+
+    /**
+     * Adds one partition per term, in order, by splitting p_future (one
+     * REORGANIZE; cheap while p_future holds no rows).
+     */
+    public void addTermPartitions(Connection conn, List<AcademicTerm> terms) throws SQLException {
+        if (terms.isEmpty()) return;
+
+        StringBuilder ddl = new StringBuilder("ALTER TABLE attendance REORGANIZE PARTITION ")
+                .append(FUTURE_PARTITION).append(" INTO (");
+        for (AcademicTerm term : terms) {
+            // Values come from LocalDate, never from user input
+            ddl.append("PARTITION ").append(partitionName(term))
+               .append(" VALUES LESS THAN ('").append(term.getEnd()).append("'), ");
+        }
+        ddl.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE))");
+
+        try (Statement st = conn.createStatement()) {
+            st.execute(ddl.toString());
+        }
+    }
+
+    /**
+     * Moves a closed term's rows into attendance_archive and drops its partition.
+     *
+     * Working:
+     * - The partition is swapped with the empty STAGING_TABLE in one
+     *   EXCHANGE PARTITION (metadata lock: waits for open register saves, then
+     *   takes every row at once), so no write can slip in between a copy and
+     *   the drop
+     * - The staged rows are copied into attendance_archive and committed;
+     *   only then are the (now empty) partition and the staging table dropped
+     * - Rerun-safe: a staging table left by an interrupted run is copied into
+     *   the archive first (INSERT IGNORE on attendance_id), never discarded
+     * - If rows reach the partition after the swap (written around
+     *   AttendanceDAO), the drop is skipped with IllegalStateException and
+     *   the next run archives them
+     *
+     * @return number of rows copied (already archived rows are skipped)
+     * @throws IllegalArgumentException if the partition is not a term partition
+     */
+    public int archive(Connection conn, Partition partition) throws SQLException {
+        if (!TERM_PARTITION.matcher(partition.getName()).matches()) {
+            throw new IllegalArgumentException("Not a term partition: " + partition.getName());
+        }
+
+        try (Statement st = conn.createStatement()) {
+            if (stagingExists(conn)) {
+                copyStaging(conn, st);
+                st.execute("TRUNCATE TABLE " + STAGING_TABLE);
+            } else {
+                st.execute("CREATE TABLE " + STAGING_TABLE + " LIKE attendance");
+                st.execute("ALTER TABLE " + STAGING_TABLE + " REMOVE PARTITIONING");
+            }
+
+            st.execute("ALTER TABLE attendance EXCHANGE PARTITION " + partition.getName()
+                    + " WITH TABLE " + STAGING_TABLE);
+            int copied = copyStaging(conn, st);
+
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT 1 FROM attendance PARTITION (" + partition.getName() + ") LIMIT 1")) {
+                if (rs.next()) {
+                    throw new IllegalStateException("Rows were written to " + partition.getName()
+                            + " while it was archived; partition kept for the next run");
+                }
+            }
+            st.execute("ALTER TABLE attendance DROP PARTITION " + partition.getName());
+            st.execute("DROP TABLE " + STAGING_TABLE);
+            return copied;
+        }
+    }
+
+    /** Copies the staging table into attendance_archive and commits. */
+    private static int copyStaging(Connection conn, Statement st) throws SQLException {
+        int copied = st.executeUpdate(
+                "INSERT IGNORE INTO attendance_archive(attendance_id, student_id, subject_id, att_date, status) " +
+                "SELECT attendance_id, student_id, subject_id, att_date, status FROM " + STAGING_TABLE);
+        if (!conn.getAutoCommit()) conn.commit();
+        return copied;
+    }
+
+    private static boolean stagingExists(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_STAGING_EXISTS)) {
+            ps.setString(1, STAGING_TABLE);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    public static String partitionName(AcademicTerm term) {
+        return term.getStart().format(PARTITION_NAME);
+    }
+}
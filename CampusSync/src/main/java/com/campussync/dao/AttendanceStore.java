@@ -0,0 +1,69 @@
+package com.campussync.dao;
+
+import com.campussync.model.AttendanceEntry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AttendanceStore
+ *
+ * Physical storage of attendance marks behind AttendanceDAO. AttendanceDAO
+ * keeps validation, transactions and the attendance_summary projection; a
+ * store only reads and writes the marks.
+ *
+ * Implementations:
+ * - RowAttendanceStore ("rows", default): one attendance row per student,
+ *   subject and date
+ * - SessionAttendanceStore ("sessions"): one attendance_session row per
+ *   subject and date with RoaringBitmap sets of marked / present students
+ *
+ * Selected with -Dcampussync.attendance.store=rows|sessions. Both stores see
+ * the same P/A semantics, so the mode can change after the data has been
+ * copied (job.PackAttendanceSessions).
+ */
+public interface AttendanceStore {
+
+    String MODE_ROWS = "rows";
+    String MODE_SESSIONS = "sessions";
+
+    /** The store for a mode name. */
+    static AttendanceStore forMode(String mode) {
+        if (MODE_ROWS.equals(mode)) return new RowAttendanceStore();
+        if (MODE_SESSIONS.equals(mode)) return new SessionAttendanceStore();
+        throw new IllegalArgumentException("Unknown attendance store '" + mode + "' (expected "
+                + MODE_ROWS + " or " + MODE_SESSIONS + ")");
+    }
+
+    String getMode();
+
+    /**
+     * Saved statuses of one class (student_id → "P" / "A"), locked until the
+     * caller's transaction ends, so concurrent saves of the same class queue.
+     */
+    Map<Integer, String> lockRegister(Connection conn, int subjectId, LocalDate date) throws SQLException;
+
+    /**
+     * Writes a register on the caller's transaction.
+     *
+     * @param saved    what lockRegister returned in this transaction
+     * @param register student_id → "P" / "A", in student_id order, already validated
+     */
+    void writeRegister(Connection conn, int subjectId, LocalDate date, Map<Integer, String> saved,
+                       Map<Integer, String> register) throws SQLException;
+
+    /** Saved statuses of one class, from a read connection. */
+    Map<Integer, String> findRegister(int subjectId, LocalDate date) throws SQLException;
+
+    /** A student's attendance since a date (inclusive), most recent class first. */
+    List<AttendanceEntry> listForStudent(int studentId, LocalDate from) throws SQLException;
+
+    /**
+     * Recomputes attendance_summary from this store's marks.
+     *
+     * @return number of students (rows) or subjects (sessions) processed
+     */
+    int rebuildSummary(int chunkSize) throws SQLException;
+}
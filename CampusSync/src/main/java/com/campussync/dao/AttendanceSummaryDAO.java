@@ -0,0 +1,196 @@
+package com.campussync.dao;
+
+import com.campussync.model.AttendanceSummary;
+import com.campussync.util.DBConnection;
+import com.campussync.util.HotQuery;
+import com.campussync.util.Logger;
+import com.campussync.util.QueryStream;
+import com.campussync.util.RetryPolicy;
+import com.campussync.util.TransactionManager;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AttendanceSummaryDAO
+ *
+ * Owner of attendance_summary: one row per (student, subject) with the
+ * number of classes attended (present) and held (total), so attendance
+ * percentages are point reads instead of aggregates over years of history.
+ *
+ * Responsibilities:
+ * - Apply the effect of an attendance write to the summary, in the writer's
+ *   transaction (AttendanceDAO)
+ * - Load a student's per-subject percentages (one primary key range read)
+ * - Rebuild the projection from attendance (batch job, after bulk loads or
+ *   if it ever drifts)
+ *
+ * Working:
+ * - Writers pass the statuses before and after the write; only the
+ *   difference is applied: a new row adds 1 to total (and to present if P),
+ *   a P→A / A→P correction moves present by one, an unchanged status is skipped
+ * - Lock order is always attendance rows first, then summary rows in
+ *   student_id order (writers and rebuild alike)
+ */
+public class AttendanceSummaryDAO {
+
+    /** Students per rebuild transaction. */
+    public static final int DEFAULT_REBUILD_CHUNK = 500;
+
+    // VALUES() rather than the 8.0.19+ row alias, to keep MySQL 5.7 working
+    private static final String SQL_APPLY =
+            "INSERT INTO attendance_summary(student_id, subject_id, present, total) VALUES(?,?,?,?) " +
+            "ON DUPLICATE KEY UPDATE present = present + VALUES(present), total = total + VALUES(total)";
+
+    // Primary key (student_id, subject_id): O(subjects) rows
+    @HotQuery(params = "${student}", maxRows = 100)
+    private static final String SQL_STUDENT =
+            "SELECT sm.subject_id, s.subject_name, sm.present, sm.total " +
+            "FROM attendance_summary sm " +
+            "JOIN subject s ON s.subject_id = sm.subject_id " +
+            "WHERE sm.student_id=? " +
+            "ORDER BY s.subject_name";
+
+    private static final String SQL_CHUNK =
+            "SELECT student_id FROM student WHERE student_id > ? ORDER BY student_id LIMIT ?";
+
+    // Reads attendance and its archived terms (student_id indexes) before touching the summary
+    private static final String SQL_REBUILD =
+            "INSERT INTO attendance_summary(student_id, subject_id, present, total) " +
+            "SELECT student_id, subject_id, SUM(status = 'P'), COUNT(*) FROM (" +
+            "SELECT student_id, subject_id, status FROM attendance WHERE student_id BETWEEN ? AND ? " +
+            "UNION ALL " +
+            "SELECT student_id, subject_id, status FROM attendance_archive WHERE student_id BETWEEN ? AND ?" +
+            ") a GROUP BY student_id, subject_id " +
+            "ON DUPLICATE KEY UPDATE present = VALUES(present), total = VALUES(total)";
+
+    private static final String SQL_REBUILD_STALE =
+            "DELETE FROM attendance_summary WHERE student_id BETWEEN ? AND ? " +
+            "AND NOT EXISTS (SELECT 1 FROM attendance a " +
+            "WHERE a.student_id = attendance_summary.student_id AND a.subject_id = attendance_summary.subject_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM attendance_archive r " +
+            "WHERE r.student_id = attendance_summary.student_id AND r.subject_id = attendance_summary.subject_id)";
+
+    // ---------------------------------------------------------------------
+    // Incremental maintenance (caller's transaction)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Applies one register write of a subject to the summary.
+     *
+     * @param before student_id → status stored before the write (absent = no row yet)
+     * @param after  student_id → status written, iterated in student_id order
+     */
+    public void applyChanges(Connection conn, int subjectId, Map<Integer, String> before,
+                             Map<Integer, String> after) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_APPLY)) {
+            int batched = 0;
+            for (Map.Entry<Integer, String> e : after.entrySet()) {
+                String old = before.get(e.getKey());
+                boolean present = AttendanceDAO.PRESENT.equals(e.getValue());
+                int presentDelta;
+                int totalDelta;
+
+                if (old == null) {
+                    presentDelta = present ? 1 : 0;
+                    totalDelta = 1;
+                } else if (old.equals(e.getValue())) {
+                    continue;                           // re-submitted, nothing changed
+                } else {
+                    presentDelta = present ? 1 : -1;
+                    totalDelta = 0;
+                }
+
+                ps.setInt(1, e.getKey());
+                ps.setInt(2, subjectId);
+                ps.setInt(3, presentDelta);
+                ps.setInt(4, totalDelta);
+                ps.addBatch();
+                batched++;
+            }
+            if (batched > 0) ps.executeBatch();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Reads
+    // ---------------------------------------------------------------------
+
+    /**
+     * A student's attendance per subject, ordered by subject name.
+     *
+     * @return unmodifiable List<AttendanceSummary>
+     */
+    public List<AttendanceSummary> listForStudent(int studentId) throws SQLException {
+        List<AttendanceSummary> list = new ArrayList<>();
+        QueryStream.forEach(SQL_STUDENT, ps -> ps.setInt(1, studentId),
+                rs -> new AttendanceSummary(rs.getInt("subject_id"), rs.getString("subject_name"),
+                        rs.getInt("present"), rs.getInt("total")),
+                list::add);
+        return Collections.unmodifiableList(list);
+    }
+
+    // ---------------------------------------------------------------------
+    // Rebuild (batch job)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Recomputes the whole projection from attendance (live and archived
+     * terms), chunkSize students per transaction, so no transaction locks more
+     * than one chunk of history and attendance can keep being written meanwhile.
+     *
+     * @return number of students processed
+     */
+    public int rebuild(int chunkSize) throws SQLException {
+        long start = System.nanoTime();
+        int students = 0;
+        int lastId = 0;
+
+        while (true) {
+            List<Integer> chunk = nextChunk(lastId, chunkSize);
+            if (chunk.isEmpty()) break;
+            int from = chunk.get(0);
+            int to = chunk.get(chunk.size() - 1);
+
+            TransactionManager.execute(RetryPolicy.DEFAULT, conn -> {
+                DBConnection.markLongRunning(conn);
+                rebuildRange(conn, from, to);
+                return null;
+            });
+
+            students += chunk.size();
+            lastId = to;
+            Logger.debug("Attendance summary rebuilt up to student " + to + " (" + students + " students)");
+        }
+
+        Logger.info("Attendance summary rebuilt for " + students + " students in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return students;
+    }
+
+    private static List<Integer> nextChunk(int afterId, int size) throws SQLException {
+        List<Integer> ids = new ArrayList<>(size);
+        QueryStream.forEach(SQL_CHUNK, ps -> {
+            ps.setInt(1, afterId);
+            ps.setInt(2, size);
+        }, rs -> rs.getInt(1), ids::add);
+        return ids;
+    }
+
+    private static void rebuildRange(Connection conn, int from, int to) throws SQLException {
+        try (PreparedStatement upsert = conn.prepareStatement(SQL_REBUILD);
+             PreparedStatement stale = conn.prepareStatement(SQL_REBUILD_STALE)) {
+            upsert.setInt(1, from);
+            upsert.setInt(2, to);
+            upsert.setInt(3, from);
+            upsert.setInt(4, to);
+            upsert.executeUpdate();
+
+            stale.setInt(1, from);
+            stale.setInt(2, to);
+            stale.executeUpdate();
+        }
+    }
+}
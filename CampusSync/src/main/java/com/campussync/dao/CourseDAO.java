@@ -4,6 +4,7 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import com.campussync.model.Course;
+import com.campussync.util.BeanRowMapper;
 import com.campussync.util.DBConnection;
 
 /**
@@ -27,7 +28,9 @@ public class CourseDAO {
      * 
      * @return ResultSet with course_id and course_name columns
      * @throws SQLException If database operation fails
+     * @deprecated Never closes its connection; use getAllCourses()
      */
+    @Deprecated
     public ResultSet getAllCoursesResultSet() throws SQLException {
         Connection con = DBConnection.getConnection();
         String sql = "SELECT course_id, course_name FROM course ORDER BY course_name";
@@ -67,16 +70,11 @@ public class CourseDAO {
         List<Course> list = new ArrayList<>();
         String sql = "SELECT course_id, course_name FROM course ORDER BY course_name";
 
-        try (Connection con = DBConnection.getConnection();
+        try (Connection con = DBConnection.getReadConnection();   // read-only listing → replica when healthy
              PreparedStatement ps = con.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Course c = new Course();
-                c.setCourseId(rs.getInt("course_id"));
-                c.setCourseName(rs.getString("course_name"));
-                list.add(c);
-            }
+            list = BeanRowMapper.of(Course.class).mapAll(rs);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -0,0 +1,218 @@
+package com.campussync.dao;
+
+import com.campussync.model.RosterEntry;
+import com.campussync.util.DBConnection;
+import com.campussync.util.HotQuery;
+import com.campussync.util.RetryPolicy;
+import com.campussync.util.TransactionManager;
+import com.campussync.util.TtlCache;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * EnrollmentDAO
+ *
+ * Links students to the subjects they take (enrollment table), so faculty
+ * screens load the class roster instead of the whole student body.
+ *
+ * Responsibilities:
+ * - Roster of a subject (attendance register, gradebook), cached per subject
+ * - Enroll / unenroll students, or the whole course of a subject at once
+ * - Check which submitted students are enrolled (register / gradebook saves)
+ *
+ * Working:
+ * - enrollment's primary key is (subject_id, student_id): a roster is one
+ *   range scan of the clustered index; idx_enrollment_student covers the
+ *   "subjects of a student" direction and the student foreign key
+ * - Rosters are cached for ROSTER_TTL_MS (ROSTERS); every write here
+ *   invalidates the subject's entry after it commits. Cache misses load from
+ *   the primary: a replica lagging behind the invalidating write would put
+ *   the old roster back for the whole TTL
+ * - Enrolling is INSERT IGNORE: enrolling someone twice is a no-op
+ */
+public class EnrollmentDAO {
+
+    /** How long another app server may show a roster after it changed. */
+    public static final long ROSTER_TTL_MS = 5 * 60 * 1000;
+
+    // subject_id → roster ordered by name; shared by all requests of this JVM
+    private static final TtlCache<Integer, List<RosterEntry>> ROSTERS =
+            new TtlCache<>("roster", ROSTER_TTL_MS, 2_000);
+
+    @HotQuery(params = "${subject}", maxRows = 1_000)
+    private static final String SQL_ROSTER =
+            "SELECT st.student_id, st.name " +
+            "FROM enrollment e " +
+            "JOIN student st ON st.student_id = e.student_id " +
+            "WHERE e.subject_id=? " +
+            "ORDER BY st.name, st.student_id";
+
+    // Primary key range: the subject's student ids, one fixed statement for
+    // any number of submitted students (StatementCache reuses it)
+    private static final String SQL_ENROLLED_IDS =
+            "SELECT student_id FROM enrollment WHERE subject_id=?";
+
+    private static final String SQL_ENROLL =
+            "INSERT IGNORE INTO enrollment(subject_id, student_id) VALUES(?,?)";
+
+    private static final String SQL_UNENROLL =
+            "DELETE FROM enrollment WHERE subject_id=? AND student_id=?";
+
+    // Students whose course (by name) is the subject's course
+    private static final String SQL_ENROLL_COURSE =
+            "INSERT IGNORE INTO enrollment(subject_id, student_id) " +
+            "SELECT s.subject_id, st.student_id " +
+            "FROM subject s " +
+            "JOIN course c ON c.course_id = s.course_id " +
+            "JOIN student st ON st.course = c.course_name " +
+            "WHERE s.subject_id=?";
+
+    // ---------------------------------------------------------------------
+    // Roster
+    // ---------------------------------------------------------------------
+
+    /**
+     * Students enrolled in the subject, ordered by name (cached, loaded from
+     * the primary).
+     *
+     * @return unmodifiable List<RosterEntry>
+     */
+    public List<RosterEntry> roster(int subjectId) throws SQLException {
+        return ROSTERS.get(subjectId, () -> {
+            List<RosterEntry> list = new ArrayList<>();
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(SQL_ROSTER)) {
+                ps.setInt(1, subjectId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        list.add(new RosterEntry(rs.getInt("student_id"), rs.getString("name")));
+                    }
+                }
+            }
+            return Collections.unmodifiableList(list);
+        });
+    }
+
+    /**
+     * Which of the given students are enrolled in the subject, on the
+     * caller's (transaction) connection. Not cached: decides a write.
+     *
+     * Reads the subject's enrolled ids (one primary key range, at most a
+     * class) and intersects them with the submitted set, so the SQL text is
+     * the same whatever the number of submitted students.
+     */
+    public Set<Integer> findEnrolled(Connection conn, int subjectId, Collection<Integer> studentIds)
+            throws SQLException {
+        Set<Integer> enrolled = new HashSet<>();
+        if (studentIds.isEmpty()) return enrolled;
+
+        Set<Integer> submitted = new HashSet<>(studentIds);
+        try (PreparedStatement ps = conn.prepareStatement(SQL_ENROLLED_IDS)) {
+            ps.setInt(1, subjectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    if (submitted.contains(id)) enrolled.add(id);
+                }
+            }
+        }
+        return enrolled;
+    }
+
+    // ---------------------------------------------------------------------
+    // Writes (each invalidates the subject's cached roster after commit)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Enrolls the students in the subject; already enrolled students are skipped.
+     *
+     * The rewritten INSERT IGNORE batch reports SUCCESS_NO_INFO per row, so
+     * the new enrollments are counted by reading the submitted students'
+     * enrollments before and after it in the same transaction: the second
+     * read sees the first one's snapshot plus this transaction's own inserts,
+     * never rows another request committed (and IGNORE skipped) meanwhile.
+     *
+     * @return number of new enrollments
+     */
+    public int enroll(int subjectId, Collection<Integer> studentIds) throws SQLException {
+        if (studentIds.isEmpty()) return 0;
+
+        int added = TransactionManager.execute(RetryPolicy.DEFAULT, conn -> {
+            // Unknown IDs would fail the whole batch on the foreign key
+            Set<Integer> known = new StudentDAO().findExistingIds(conn, new TreeSet<>(studentIds));
+            Set<Integer> enrolled = findEnrolled(conn, subjectId, known);
+            Set<Integer> missing = new TreeSet<>(known);
+            missing.removeAll(enrolled);
+
+            writeBatch(conn, SQL_ENROLL, subjectId, missing);
+            return findEnrolled(conn, subjectId, known).size() - enrolled.size();
+        });
+        ROSTERS.invalidate(subjectId);
+        return added;
+    }
+
+    /**
+     * Removes the students from the subject.
+     *
+     * @return number of enrollments removed
+     */
+    public int unenroll(int subjectId, Collection<Integer> studentIds) throws SQLException {
+        if (studentIds.isEmpty()) return 0;
+
+        int removed = TransactionManager.execute(RetryPolicy.DEFAULT,
+                conn -> writeBatch(conn, SQL_UNENROLL, subjectId, new TreeSet<>(studentIds)));
+        ROSTERS.invalidate(subjectId);
+        return removed;
+    }
+
+    /**
+     * Enrolls every student of the subject's course (student.course = course name).
+     *
+     * @return number of new enrollments
+     */
+    public int enrollCourse(int subjectId) throws SQLException {
+        int added;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_ENROLL_COURSE)) {
+            ps.setInt(1, subjectId);
+            added = ps.executeUpdate();
+        }
+        ROSTERS.invalidate(subjectId);
+        return added;
+    }
+
+    /** Roster cache, for HealthServlet. */
+    public static TtlCache<Integer, List<RosterEntry>> getRosterCache() {
+        return ROSTERS;
+    }
+
+    /**
+     * Counts rows that changed. Exact for DELETE; a rewritten INSERT batch
+     * reports SUCCESS_NO_INFO (counted as one each), so enroll() counts its
+     * new rows itself.
+     */
+    private static int writeBatch(Connection conn, String sql, int subjectId, Collection<Integer> studentIds)
+            throws SQLException {
+        if (studentIds.isEmpty()) return 0;
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int studentId : studentIds) {
+                ps.setInt(1, subjectId);
+                ps.setInt(2, studentId);
+                ps.addBatch();
+            }
+            int changed = 0;
+            for (int count : ps.executeBatch()) {
+                if (count > 0) changed += count;
+                else if (count == Statement.SUCCESS_NO_INFO) changed++;
+            }
+            return changed;
+        }
+    }
+}
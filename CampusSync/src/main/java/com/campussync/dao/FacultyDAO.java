@@ -1,10 +1,16 @@
 package com.campussync.dao;
 
 import com.campussync.model.Faculty;
+import com.campussync.util.BatchInsert;
+import com.campussync.util.BatchResult;
+import com.campussync.util.BeanRowMapper;
 import com.campussync.util.DBConnection;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * FacultyDAO (Data Access Object)
@@ -19,6 +25,73 @@ import java.util.List;
  */
 public class FacultyDAO {
 
+    private static final String SQL_INSERT =
+            "INSERT INTO faculty(name, email, password, department) VALUES(?,?,?,?)";
+
+    /**
+     * Inserts many faculty members at once (e.g. a whole department).
+     *
+     * @param faculty Faculty objects with name, email, password and department;
+     *                their facultyId is filled in
+     * @return BatchResult with the inserted count and one Failure per rejected row
+     * @throws SQLException only if the database is unreachable
+     *
+     * Working:
+     * - Same chunked, one-transaction-per-chunk BatchInsert as
+     *   StudentDAO.createStudents()
+     * - Rows missing name/email/password or repeating an email are rejected
+     *   up front; rows MySQL rejects are reported without stopping the rest
+     */
+    public BatchResult<Faculty> createFaculty(List<Faculty> faculty) throws SQLException {
+        return new BatchInsert<Faculty>(SQL_INSERT, (ps, f) -> {
+            ps.setString(1, f.getName());
+            ps.setString(2, f.getEmail());
+            ps.setString(3, f.getPassword());
+            ps.setString(4, f.getDepartment());
+        }, Faculty::setFacultyId)
+                .validate(FacultyDAO::checkRequired)
+                .uniqueBy("email", f -> f.getEmail().trim().toLowerCase())
+                .insert(faculty);
+    }
+
+    /**
+     * Returns which of the given emails already belong to a faculty member, in one
+     * query against the unique email index (bulk import duplicate check).
+     *
+     * @param emails up to a few hundred addresses (one import chunk)
+     * @return the subset that exists, lower-cased
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        if (emails.isEmpty()) return existing;
+
+        StringBuilder sql = new StringBuilder("SELECT email FROM faculty WHERE email IN (");
+        for (int i = 0; i < emails.size(); i++) sql.append(i == 0 ? "?" : ",?");
+        sql.append(')');
+
+        // Primary, not replica: a row committed a moment ago must count as a duplicate
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            int i = 1;
+            for (String email : emails) ps.setString(i++, email);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1).toLowerCase());
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static String checkRequired(Faculty f) {
+        if (f.getName() == null || f.getName().trim().isEmpty()) return "Name is required";
+        if (f.getEmail() == null || f.getEmail().trim().isEmpty()) return "Email is required";
+        if (f.getPassword() == null || f.getPassword().isEmpty()) return "Password is required";
+        return null;
+    }
+
     /**
      * Retrieves all faculty members as a ResultSet.
      * 
@@ -31,7 +104,10 @@ public class FacultyDAO {
      * 
      * NOTE: Caller must close ResultSet and Connection after use
      * CAUTION: Connection is NOT closed here - caller's responsibility
+     * @deprecated Callers cannot reach the connection to close it; use
+     *             getAllFaculty() or AdminDAO.streamFaculty()
      */
+    @Deprecated
     public ResultSet getAllFacultyResultSet() throws SQLException {
         Connection con = DBConnection.getConnection();
         String sql = "SELECT faculty_id, name FROM faculty ORDER BY name";  // Sort alphabetically
@@ -53,7 +129,7 @@ public class FacultyDAO {
      * Working:
      * 1. Create empty ArrayList to store Faculty objects
      * 2. Execute SELECT query on faculty table
-     * 3. Loop through ResultSet rows
+     * 3. BeanRowMapper resolves column indexes once for the ResultSet
      * 4. For each row: create Faculty object, populate fields, add to list
      * 5. All resources (Connection, PreparedStatement, ResultSet) auto-closed
      * 6. Return populated list
@@ -62,16 +138,11 @@ public class FacultyDAO {
         List<Faculty> list = new ArrayList<>();  // Initialize empty list to hold Faculty objects
         String sql = "SELECT faculty_id, name FROM faculty ORDER BY name";  // Query all faculty sorted by name
 
-        try (Connection con = DBConnection.getConnection();                 // Get DB connection
+        try (Connection con = DBConnection.getReadConnection();             // Read-only → replica when healthy
              PreparedStatement ps = con.prepareStatement(sql);              // Prepare SQL statement
              ResultSet rs = ps.executeQuery()) {                            // Execute query and get results
 
-            while (rs.next()) {                          // Iterate through each row in ResultSet
-                Faculty f = new Faculty();               // Create new Faculty object
-                f.setFacultyId(rs.getInt("faculty_id")); // Set ID from current row
-                f.setName(rs.getString("name"));         // Set name from current row
-                list.add(f);                             // Add completed object to list
-            }
+            list = BeanRowMapper.of(Faculty.class).mapAll(rs);  // One Faculty per row, columns → setters
 
         } catch (Exception e) {
             e.printStackTrace();  // Print error for debugging (could use logging in production)
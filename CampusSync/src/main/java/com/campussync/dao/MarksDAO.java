@@ -0,0 +1,217 @@
+package com.campussync.dao;
+
+import com.campussync.model.Gradebook;
+import com.campussync.model.MarkEntry;
+import com.campussync.util.DBConnection;
+import com.campussync.util.HotQuery;
+import com.campussync.util.QueryStream;
+import com.campussync.util.RetryPolicy;
+import com.campussync.util.TransactionManager;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * MarksDAO
+ *
+ * Single owner of the marks table (previously an inline INSERT in
+ * FacultyServlet enterMarks and a query in StudentDAO).
+ *
+ * Responsibilities:
+ * - Save a whole class's marks for one assessment in one batch (gradebook);
+ *   the only write path, so every grade passes the subject ownership and
+ *   enrollment checks
+ * - Load a subject's gradebook with a single query
+ * - List a student's marks
+ *
+ * Working:
+ * - marks has a unique key (student_id, subject_id, assessment), so a student
+ *   has at most one grade per subject and assessment
+ * - Every write is an upsert (INSERT ... ON DUPLICATE KEY UPDATE marks):
+ *   re-entering a grade corrects it instead of adding a duplicate row
+ * - Gradebook saves are one batch in one transaction, in student_id order
+ *   (consistent lock order, one multi-row statement with
+ *   rewriteBatchedStatements=true)
+ */
+public class MarksDAO {
+
+    /** Assessment used when a form does not name one (rows created before assessments existed). */
+    public static final String DEFAULT_ASSESSMENT = "Final";
+
+    public static final int MIN_MARKS = 0;
+    public static final int MAX_MARKS = 100;
+    public static final int MAX_ASSESSMENT_LENGTH = 50;
+
+    // VALUES(marks) rather than the 8.0.19+ row alias, to keep MySQL 5.7 working
+    private static final String SQL_UPSERT =
+            "INSERT INTO marks(student_id, subject_id, assessment, marks) VALUES(?,?,?,?) " +
+            "ON DUPLICATE KEY UPDATE marks = VALUES(marks)";
+
+    // Roster LEFT JOIN marks: every enrolled student appears, graded or not.
+    // The roster is a range scan of enrollment's (subject_id, student_id) key,
+    // the marks join uses the (student_id, subject_id, assessment) unique key
+    @HotQuery(params = "${subject}", maxRows = 5_000)
+    private static final String SQL_GRADEBOOK =
+            "SELECT st.student_id, st.name, m.assessment, m.marks " +
+            "FROM enrollment e " +
+            "JOIN student st ON st.student_id = e.student_id " +
+            "LEFT JOIN marks m ON m.student_id = e.student_id AND m.subject_id = e.subject_id " +
+            "WHERE e.subject_id = ? " +
+            "ORDER BY st.name, st.student_id";
+
+    @HotQuery(params = "${student}", maxRows = 500)
+    private static final String SQL_STUDENT_MARKS =
+            "SELECT s.subject_name, m.assessment, m.marks " +
+            "FROM marks m " +
+            "JOIN subject s ON m.subject_id = s.subject_id " +
+            "WHERE m.student_id=? " +
+            "ORDER BY s.subject_name, m.assessment";
+
+    private final SubjectDAO subjectDAO = new SubjectDAO();
+    private final EnrollmentDAO enrollmentDAO = new EnrollmentDAO();
+
+    // ---------------------------------------------------------------------
+    // Writes
+    // ---------------------------------------------------------------------
+
+    /**
+     * Saves one assessment's marks for a whole class (gradebook column) in
+     * one transaction.
+     *
+     * Working:
+     * - Everything is validated before a connection is borrowed
+     * - The subject must be taught by facultyId
+     * - Students not enrolled in the subject are dropped (one read of the
+     *   subject's enrollment), which also keeps unknown IDs off the foreign key
+     *
+     * @param marksByStudent student_id → marks; students without a value are left as they are
+     * @return number of students whose marks were saved
+     * @throws IllegalArgumentException for marks out of range, a bad assessment
+     *                                  name, or a subject not taught by facultyId
+     */
+    public int saveGradebook(int facultyId, int subjectId, String assessment,
+                             Map<Integer, Integer> marksByStudent) throws SQLException {
+        String name = checkAssessment(assessment);
+        Map<Integer, Integer> column = new TreeMap<>(marksByStudent);
+        for (Map.Entry<Integer, Integer> e : column.entrySet()) {
+            checkMarks(e.getKey(), e.getValue());
+        }
+        if (column.isEmpty()) return 0;
+
+        return TransactionManager.execute(RetryPolicy.DEFAULT, conn -> {
+            if (!subjectDAO.isTaughtBy(conn, subjectId, facultyId)) {
+                throw new IllegalArgumentException("Subject " + subjectId + " is not assigned to you");
+            }
+            Set<Integer> enrolled = enrollmentDAO.findEnrolled(conn, subjectId, column.keySet());
+            Map<Integer, Integer> accepted = new TreeMap<>(column);
+            accepted.keySet().retainAll(enrolled);
+
+            writeBatch(conn, subjectId, name, accepted);
+            return accepted.size();
+        });
+    }
+
+    // ---------------------------------------------------------------------
+    // Reads
+    // ---------------------------------------------------------------------
+
+    /**
+     * Loads the gradebook of a subject: every enrolled student with their marks
+     * per assessment, from ONE query (no per-student or per-assessment lookups).
+     *
+     * @throws IllegalArgumentException if the subject is not taught by facultyId
+     *         (same rule as saveGradebook)
+     */
+    public Gradebook loadGradebook(int facultyId, int subjectId) throws SQLException {
+        Set<String> assessments = new TreeSet<>();
+        List<Gradebook.Row> rows = new ArrayList<>();
+
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_GRADEBOOK)) {
+            if (!subjectDAO.isTaughtBy(conn, subjectId, facultyId)) {
+                throw new IllegalArgumentException("Subject " + subjectId + " is not assigned to you");
+            }
+            ps.setInt(1, subjectId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                int currentId = -1;
+                String currentName = null;
+                Map<String, Integer> marks = new LinkedHashMap<>();
+
+                // Rows arrive grouped by student: fold each group into one Row
+                while (rs.next()) {
+                    int studentId = rs.getInt("student_id");
+                    if (studentId != currentId) {
+                        if (currentId != -1) rows.add(new Gradebook.Row(currentId, currentName, marks));
+                        currentId = studentId;
+                        currentName = rs.getString("name");
+                        marks.clear();
+                    }
+                    String assessment = rs.getString("assessment");
+                    if (assessment != null) {
+                        assessments.add(assessment);
+                        marks.put(assessment, rs.getInt("marks"));
+                    }
+                }
+                if (currentId != -1) rows.add(new Gradebook.Row(currentId, currentName, marks));
+            }
+        }
+        return new Gradebook(subjectId, new ArrayList<>(assessments), rows);
+    }
+
+    /**
+     * Loads all marks recorded for a student, by subject and assessment.
+     *
+     * @return unmodifiable List<MarkEntry>, fully loaded
+     */
+    public List<MarkEntry> listForStudent(int studentId) throws SQLException {
+        List<MarkEntry> list = new ArrayList<>();
+        QueryStream.forEach(SQL_STUDENT_MARKS, ps -> ps.setInt(1, studentId),
+                rs -> new MarkEntry(rs.getString("subject_name"), rs.getString("assessment"), rs.getInt("marks")),
+                list::add);
+        return Collections.unmodifiableList(list);
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private static void writeBatch(Connection conn, int subjectId, String assessment,
+                                   Map<Integer, Integer> marksByStudent) throws SQLException {
+        if (marksByStudent.isEmpty()) return;
+
+        try (PreparedStatement ps = conn.prepareStatement(SQL_UPSERT)) {
+            for (Map.Entry<Integer, Integer> e : marksByStudent.entrySet()) {
+                ps.setInt(1, e.getKey());
+                ps.setInt(2, subjectId);
+                ps.setString(3, assessment);
+                ps.setInt(4, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /** Trimmed assessment name; blank → DEFAULT_ASSESSMENT. */
+    private static String checkAssessment(String assessment) {
+        if (assessment == null || assessment.trim().isEmpty()) return DEFAULT_ASSESSMENT;
+        String name = assessment.trim();
+        if (name.length() > MAX_ASSESSMENT_LENGTH) {
+            throw new IllegalArgumentException("Assessment name is longer than " + MAX_ASSESSMENT_LENGTH + " characters");
+        }
+        return name;
+    }
+
+    private static void checkMarks(int studentId, Integer marks) {
+        if (marks == null || marks < MIN_MARKS || marks > MAX_MARKS) {
+            throw new IllegalArgumentException("Marks for student " + studentId + " must be between "
+                    + MIN_MARKS + " and " + MAX_MARKS + ": " + marks);
+        }
+    }
+}
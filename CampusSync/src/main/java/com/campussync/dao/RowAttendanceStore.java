@@ -0,0 +1,122 @@
+package com.campussync.dao;
+
+import com.campussync.model.AttendanceEntry;
+import com.campussync.util.DBConnection;
+import com.campussync.util.HotQuery;
+import com.campussync.util.QueryStream;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RowAttendanceStore
+ *
+ * Default attendance storage: one attendance row per student, subject and
+ * date (UNIQUE (student_id, subject_id, att_date)).
+ *
+ * Working:
+ * - Registers are written as one batched upsert
+ *   (INSERT ... ON DUPLICATE KEY UPDATE status), rows in student_id order
+ * - A class register is one range of idx_attendance_subject_date, a
+ *   student's history one range of idx_attendance_student_date
+ * - The table is range-partitioned by term (migration V10); every query here
+ *   bounds att_date, so MySQL only opens the partitions it needs
+ */
+public class RowAttendanceStore implements AttendanceStore {
+
+    // VALUES(status) rather than the 8.0.19+ row alias, to keep MySQL 5.7 working
+    private static final String SQL_UPSERT =
+            "INSERT INTO attendance(student_id, subject_id, att_date, status) VALUES(?,?,?,?) " +
+            "ON DUPLICATE KEY UPDATE status = VALUES(status)";
+
+    @HotQuery(params = {"${subject}", "${date}"}, maxRows = 1_000)
+    private static final String SQL_REGISTER =
+            "SELECT student_id, status FROM attendance WHERE subject_id=? AND att_date=?";
+
+    // Same index range as SQL_REGISTER; locks the class's rows for the date
+    private static final String SQL_REGISTER_FOR_UPDATE = SQL_REGISTER + " FOR UPDATE";
+
+    // Served by idx_attendance_student_date: rows come back in date order;
+    // the att_date bound prunes to the partitions of the requested terms
+    @HotQuery(params = {"${student}", "${termStart}"}, maxRows = 2_000)
+    private static final String SQL_STUDENT_HISTORY =
+            "SELECT s.subject_name, a.att_date, a.status " +
+            "FROM attendance a " +
+            "JOIN subject s ON a.subject_id = s.subject_id " +
+            "WHERE a.student_id=? AND a.att_date >= ? " +
+            "ORDER BY a.att_date DESC";
+
+    private final AttendanceSummaryDAO summaryDAO = new AttendanceSummaryDAO();
+
+    @Override
+    public String getMode() {
+        return MODE_ROWS;
+    }
+
+    @Override
+    public Map<Integer, String> lockRegister(Connection conn, int subjectId, LocalDate date) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_REGISTER_FOR_UPDATE)) {
+            return readRegister(ps, subjectId, date);
+        }
+    }
+
+    @Override
+    public void writeRegister(Connection conn, int subjectId, LocalDate date, Map<Integer, String> saved,
+                              Map<Integer, String> register) throws SQLException {
+        Date attDate = Date.valueOf(date);
+        try (PreparedStatement ps = conn.prepareStatement(SQL_UPSERT)) {
+            for (Map.Entry<Integer, String> e : register.entrySet()) {
+                ps.setInt(1, e.getKey());
+                ps.setInt(2, subjectId);
+                ps.setDate(3, attDate);
+                ps.setString(4, e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @Override
+    public Map<Integer, String> findRegister(int subjectId, LocalDate date) throws SQLException {
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_REGISTER)) {
+            return readRegister(ps, subjectId, date);
+        }
+    }
+
+    @Override
+    public List<AttendanceEntry> listForStudent(int studentId, LocalDate from) throws SQLException {
+        List<AttendanceEntry> list = new ArrayList<>();
+        QueryStream.forEach(SQL_STUDENT_HISTORY, ps -> {
+            ps.setInt(1, studentId);
+            ps.setDate(2, Date.valueOf(from));
+        }, rs -> {
+            Date date = rs.getDate("att_date");
+            return new AttendanceEntry(
+                    rs.getString("subject_name"),
+                    date == null ? null : date.toLocalDate(),
+                    rs.getString("status"));
+        }, list::add);
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public int rebuildSummary(int chunkSize) throws SQLException {
+        return summaryDAO.rebuild(chunkSize);
+    }
+
+    private static Map<Integer, String> readRegister(PreparedStatement ps, int subjectId, LocalDate date)
+            throws SQLException {
+        Map<Integer, String> register = new HashMap<>();
+        ps.setInt(1, subjectId);
+        ps.setDate(2, Date.valueOf(date));
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) register.put(rs.getInt("student_id"), rs.getString("status"));
+        }
+        return register;
+    }
+}
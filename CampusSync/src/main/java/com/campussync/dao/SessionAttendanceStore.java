@@ -0,0 +1,351 @@
+package com.campussync.dao;
+
+import com.campussync.model.AttendanceEntry;
+import com.campussync.util.DBConnection;
+import com.campussync.util.HotQuery;
+import com.campussync.util.Logger;
+import com.campussync.util.QueryStream;
+import com.campussync.util.RetryPolicy;
+import com.campussync.util.RoaringBitmap;
+import com.campussync.util.TransactionManager;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SessionAttendanceStore
+ *
+ * Compact attendance storage: one attendance_session row per class session
+ * (subject + date) instead of one attendance row per student, with the
+ * students as RoaringBitmap sets:
+ * - marked:  students with a status for the session
+ * - present: students marked P (absent = marked andNot present)
+ *
+ * Working:
+ * - Saving a register rewrites one row (read FOR UPDATE, merge the changes
+ *   with or / andNot, one upsert) instead of one row per student; a class of
+ *   60 stores about 250 bytes per session
+ * - marked_count / present_count are kept next to the bitmaps, so per-class
+ *   figures need no decoding at all
+ * - A student's history reads the sessions of the subjects in their
+ *   attendance_summary rows and tests membership straight on the stored
+ *   bytes (RoaringBitmap.contains(blob, id)): one container probed per
+ *   session, nothing deserialized
+ * - Summary rebuilds tally per subject into int counters indexed by the
+ *   students' rank in the union of the marked sets (no boxing)
+ *
+ * Limitations:
+ * - Nothing cascades from student deletes into the bitmaps; ids are never
+ *   reused (AUTO_INCREMENT), and the rebuild skips students that are gone
+ * - The registrar's attendance export and the term partition / archive job
+ *   work on the attendance table only; both refuse to run in sessions mode
+ *   rather than return partial data (ExportServlet, AttendancePartitionJob)
+ * - Packing (packFromRows) reads attendance and attendance_archive, so terms
+ *   the partition job already archived become sessions too; otherwise they
+ *   would be missing from attendance_session and the next sessions-mode
+ *   rebuildSummary would drop them from the percentages. The archive rows
+ *   stay where they are (sessions mode never reads them)
+ */
+public class SessionAttendanceStore implements AttendanceStore {
+
+    // VALUES() rather than the 8.0.19+ row alias, to keep MySQL 5.7 working
+    private static final String SQL_UPSERT =
+            "INSERT INTO attendance_session(subject_id, att_date, marked, present, marked_count, present_count) " +
+            "VALUES(?,?,?,?,?,?) " +
+            "ON DUPLICATE KEY UPDATE marked = VALUES(marked), present = VALUES(present), " +
+            "marked_count = VALUES(marked_count), present_count = VALUES(present_count)";
+
+    // Primary key (subject_id, att_date): one row
+    @HotQuery(params = {"${subject}", "${date}"}, maxRows = 1)
+    private static final String SQL_SESSION =
+            "SELECT marked, present FROM attendance_session WHERE subject_id=? AND att_date=?";
+
+    private static final String SQL_SESSION_FOR_UPDATE = SQL_SESSION + " FOR UPDATE";
+
+    // attendance_summary lists the subjects the student has marks in (primary key range),
+    // each joined to its sessions by primary key prefix
+    @HotQuery(params = {"${student}", "${termStart}"}, maxRows = 5_000)
+    private static final String SQL_STUDENT_HISTORY =
+            "SELECT s.subject_name, se.att_date, se.marked, se.present " +
+            "FROM attendance_summary sm " +
+            "JOIN attendance_session se ON se.subject_id = sm.subject_id " +
+            "JOIN subject s ON s.subject_id = sm.subject_id " +
+            "WHERE sm.student_id=? AND se.att_date >= ? " +
+            "ORDER BY se.att_date DESC";
+
+    private static final String SQL_SUBJECTS =
+            "SELECT subject_id FROM subject WHERE subject_id > ? ORDER BY subject_id LIMIT ?";
+
+    // LOCK IN SHARE MODE (not FOR SHARE) for MySQL 5.7; same lock order as writers
+    private static final String SQL_SUBJECT_SESSIONS =
+            "SELECT marked, present FROM attendance_session WHERE subject_id=? LOCK IN SHARE MODE";
+
+    private static final String SQL_SUMMARY_DELETE =
+            "DELETE FROM attendance_summary WHERE subject_id=?";
+
+    // IGNORE: skips ids of deleted students (foreign key) still set in old bitmaps
+    private static final String SQL_SUMMARY_INSERT =
+            "INSERT IGNORE INTO attendance_summary(student_id, subject_id, present, total) VALUES(?,?,?,?)";
+
+    // One subject's rows, live and archived terms (idx_attendance_subject_date,
+    // idx_attendance_archive_subject_date); no ORDER BY, packSubject groups by date itself
+    private static final String SQL_ROWS_OF_SUBJECT =
+            "SELECT att_date, student_id, status FROM attendance WHERE subject_id=? " +
+            "UNION ALL " +
+            "SELECT att_date, student_id, status FROM attendance_archive WHERE subject_id=?";
+
+    /** marked / present bitmaps of one session. */
+    private static final class Session {
+        final RoaringBitmap marked;
+        final RoaringBitmap present;
+
+        Session(RoaringBitmap marked, RoaringBitmap present) {
+            this.marked = marked;
+            this.present = present;
+        }
+
+        Session() {
+            this(new RoaringBitmap(), new RoaringBitmap());
+        }
+
+        void mark(int studentId, String status) {
+            marked.add(studentId);
+            if (AttendanceDAO.PRESENT.equals(status)) {
+                present.add(studentId);
+            } else {
+                present.remove(studentId);
+            }
+        }
+
+        String statusOf(int studentId) {
+            if (!marked.contains(studentId)) return null;
+            return present.contains(studentId) ? AttendanceDAO.PRESENT : AttendanceDAO.ABSENT;
+        }
+    }
+
+    @Override
+    public String getMode() {
+        return MODE_SESSIONS;
+    }
+
+    // ---------------------------------------------------------------------
+    // Register (AttendanceStore)
+    // ---------------------------------------------------------------------
+
+    @Override
+    public Map<Integer, String> lockRegister(Connection conn, int subjectId, LocalDate date) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SQL_SESSION_FOR_UPDATE)) {
+            return toRegister(readSession(ps, subjectId, date));
+        }
+    }
+
+    @Override
+    public void writeRegister(Connection conn, int subjectId, LocalDate date, Map<Integer, String> saved,
+                              Map<Integer, String> register) throws SQLException {
+        Session before = toSession(saved);
+        Session changes = toSession(register);
+
+        // marked ∪ newly marked; present minus everyone re-marked, plus the new P's
+        Session after = new Session(RoaringBitmap.or(before.marked, changes.marked),
+                RoaringBitmap.or(RoaringBitmap.andNot(before.present, changes.marked), changes.present));
+
+        try (PreparedStatement ps = conn.prepareStatement(SQL_UPSERT)) {
+            bindSession(ps, subjectId, date, after);
+            ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public Map<Integer, String> findRegister(int subjectId, LocalDate date) throws SQLException {
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_SESSION)) {
+            return toRegister(readSession(ps, subjectId, date));
+        }
+    }
+
+    @Override
+    public List<AttendanceEntry> listForStudent(int studentId, LocalDate from) throws SQLException {
+        List<AttendanceEntry> list = new ArrayList<>();
+        QueryStream.forEach(SQL_STUDENT_HISTORY, ps -> {
+            ps.setInt(1, studentId);
+            ps.setDate(2, Date.valueOf(from));
+        }, rs -> {
+            // Probes the serialized bitmaps for one id; the rest of the class is never decoded
+            if (!RoaringBitmap.contains(rs.getBytes("marked"), studentId)) return null;
+            String status = RoaringBitmap.contains(rs.getBytes("present"), studentId)
+                    ? AttendanceDAO.PRESENT : AttendanceDAO.ABSENT;
+            return new AttendanceEntry(rs.getString("subject_name"), rs.getDate("att_date").toLocalDate(), status);
+        }, entry -> {
+            if (entry != null) list.add(entry);      // sessions held before the student joined
+        });
+        return Collections.unmodifiableList(list);
+    }
+
+    // ---------------------------------------------------------------------
+    // Batch work
+    // ---------------------------------------------------------------------
+
+    /**
+     * Recomputes attendance_summary from the session bitmaps, one subject per
+     * transaction (chunkSize subjects are listed per query).
+     *
+     * @return number of subjects processed
+     */
+    @Override
+    public int rebuildSummary(int chunkSize) throws SQLException {
+        long start = System.nanoTime();
+        int subjects = 0;
+        for (List<Integer> chunk = nextSubjects(0, chunkSize); !chunk.isEmpty();
+             chunk = nextSubjects(chunk.get(chunk.size() - 1), chunkSize)) {
+            for (int subjectId : chunk) {
+                TransactionManager.execute(RetryPolicy.DEFAULT, conn -> {
+                    DBConnection.markLongRunning(conn);
+                    rebuildSubject(conn, subjectId);
+                    return null;
+                });
+                subjects++;
+            }
+        }
+        Logger.info("Attendance summary rebuilt from sessions for " + subjects + " subjects in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return subjects;
+    }
+
+    /**
+     * Copies row-mode attendance (live and archived terms) into
+     * attendance_session, one subject per transaction. Existing sessions of a subject are overwritten, so run it
+     * before switching to sessions mode, not after.
+     *
+     * @return number of sessions written
+     */
+    public int packFromRows(int chunkSize) throws SQLException {
+        long start = System.nanoTime();
+        int sessions = 0;
+        for (List<Integer> chunk = nextSubjects(0, chunkSize); !chunk.isEmpty();
+             chunk = nextSubjects(chunk.get(chunk.size() - 1), chunkSize)) {
+            for (int subjectId : chunk) {
+                sessions += TransactionManager.execute(RetryPolicy.DEFAULT, conn -> {
+                    DBConnection.markLongRunning(conn);
+                    return packSubject(conn, subjectId);
+                });
+            }
+        }
+        Logger.info("Packed " + sessions + " attendance sessions in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return sessions;
+    }
+
+    private static void rebuildSubject(Connection conn, int subjectId) throws SQLException {
+        List<Session> sessions = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(SQL_SUBJECT_SESSIONS)) {
+            ps.setInt(1, subjectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sessions.add(new Session(RoaringBitmap.deserialize(rs.getBytes("marked")),
+                            RoaringBitmap.deserialize(rs.getBytes("present"))));
+                }
+            }
+        }
+
+        // Everyone ever marked (or of the marked sets), then one int counter pair
+        // per student, indexed by their rank in that sorted id list
+        RoaringBitmap everyone = new RoaringBitmap();
+        for (Session session : sessions) everyone = RoaringBitmap.or(everyone, session.marked);
+        int[] students = everyone.toArray();
+        int[] present = new int[students.length];
+        int[] total = new int[students.length];
+        for (Session session : sessions) {
+            session.marked.forEach(id -> total[Arrays.binarySearch(students, id)]++);
+            session.present.forEach(id -> present[Arrays.binarySearch(students, id)]++);
+        }
+
+        try (PreparedStatement delete = conn.prepareStatement(SQL_SUMMARY_DELETE);
+             PreparedStatement insert = conn.prepareStatement(SQL_SUMMARY_INSERT)) {
+            delete.setInt(1, subjectId);
+            delete.executeUpdate();
+
+            for (int i = 0; i < students.length; i++) {
+                insert.setInt(1, students[i]);
+                insert.setInt(2, subjectId);
+                insert.setInt(3, present[i]);
+                insert.setInt(4, total[i]);
+                insert.addBatch();
+            }
+            if (students.length > 0) insert.executeBatch();
+        }
+    }
+
+    private static int packSubject(Connection conn, int subjectId) throws SQLException {
+        Map<LocalDate, Session> sessions = new TreeMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(SQL_ROWS_OF_SUBJECT)) {
+            ps.setInt(1, subjectId);
+            ps.setInt(2, subjectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sessions.computeIfAbsent(rs.getDate("att_date").toLocalDate(), d -> new Session())
+                            .mark(rs.getInt("student_id"), rs.getString("status"));
+                }
+            }
+        }
+        if (sessions.isEmpty()) return 0;
+
+        try (PreparedStatement ps = conn.prepareStatement(SQL_UPSERT)) {
+            for (Map.Entry<LocalDate, Session> e : sessions.entrySet()) {
+                bindSession(ps, subjectId, e.getKey(), e.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        return sessions.size();
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    private static Session readSession(PreparedStatement ps, int subjectId, LocalDate date) throws SQLException {
+        ps.setInt(1, subjectId);
+        ps.setDate(2, Date.valueOf(date));
+        try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) return new Session();
+            return new Session(RoaringBitmap.deserialize(rs.getBytes("marked")),
+                    RoaringBitmap.deserialize(rs.getBytes("present")));
+        }
+    }
+
+    private static Session toSession(Map<Integer, String> register) {
+        Session session = new Session();
+        for (Map.Entry<Integer, String> e : register.entrySet()) session.mark(e.getKey(), e.getValue());
+        return session;
+    }
+
+    private static Map<Integer, String> toRegister(Session session) {
+        Map<Integer, String> register = new HashMap<>();
+        session.marked.forEach(id -> register.put(id, session.statusOf(id)));
+        return register;
+    }
+
+    private static void bindSession(PreparedStatement ps, int subjectId, LocalDate date, Session session)
+            throws SQLException {
+        ps.setInt(1, subjectId);
+        ps.setDate(2, Date.valueOf(date));
+        ps.setBytes(3, session.marked.serialize());
+        ps.setBytes(4, session.present.serialize());
+        ps.setInt(5, session.marked.getCardinality());
+        ps.setInt(6, session.present.getCardinality());
+    }
+
+    private static List<Integer> nextSubjects(int afterId, int size) throws SQLException {
+        List<Integer> ids = new ArrayList<>(size);
+        QueryStream.forEach(SQL_SUBJECTS, ps -> {
+            ps.setInt(1, afterId);
+            ps.setInt(2, size);
+        }, rs -> rs.getInt(1), ids::add);
+        return ids;
+    }
+}
@@ -1,11 +1,25 @@
 package com.campussync.dao;
 
+import com.campussync.model.AttendanceEntry;
+import com.campussync.model.MarkEntry;
+import com.campussync.model.RosterEntry;
 import com.campussync.model.Student;
+import com.campussync.util.BatchInsert;
+import com.campussync.util.BatchResult;
+import com.campussync.util.BeanRowMapper;
 import com.campussync.util.DBConnection;
+import com.campussync.util.HotQuery;
+import com.campussync.util.QueryStream;
+import com.campussync.util.RetryPolicy;
+import com.campussync.util.TransactionManager;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * StudentDAO handles all CRUD (Create, Read, Update, Delete) operations for the
@@ -23,6 +37,33 @@ import java.util.List;
  */
 public class StudentDAO {
 
+    private static final BeanRowMapper<Student> STUDENT_MAPPER = BeanRowMapper.of(Student.class);
+
+    private static final String SQL_INSERT =
+            "INSERT INTO student(name, email, password, course, semester) VALUES(?,?,?,?,?)";
+
+    @HotQuery(params = {"${email}", "x"}, maxRows = 1)
+    private static final String SQL_LOGIN =
+            "SELECT student_id, name, email, course, semester, created_at FROM student WHERE email=? AND password=?";
+
+    @HotQuery(params = "${student}", maxRows = 1)
+    private static final String SQL_BY_ID =
+            "SELECT student_id, name, email, course, semester, created_at FROM student WHERE student_id=?";
+
+    private static final String[] SQL_DELETE_ATTENDANCE = {
+            "DELETE FROM attendance WHERE student_id=?",
+            "DELETE FROM attendance_archive WHERE student_id=?"
+    };
+
+    // Shared by createStudent-style batches: binds one Student to SQL_INSERT
+    private static final BatchInsert.RowBinder<Student> STUDENT_BINDER = (ps, s) -> {
+        ps.setString(1, s.getName());
+        ps.setString(2, s.getEmail());
+        ps.setString(3, s.getPassword());
+        ps.setString(4, s.getCourse());
+        ps.setInt(5, s.getSemester());
+    };
+
     /**
      * Inserts a new student record into the database.
      *
@@ -36,16 +77,10 @@ public class StudentDAO {
      * - Sets the generated ID back into the Student object
      */
     public boolean createStudent(Student student) throws SQLException {
-        String sql = "INSERT INTO student(name, email, password, course, semester) VALUES(?,?,?,?,?)";
-
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement ps = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
-            ps.setString(1, student.getName());
-            ps.setString(2, student.getEmail());
-            ps.setString(3, student.getPassword());
-            ps.setString(4, student.getCourse());
-            ps.setInt(5, student.getSemester());
+            STUDENT_BINDER.bind(ps, student);
 
             int affected = ps.executeUpdate();
             if (affected == 0) return false; // No row inserted → failure
@@ -61,6 +96,97 @@ public class StudentDAO {
         }
     }
 
+    /**
+     * Inserts many students at once (new intake onboarding).
+     *
+     * @param students Student objects to insert; their studentId is filled in
+     * @return BatchResult with the inserted count and one Failure per rejected row
+     * @throws SQLException only if the database is unreachable
+     *
+     * Working:
+     * - Rows missing name/email/password, or repeating an email from the same
+     *   list, are rejected up front
+     * - The rest go in as multi-row INSERTs of BatchInsert.DEFAULT_CHUNK_SIZE
+     *   rows, one transaction per chunk
+     * - A row that MySQL rejects (e.g. email already registered) is reported
+     *   in the result; it does not stop the other rows
+     */
+    public BatchResult<Student> createStudents(List<Student> students) throws SQLException {
+        return new BatchInsert<>(SQL_INSERT, STUDENT_BINDER, Student::setStudentId)
+                .validate(StudentDAO::checkRequired)
+                .uniqueBy("email", s -> s.getEmail().trim().toLowerCase())
+                .insert(students);
+    }
+
+    /**
+     * Returns which of the given emails already belong to a student, in one
+     * query against the unique email index (bulk import duplicate check).
+     *
+     * @param emails up to a few hundred addresses (one import chunk)
+     * @return the subset that exists, lower-cased
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        if (emails.isEmpty()) return existing;
+
+        StringBuilder sql = new StringBuilder("SELECT email FROM student WHERE email IN (");
+        for (int i = 0; i < emails.size(); i++) sql.append(i == 0 ? "?" : ",?");
+        sql.append(')');
+
+        // Primary, not replica: a row committed a moment ago must count as a duplicate
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            int i = 1;
+            for (String email : emails) ps.setString(i++, email);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1).toLowerCase());
+                }
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Returns which of the given student IDs exist, in one IN query on the
+     * caller's (transaction) connection. Lets bulk writes (attendance register,
+     * gradebook) reject unknown IDs per student instead of failing the batch
+     * on the foreign key.
+     */
+    public Set<Integer> findExistingIds(Connection conn, Collection<Integer> ids) throws SQLException {
+        Set<Integer> existing = new HashSet<>();
+        if (ids.isEmpty()) return existing;
+
+        StringBuilder sql = new StringBuilder("SELECT student_id FROM student WHERE student_id IN (");
+        for (int i = 0; i < ids.size(); i++) sql.append(i == 0 ? "?" : ",?");
+        sql.append(')');
+
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int i = 1;
+            for (int id : ids) ps.setInt(i++, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getInt(1));
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static String checkRequired(Student s) {
+        if (isBlank(s.getName())) return "Name is required";
+        if (isBlank(s.getEmail())) return "Email is required";
+        if (isBlank(s.getPassword())) return "Password is required";
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
     /**
      * Retrieves a student record for login validation.
      *
@@ -74,23 +200,15 @@ public class StudentDAO {
      * - Result is used for login session creation
      */
     public Student getByEmailAndPassword(String email, String password) throws SQLException {
-        String sql = "SELECT student_id, name, email, course, semester, created_at FROM student WHERE email=? AND password=?";
-
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(SQL_LOGIN)) {
 
             ps.setString(1, email);
             ps.setString(2, password);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    Student s = new Student();
-                    s.setStudentId(rs.getInt("student_id"));
-                    s.setName(rs.getString("name"));
-                    s.setEmail(rs.getString("email"));
-                    s.setCourse(rs.getString("course"));
-                    s.setSemester(rs.getInt("semester"));
-                    return s;
+                    return STUDENT_MAPPER.map(rs);
                 }
             }
         }
@@ -108,22 +226,14 @@ public class StudentDAO {
      * - Admin viewing/editing student details
      */
     public Student getById(int id) throws SQLException {
-        String sql = "SELECT student_id, name, email, course, semester, created_at FROM student WHERE student_id=?";
-
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(SQL_BY_ID)) {
 
             ps.setInt(1, id);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    Student s = new Student();
-                    s.setStudentId(rs.getInt("student_id"));
-                    s.setName(rs.getString("name"));
-                    s.setEmail(rs.getString("email"));
-                    s.setCourse(rs.getString("course"));
-                    s.setSemester(rs.getInt("semester"));
-                    return s;
+                    return STUDENT_MAPPER.map(rs);
                 }
             }
         }
@@ -165,16 +275,23 @@ public class StudentDAO {
      * Working:
      * - Uses DELETE statement with student_id
      * - Commonly used from Admin dashboard
+     * - attendance is partitioned and cannot cascade (no foreign keys), so
+     *   the student's live and archived attendance is deleted first, in the
+     *   same transaction
      */
     public boolean deleteStudent(int studentId) throws SQLException {
-        String sql = "DELETE FROM student WHERE student_id=?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setInt(1, studentId);
-            return ps.executeUpdate() > 0;
-        }
+        return TransactionManager.execute(RetryPolicy.DEFAULT, conn -> {
+            for (String sql : SQL_DELETE_ATTENDANCE) {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setInt(1, studentId);
+                    ps.executeUpdate();
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM student WHERE student_id=?")) {
+                ps.setInt(1, studentId);
+                return ps.executeUpdate() > 0;
+            }
+        });
     }
 
     /**
@@ -184,28 +301,58 @@ public class StudentDAO {
      *
      * Working:
      * - SELECT query fetches all basic fields
-     * - Loops through ResultSet and fills each Student object
-     * - Adds each Student object to a List
+     * - BeanRowMapper fills one Student object per row
      * - Used for Admin dashboard "View Students" page
      */
     public List<Student> listAll() throws SQLException {
-        List<Student> list = new ArrayList<>();
         String sql = "SELECT student_id, name, email, course, semester FROM student ORDER BY student_id";
 
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Student s = new Student();
-                s.setStudentId(rs.getInt("student_id"));
-                s.setName(rs.getString("name"));
-                s.setEmail(rs.getString("email"));
-                s.setCourse(rs.getString("course"));
-                s.setSemester(rs.getInt("semester"));
-                list.add(s);
-            }
+            return STUDENT_MAPPER.mapAll(rs);
         }
-        return list;
+    }
+
+    /**
+     * Loads a student's attendance history, most recent class first.
+     *
+     * @deprecated attendance may be stored as class sessions; use
+     *             AttendanceDAO.listForStudent, which reads the configured store
+     */
+    @Deprecated
+    public List<AttendanceEntry> listAttendance(int studentId) throws SQLException {
+        return new AttendanceDAO().listForStudent(studentId, AttendanceDAO.ALL_TERMS);
+    }
+
+    /**
+     * Loads all marks recorded for a student.
+     *
+     * @param studentId student_id of the logged-in student
+     * @return unmodifiable List<MarkEntry>, fully loaded
+     * @deprecated marks belong to MarksDAO; use MarksDAO.listForStudent()
+     */
+    @Deprecated
+    public List<MarkEntry> listMarks(int studentId) throws SQLException {
+        return new MarksDAO().listForStudent(studentId);
+    }
+
+    /**
+     * Loads ID + name of every student.
+     *
+     * @return unmodifiable List<RosterEntry> ordered by name
+     * @deprecated scales with the whole student body; faculty forms use the
+     *             subject's roster, EnrollmentDAO.roster()
+     */
+    @Deprecated
+    public List<RosterEntry> listRoster() throws SQLException {
+        String sql = "SELECT student_id, name FROM student ORDER BY name";
+
+        List<RosterEntry> list = new ArrayList<>();
+        QueryStream.forEach(sql, QueryStream.Binder.none(),
+                rs -> new RosterEntry(rs.getInt("student_id"), rs.getString("name")),
+                list::add);
+        return Collections.unmodifiableList(list);
     }
 }
@@ -1,10 +1,14 @@
 package com.campussync.dao;
 
 import com.campussync.model.Subject;
+import com.campussync.util.BeanRowMapper;
 import com.campussync.util.DBConnection;
+import com.campussync.util.HotQuery;
+import com.campussync.util.Keyset;
+import com.campussync.util.Page;
+import com.campussync.util.PageRequest;
 import com.campussync.util.TransactionManager;
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -20,6 +24,22 @@ import java.util.List;
  */
 public class SubjectDAO {
 
+    private static final String SQL_SUBJECTS_JOINED =
+            "SELECT s.subject_id, s.subject_name, c.course_name, f.name AS faculty_name " +
+            "FROM subject s " +
+            "LEFT JOIN course c ON s.course_id = c.course_id " +
+            "LEFT JOIN faculty f ON s.faculty_id = f.faculty_id";
+
+    // Faculty register / gradebook forms (faculty_id foreign key index)
+    @HotQuery(params = "${faculty}", maxRows = 100)
+    private static final String SQL_BY_FACULTY =
+            "SELECT subject_id, subject_name, course_id, faculty_id FROM subject " +
+            "WHERE faculty_id=? ORDER BY subject_name";
+
+    // subject_name is nullable → subject pages are always in subject_id order
+    private static final Keyset<Subject> SUBJECT_PAGES = new Keyset<>(SQL_SUBJECTS_JOINED,
+            "s.subject_id", null, BeanRowMapper.of(Subject.class), Subject::getSubjectId, Subject::getSubjectName);
+
     /**
      * Adds a new subject using an external connection (for transaction support).
      * Used when adding a subject as part of a larger multi-table operation.
@@ -75,27 +95,86 @@ public class SubjectDAO {
      * @throws SQLException if database operation fails
      */
     public List<Subject> getAllSubjectsJoined() throws SQLException {
-        List<Subject> subjects = new ArrayList<>();
-        String sql = "SELECT s.subject_id, s.subject_name, c.course_name, f.name AS faculty_name " +
-                "FROM subject s " +
-                "LEFT JOIN course c ON s.course_id = c.course_id " +
-                "LEFT JOIN faculty f ON s.faculty_id = f.faculty_id " +
-                "ORDER BY s.subject_id";
+        String sql = SQL_SUBJECTS_JOINED + " ORDER BY s.subject_id";
 
-        try (Connection con = DBConnection.getConnection();
+        try (Connection con = DBConnection.getReadConnection();
              PreparedStatement ps = con.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Subject subject = new Subject();
-                subject.setSubjectId(rs.getInt("subject_id"));
-                subject.setSubjectName(rs.getString("subject_name"));
-                subject.setCourseName(rs.getString("course_name"));
-                subject.setFacultyName(rs.getString("faculty_name"));
-                subjects.add(subject);
+            return BeanRowMapper.of(Subject.class).mapAll(rs);
+        }
+    }
+
+    /**
+     * Loads one subject with its course and faculty names (admin roster page).
+     *
+     * @return the Subject, or null if there is no such subject_id
+     */
+    public Subject findJoined(int subjectId) throws SQLException {
+        String sql = SQL_SUBJECTS_JOINED + " WHERE s.subject_id=?";
+
+        try (Connection con = DBConnection.getReadConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, subjectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Subject> list = BeanRowMapper.of(Subject.class).mapAll(rs);
+                return list.isEmpty() ? null : list.get(0);
             }
         }
-        return subjects;
+    }
+
+    /**
+     * Checks that a subject is assigned to the given faculty member, on the
+     * caller's (transaction) connection. Used before faculty write attendance
+     * or marks for a subject.
+     */
+    public boolean isTaughtBy(Connection conn, int subjectId, int facultyId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM subject WHERE subject_id=? AND faculty_id=?")) {
+            ps.setInt(1, subjectId);
+            ps.setInt(2, facultyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Same check on its own read connection, for pages that show a subject's
+     * roster or saved attendance (same source as listByFaculty, so the
+     * subject picker and the check agree).
+     */
+    public boolean isTaughtBy(int subjectId, int facultyId) throws SQLException {
+        try (Connection con = DBConnection.getReadConnection()) {
+            return isTaughtBy(con, subjectId, facultyId);
+        }
+    }
+
+    /**
+     * Lists the subjects taught by one faculty member (register / marks forms).
+     *
+     * @param facultyId faculty_id of the logged-in faculty member
+     * @return List<Subject> ordered by subject name
+     */
+    public List<Subject> listByFaculty(int facultyId) throws SQLException {
+        try (Connection con = DBConnection.getReadConnection();
+             PreparedStatement ps = con.prepareStatement(SQL_BY_FACULTY)) {
+            ps.setInt(1, facultyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return BeanRowMapper.of(Subject.class).mapAll(rs);
+            }
+        }
+    }
+
+    /**
+     * Loads one page of subjects (with course and faculty names) for the admin
+     * "Manage Subjects" table, keyset-paginated on subject_id.
+     *
+     * @param request page size and cursor from the previous Next/Previous link
+     * @return Page<Subject> with at most request.getSize() rows
+     */
+    public Page<Subject> pageSubjectsJoined(PageRequest request) throws SQLException {
+        return SUBJECT_PAGES.fetch(request);
     }
 
     /**
@@ -104,7 +183,9 @@ public class SubjectDAO {
      * 
      * @return ResultSet containing joined subject data
      * @throws SQLException if database operation fails
+     * @deprecated Never closes its connection; use getAllSubjectsJoined()
      */
+    @Deprecated
     public ResultSet getAllSubjectsJoinedResultSet() throws SQLException {
         Connection con = DBConnection.getConnection();
         
@@ -1,6 +1,10 @@
 -- -----------------------------------
 -- DATABASE CREATION
 -- -----------------------------------
+-- Baseline schema. Every later change (keys, indexes, new tables, ...) is a
+-- versioned script in src/main/resources/db/migration, applied by
+-- MigrationRunner at startup or with: java com.campussync.util.MigrationRunner migrate
+-- Do not edit the tables here; add a migration instead.
 CREATE DATABASE IF NOT EXISTS campussync;
 USE campussync;
 
@@ -0,0 +1,228 @@
+package com.campussync.job;
+
+import com.campussync.dao.AttendanceDAO;
+import com.campussync.dao.AttendancePartitionDAO;
+import com.campussync.dao.AttendanceStore;
+import com.campussync.util.AcademicTerm;
+import com.campussync.util.DBConnection;
+import com.campussync.util.Logger;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AttendancePartitionJob
+ *
+ * Keeps the term partitions of attendance (migration V10) in shape:
+ * - creates the partitions of the current term and the next AHEAD terms
+ *   before any row needs them (first run: also one per term of the existing history)
+ * - archives closed terms older than AcademicTerm.RETAIN_CLOSED terms: rows move to the
+ *   compressed attendance_archive table and the partition is dropped, so the
+ *   live table (and every backup / scan of it) only holds recent terms
+ *
+ * Working:
+ * - Scheduled daily by AppLifecycleListener (schedule() / shutdown()),
+ *   disable with -Dcampussync.partitions.enabled=false
+ * - A MySQL named lock (GET_LOCK, no wait) lets one app server do the work;
+ *   the others skip that run
+ * - Does nothing until migration V10 has partitioned the table
+ * - Refuses to run in sessions mode (campussync.attendance.store=sessions):
+ *   not scheduled, and maintain() throws IllegalStateException
+ * - attendance_summary keeps counting archived classes (its rebuild reads
+ *   attendance and attendance_archive); AttendanceDAO refuses writes dated
+ *   before AcademicTerm.oldestLive(), so an archived class never gets a
+ *   second, live row for the rebuild to count twice
+ *
+ * Configuration (system properties):
+ * campussync.partitions.ahead              upcoming terms to create (default 2)
+ * campussync.partitions.retainClosedTerms  closed terms kept live and writable (default 1)
+ *
+ * Usage:
+ * java -cp "WEB-INF/classes:WEB-INF/lib/*" com.campussync.job.AttendancePartitionJob
+ */
+public final class AttendancePartitionJob implements Runnable {
+
+    private static final int AHEAD = Integer.getInteger("campussync.partitions.ahead", 2);
+
+    private static final String LOCK_NAME = "campussync.attendance_partitions";
+    private static final long RUN_INTERVAL_HOURS = 24;
+
+    private static ScheduledExecutorService scheduler;
+
+    private final AttendancePartitionDAO partitionDAO = new AttendancePartitionDAO();
+
+    // ---------------------------------------------------------------------
+    // Scheduling
+    // ---------------------------------------------------------------------
+
+    /** Runs the job a minute after startup, then daily; not scheduled in sessions mode. */
+    public static synchronized void schedule() {
+        if (scheduler != null) return;
+        if (!isSupported()) {
+            Logger.warn("Attendance partition job not scheduled: it only manages the attendance table, "
+                    + "and the attendance store is " + AttendanceDAO.STORE_MODE);
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "campussync-partition-job");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(new AttendancePartitionJob(), 1, RUN_INTERVAL_HOURS * 60, TimeUnit.MINUTES);
+    }
+
+    public static synchronized void shutdown() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    @Override
+    public void run() {
+        try {
+            maintain();
+        } catch (SQLException | RuntimeException e) {
+            // Next run retries; the live table keeps working with p_future meanwhile
+            Logger.error("Attendance partition maintenance failed", e);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Maintenance
+    // ---------------------------------------------------------------------
+
+    /**
+     * The job partitions and archives the attendance table only. In sessions
+     * mode new marks go to attendance_session, and the attendance rows left
+     * from before the switch are the input of SessionAttendanceStore.packFromRows,
+     * so archiving them would silently lose classes.
+     */
+    public static boolean isSupported() {
+        return AttendanceStore.MODE_ROWS.equals(AttendanceDAO.STORE_MODE);
+    }
+
+    /**
+     * One maintenance pass.
+     *
+     * @return false if skipped (table not partitioned, or another server holds the lock)
+     * @throws IllegalStateException in sessions mode (see isSupported)
+     */
+    public boolean maintain() throws SQLException {
+        if (!isSupported()) {
+            throw new IllegalStateException("Attendance partition maintenance refused: attendance store is "
+                    + AttendanceDAO.STORE_MODE + ", not " + AttendanceStore.MODE_ROWS);
+        }
+        try (Connection conn = DBConnection.getConnection()) {
+            DBConnection.markLongRunning(conn);     // archiving a term copies all of its rows
+            if (!tryLock(conn)) {
+                Logger.debug("Attendance partition maintenance running elsewhere, skipped");
+                return false;
+            }
+            try {
+                List<AttendancePartitionDAO.Partition> partitions = partitionDAO.listPartitions(conn);
+                if (partitions.isEmpty()) {
+                    Logger.warn("attendance is not partitioned (migration V10 pending), partition maintenance skipped");
+                    return false;
+                }
+
+                AcademicTerm current = AcademicTerm.current();
+                createUpcoming(conn, partitions, current);
+                archiveClosed(conn, partitionDAO.listPartitions(conn));
+                return true;
+            } finally {
+                unlock(conn);
+            }
+        }
+    }
+
+    private void createUpcoming(Connection conn, List<AttendancePartitionDAO.Partition> partitions,
+                                AcademicTerm current) throws SQLException {
+        LocalDate covered = lastBound(partitions);
+        AcademicTerm term;
+        if (covered != null) {
+            term = AcademicTerm.containing(covered);
+        } else {
+            // First run: one partition per term of the existing history
+            LocalDate earliest = partitionDAO.findEarliestDate(conn);
+            term = earliest == null || earliest.isAfter(current.getStart()) ? current : AcademicTerm.containing(earliest);
+        }
+
+        AcademicTerm last = current;
+        for (int i = 0; i < AHEAD; i++) last = last.next();
+
+        List<AcademicTerm> missing = new ArrayList<>();
+        for (; term.compareTo(last) <= 0; term = term.next()) {
+            if (covered == null || term.getEnd().isAfter(covered)) missing.add(term);
+        }
+        if (missing.isEmpty()) return;
+
+        long start = System.nanoTime();
+        partitionDAO.addTermPartitions(conn, missing);
+        Logger.info("Added attendance partitions for terms " + missing.get(0).getName() + " to "
+                + missing.get(missing.size() - 1).getName() + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private void archiveClosed(Connection conn, List<AttendancePartitionDAO.Partition> partitions)
+            throws SQLException {
+        // Same boundary AttendanceDAO refuses writes before
+        AcademicTerm oldestLive = AcademicTerm.oldestLive();
+
+        for (AttendancePartitionDAO.Partition p : partitions) {
+            if (p.getUpperBound() == null || p.getUpperBound().isAfter(oldestLive.getStart())) continue;
+
+            long start = System.nanoTime();
+            int rows = partitionDAO.archive(conn, p);
+            Logger.info("Archived attendance partition " + p + ": " + rows + " rows in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    /** Highest term bound, or null while only p_future exists. */
+    private static LocalDate lastBound(List<AttendancePartitionDAO.Partition> partitions) {
+        LocalDate bound = null;
+        for (AttendancePartitionDAO.Partition p : partitions) {
+            if (p.getUpperBound() != null) bound = p.getUpperBound();
+        }
+        return bound;
+    }
+
+    private static boolean tryLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, LOCK_NAME);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void unlock(Connection conn) {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            Logger.warn("Could not release the attendance partition lock: " + e.getMessage());
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // CLI
+    // ---------------------------------------------------------------------
+
+    public static void main(String[] args) {
+        int status = 0;
+        try {
+            boolean ran = new AttendancePartitionJob().maintain();
+            System.out.println(ran ? "Attendance partitions up to date" : "Attendance partition maintenance skipped (see log)");
+        } catch (SQLException | IllegalStateException e) {
+            System.err.println("Attendance partition maintenance failed: " + e.getMessage());
+            status = 1;
+        } finally {
+            DBConnection.shutdown();
+        }
+        System.exit(status);
+    }
+}
@@ -0,0 +1,54 @@
+package com.campussync.job;
+
+import com.campussync.dao.SessionAttendanceStore;
+import com.campussync.util.DBConnection;
+import java.sql.SQLException;
+
+/**
+ * PackAttendanceSessions
+ *
+ * One-off job that copies row-mode attendance (one row per student) into
+ * attendance_session bitmaps (one row per subject and date), to move an
+ * install to -Dcampussync.attendance.store=sessions.
+ *
+ * Working:
+ *  - One subject per transaction (SessionAttendanceStore.packFromRows);
+ *    rerunnable, each run overwrites the packed sessions
+ *  - Archived terms (attendance_archive) are packed along with the live ones
+ *  - attendance_summary is unchanged: both modes hold the same marks
+ *
+ * Switching:
+ *  1. Stop attendance writes (maintenance window), run this job
+ *  2. Restart with -Dcampussync.attendance.store=sessions
+ *  Do not run it after sessions mode has taken writes: it would overwrite
+ *  them with the older rows.
+ *
+ * Usage:
+ * java -cp "WEB-INF/classes:WEB-INF/lib/*" com.campussync.job.PackAttendanceSessions [subjectsPerQuery]
+ */
+public final class PackAttendanceSessions {
+
+    private static final int DEFAULT_CHUNK = 100;
+
+    private PackAttendanceSessions() {}
+
+    public static void main(String[] args) {
+        int status = 0;
+        try {
+            int chunkSize = args.length == 0 ? DEFAULT_CHUNK : Integer.parseInt(args[0]);
+            if (chunkSize <= 0) throw new IllegalArgumentException("subjectsPerQuery must be positive");
+
+            int sessions = new SessionAttendanceStore().packFromRows(chunkSize);
+            System.out.println("Packed " + sessions + " attendance session(s)");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Usage: PackAttendanceSessions [subjectsPerQuery]  (" + e.getMessage() + ")");
+            status = 2;
+        } catch (SQLException e) {
+            System.err.println("Packing attendance sessions failed: " + e.getMessage());
+            status = 1;
+        } finally {
+            DBConnection.shutdown();
+        }
+        System.exit(status);
+    }
+}
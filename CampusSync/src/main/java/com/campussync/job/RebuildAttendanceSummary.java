@@ -0,0 +1,52 @@
+package com.campussync.job;
+
+import com.campussync.dao.AttendanceDAO;
+import com.campussync.dao.AttendanceStore;
+import com.campussync.dao.AttendanceSummaryDAO;
+import com.campussync.util.DBConnection;
+import java.sql.SQLException;
+
+/**
+ * RebuildAttendanceSummary
+ *
+ * Batch job that recomputes attendance_summary from the stored attendance
+ * marks (attendance rows or attendance_session bitmaps, per
+ * -Dcampussync.attendance.store).
+ * Normal operation never needs it (AttendanceDAO maintains the summary in
+ * every write transaction); run it after attendance was loaded or edited
+ * outside the application, or to repair drift.
+ *
+ * Working:
+ *  - rows: walks students in student_id order, chunkSize students per
+ *    transaction (AttendanceSummaryDAO.rebuild)
+ *  - sessions: one subject per transaction, tallied from the bitmaps
+ *  - Either way it can run while faculty are saving registers
+ *
+ * Usage:
+ * java -cp "WEB-INF/classes:WEB-INF/lib/*" com.campussync.job.RebuildAttendanceSummary [chunkSize]
+ */
+public final class RebuildAttendanceSummary {
+
+    private RebuildAttendanceSummary() {}
+
+    public static void main(String[] args) {
+        int status = 0;
+        try {
+            int chunkSize = args.length == 0 ? AttendanceSummaryDAO.DEFAULT_REBUILD_CHUNK : Integer.parseInt(args[0]);
+            if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive");
+
+            int processed = new AttendanceDAO().rebuildSummary(chunkSize);
+            System.out.println("Attendance summary rebuilt (" + AttendanceDAO.STORE_MODE + " store, "
+                    + processed + (AttendanceStore.MODE_ROWS.equals(AttendanceDAO.STORE_MODE) ? " students)" : " subjects)"));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Usage: RebuildAttendanceSummary [chunkSize]  (" + e.getMessage() + ")");
+            status = 2;
+        } catch (SQLException e) {
+            System.err.println("Attendance summary rebuild failed: " + e.getMessage());
+            status = 1;
+        } finally {
+            DBConnection.shutdown();
+        }
+        System.exit(status);
+    }
+}
@@ -0,0 +1,42 @@
+package com.campussync.model;
+
+import java.time.LocalDate;
+
+/**
+ * AttendanceEntry (immutable view object)
+ *
+ * One row of a student's attendance history as shown on
+ * student/attendance.jsp: subject name, class date and P/A status.
+ *
+ * Purpose:
+ * - Fully loaded by the DAO before the JSP renders, so no database
+ *   connection is held while the page is written to the client
+ * - Immutable: safe to hand to the view layer as-is
+ */
+public final class AttendanceEntry {
+
+    private final String subjectName;   // From JOIN with subject table
+    private final LocalDate date;       // att_date
+    private final String status;        // "P" or "A"
+
+    public AttendanceEntry(String subjectName, LocalDate date, String status) {
+        this.subjectName = subjectName;
+        this.date = date;
+        this.status = status;
+    }
+
+    public String getSubjectName() { return subjectName; }
+    public LocalDate getDate() { return date; }
+    public String getStatus() { return status; }
+
+    public boolean isPresent() { return "P".equals(status); }
+
+    @Override
+    public String toString() {
+        return "AttendanceEntry{" +
+                "subjectName='" + subjectName + '\'' +
+                ", date=" + date +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
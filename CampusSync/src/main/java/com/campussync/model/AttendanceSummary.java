@@ -0,0 +1,48 @@
+package com.campussync.model;
+
+/**
+ * AttendanceSummary (immutable view object)
+ *
+ * A student's attendance in one subject: classes attended out of classes
+ * held, read from the attendance_summary projection (one row per student and
+ * subject) instead of aggregating the attendance history.
+ *
+ * Purpose:
+ * - Percentage table on student/attendance.jsp
+ * - Immutable: safe to hand to the view layer as-is
+ */
+public final class AttendanceSummary {
+
+    private final int subjectId;
+    private final String subjectName;
+    private final int present;
+    private final int total;
+
+    public AttendanceSummary(int subjectId, String subjectName, int present, int total) {
+        this.subjectId = subjectId;
+        this.subjectName = subjectName;
+        this.present = present;
+        this.total = total;
+    }
+
+    public int getSubjectId() { return subjectId; }
+    public String getSubjectName() { return subjectName; }
+    public int getPresent() { return present; }
+    public int getTotal() { return total; }
+    public int getAbsent() { return total - present; }
+
+    /** Attendance in percent (0-100, one decimal); 0 before the first class. */
+    public double getPercentage() {
+        return total == 0 ? 0 : Math.round(present * 1000.0 / total) / 10.0;
+    }
+
+    @Override
+    public String toString() {
+        return "AttendanceSummary{" +
+                "subjectId=" + subjectId +
+                ", subjectName='" + subjectName + '\'' +
+                ", present=" + present +
+                ", total=" + total +
+                '}';
+    }
+}
@@ -14,10 +14,16 @@ package com.campussync.model;
  * Database Mapping:
  * - facultyId  → faculty_id (Primary Key)
  * - name       → name (Faculty member's full name)
+ * - email      → email (Login email, unique)
+ * - department → department (e.g., "CSE")
+ * - password   → password (only set when creating accounts; never loaded by listings)
  */
 public class Faculty {
     private int facultyId;      // Unique identifier for faculty (Primary Key)
     private String name;         // Faculty member's full name
+    private String email;        // Login email (unique)
+    private String department;   // Department the faculty member belongs to
+    private String password;     // Login password (write-only: used by FacultyDAO.createFaculty)
 
     /**
      * Getter for Faculty ID
@@ -50,4 +56,52 @@ public class Faculty {
     public void setName(String n) { 
         this.name = n; 
     }
+
+    /**
+     * Getter for Faculty Email
+     * @return The faculty member's login email
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Setter for Faculty Email
+     * @param email The login email to set
+     */
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    /**
+     * Getter for Department
+     * @return The department name
+     */
+    public String getDepartment() {
+        return department;
+    }
+
+    /**
+     * Setter for Department
+     * @param department The department name to set
+     */
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
+    /**
+     * Getter for Password
+     * @return The login password (null for faculty loaded from listings)
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Setter for Password
+     * @param password The login password to store when creating the account
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
 }
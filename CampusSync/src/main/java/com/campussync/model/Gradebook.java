@@ -0,0 +1,65 @@
+package com.campussync.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gradebook (immutable view object)
+ *
+ * Marks of every student of a subject, one column per assessment, as shown
+ * on faculty/marks.jsp.
+ *
+ * Purpose:
+ * - Built by MarksDAO.loadGradebook from a single query (roster LEFT JOIN
+ *   marks), so the page never runs one query per student or assessment
+ * - Immutable: safe to hand to the view layer as-is
+ */
+public final class Gradebook {
+
+    /**
+     * One student's row: marks by assessment (missing = not graded yet).
+     */
+    public static final class Row {
+        private final int studentId;
+        private final String name;
+        private final Map<String, Integer> marks;
+
+        public Row(int studentId, String name, Map<String, Integer> marks) {
+            this.studentId = studentId;
+            this.name = name;
+            this.marks = Collections.unmodifiableMap(new LinkedHashMap<>(marks));
+        }
+
+        public int getStudentId() { return studentId; }
+        public String getName() { return name; }
+        public Map<String, Integer> getMarks() { return marks; }
+
+        /** Marks for the assessment, or null if not graded. */
+        public Integer get(String assessment) { return marks.get(assessment); }
+    }
+
+    private final int subjectId;
+    private final List<String> assessments;
+    private final List<Row> rows;
+
+    public Gradebook(int subjectId, List<String> assessments, List<Row> rows) {
+        this.subjectId = subjectId;
+        this.assessments = Collections.unmodifiableList(assessments);
+        this.rows = Collections.unmodifiableList(rows);
+    }
+
+    public int getSubjectId() { return subjectId; }
+    public List<String> getAssessments() { return assessments; }
+    public List<Row> getRows() { return rows; }
+
+    @Override
+    public String toString() {
+        return "Gradebook{" +
+                "subjectId=" + subjectId +
+                ", assessments=" + assessments +
+                ", students=" + rows.size() +
+                '}';
+    }
+}
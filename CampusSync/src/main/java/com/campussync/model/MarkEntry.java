@@ -0,0 +1,38 @@
+package com.campussync.model;
+
+/**
+ * MarkEntry (immutable view object)
+ *
+ * One row of a student's marks as shown on student/marks.jsp.
+ * Loaded completely before rendering so the connection is already
+ * back in the pool while the page is written.
+ */
+public final class MarkEntry {
+
+    private final String subjectName;   // From JOIN with subject table
+    private final String assessment;    // e.g. "Final", "Midterm"
+    private final int marks;            // Marks obtained
+
+    public MarkEntry(String subjectName, int marks) {
+        this(subjectName, null, marks);
+    }
+
+    public MarkEntry(String subjectName, String assessment, int marks) {
+        this.subjectName = subjectName;
+        this.assessment = assessment;
+        this.marks = marks;
+    }
+
+    public String getSubjectName() { return subjectName; }
+    public String getAssessment() { return assessment; }
+    public int getMarks() { return marks; }
+
+    @Override
+    public String toString() {
+        return "MarkEntry{" +
+                "subjectName='" + subjectName + '\'' +
+                ", assessment='" + assessment + '\'' +
+                ", marks=" + marks +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.campussync.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notice Model (POJO)
+ *
+ * This class represents an announcement in the "notice" table, posted by the
+ * admin and shown on the admin, faculty and student notice boards.
+ *
+ * Database Mapping:
+ * - noticeId  → notice_id (Primary Key)
+ * - title     → title
+ * - message   → message
+ * - postedAt  → posted_at (defaults to CURRENT_TIMESTAMP)
+ */
+public class Notice {
+
+    private int noticeId;               // Unique notice identifier (PK)
+    private String title;               // Short headline
+    private String message;             // Full announcement text
+    private LocalDateTime postedAt;     // When the notice was published
+
+    public Notice() {}
+
+    public Notice(int noticeId, String title, String message, LocalDateTime postedAt) {
+        this.noticeId = noticeId;
+        this.title = title;
+        this.message = message;
+        this.postedAt = postedAt;
+    }
+
+    public int getNoticeId() { return noticeId; }
+    public void setNoticeId(int noticeId) { this.noticeId = noticeId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public LocalDateTime getPostedAt() { return postedAt; }
+    public void setPostedAt(LocalDateTime postedAt) { this.postedAt = postedAt; }
+
+    @Override
+    public String toString() {
+        return "Notice{" +
+                "noticeId=" + noticeId +
+                ", title='" + title + '\'' +
+                ", postedAt=" + postedAt +
+                '}';
+    }
+}
@@ -0,0 +1,91 @@
+package com.campussync.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RegisterResult (immutable view object)
+ *
+ * Outcome of saving a whole-class attendance register: one Line per
+ * submitted student, saying whether the P/A status was stored or why not.
+ *
+ * Purpose:
+ * - Shown next to each student on faculty/attendance.jsp after saving
+ * - Returned as JSON to API callers (Accept: application/json)
+ * - Serializable: kept in the session for one redirect (post/redirect/get)
+ */
+public final class RegisterResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Result for one student of the register.
+     */
+    public static final class Line implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int studentId;
+        private final String status;    // submitted status ("P" / "A"), may be invalid
+        private final boolean saved;
+        private final String message;   // null when saved
+
+        public Line(int studentId, String status, boolean saved, String message) {
+            this.studentId = studentId;
+            this.status = status;
+            this.saved = saved;
+            this.message = message;
+        }
+
+        public int getStudentId() { return studentId; }
+        public String getStatus() { return status; }
+        public boolean isSaved() { return saved; }
+        public String getMessage() { return message; }
+    }
+
+    private final int subjectId;
+    private final LocalDate date;
+    private final List<Line> lines;
+    private final int savedCount;
+    private final long elapsedMs;
+
+    public RegisterResult(int subjectId, LocalDate date, List<Line> lines, long elapsedMs) {
+        this.subjectId = subjectId;
+        this.date = date;
+        this.lines = Collections.unmodifiableList(lines);
+        this.elapsedMs = elapsedMs;
+
+        int saved = 0;
+        for (Line line : lines) {
+            if (line.isSaved()) saved++;
+        }
+        this.savedCount = saved;
+    }
+
+    public int getSubjectId() { return subjectId; }
+    public LocalDate getDate() { return date; }
+    public List<Line> getLines() { return lines; }
+    public int getSavedCount() { return savedCount; }
+    public int getRejectedCount() { return lines.size() - savedCount; }
+    public long getElapsedMs() { return elapsedMs; }
+
+    /** Line for the given student, or null if the student was not submitted. */
+    public Line lineFor(int studentId) {
+        for (Line line : lines) {
+            if (line.getStudentId() == studentId) return line;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "RegisterResult{" +
+                "subjectId=" + subjectId +
+                ", date=" + date +
+                ", saved=" + savedCount +
+                ", rejected=" + getRejectedCount() +
+                ", elapsedMs=" + elapsedMs +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.campussync.model;
+
+/**
+ * RosterEntry (immutable view object)
+ *
+ * Minimal student reference (ID + name) used to populate the faculty
+ * attendance and marks forms. Keeps the per-row footprint small compared
+ * to a full Student object.
+ */
+public final class RosterEntry {
+
+    private final int studentId;    // student.student_id
+    private final String name;      // student.name
+
+    public RosterEntry(int studentId, String name) {
+        this.studentId = studentId;
+        this.name = name;
+    }
+
+    public int getStudentId() { return studentId; }
+    public String getName() { return name; }
+
+    @Override
+    public String toString() {
+        return "RosterEntry{" +
+                "studentId=" + studentId +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
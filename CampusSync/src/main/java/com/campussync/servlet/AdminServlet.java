@@ -1,13 +1,30 @@
 package com.campussync.servlet;
 
 import com.campussync.dao.*;
+import com.campussync.model.Faculty;
+import com.campussync.model.Notice;
+import com.campussync.model.Student;
 import com.campussync.model.Subject;
+import com.campussync.util.CsvImport;
+import com.campussync.util.ImportProgress;
 import com.campussync.util.Logger;
+import com.campussync.util.Bulkhead;
+import com.campussync.util.PageRequest;
 import com.campussync.util.TransactionManager;
 import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
 import javax.servlet.http.*;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 
 /**
  * AdminServlet (Controller)
@@ -20,13 +37,35 @@ import java.sql.*;
  * Features:
  * - Transaction support for multi-table operations
  * - List-based DAO returns for clean JSP scriptlet elimination
+ * - Streaming cursor for notices (connection closed after render)
+ * - Keyset-paginated student/faculty/subject tables (?after= / ?before= cursors)
+ * - Heavy listings run inside the ADMIN bulkhead (cannot starve other portals)
+ * - Streaming CSV bulk import of students/faculty with live progress
+ * - Subject rosters: enroll students, a whole course, or remove one
  * - Comprehensive error logging for debugging
  * - Proper error handling and user feedback
  * - Session validation for security
  */
-public class AdminServlet extends HttpServlet {
+@MultipartConfig(
+        fileSizeThreshold = 1024 * 1024 * 1,    // larger uploads are spooled to disk, not memory
+        maxFileSize = 1024 * 1024 * 50
+)
+public class AdminServlet extends BaseServlet {
+
+    /** CSV imports allowed to run at the same time (each holds one connection for minutes). */
+    static final int MAX_CONCURRENT_IMPORTS = 1;
+
+    // Session attribute holding the current / last CSV import
+    private static final String IMPORT_ATTRIBUTE = "com.campussync.import";
+    private static final Semaphore IMPORTS = new Semaphore(MAX_CONCURRENT_IMPORTS);
 
     AdminDAO dao = new AdminDAO();
+    private final EnrollmentDAO enrollmentDAO = new EnrollmentDAO();
+
+    @Override
+    protected Bulkhead.Portal portal() {
+        return Bulkhead.Portal.ADMIN;
+    }
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
@@ -50,24 +89,28 @@ public class AdminServlet extends HttpServlet {
             switch (action) {
 
                 case "notices":
-                    AdminDAO ndao = new AdminDAO();
-                    req.setAttribute("noticeList", ndao.getAllNotices());
-                    req.getRequestDispatcher("admin/notices.jsp").forward(req, resp);
+                    // Stream is closed here even if the JSP fails mid-render
+                    try (Stream<Notice> notices = dao.streamNotices()) {
+                        req.setAttribute("noticeList", notices);
+                        req.getRequestDispatcher("admin/notices.jsp").forward(req, resp);
+                    }
                     return;
 
                 case "students":
-                    req.setAttribute("students", dao.listStudentsAsList());
+                    PageRequest studentPage = pageRequest(req, PageRequest.Sort.ID);
+                    req.setAttribute("students", load(() -> dao.pageStudents(studentPage)));
                     req.getRequestDispatcher("admin/manage_students.jsp").forward(req, resp);
                     return;
 
                 case "faculty":
-                    req.setAttribute("facultyData", dao.listFaculty());
+                    PageRequest facultyPage = pageRequest(req, PageRequest.Sort.ID);
+                    req.setAttribute("facultyData", load(() -> dao.pageFaculty(facultyPage)));
                     req.getRequestDispatcher("admin/manage_faculty.jsp").forward(req, resp);
                     return;
 
                 case "courses":
                     CourseDAO cdao = new CourseDAO();
-                    req.setAttribute("courseData", cdao.getAllCourses());
+                    req.setAttribute("courseData", load(cdao::getAllCourses));
                     req.getRequestDispatcher("admin/manage_courses.jsp").forward(req, resp);
                     return;
 
@@ -76,19 +119,29 @@ public class AdminServlet extends HttpServlet {
                     CourseDAO crDao = new CourseDAO();
                     FacultyDAO fDao = new FacultyDAO();
                     
-                    req.setAttribute("subjectData", sdao.getAllSubjectsJoined());
-                    req.setAttribute("courses", crDao.getAllCourses());     // Populated courses list for dropdown
-                    req.setAttribute("faculty", fDao.getAllFaculty());       // Populated faculty list for dropdown
+                    PageRequest subjectPage = pageRequest(req, PageRequest.Sort.ID);
+                    req.setAttribute("subjectData", load(() -> sdao.pageSubjectsJoined(subjectPage)));
+                    req.setAttribute("courses", load(crDao::getAllCourses));     // Populated courses list for dropdown
+                    req.setAttribute("faculty", load(fDao::getAllFaculty));       // Populated faculty list for dropdown
                     
                     req.getRequestDispatcher("admin/manage_subjects.jsp").forward(req, resp);
                     return;
 
+                case "subjectRoster":
+                    // Enrolled students of one subject (what faculty see in their forms)
+                    int rosterSubjectId = Integer.parseInt(req.getParameter("subject_id"));
+                    SubjectDAO rosterSubjects = new SubjectDAO();
+                    req.setAttribute("subject", load(() -> rosterSubjects.findJoined(rosterSubjectId)));
+                    req.setAttribute("roster", load(() -> enrollmentDAO.roster(rosterSubjectId)));
+                    req.getRequestDispatcher("admin/subject_roster.jsp").forward(req, resp);
+                    return;
+
                 case "addSubject":
                     CourseDAO crDao2 = new CourseDAO();
                     FacultyDAO fDao2 = new FacultyDAO();
 
-                    req.setAttribute("courses", crDao2.getAllCourses());
-                    req.setAttribute("faculty", fDao2.getAllFaculty());
+                    req.setAttribute("courses", load(crDao2::getAllCourses));
+                    req.setAttribute("faculty", load(fDao2::getAllFaculty));
 
                     req.getRequestDispatcher("admin/add_subject.jsp").forward(req, resp);
                     return;
@@ -101,6 +154,20 @@ public class AdminServlet extends HttpServlet {
                     req.getRequestDispatcher("admin/add_notice.jsp").forward(req, resp);
                     return;
 
+                case "importAccounts":
+                    req.setAttribute("importProgress", s.getAttribute(IMPORT_ATTRIBUTE));
+                    req.getRequestDispatcher("admin/import_accounts.jsp").forward(req, resp);
+                    return;
+
+                case "importStatus":
+                    // Polled by import_accounts.jsp while the upload request runs
+                    ImportProgress progress = (ImportProgress) s.getAttribute(IMPORT_ATTRIBUTE);
+                    resp.setContentType("application/json");
+                    resp.setCharacterEncoding("UTF-8");
+                    resp.setHeader("Cache-Control", "no-store");
+                    resp.getWriter().print(progress == null ? "{\"state\":null}" : progress.toJson());
+                    return;
+
                 default:
                     req.getRequestDispatcher("admin/dashboard.jsp").forward(req, resp);
                     return;
@@ -120,114 +187,298 @@ public class AdminServlet extends HttpServlet {
         String action = req.getParameter("action");
         Logger.info("Admin POST action: " + action);
 
-        try {
-
-            switch (action) {
-
-                case "addStudent":
-                    try {
-                        dao.addStudent(
-                                req.getParameter("name"),
-                                req.getParameter("email"),
-                                req.getParameter("password"),
-                                req.getParameter("course"),
-                                Integer.parseInt(req.getParameter("semester"))
-                        );
-                        Logger.info("Student added successfully");
-                        resp.sendRedirect("adminPanel?action=students");
-                    } catch (SQLException e) {
-                        Logger.error("Failed to add student", e);
-                        req.setAttribute("error", "Failed to add student: " + e.getMessage());
-                        req.getRequestDispatcher("admin/manage_students.jsp").forward(req, resp);
-                    }
-                    return;
+        switch (action) {
+
+            case "addStudent":
+                try {
+                    dao.addStudent(
+                            req.getParameter("name"),
+                            req.getParameter("email"),
+                            req.getParameter("password"),
+                            req.getParameter("course"),
+                            Integer.parseInt(req.getParameter("semester"))
+                    );
+                    Logger.info("Student added successfully");
+                    resp.sendRedirect("adminPanel?action=students");
+                } catch (SQLException e) {
+                    Logger.error("Failed to add student", e);
+                    req.setAttribute("error", "Failed to add student: " + e.getMessage());
+                    req.getRequestDispatcher("admin/manage_students.jsp").forward(req, resp);
+                }
+                return;
+
+            case "addFaculty":
+                try {
+                    dao.addFaculty(
+                            req.getParameter("name"),
+                            req.getParameter("email"),
+                            req.getParameter("password"),
+                            req.getParameter("department")
+                    );
+                    Logger.info("Faculty added successfully");
+                    resp.sendRedirect("adminPanel?action=faculty");
+                } catch (SQLException e) {
+                    Logger.error("Failed to add faculty", e);
+                    req.setAttribute("error", "Failed to add faculty: " + e.getMessage());
+                    req.getRequestDispatcher("admin/manage_faculty.jsp").forward(req, resp);
+                }
+                return;
 
-                case "addFaculty":
-                    try {
-                        dao.addFaculty(
-                                req.getParameter("name"),
-                                req.getParameter("email"),
-                                req.getParameter("password"),
-                                req.getParameter("department")
-                        );
-                        Logger.info("Faculty added successfully");
-                        resp.sendRedirect("adminPanel?action=faculty");
-                    } catch (SQLException e) {
-                        Logger.error("Failed to add faculty", e);
-                        req.setAttribute("error", "Failed to add faculty: " + e.getMessage());
-                        req.getRequestDispatcher("admin/manage_faculty.jsp").forward(req, resp);
-                    }
+            case "addCourse":
+                try {
+                    CourseDAO cdao = new CourseDAO();
+                    cdao.addCourse(req.getParameter("course_name"));
+                    Logger.info("Course added successfully");
+                    resp.sendRedirect("adminPanel?action=courses");
+                } catch (Exception e) {
+                    Logger.error("Failed to add course", e);
+                    req.setAttribute("error", "Failed to add course");
+                    req.getRequestDispatcher("admin/manage_courses.jsp").forward(req, resp);
+                }
+                return;
+
+            case "addSubject":
+
+                String subName = req.getParameter("subject_name");
+                int courseId = Integer.parseInt(req.getParameter("course_id"));
+                int facultyId = Integer.parseInt(req.getParameter("faculty_id"));
+
+                Subject s = new Subject();
+                s.setSubjectName(subName);
+                s.setCourseId(courseId);
+                s.setFacultyId(facultyId);
+
+                SubjectDAO sdao = new SubjectDAO();
+
+                boolean success;
+                try {
+                    // Committed (or rolled back) before the redirect is sent
+                    success = TransactionManager.execute(conn -> sdao.addSubject(conn, s));
+                } catch (SQLException e) {
+                    Logger.error("Transaction failed while adding subject: " + subName, e);
+                    req.setAttribute("error", "Database error: " + e.getMessage());
+                    forward(req, resp, "admin/add_subject.jsp");
                     return;
+                }
+
+                if (success) {
+                    Logger.info("Subject '" + subName + "' added successfully with course_id=" + courseId + ", faculty_id=" + facultyId);
+                    resp.sendRedirect("adminPanel?action=subjects&msg=SubjectAdded");
+                } else {
+                    Logger.warn("Subject insert returned false for: " + subName);
+                    resp.sendRedirect("adminPanel?action=subjects&error=SubjectAddFailed");
+                }
+                return;
+
+            case "importAccounts":
+                importAccounts(req, resp);
+                return;
+
+            case "enrollStudents":
+            case "unenrollStudent":
+            case "enrollCourse":
+                updateEnrollment(action, req, resp);
+                return;
+
+            case "saveNotice":
+                try {
+                    dao.addNotice(
+                            req.getParameter("title"),
+                            req.getParameter("message")
+                    );
+                    Logger.info("Notice published successfully");
+                    resp.sendRedirect("adminPanel?action=dashboard&msg=NoticeAdded");
+                } catch (SQLException e) {
+                    Logger.error("Failed to add notice", e);
+                    req.setAttribute("error", "Failed to add notice");
+                    req.getRequestDispatcher("admin/add_notice.jsp").forward(req, resp);
+                }
+                return;
+        }
+    }
 
-                case "addCourse":
-                    try {
-                        CourseDAO cdao = new CourseDAO();
-                        cdao.addCourse(req.getParameter("course_name"));
-                        Logger.info("Course added successfully");
-                        resp.sendRedirect("adminPanel?action=courses");
-                    } catch (Exception e) {
-                        Logger.error("Failed to add course", e);
-                        req.setAttribute("error", "Failed to add course");
-                        req.getRequestDispatcher("admin/manage_courses.jsp").forward(req, resp);
-                    }
-                    return;
+    // =====================================================================
+    // Subject enrollment
+    // =====================================================================
 
-                case "addSubject":
+    /**
+     * Enrolls students in a subject (comma/space separated IDs), removes one,
+     * or enrolls the subject's whole course, then shows the roster again.
+     */
+    private void updateEnrollment(String action, HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
 
-                    String subName = req.getParameter("subject_name");
-                    int courseId = Integer.parseInt(req.getParameter("course_id"));
-                    int facultyId = Integer.parseInt(req.getParameter("faculty_id"));
+        HttpSession session = req.getSession(false);
+        if (session == null || !"admin".equals(session.getAttribute("role"))) {
+            resp.sendRedirect("login.jsp");
+            return;
+        }
 
-                    Subject s = new Subject();
-                    s.setSubjectName(subName);
-                    s.setCourseId(courseId);
-                    s.setFacultyId(facultyId);
+        int subjectId = Integer.parseInt(req.getParameter("subject_id"));
+        String back = "adminPanel?action=subjectRoster&subject_id=" + subjectId;
 
-                    SubjectDAO sdao = new SubjectDAO();
-                    TransactionManager txn = new TransactionManager();
-                    
-                    try {
-                        Connection conn = txn.beginTransaction();
-                        boolean success = sdao.addSubject(conn, s);
-                        
-                        if (success) {
-                            txn.commit();
-                            Logger.info("Subject '" + subName + "' added successfully with course_id=" + courseId + ", faculty_id=" + facultyId);
-                            resp.sendRedirect("adminPanel?action=subjects&msg=SubjectAdded");
-                        } else {
-                            txn.rollback();
-                            Logger.warn("Subject insert returned false for: " + subName);
-                            resp.sendRedirect("adminPanel?action=subjects&error=SubjectAddFailed");
+        try {
+            int changed;
+            switch (action) {
+                case "enrollStudents":
+                    Set<Integer> ids = new TreeSet<>();
+                    String list = req.getParameter("student_ids");
+                    for (String token : (list == null ? "" : list).split("[,\\s]+")) {
+                        if (token.isEmpty()) continue;
+                        try {
+                            ids.add(Integer.parseInt(token));
+                        } catch (NumberFormatException e) {
+                            resp.sendRedirect(back + "&error=BadStudentId");
+                            return;
                         }
-                    } catch (SQLException e) {
-                        txn.rollback();
-                        Logger.error("Transaction failed while adding subject: " + subName, e);
-                        req.setAttribute("error", "Database error: " + e.getMessage());
-                        req.getRequestDispatcher("admin/add_subject.jsp").forward(req, resp);
-                    } finally {
-                        txn.closeConnection();
-                    }
-                    return;
-
-                case "saveNotice":
-                    try {
-                        dao.addNotice(
-                                req.getParameter("title"),
-                                req.getParameter("message")
-                        );
-                        Logger.info("Notice published successfully");
-                        resp.sendRedirect("adminPanel?action=dashboard&msg=NoticeAdded");
-                    } catch (SQLException e) {
-                        Logger.error("Failed to add notice", e);
-                        req.setAttribute("error", "Failed to add notice");
-                        req.getRequestDispatcher("admin/add_notice.jsp").forward(req, resp);
                     }
-                    return;
+                    changed = enrollmentDAO.enroll(subjectId, ids);
+                    resp.sendRedirect(back + "&msg=" + URLEncoder.encode(changed + " student(s) enrolled", "UTF-8"));
+                    break;
+
+                case "unenrollStudent":
+                    int studentId = Integer.parseInt(req.getParameter("student_id"));
+                    changed = enrollmentDAO.unenroll(subjectId, Collections.singleton(studentId));
+                    resp.sendRedirect(back + "&msg=" + URLEncoder.encode(changed + " student(s) removed", "UTF-8"));
+                    break;
+
+                default:    // enrollCourse
+                    changed = enrollmentDAO.enrollCourse(subjectId);
+                    resp.sendRedirect(back + "&msg=" + URLEncoder.encode(changed + " student(s) enrolled", "UTF-8"));
+                    break;
             }
-
+            Logger.info("Enrollment " + action + " on subject " + subjectId + ": " + changed + " row(s)");
         } catch (SQLException e) {
-            Logger.error("SQL error in doPost", e);
+            Logger.error("Enrollment update failed: " + action + " on subject " + subjectId, e);
             throw new ServletException(e);
         }
     }
+
+    // =====================================================================
+    // CSV bulk import
+    // =====================================================================
+
+    /**
+     * Streams an uploaded students/faculty CSV into the database.
+     *
+     * Working:
+     * - The multipart file is read straight from the request stream
+     *   (CsvImport → BatchInsert), never loaded into memory as a whole
+     * - Progress lives in the session; import_accounts.jsp polls importStatus
+     * - One import per session, MAX_CONCURRENT_IMPORTS across the server
+     *   (429 + Retry-After otherwise); it runs outside the ADMIN bulkhead, so a
+     *   long upload never holds a permit the admin pages need
+     * - Answers JSON to the page's fetch() call, a redirect otherwise
+     */
+    private void importAccounts(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+
+        HttpSession session = req.getSession(false);
+        if (session == null || !"admin".equals(session.getAttribute("role"))) {
+            resp.sendRedirect("login.jsp");
+            return;
+        }
+
+        ImportProgress previous = (ImportProgress) session.getAttribute(IMPORT_ATTRIBUTE);
+        if (previous != null && previous.isRunning()) {
+            resp.sendError(HttpServletResponse.SC_CONFLICT, "An import is already running");
+            return;
+        }
+
+        String type = "faculty".equals(req.getParameter("type")) ? "faculty" : "students";
+        Part file = req.getPart("file");
+        if (file == null || file.getSize() == 0) {
+            resp.sendRedirect("adminPanel?action=importAccounts&error=NoFile");
+            return;
+        }
+
+        if (!IMPORTS.tryAcquire()) {
+            resp.setHeader("Retry-After", "30");
+            resp.sendError(429, "Another import is running, please try again shortly");
+            return;
+        }
+
+        ImportProgress progress = new ImportProgress(type, file.getSubmittedFileName());
+        session.setAttribute(IMPORT_ATTRIBUTE, progress);
+        Logger.info("CSV import started: " + type + " from " + file.getSubmittedFileName()
+                + " (" + file.getSize() + " bytes)");
+
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            runImport(type, reader, progress);
+        } catch (SQLException | IOException e) {
+            // Already recorded in progress (FAILED); the page shows the reason
+            Logger.error("CSV import failed: " + progress, e);
+        } finally {
+            IMPORTS.release();
+        }
+
+        if ("fetch".equals(req.getHeader("X-Requested-By"))) {
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            resp.getWriter().print(progress.toJson());
+        } else {
+            resp.sendRedirect("adminPanel?action=importAccounts");
+        }
+    }
+
+    private static void runImport(String type, Reader reader, ImportProgress progress)
+            throws IOException, SQLException {
+        if ("faculty".equals(type)) {
+            FacultyDAO fdao = new FacultyDAO();
+            new CsvImport<>(new String[] {"name", "email", "password"}, AdminServlet::facultyFromCsv,
+                    Faculty::getEmail, fdao::findExistingEmails, fdao::createFaculty)
+                    .run(reader, progress);
+        } else {
+            StudentDAO sdao = new StudentDAO();
+            new CsvImport<>(new String[] {"name", "email", "password"}, AdminServlet::studentFromCsv,
+                    Student::getEmail, sdao::findExistingEmails, sdao::createStudents)
+                    .run(reader, progress);
+        }
+    }
+
+    /** CSV columns: name, email, password, course, semester. */
+    private static Student studentFromCsv(CsvImport.Row row) {
+        Student st = new Student();
+        st.setName(required(row, "name"));
+        st.setEmail(email(row));
+        st.setPassword(required(row, "password"));
+        st.setCourse(row.get("course"));
+
+        String semester = row.get("semester");
+        if (semester != null) {
+            try {
+                st.setSemester(Integer.parseInt(semester));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Semester is not a number: " + semester);
+            }
+            if (st.getSemester() < 1) {
+                throw new IllegalArgumentException("Semester must be 1 or more: " + semester);
+            }
+        }
+        return st;
+    }
+
+    /** CSV columns: name, email, password, department. */
+    private static Faculty facultyFromCsv(CsvImport.Row row) {
+        Faculty f = new Faculty();
+        f.setName(required(row, "name"));
+        f.setEmail(email(row));
+        f.setPassword(required(row, "password"));
+        f.setDepartment(row.get("department"));
+        return f;
+    }
+
+    private static String required(CsvImport.Row row, String column) {
+        String value = row.get(column);
+        if (value == null) throw new IllegalArgumentException("Missing " + column);
+        return value;
+    }
+
+    private static String email(CsvImport.Row row) {
+        String email = required(row, "email");
+        if (email.indexOf('@') <= 0 || email.length() > 100) {
+            throw new IllegalArgumentException("Invalid email: " + email);
+        }
+        return email;
+    }
 }
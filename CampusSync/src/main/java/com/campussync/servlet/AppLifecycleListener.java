@@ -0,0 +1,62 @@
+package com.campussync.servlet;
+
+import com.campussync.dao.AttendanceDAO;
+import com.campussync.job.AttendancePartitionJob;
+import com.campussync.util.DBConnection;
+import com.campussync.util.Logger;
+import com.campussync.util.MigrationRunner;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import java.sql.SQLException;
+
+/**
+ * AppLifecycleListener
+ *
+ * Hooks into webapp startup/shutdown (registered in web.xml).
+ *
+ * Purpose:
+ * - On startup: apply pending schema migrations (db/migration) before the
+ *   first request; disable with -Dcampussync.migrations.enabled=false
+ * - On startup: check and log the attendance storage mode
+ * - On startup: schedule the daily attendance partition job; disable with
+ *   -Dcampussync.partitions.enabled=false
+ * - On shutdown/redeploy: close the pooled database connections so Tomcat
+ *   does not keep stale MySQL sockets (and pool threads) from the old webapp
+ */
+public class AppLifecycleListener implements ServletContextListener {
+
+    private static final boolean MIGRATE_ON_STARTUP =
+            Boolean.parseBoolean(System.getProperty("campussync.migrations.enabled", "true"));
+
+    private static final boolean PARTITION_JOB =
+            Boolean.parseBoolean(System.getProperty("campussync.partitions.enabled", "true"));
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        Logger.info("CampusSync starting");
+
+        if (MIGRATE_ON_STARTUP) {
+            try {
+                MigrationRunner.migrate();
+            } catch (SQLException e) {
+                // MySQL down: start anyway (requests get 503 until it is back);
+                // the migrations run on the next start or from the CLI
+                Logger.error("Schema migration skipped, database unavailable", e);
+            }
+            // IllegalStateException (an applied migration was edited) fails the deployment
+        }
+
+        // Loads AttendanceDAO: an unknown -Dcampussync.attendance.store fails the deployment here
+        Logger.info("Attendance store: " + AttendanceDAO.STORE_MODE);
+
+        if (PARTITION_JOB) AttendancePartitionJob.schedule();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        Logger.info("CampusSync stopping - closing connection pool");
+        AttendancePartitionJob.shutdown();
+        DBConnection.shutdown();
+    }
+}
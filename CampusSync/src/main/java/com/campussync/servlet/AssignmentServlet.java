@@ -1,7 +1,5 @@
 package com.campussync.servlet;
 
-import com.campussync.util.DBConnection;
-
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.annotation.MultipartConfig;
 import javax.servlet.http.*;
@@ -45,7 +43,7 @@ import java.sql.*;
         fileSizeThreshold = 1024 * 1024,       // 1 MB - threshold for disk writing
         maxFileSize = 1024 * 1024 * 10         // 10 MB - maximum upload file size
 )
-public class AssignmentServlet extends HttpServlet {
+public class AssignmentServlet extends BaseServlet {
 
     /**
      * Handles POST request for assignment upload.
@@ -116,9 +114,9 @@ public class AssignmentServlet extends HttpServlet {
         // STEP 6: INSERT ASSIGNMENT METADATA INTO DATABASE
         // =====================================================================
         
-        try (Connection conn = DBConnection.getConnection()) {
+        try {
 
-            PreparedStatement ps = conn.prepareStatement(
+            PreparedStatement ps = db(req).get().prepareStatement(
                     "INSERT INTO assignment(subject_id, title, description, due_date, file_path) VALUES(?,?,?,?,?)"
             );
 
@@ -1,6 +1,7 @@
 package com.campussync.servlet;
 
-import com.campussync.util.DBConnection;
+import com.campussync.util.HotQuery;
+import com.campussync.util.LazyConnection;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -28,7 +29,20 @@ import java.sql.*;
  * - Plain text passwords only for prototype.
  * - In production → ALWAYS use BCrypt hashing + HTTPS.
  */
-public class AuthServlet extends HttpServlet {
+public class AuthServlet extends BaseServlet {
+
+    // Login lookups: unique email / username keys, one row each
+    @HotQuery(params = {"${email}", "x"}, maxRows = 1)
+    private static final String SQL_STUDENT_LOGIN =
+            "SELECT student_id, name FROM student WHERE email=? AND password=?";
+
+    @HotQuery(params = {"x", "x"}, maxRows = 1)
+    private static final String SQL_FACULTY_LOGIN =
+            "SELECT faculty_id, name FROM faculty WHERE email=? AND password=?";
+
+    @HotQuery(params = {"x", "x"}, maxRows = 1)
+    private static final String SQL_ADMIN_LOGIN =
+            "SELECT admin_id, username FROM admin WHERE username=? AND password=?";
 
     // =====================================================================
     //  LOGIN HANDLER (POST)
@@ -52,7 +66,10 @@ public class AuthServlet extends HttpServlet {
         // =================================================================
         // DATABASE AUTHENTICATION LOGIC
         // =================================================================
-        try (Connection conn = DBConnection.getConnection()) {
+        // Borrowed lazily: an invalid role never touches the pool
+        LazyConnection db = db(req);
+
+        try {
 
             PreparedStatement ps;
             ResultSet rs;
@@ -63,9 +80,7 @@ public class AuthServlet extends HttpServlet {
                 // STUDENT LOGIN
                 // ----------------------------------------------------------
                 case "student":
-                    ps = conn.prepareStatement(
-                            "SELECT student_id, name FROM student WHERE email=? AND password=?"
-                    );
+                    ps = db.get().prepareStatement(SQL_STUDENT_LOGIN);
                     ps.setString(1, emailOrUsername);
                     ps.setString(2, password);
 
@@ -93,9 +108,7 @@ public class AuthServlet extends HttpServlet {
                 // FACULTY LOGIN
                 // ----------------------------------------------------------
                 case "faculty":
-                    ps = conn.prepareStatement(
-                            "SELECT faculty_id, name FROM faculty WHERE email=? AND password=?"
-                    );
+                    ps = db.get().prepareStatement(SQL_FACULTY_LOGIN);
                     ps.setString(1, emailOrUsername);
                     ps.setString(2, password);
 
@@ -123,9 +136,7 @@ public class AuthServlet extends HttpServlet {
                 // ADMIN LOGIN
                 // ----------------------------------------------------------
                 case "admin":
-                    ps = conn.prepareStatement(
-                            "SELECT admin_id, username FROM admin WHERE username=? AND password=?"
-                    );
+                    ps = db.get().prepareStatement(SQL_ADMIN_LOGIN);
                     ps.setString(1, emailOrUsername);
                     ps.setString(2, password);
 
@@ -160,7 +171,7 @@ public class AuthServlet extends HttpServlet {
 
             // If control reaches here → invalid credentials
             req.setAttribute("error", "Invalid credentials. Please try again.");
-            req.getRequestDispatcher("login.jsp").forward(req, resp);
+            forward(req, resp, "login.jsp");
 
         } catch (SQLException e) {
             throw new ServletException("Database error during authentication", e);
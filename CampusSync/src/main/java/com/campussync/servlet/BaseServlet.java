@@ -0,0 +1,155 @@
+package com.campussync.servlet;
+
+import com.campussync.util.Bulkhead;
+import com.campussync.util.DBConnection;
+import com.campussync.util.DatabaseUnavailableException;
+import com.campussync.util.LazyConnection;
+import com.campussync.util.Logger;
+import com.campussync.util.PageRequest;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * BaseServlet
+ *
+ * Common superclass for all CampusSync servlets.
+ *
+ * Features:
+ * - One LazyConnection handle per request, available through db(req).
+ *   The pool is only touched when an action really runs SQL, so actions
+ *   that just forward to a JSP cost zero connections.
+ * - The handle is always closed when the request finishes (even on errors),
+ *   so servlets never have to remember to return the connection.
+ * - forward(...) releases the connection before dispatching to the JSP,
+ *   keeping the render phase connection-free.
+ * - load(...) runs DAO reads inside the servlet's portal Bulkhead, so each
+ *   portal (admin/faculty/student) has its own share of connections.
+ * - Database outages: a DatabaseUnavailableException (circuit breaker open)
+ *   anywhere in the cause chain becomes HTTP 503 + Retry-After, rendered by
+ *   the 503 error page, instead of a stack trace.
+ * - Read-your-writes: a POST stamps the session, and for the next
+ *   DBConnection.READ_YOUR_WRITES_MS every read of that session goes to the
+ *   primary, so a user never misses their own change on a lagging replica.
+ */
+public abstract class BaseServlet extends HttpServlet {
+
+    private static final String DB_ATTRIBUTE = "com.campussync.db";
+    private static final String LAST_WRITE_ATTRIBUTE = "com.campussync.lastWrite";
+
+    @Override
+    protected void service(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+
+        LazyConnection db = new LazyConnection();
+        req.setAttribute(DB_ATTRIBUTE, db);
+
+        boolean write = "POST".equals(req.getMethod());
+        DBConnection.setReadFromPrimary(write || recentlyWrote(req.getSession(false)));
+
+        try {
+            super.service(req, resp);
+        } catch (ServletException | RuntimeException e) {
+            DatabaseUnavailableException down = findUnavailable(e);
+            if (down == null) throw e;
+            sendUnavailable(req, resp, down);
+        } finally {
+            db.close();
+            req.removeAttribute(DB_ATTRIBUTE);
+            DBConnection.setReadFromPrimary(false);
+
+            if (write && DBConnection.isReplicaEnabled()) {
+                // Session may have been created (login) or invalidated (logout)
+                try {
+                    HttpSession session = req.getSession(false);
+                    if (session != null) session.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+                } catch (IllegalStateException ignored) { }
+            }
+        }
+    }
+
+    private static DatabaseUnavailableException findUnavailable(Throwable t) {
+        for (int depth = 0; t != null && depth < 10; depth++) {
+            if (t instanceof DatabaseUnavailableException) return (DatabaseUnavailableException) t;
+            Throwable next = t instanceof ServletException ? ((ServletException) t).getRootCause() : null;
+            t = next != null ? next : t.getCause();
+        }
+        return null;
+    }
+
+    private static void sendUnavailable(HttpServletRequest req, HttpServletResponse resp,
+                                        DatabaseUnavailableException down) throws IOException {
+        Logger.warn("503 for " + req.getRequestURI() + ": " + down.getMessage());
+        if (resp.isCommitted()) return;
+
+        resp.reset();
+        resp.setHeader("Retry-After", String.valueOf(down.getRetryAfterSeconds()));
+        resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "The database is temporarily unavailable. Please try again shortly.");
+    }
+
+    private static boolean recentlyWrote(HttpSession session) {
+        if (session == null || !DBConnection.isReplicaEnabled()) return false;
+        try {
+            Long lastWrite = (Long) session.getAttribute(LAST_WRITE_ATTRIBUTE);
+            return lastWrite != null
+                    && System.currentTimeMillis() - lastWrite < DBConnection.READ_YOUR_WRITES_MS;
+        } catch (IllegalStateException e) {
+            return false;   // invalidated concurrently
+        }
+    }
+
+    /**
+     * Lazy connection handle for the current request.
+     * Call db(req).get() only where SQL is actually executed.
+     */
+    protected LazyConnection db(HttpServletRequest req) {
+        LazyConnection db = (LazyConnection) req.getAttribute(DB_ATTRIBUTE);
+        if (db == null) {
+            // Request did not pass through service() (e.g. called directly)
+            db = new LazyConnection();
+            req.setAttribute(DB_ATTRIBUTE, db);
+        }
+        return db;
+    }
+
+    /**
+     * Portal whose Bulkhead limits this servlet's DAO work; null = unlimited.
+     */
+    protected Bulkhead.Portal portal() {
+        return null;
+    }
+
+    /**
+     * Runs a DAO read inside this servlet's portal Bulkhead.
+     * Do not use for stream-returning DAO methods - the permit would be
+     * released before the stream is consumed.
+     */
+    protected <T> T load(Bulkhead.DaoCall<T> call) throws SQLException {
+        Bulkhead.Portal portal = portal();
+        return portal == null ? call.call() : Bulkhead.forPortal(portal).execute(call);
+    }
+
+    /**
+     * Reads keyset pagination parameters (sort, size, after, before) from the
+     * request; missing or malformed values fall back to the first page.
+     */
+    protected PageRequest pageRequest(HttpServletRequest req, PageRequest.Sort defaultSort) {
+        return PageRequest.of(req.getParameter("sort"), req.getParameter("size"),
+                req.getParameter("after"), req.getParameter("before"), defaultSort);
+    }
+
+    /**
+     * Releases this request's connection (if any) and forwards to the view.
+     */
+    protected void forward(HttpServletRequest req, HttpServletResponse resp, String view)
+            throws ServletException, IOException {
+        db(req).close();
+        req.getRequestDispatcher(view).forward(req, resp);
+    }
+}
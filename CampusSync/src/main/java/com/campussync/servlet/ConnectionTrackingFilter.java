@@ -0,0 +1,52 @@
+package com.campussync.servlet;
+
+import com.campussync.util.DBConnection;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * ConnectionTrackingFilter
+ *
+ * Tags every request thread with the servlet action it is running
+ * (e.g. "adminPanel:notices", "faculty:attendance") so the connection pool
+ * can attribute leaked or long-held connections to a specific action.
+ *
+ * URL Mapping: all requests (see web.xml)
+ *
+ * The tag is always cleared afterwards - Tomcat reuses request threads, and a
+ * stale tag would blame the wrong action.
+ */
+public class ConnectionTrackingFilter implements Filter {
+
+    @Override
+    public void init(FilterConfig filterConfig) { }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest req = (HttpServletRequest) request;
+
+        String path = req.getServletPath();
+        if (path.startsWith("/")) path = path.substring(1);
+
+        String action = req.getParameter("action");
+        DBConnection.setCurrentAction(action == null ? path : path + ":" + action);
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DBConnection.clearCurrentAction();
+        }
+    }
+
+    @Override
+    public void destroy() { }
+}
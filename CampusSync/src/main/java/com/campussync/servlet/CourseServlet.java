@@ -28,7 +28,7 @@ import com.campussync.dao.CourseDAO;
  * 4. Call CourseDAO.addCourse() to save to database
  * 5. Redirect to /adminPanel?action=courses
  */
-public class CourseServlet extends HttpServlet {
+public class CourseServlet extends BaseServlet {
 
     /**
      * Handles POST request for course creation.
@@ -0,0 +1,147 @@
+package com.campussync.servlet;
+
+import com.campussync.dao.AdminDAO;
+import com.campussync.util.Logger;
+import com.campussync.util.TableExport;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ExportServlet
+ *
+ * Full-table exports for the registrar, replacing hand-written SQL against
+ * production.
+ *
+ * URL Mapping: /export
+ * Supported Methods: GET (admin session only)
+ *
+ * Parameters:
+ * - table:  students | attendance | marks
+ * - format: csv (default) | json
+ *
+ * Working:
+ * - Rows are streamed from a forward-only cursor straight into the response
+ *   (AdminDAO.exportXxx → TableExport); no Content-Length is set, so the
+ *   container sends the body with chunked transfer encoding as it is written
+ * - The export reads one consistent snapshot (its SELECTs run in one
+ *   read-only transaction) on a read connection - the replica when it is healthy
+ * - Compressed with gzip when the client sends Accept-Encoding: gzip
+ *   (attendance CSV shrinks roughly 8x)
+ * - At most MAX_CONCURRENT_EXPORTS at a time across the server (extra
+ *   requests get 429 + Retry-After). Exports run outside the ADMIN bulkhead:
+ *   a download holds its connection for minutes, and must not take one of
+ *   the permits the admin pages need (same as the CSV import)
+ * - table=attendance answers 409 when attendance is stored as session
+ *   bitmaps (campussync.attendance.store=sessions): the export reads the
+ *   attendance table, which would be empty or incomplete
+ * - Errors after the first bytes were sent cannot change the status code:
+ *   they are logged and rethrown as IOException, so the container aborts the
+ *   connection instead of ending the chunked body normally - the download
+ *   fails in the browser rather than looking like a shorter, complete file
+ */
+public class ExportServlet extends BaseServlet {
+
+    /** Exports allowed to run at the same time (each holds one connection). */
+    static final int MAX_CONCURRENT_EXPORTS = 2;
+
+    private static final int WRITE_BUFFER = 64 * 1024;
+    private static final Semaphore EXPORTS = new Semaphore(MAX_CONCURRENT_EXPORTS);
+
+    private final AdminDAO dao = new AdminDAO();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+
+        HttpSession s = req.getSession(false);
+        if (s == null || !"admin".equals(s.getAttribute("role"))) {
+            Logger.warn("Unauthorized export attempt");
+            resp.sendRedirect("login.jsp");
+            return;
+        }
+
+        String table = req.getParameter("table");
+        if (!"students".equals(table) && !"attendance".equals(table) && !"marks".equals(table)) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown table: " + table);
+            return;
+        }
+        if ("attendance".equals(table) && !AdminDAO.isAttendanceExportAvailable()) {
+            // Refused up front: the attendance table does not hold sessions-mode marks
+            resp.sendError(HttpServletResponse.SC_CONFLICT,
+                    "Attendance export is not available with the sessions attendance store");
+            return;
+        }
+        TableExport.Format format = TableExport.Format.of(req.getParameter("format"));
+
+        if (!EXPORTS.tryAcquire()) {
+            resp.setHeader("Retry-After", "30");
+            resp.sendError(429, "Another export is running, please try again shortly");
+            return;
+        }
+
+        try {
+            String fileName = table + "-" + LocalDate.now() + "." + format.getExtension();
+            boolean gzip = acceptsGzip(req);
+
+            resp.setContentType(format.getContentType());
+            resp.setCharacterEncoding("UTF-8");
+            resp.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+            resp.setHeader("Cache-Control", "no-store");
+            resp.setHeader("Vary", "Accept-Encoding");
+            if (gzip) resp.setHeader("Content-Encoding", "gzip");
+
+            Logger.info("Export started: " + fileName + (gzip ? " (gzip)" : ""));
+
+            OutputStream body = gzip ? new GZIPOutputStream(resp.getOutputStream(), WRITE_BUFFER)
+                                     : resp.getOutputStream();
+            Writer out = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), WRITE_BUFFER);
+            export(table, format, out);
+            out.close();    // only on success: writes the gzip trailer / last chunk
+
+        } catch (IOException e) {
+            Logger.warn("Export aborted by client: " + e.getMessage());
+        } catch (SQLException e) {
+            Logger.error("Export of " + table + " failed", e);
+            if (!resp.isCommitted()) {
+                // Nothing reached the client yet: drop the buffered bytes and let
+                // BaseServlet answer (503 for an outage, 500 otherwise)
+                resp.reset();
+                throw new ServletException(e);
+            }
+            // Part of the file is out: never close the body normally (no last
+            // chunk / gzip trailer) - the container aborts the connection
+            throw new IOException("Export of " + table + " failed after the response was committed", e);
+        } finally {
+            EXPORTS.release();
+        }
+    }
+
+    private long export(String table, TableExport.Format format, Writer out) throws SQLException, IOException {
+        switch (table) {
+            case "attendance":
+                return dao.exportAttendance(format, out);
+            case "marks":
+                return dao.exportMarks(format, out);
+            default:
+                return dao.exportStudents(format, out);
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest req) {
+        String accept = req.getHeader("Accept-Encoding");
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+}
@@ -1,18 +1,45 @@
 package com.campussync.servlet;
 
 import com.campussync.dao.AdminDAO;
-import com.campussync.util.DBConnection;
+import com.campussync.dao.AttendanceDAO;
+import com.campussync.dao.EnrollmentDAO;
+import com.campussync.dao.MarksDAO;
+import com.campussync.dao.SubjectDAO;
+import com.campussync.model.RegisterResult;
+import com.campussync.util.Bulkhead;
+import com.campussync.util.Json;
+import com.campussync.util.RetryPolicy;
+import com.campussync.util.TransactionManager;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.MultipartConfig;
 import javax.servlet.http.*;
 import java.io.*;
+import java.net.URLEncoder;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.TreeMap;
 
 @MultipartConfig(
         fileSizeThreshold = 1024 * 1024 * 1,
         maxFileSize = 1024 * 1024 * 10
 )
-public class FacultyServlet extends HttpServlet {
+public class FacultyServlet extends BaseServlet {
+
+    private final AdminDAO adminDAO = new AdminDAO();
+    private final EnrollmentDAO enrollmentDAO = new EnrollmentDAO();
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private final SubjectDAO subjectDAO = new SubjectDAO();
+    private final MarksDAO marksDAO = new MarksDAO();
+
+    // Session attribute carrying the last register result across the redirect
+    private static final String REGISTER_RESULT_ATTRIBUTE = "com.campussync.registerResult";
+
+    @Override
+    protected Bulkhead.Portal portal() {
+        return Bulkhead.Portal.FACULTY;
+    }
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
@@ -32,65 +59,92 @@ public class FacultyServlet extends HttpServlet {
 
         int facultyId = (int) s.getAttribute("userId");
 
-        try (Connection conn = DBConnection.getConnection()) {
+        // Load first (each DAO call returns its connection to the pool),
+        // then render with no connection held.
+        String view;
 
+        try {
             switch (action) {
 
                 // ===============================
                 //  SHOW NOTICES
                 // ===============================
                 case "notices":
-                    AdminDAO ndao = new AdminDAO();
-                    req.setAttribute("noticeList", ndao.getAllNotices());
-                    req.getRequestDispatcher("faculty/notices.jsp").forward(req, resp);
-                    return;
+                    req.setAttribute("noticeList", load(adminDAO::listNotices));
+                    view = "faculty/notices.jsp";
+                    break;
 
                 // ===============================
                 //  ATTENDANCE PAGE
                 // ===============================
                 case "attendance":
-                    PreparedStatement ps = conn.prepareStatement(
-                            "SELECT student_id, name FROM student"
-                    );
-
-                    ResultSet rs = ps.executeQuery();
-                    req.setAttribute("students", rs);
-
-                    req.getRequestDispatcher("faculty/attendance.jsp").forward(req, resp);
-                    return;
+                    // Register grid: the faculty's subjects and, once a subject and
+                    // date are chosen, that subject's (cached) roster and what was
+                    // saved for the class
+                    req.setAttribute("subjects", load(() -> subjectDAO.listByFaculty(facultyId)));
+
+                    String subjectParam = req.getParameter("subject_id");
+                    LocalDate registerDate = parseDate(req.getParameter("date"));
+                    req.setAttribute("registerDate", registerDate);
+                    if (subjectParam != null && !subjectParam.isEmpty()) {
+                        int registerSubject = Integer.parseInt(subjectParam);
+                        // Same ownership rule as saveRegister, before the roster or any mark is read
+                        if (!load(() -> subjectDAO.isTaughtBy(registerSubject, facultyId))) {
+                            resp.sendError(HttpServletResponse.SC_FORBIDDEN,
+                                    "Subject " + registerSubject + " is not assigned to you");
+                            return;
+                        }
+                        req.setAttribute("registerSubject", registerSubject);
+                        req.setAttribute("students", load(() -> enrollmentDAO.roster(registerSubject)));
+                        req.setAttribute("saved", load(() -> attendanceDAO.findRegister(registerSubject, registerDate)));
+                    }
+
+                    // Per-student results of the save that redirected here (flash)
+                    req.setAttribute("registerResult", s.getAttribute(REGISTER_RESULT_ATTRIBUTE));
+                    s.removeAttribute(REGISTER_RESULT_ATTRIBUTE);
+                    view = "faculty/attendance.jsp";
+                    break;
 
                 // ===============================
                 //  UPLOAD ASSIGNMENT
                 // ===============================
                 case "upload":
-                    req.getRequestDispatcher("faculty/upload_assignment.jsp").forward(req, resp);
-                    return;
+                    view = "faculty/upload_assignment.jsp";
+                    break;
 
                 // ===============================
                 //  ENTER MARKS
                 // ===============================
                 case "marks":
-                    PreparedStatement ps2 = conn.prepareStatement(
-                            "SELECT student_id, name FROM student"
-                    );
-
-                    ResultSet rs2 = ps2.executeQuery();
-                    req.setAttribute("students", rs2);
-
-                    req.getRequestDispatcher("faculty/marks.jsp").forward(req, resp);
-                    return;
+                    // Gradebook: one query for every enrolled student × assessment of the subject
+                    req.setAttribute("subjects", load(() -> subjectDAO.listByFaculty(facultyId)));
+                    String gradebookSubject = req.getParameter("subject_id");
+                    if (gradebookSubject != null && !gradebookSubject.isEmpty()) {
+                        int gbSubjectId = Integer.parseInt(gradebookSubject);
+                        try {
+                            req.setAttribute("gradebook", load(() -> marksDAO.loadGradebook(facultyId, gbSubjectId)));
+                        } catch (IllegalArgumentException e) {
+                            // Another faculty member's subject
+                            resp.sendError(HttpServletResponse.SC_FORBIDDEN, e.getMessage());
+                            return;
+                        }
+                    }
+                    view = "faculty/marks.jsp";
+                    break;
 
                 // ===============================
                 //  DEFAULT: DASHBOARD
                 // ===============================
                 default:
-                    req.getRequestDispatcher("faculty/dashboard.jsp").forward(req, resp);
-                    return;
+                    view = "faculty/dashboard.jsp";
+                    break;
             }
 
         } catch (SQLException e) {
             throw new ServletException(e);
         }
+
+        forward(req, resp, view);
     }
 
     // =======================================================================
@@ -101,31 +155,28 @@ public class FacultyServlet extends HttpServlet {
             throws ServletException, IOException {
 
         String action = req.getParameter("action");
+        if (action == null) action = "";
 
-        try (Connection conn = DBConnection.getConnection()) {
+        // Each action runs in one transaction: one connection, one COMMIT.
+        // Deadlocks / lock-wait timeouts are replayed with backoff (RetryPolicy).
+        // The connection is only borrowed once the inputs are parsed and any
+        // upload is already on disk.
+        try {
 
             switch (action) {
 
                 // ===============================
-                // SAVE ATTENDANCE
+                // SAVE WHOLE-CLASS REGISTER
                 // ===============================
-                case "saveAttendance":
-
-                    int studentId = Integer.parseInt(req.getParameter("student"));
-                    int subjectId = Integer.parseInt(req.getParameter("subject_id"));
-                    String attendanceDate = req.getParameter("date");
-                    String attendanceStatus = req.getParameter("status");  // Get status from form instead of hardcoding "P"
-
-                    PreparedStatement ps = conn.prepareStatement(
-                            "INSERT INTO attendance(student_id, subject_id, att_date, status) VALUES(?,?,?,?)"
-                    );
-                    ps.setInt(1, studentId);
-                    ps.setInt(2, subjectId);
-                    ps.setDate(3, Date.valueOf(attendanceDate));
-                    ps.setString(4, attendanceStatus);  // Use the actual status value (P or A)
-                    ps.executeUpdate();
+                case "saveRegister":
+                    saveRegister(req, resp);
+                    return;
 
-                    resp.sendRedirect(req.getContextPath() + "/faculty?action=attendance&msg=Saved");
+                // ===============================
+                // SAVE GRADEBOOK COLUMN
+                // ===============================
+                case "saveGradebook":
+                    saveGradebook(req, resp);
                     return;
 
                 // ===============================
@@ -147,37 +198,25 @@ public class FacultyServlet extends HttpServlet {
 
                     filePart.write(uploadPath + File.separator + fileName);
 
-                    PreparedStatement ps2 = conn.prepareStatement(
-                            "INSERT INTO assignment(subject_id, title, description, due_date, file_path) VALUES(?,?,?,?,?)"
-                    );
-                    ps2.setInt(1, subId);
-                    ps2.setString(2, title);
-                    ps2.setString(3, desc);
-                    ps2.setDate(4, Date.valueOf(dueDate));
-                    ps2.setString(5, "uploads/" + fileName);
-                    ps2.executeUpdate();
+                    TransactionManager.execute(RetryPolicy.DEFAULT, conn -> {
+                        try (PreparedStatement ps2 = conn.prepareStatement(
+                                "INSERT INTO assignment(subject_id, title, description, due_date, file_path) VALUES(?,?,?,?,?)")) {
+                            ps2.setInt(1, subId);
+                            ps2.setString(2, title);
+                            ps2.setString(3, desc);
+                            ps2.setDate(4, Date.valueOf(dueDate));
+                            ps2.setString(5, "uploads/" + fileName);
+                            return ps2.executeUpdate();
+                        }
+                    });
 
                     resp.sendRedirect(req.getContextPath() + "/faculty?action=upload&msg=Uploaded");
                     return;
 
-                // ===============================
-                // ENTER MARKS
-                // ===============================
-                case "enterMarks":
-
-                    int stId = Integer.parseInt(req.getParameter("student_id"));
-                    int subjId = Integer.parseInt(req.getParameter("subject_id"));
-                    int marks = Integer.parseInt(req.getParameter("marks"));
-
-                    PreparedStatement ps3 = conn.prepareStatement(
-                            "INSERT INTO marks(student_id, subject_id, marks) VALUES(?,?,?)"
-                    );
-                    ps3.setInt(1, stId);
-                    ps3.setInt(2, subjId);
-                    ps3.setInt(3, marks);
-                    ps3.executeUpdate();
-
-                    resp.sendRedirect(req.getContextPath() + "/faculty?action=marks&msg=Added");
+                // Attendance and marks are only written through saveRegister /
+                // saveGradebook, which check subject ownership and enrollment
+                default:
+                    resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown action: " + action);
                     return;
             }
 
@@ -185,4 +224,150 @@ public class FacultyServlet extends HttpServlet {
             throw new ServletException(e);
         }
     }
+
+    // =======================================================================
+    //  WHOLE-CLASS REGISTER
+    // =======================================================================
+
+    /**
+     * Saves the full P/A grid of one subject and date in one batched
+     * transaction (AttendanceDAO.saveRegister).
+     *
+     * Parameters: subject_id, date, status_<studentId> = P | A (one per row)
+     *
+     * Response:
+     * - Accept: application/json → per-student results as JSON
+     * - otherwise → redirect back to the grid, results shown per row
+     * - Server-Timing header with the database time of the save
+     */
+    private void saveRegister(HttpServletRequest req, HttpServletResponse resp)
+            throws IOException, SQLException {
+
+        HttpSession s = req.getSession(false);
+        if (s == null || !"faculty".equals(s.getAttribute("role"))) {
+            resp.sendRedirect(req.getContextPath() + "/login.jsp");
+            return;
+        }
+        int facultyId = (int) s.getAttribute("userId");
+
+        int subjectId;
+        LocalDate date;
+        try {
+            subjectId = Integer.parseInt(req.getParameter("subject_id"));
+            date = LocalDate.parse(req.getParameter("date"));
+        } catch (NumberFormatException | DateTimeParseException | NullPointerException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "subject_id and date (yyyy-mm-dd) are required");
+            return;
+        }
+
+        // status_<studentId> = P | A
+        Map<Integer, String> register = new TreeMap<>();
+        for (Map.Entry<String, String[]> p : req.getParameterMap().entrySet()) {
+            if (!p.getKey().startsWith("status_")) continue;
+            try {
+                register.put(Integer.parseInt(p.getKey().substring(7)), p.getValue()[0]);
+            } catch (NumberFormatException ignored) {
+                // not a student row
+            }
+        }
+
+        RegisterResult result;
+        try {
+            result = attendanceDAO.saveRegister(facultyId, subjectId, date, register);
+        } catch (IllegalArgumentException e) {
+            resp.sendError(HttpServletResponse.SC_FORBIDDEN, e.getMessage());
+            return;
+        }
+        resp.setHeader("Server-Timing", "db;dur=" + result.getElapsedMs());
+
+        String accept = req.getHeader("Accept");
+        if (accept != null && accept.contains("application/json")) {
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            resp.getWriter().print(toJson(result));
+            return;
+        }
+
+        s.setAttribute(REGISTER_RESULT_ATTRIBUTE, result);
+        resp.sendRedirect(req.getContextPath() + "/faculty?action=attendance&subject_id=" + subjectId
+                + "&date=" + date + "&msg=Saved+" + result.getSavedCount() + "+of+" + register.size());
+    }
+
+    /**
+     * Saves one assessment's marks for the whole class (MarksDAO.saveGradebook).
+     *
+     * Parameters: subject_id, assessment, marks_<studentId> (blank = not graded)
+     */
+    private void saveGradebook(HttpServletRequest req, HttpServletResponse resp)
+            throws IOException, SQLException {
+
+        HttpSession s = req.getSession(false);
+        if (s == null || !"faculty".equals(s.getAttribute("role"))) {
+            resp.sendRedirect(req.getContextPath() + "/login.jsp");
+            return;
+        }
+        int facultyId = (int) s.getAttribute("userId");
+
+        int subjectId;
+        try {
+            subjectId = Integer.parseInt(req.getParameter("subject_id"));
+        } catch (NumberFormatException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "subject_id is required");
+            return;
+        }
+
+        // marks_<studentId> = number; blank inputs are students not graded yet
+        Map<Integer, Integer> column = new TreeMap<>();
+        try {
+            for (Map.Entry<String, String[]> p : req.getParameterMap().entrySet()) {
+                if (!p.getKey().startsWith("marks_")) continue;
+                String value = p.getValue()[0].trim();
+                if (value.isEmpty()) continue;
+                column.put(Integer.parseInt(p.getKey().substring(6)), Integer.parseInt(value));
+            }
+        } catch (NumberFormatException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Marks must be whole numbers");
+            return;
+        }
+
+        String msg;
+        try {
+            int saved = marksDAO.saveGradebook(facultyId, subjectId, req.getParameter("assessment"), column);
+            msg = "Saved+" + saved + "+grades";
+        } catch (IllegalArgumentException e) {
+            msg = URLEncoder.encode(e.getMessage(), "UTF-8");
+        }
+        resp.sendRedirect(req.getContextPath() + "/faculty?action=marks&subject_id=" + subjectId + "&msg=" + msg);
+    }
+
+    private static String toJson(RegisterResult result) {
+        StringBuilder json = new StringBuilder(64 + result.getLines().size() * 64);
+        json.append("{\"subjectId\":").append(result.getSubjectId())
+            .append(",\"date\":\"").append(result.getDate()).append('"')
+            .append(",\"saved\":").append(result.getSavedCount())
+            .append(",\"rejected\":").append(result.getRejectedCount())
+            .append(",\"elapsedMs\":").append(result.getElapsedMs())
+            .append(",\"students\":[");
+        boolean first = true;
+        for (RegisterResult.Line line : result.getLines()) {
+            if (!first) json.append(',');
+            first = false;
+            json.append("{\"studentId\":").append(line.getStudentId())
+                .append(",\"status\":").append(Json.string(line.getStatus()))
+                .append(",\"saved\":").append(line.isSaved())
+                .append(",\"message\":").append(Json.string(line.getMessage()))
+                .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /** yyyy-mm-dd, or today when missing / malformed. */
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isEmpty()) return LocalDate.now();
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            return LocalDate.now();
+        }
+    }
 }
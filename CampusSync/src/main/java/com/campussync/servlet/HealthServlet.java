@@ -0,0 +1,152 @@
+package com.campussync.servlet;
+
+import com.campussync.dao.AttendanceDAO;
+import com.campussync.dao.EnrollmentDAO;
+import com.campussync.util.Bulkhead;
+import com.campussync.util.CircuitBreaker;
+import com.campussync.util.ConnectionPool;
+import com.campussync.util.DBConnection;
+import com.campussync.util.Json;
+import com.campussync.util.ReplicaMonitor;
+import com.campussync.util.StatementCache;
+import com.campussync.util.TransactionManager;
+import com.campussync.util.TtlCache;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * HealthServlet
+ *
+ * Read-only monitoring endpoint for load balancers and operators.
+ *
+ * URL Mapping: /health
+ * Supported Methods: GET
+ *
+ * Response:
+ * - 200 while the primary circuit breaker is CLOSED, 503 otherwise
+ *   (so a load balancer stops routing here during an outage)
+ * - JSON body with circuit breaker state, pool counters, statement cache,
+ *   transaction retry counters, portal bulkheads, roster cache and replica
+ *   routing state
+ *
+ * Never touches the database itself - it only reads in-memory counters, so
+ * it stays fast when MySQL is down.
+ */
+public class HealthServlet extends BaseServlet {
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+            throws ServletException, IOException {
+
+        ConnectionPool pool = DBConnection.getPool();
+        CircuitBreaker breaker = pool.getCircuitBreaker();
+        boolean up = breaker == null || breaker.getState() == CircuitBreaker.State.CLOSED;
+
+        resp.setStatus(up ? HttpServletResponse.SC_OK : HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-store");
+
+        PrintWriter out = resp.getWriter();
+        out.print("{");
+        out.print("\"status\":\"" + (up ? "UP" : "DOWN") + "\"");
+
+        // --------------------------
+        // CIRCUIT BREAKER
+        // --------------------------
+        if (breaker != null) {
+            out.print(",\"circuitBreaker\":{");
+            out.print("\"state\":\"" + breaker.getState() + "\"");
+            out.print(",\"consecutiveFailures\":" + breaker.getConsecutiveFailures());
+            out.print(",\"failureThreshold\":" + breaker.getFailureThreshold());
+            out.print(",\"trips\":" + breaker.getTripCount());
+            out.print(",\"rejected\":" + breaker.getRejectedCount());
+            out.print(",\"lastStateChangeAt\":" + breaker.getLastStateChangeAt());
+            out.print(",\"lastFailure\":" + Json.string(breaker.getLastFailure()));
+            out.print("}");
+        }
+
+        // --------------------------
+        // CONNECTION POOL
+        // --------------------------
+        out.print(",\"pool\":{");
+        out.print("\"active\":" + pool.getActiveCount());
+        out.print(",\"idle\":" + pool.getIdleCount());
+        out.print(",\"total\":" + pool.getTotalCount());
+        out.print(",\"max\":" + pool.getMaxSize());
+        out.print(",\"waiting\":" + pool.getWaitingCount());
+        out.print(",\"borrowTimeouts\":" + pool.getBorrowTimeoutCount());
+        out.print(",\"leaked\":" + pool.getLeakedCount());
+        out.print(",\"reclaimed\":" + pool.getReclaimedCount());
+        out.print(",\"longRunning\":" + pool.getLongRunningCount());
+
+        StatementCache.Stats statements = pool.getStatementCacheStats();
+        out.print(",\"statementCache\":{\"hits\":" + statements.getHits()
+                + ",\"misses\":" + statements.getMisses()
+                + ",\"evictions\":" + statements.getEvictions() + "}");
+        out.print("}");
+
+        // --------------------------
+        // TRANSACTION RETRIES
+        // --------------------------
+        out.print(",\"transactions\":{");
+        out.print("\"transientFailures\":" + TransactionManager.getTransientFailureCount());
+        out.print(",\"retries\":" + TransactionManager.getRetryCount());
+        out.print(",\"recovered\":" + TransactionManager.getRecoveredCount());
+        out.print(",\"exhausted\":" + TransactionManager.getExhaustedCount());
+        out.print("}");
+
+        // --------------------------
+        // PORTAL BULKHEADS
+        // --------------------------
+        out.print(",\"bulkheads\":{");
+        String sep = "";
+        for (Bulkhead b : Bulkhead.all().values()) {
+            out.print(sep + "\"" + b.getPortal().name().toLowerCase() + "\":{");
+            out.print("\"active\":" + b.getActiveCount());
+            out.print(",\"maxConcurrent\":" + b.getMaxConcurrent());
+            out.print(",\"queueDepth\":" + b.getQueueDepth());
+            out.print(",\"peakQueueDepth\":" + b.getPeakQueueDepth());
+            out.print(",\"maxQueued\":" + b.getMaxQueued());
+            out.print(",\"completed\":" + b.getCompletedCount());
+            out.print(",\"rejected\":" + b.getRejectedCount());
+            out.print("}");
+            sep = ",";
+        }
+        out.print("}");
+
+        // --------------------------
+        // ROSTER CACHE
+        // --------------------------
+        TtlCache<?, ?> rosters = EnrollmentDAO.getRosterCache();
+        out.print(",\"rosterCache\":{");
+        out.print("\"size\":" + rosters.getSize());
+        out.print(",\"hits\":" + rosters.getHitCount());
+        out.print(",\"misses\":" + rosters.getMissCount());
+        out.print(",\"invalidations\":" + rosters.getInvalidationCount());
+        out.print("}");
+
+        out.print(",\"attendanceStore\":" + Json.string(AttendanceDAO.STORE_MODE));
+
+        // --------------------------
+        // READ REPLICA
+        // --------------------------
+        ReplicaMonitor replica = DBConnection.getReplicaMonitor();
+        if (replica != null) {
+            out.print(",\"replica\":{");
+            out.print("\"usable\":" + replica.isUsable());
+            out.print(",\"lagSeconds\":" + replica.getLagSeconds());
+            out.print(",\"replicaReads\":" + DBConnection.getReplicaReadCount());
+            out.print(",\"stickyReads\":" + DBConnection.getStickyReadCount());
+            out.print(",\"fallbackReads\":" + DBConnection.getFallbackReadCount());
+            out.print(",\"lastError\":" + Json.string(replica.getLastError()));
+            out.print("}");
+        }
+
+        out.print("}");
+    }
+}
@@ -1,16 +1,19 @@
 package com.campussync.servlet;
 
 import com.campussync.dao.AdminDAO;
-import com.campussync.model.Assignment;
-import com.campussync.util.DBConnection;
+import com.campussync.dao.AssignmentDAO;
+import com.campussync.dao.AttendanceDAO;
+import com.campussync.dao.AttendanceSummaryDAO;
+import com.campussync.dao.MarksDAO;
+import com.campussync.dao.StudentDAO;
+import com.campussync.util.AcademicTerm;
+import com.campussync.util.Bulkhead;
+import com.campussync.util.TransactionManager;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.*;
 import java.io.IOException;
 import java.sql.*;
-import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * StudentServlet
@@ -24,13 +27,30 @@ import java.util.List;
  *
  * MVC:
  *   Controller → StudentServlet
- *   Model      → Tables: attendance, marks, subject, notices, assignment
+ *   Model      → Tables: attendance, attendance_summary, marks, subject, notices, assignment
  *   View       → /student/*.jsp
  *
  * Session Security:
  *   Only authenticated students can access these pages.
+ *
+ * Load-then-render:
+ *   GET actions load fully materialized, immutable view data through the
+ *   DAOs and only then forward to the JSP, so no pooled connection is
+ *   pinned while the page is rendered and sent.
  */
-public class StudentServlet extends HttpServlet {
+public class StudentServlet extends BaseServlet {
+
+    private final StudentDAO studentDAO = new StudentDAO();
+    private final AdminDAO adminDAO = new AdminDAO();
+    private final AssignmentDAO assignmentDAO = new AssignmentDAO();
+    private final MarksDAO marksDAO = new MarksDAO();
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private final AttendanceSummaryDAO attendanceSummaryDAO = new AttendanceSummaryDAO();
+
+    @Override
+    protected Bulkhead.Portal portal() {
+        return Bulkhead.Portal.STUDENT;
+    }
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp)
@@ -51,100 +71,67 @@ public class StudentServlet extends HttpServlet {
         String action = req.getParameter("action");
         if (action == null) action = "dashboard";
 
-        try (Connection conn = DBConnection.getConnection()) {
+        // ------------------------------------------------------------------
+        //  LOAD: every DAO call borrows and returns its own connection, and
+        //  results are fully materialized. RENDER happens afterwards, with no
+        //  connection held while the JSP is written to (possibly slow) clients.
+        // ------------------------------------------------------------------
+        String view;
 
+        try {
             switch (action) {
 
                 // ----------------------------------------------------------
-                // SHOW ATTENDANCE RECORDS
+                // SHOW ATTENDANCE RECORDS (current term unless ?terms=all)
                 // ----------------------------------------------------------
-                case "attendance": {
-                    PreparedStatement ps = conn.prepareStatement(
-                            "SELECT s.subject_name, a.att_date, a.status " +
-                                    "FROM attendance a " +
-                                    "JOIN subject s ON a.subject_id = s.subject_id " +
-                                    "WHERE a.student_id=? " +
-                                    "ORDER BY a.att_date DESC"
-                    );
-                    ps.setInt(1, studentId);
-
-                    ResultSet rs = ps.executeQuery();
-                    req.setAttribute("attendanceList", rs);
-
-                    req.getRequestDispatcher("student/attendance.jsp").forward(req, resp);
-                    return;
-                }
+                case "attendance":
+                    AcademicTerm term = AcademicTerm.current();
+                    boolean allTerms = "all".equals(req.getParameter("terms"));
+                    req.setAttribute("term", term);
+                    req.setAttribute("allTerms", allTerms);
+                    req.setAttribute("summaries", load(() -> attendanceSummaryDAO.listForStudent(studentId)));
+                    req.setAttribute("attendanceList", load(() -> attendanceDAO.listForStudent(studentId,
+                            allTerms ? AttendanceDAO.ALL_TERMS : term.getStart())));
+                    view = "student/attendance.jsp";
+                    break;
 
                 // ----------------------------------------------------------
                 // SHOW MARKS
                 // ----------------------------------------------------------
-                case "marks": {
-                    PreparedStatement ps = conn.prepareStatement(
-                            "SELECT s.subject_name, m.marks " +
-                                    "FROM marks m " +
-                                    "JOIN subject s ON m.subject_id = s.subject_id " +
-                                    "WHERE m.student_id=?"
-                    );
-                    ps.setInt(1, studentId);
-
-                    ResultSet rs = ps.executeQuery();
-                    req.setAttribute("marksList", rs);
-
-                    req.getRequestDispatcher("student/marks.jsp").forward(req, resp);
-                    return;
-                }
+                case "marks":
+                    req.setAttribute("marksList", load(() -> marksDAO.listForStudent(studentId)));
+                    view = "student/marks.jsp";
+                    break;
 
                 // ----------------------------------------------------------
                 // SHOW NOTICES (from admin)
                 // ----------------------------------------------------------
-                case "notices": {
-                    AdminDAO ndao = new AdminDAO();
-                    req.setAttribute("noticeList", ndao.getAllNotices());
-                    req.getRequestDispatcher("student/notices.jsp").forward(req, resp);
-                    return;
-                }
+                case "notices":
+                    req.setAttribute("noticeList", load(adminDAO::listNotices));
+                    view = "student/notices.jsp";
+                    break;
 
                 // ----------------------------------------------------------
                 // SHOW ASSIGNMENT SUBMISSION PAGE
                 // ----------------------------------------------------------
-                case "submitAssignment": {
-                    PreparedStatement ps = conn.prepareStatement(
-                            "SELECT a.assignment_id, a.title, a.description, a.due_date, s.subject_name " +
-                                    "FROM assignment a " +
-                                    "JOIN subject s ON a.subject_id = s.subject_id " +
-                                    "WHERE a.due_date >= CURDATE() " +
-                                    "ORDER BY a.due_date ASC"
-                    );
-
-                    ResultSet rs = ps.executeQuery();
-                    List<Assignment> assignmentList = new ArrayList<>();
-                    while (rs.next()) {
-                        Assignment assignment = new Assignment();
-                        assignment.setAssignmentId(rs.getInt("assignment_id"));
-                        assignment.setTitle(rs.getString("title"));
-                        assignment.setDescription(rs.getString("description"));
-                        assignment.setDueDate(rs.getDate("due_date").toLocalDate());
-                        assignment.setSubjectName(rs.getString("subject_name"));
-                        assignmentList.add(assignment);
-                    }
-
-                    req.setAttribute("assignmentList", assignmentList);
-
-                    req.getRequestDispatcher("student/submit_assignment.jsp").forward(req, resp);
-                    return;
-                }
+                case "submitAssignment":
+                    req.setAttribute("assignmentList", load(assignmentDAO::listOpenAssignments));
+                    view = "student/submit_assignment.jsp";
+                    break;
 
                 // ----------------------------------------------------------
-                // DEFAULT → STUDENT DASHBOARD
+                // DEFAULT → STUDENT DASHBOARD (no database access)
                 // ----------------------------------------------------------
                 default:
-                    req.getRequestDispatcher("student/dashboard.jsp").forward(req, resp);
-                    return;
+                    view = "student/dashboard.jsp";
+                    break;
             }
 
         } catch (SQLException e) {
             throw new ServletException(e);
         }
+
+        forward(req, resp, view);
     }
 
     @Override
@@ -166,7 +153,7 @@ public class StudentServlet extends HttpServlet {
         String action = req.getParameter("action");
         if (action == null) action = "dashboard";
 
-        try (Connection conn = DBConnection.getConnection()) {
+        try {
 
             switch (action) {
 
@@ -199,15 +186,18 @@ public class StudentServlet extends HttpServlet {
                     String filePath = uploadDir + fileName;
                     filePart.write(filePath);
 
-                    PreparedStatement ps = conn.prepareStatement(
-                            "INSERT INTO assignment_submission (student_id, assignment_id, submission_date, file_path) " +
-                            "VALUES (?, ?, CURDATE(), ?)"
-                    );
-                    ps.setInt(1, studentId);
-                    ps.setInt(2, assignmentId);
-                    ps.setString(3, "uploads/assignments/" + fileName);
-
-                    int rowsInserted = ps.executeUpdate();
+                    // Connection is borrowed only once the file is on disk;
+                    // the insert runs in one transaction (one COMMIT)
+                    int rowsInserted = TransactionManager.execute(conn -> {
+                        try (PreparedStatement ps = conn.prepareStatement(
+                                "INSERT INTO assignment_submission (student_id, assignment_id, submission_date, file_path) " +
+                                "VALUES (?, ?, CURDATE(), ?)")) {
+                            ps.setInt(1, studentId);
+                            ps.setInt(2, assignmentId);
+                            ps.setString(3, "uploads/assignments/" + fileName);
+                            return ps.executeUpdate();
+                        }
+                    });
                     
                     if (rowsInserted > 0) {
                         req.setAttribute("success", "Assignment submitted successfully!");
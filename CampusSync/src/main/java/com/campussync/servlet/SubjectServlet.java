@@ -32,7 +32,7 @@ import com.campussync.model.Subject;
  * 5. Call SubjectDAO.addSubject() to save to database
  * 6. Redirect to success or error page based on result
  */
-public class SubjectServlet extends HttpServlet {
+public class SubjectServlet extends BaseServlet {
 
     /**
      * Handles POST request for subject creation.
@@ -0,0 +1,136 @@
+package com.campussync.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * AcademicTerm (immutable)
+ *
+ * One academic term as a half-open date range [start, end). Terms start on
+ * the first day of the configured months and run until the next start:
+ * -Dcampussync.term.startMonths=1,7 (default: January-June, July-December).
+ *
+ * Purpose:
+ * - Partition bounds of the attendance table (AttendancePartitionJob)
+ * - Default date range of attendance history queries (current term only,
+ *   so MySQL prunes to the current partition)
+ * - Attendance write window (oldestLive()): the current term and the
+ *   RETAIN_CLOSED closed terms before it; older terms are archived by the
+ *   partition job and read-only
+ *
+ * Usage:
+ * AcademicTerm term = AcademicTerm.current();
+ * ps.setDate(2, Date.valueOf(term.getStart()));
+ */
+public final class AcademicTerm implements Comparable<AcademicTerm> {
+
+    private static final int[] START_MONTHS =
+            parseMonths(System.getProperty("campussync.term.startMonths", "1,7"));
+
+    /** Closed terms kept in the live attendance table (and still open for corrections). */
+    public static final int RETAIN_CLOSED = Integer.getInteger("campussync.partitions.retainClosedTerms", 1);
+
+    private static final DateTimeFormatter NAME = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final LocalDate start;
+    private final LocalDate end;
+
+    private AcademicTerm(LocalDate start, LocalDate end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /** The term a date falls in. */
+    public static AcademicTerm containing(LocalDate date) {
+        LocalDate start = startOnOrBefore(date);
+        return new AcademicTerm(start, startAfter(start));
+    }
+
+    public static AcademicTerm current() {
+        return containing(LocalDate.now());
+    }
+
+    /**
+     * Oldest term still in the live attendance table: RETAIN_CLOSED terms
+     * before the current one. Attendance dated before its start is archived
+     * (or about to be) and must not be written.
+     */
+    public static AcademicTerm oldestLive() {
+        AcademicTerm term = current();
+        for (int i = 0; i < RETAIN_CLOSED; i++) term = term.previous();
+        return term;
+    }
+
+    public AcademicTerm next() {
+        return new AcademicTerm(end, startAfter(end));
+    }
+
+    public AcademicTerm previous() {
+        return containing(start.minusDays(1));
+    }
+
+    /** First day of the term. */
+    public LocalDate getStart() { return start; }
+
+    /** First day of the next term (exclusive end). */
+    public LocalDate getEnd() { return end; }
+
+    /** e.g. "2026-07" for the term starting July 2026. */
+    public String getName() { return start.format(NAME); }
+
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(start) && date.isBefore(end);
+    }
+
+    @Override
+    public int compareTo(AcademicTerm o) {
+        return start.compareTo(o.start);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof AcademicTerm && start.equals(((AcademicTerm) o).start);
+    }
+
+    @Override
+    public int hashCode() {
+        return start.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AcademicTerm{" + start + " - " + end + '}';
+    }
+
+    // ---------------------------------------------------------------------
+    // Term boundaries
+    // ---------------------------------------------------------------------
+
+    private static LocalDate startOnOrBefore(LocalDate date) {
+        for (int i = START_MONTHS.length - 1; i >= 0; i--) {
+            if (START_MONTHS[i] <= date.getMonthValue()) return LocalDate.of(date.getYear(), START_MONTHS[i], 1);
+        }
+        return LocalDate.of(date.getYear() - 1, START_MONTHS[START_MONTHS.length - 1], 1);
+    }
+
+    private static LocalDate startAfter(LocalDate start) {
+        for (int month : START_MONTHS) {
+            if (month > start.getMonthValue()) return LocalDate.of(start.getYear(), month, 1);
+        }
+        return LocalDate.of(start.getYear() + 1, START_MONTHS[0], 1);
+    }
+
+    private static int[] parseMonths(String value) {
+        try {
+            int[] months = Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt)
+                    .sorted().distinct().toArray();
+            if (months.length == 0 || months[0] < 1 || months[months.length - 1] > 12) {
+                throw new IllegalArgumentException("months must be 1-12");
+            }
+            return months;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid campussync.term.startMonths '" + value + "': " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.campussync.util;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * BatchInsert
+ *
+ * Chunked multi-row INSERT for bulk onboarding (a new intake of students,
+ * a department of faculty). Replaces calling createStudent() in a loop,
+ * which costs one connection, one round trip and one commit per row.
+ *
+ * Working:
+ *  - Rows are checked first (validator + duplicate key inside the input);
+ *    rejected rows are reported and skipped, never sent to MySQL
+ *  - The remaining rows are sent in chunks of chunkSize through one
+ *    PreparedStatement batch; with rewriteBatchedStatements=true
+ *    (DBConnection.URL) Connector/J turns each chunk into a single
+ *    multi-row INSERT ... VALUES (...), (...), ...
+ *  - Each chunk is its own transaction (TransactionManager, deadlock retry),
+ *    so a failure never rolls back chunks that already committed
+ *  - Generated keys come back in insert order and are written onto the
+ *    model objects through keySetter
+ *  - If a chunk fails (e.g. an email that already exists), it is rolled back,
+ *    split in half and each half retried, down to single rows. One bad row
+ *    in 500 costs ~2*log2(500) = 18 extra statements instead of 500; the
+ *    offending rows are reported in BatchResult, the rest still go in
+ *  - Connection-level failures (database down) abort the whole call: there is
+ *    no point trying the remaining rows one by one
+ *  - Called inside an active transaction, chunks join it and the first failure
+ *    is rethrown instead (the caller owns atomicity)
+ *
+ * Usage:
+ * BatchResult<Student> result = new BatchInsert<>(SQL_INSERT, STUDENT_BINDER, Student::setStudentId)
+ *         .validate(StudentDAO::checkRequired)
+ *         .uniqueBy("email", s -> s.getEmail().toLowerCase())
+ *         .insert(students);
+ */
+public final class BatchInsert<T> {
+
+    /** Rows per INSERT batch / transaction. */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /**
+     * Binds one row's values to the INSERT statement.
+     */
+    @FunctionalInterface
+    public interface RowBinder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    private final String sql;
+    private final RowBinder<T> binder;
+    private final ObjIntConsumer<T> keySetter;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private Function<T, String> validator;
+    private Function<T, String> uniqueKey;
+    private String uniqueKeyLabel = "key";
+
+    /**
+     * @param sql       single-row INSERT with ? placeholders
+     * @param binder    sets the placeholders for one row
+     * @param keySetter receives the generated AUTO_INCREMENT id (null = ignore keys)
+     */
+    public BatchInsert(String sql, RowBinder<T> binder, ObjIntConsumer<T> keySetter) {
+        this.sql = sql;
+        this.binder = binder;
+        this.keySetter = keySetter;
+    }
+
+    public BatchInsert<T> chunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+        return this;
+    }
+
+    /** Rejects a row before it is sent; the function returns an error message or null. */
+    public BatchInsert<T> validate(Function<T, String> validator) {
+        this.validator = validator;
+        return this;
+    }
+
+    /** Rejects the second and later rows with the same key (e.g. email) in one call. */
+    public BatchInsert<T> uniqueBy(String label, Function<T, String> uniqueKey) {
+        this.uniqueKeyLabel = label;
+        this.uniqueKey = uniqueKey;
+        return this;
+    }
+
+    // ---------------------------------------------------------------------
+    // Insert
+    // ---------------------------------------------------------------------
+
+    /**
+     * Inserts the rows; never throws for individual bad rows.
+     *
+     * @throws SQLException only if the database itself is unreachable
+     */
+    public BatchResult<T> insert(List<T> rows) throws SQLException {
+        long start = System.currentTimeMillis();
+        BatchResult<T> result = new BatchResult<>(rows.size());
+
+        // 1. Pre-checks: keep indexes so failures point at the caller's row
+        List<Integer> accepted = new ArrayList<>(rows.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            T row = rows.get(i);
+            String error = validator == null ? null : validator.apply(row);
+            if (error == null && uniqueKey != null && !seen.add(uniqueKey.apply(row))) {
+                error = "Duplicate " + uniqueKeyLabel + " in this batch: " + uniqueKey.apply(row);
+            }
+            if (error != null) {
+                result.fail(i, row, error);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // 2. Chunks
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            result.addChunk();
+            insertOrSplit(rows, accepted.subList(from, Math.min(from + chunkSize, accepted.size())), result);
+        }
+
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        Logger.info("Batch insert: " + result);
+        return result;
+    }
+
+    /**
+     * Inserts the chunk in one transaction; on failure bisects it until the
+     * failing rows are isolated.
+     */
+    private void insertOrSplit(List<T> rows, List<Integer> chunk, BatchResult<T> result) throws SQLException {
+        try {
+            result.addInserted(insertChunk(rows, chunk));
+        } catch (SQLException e) {
+            if (TransactionManager.isActive() || isConnectionFailure(e)) {
+                throw e;
+            }
+            if (chunk.size() == 1) {
+                result.fail(chunk.get(0), rows.get(chunk.get(0)), e.getMessage());
+                return;
+            }
+            Logger.debug("Batch chunk of " + chunk.size() + " rows failed (" + e.getMessage() + "); splitting");
+            int mid = chunk.size() / 2;
+            insertOrSplit(rows, chunk.subList(0, mid), result);
+            insertOrSplit(rows, chunk.subList(mid, chunk.size()), result);
+        }
+    }
+
+    /** One chunk = one multi-row INSERT = one transaction. */
+    private int insertChunk(List<T> rows, List<Integer> chunk) throws SQLException {
+        return TransactionManager.execute(RetryPolicy.DEFAULT, conn -> {
+            DBConnection.markLongRunning(conn);     // a large chunk on a busy server may pass the leak threshold
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int index : chunk) {
+                    binder.bind(ps, rows.get(index));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                assignKeys(ps, rows, chunk);
+            }
+            return chunk.size();
+        });
+    }
+
+    private void assignKeys(PreparedStatement ps, List<T> rows, List<Integer> chunk) throws SQLException {
+        if (keySetter == null) return;
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            int i = 0;
+            while (keys.next() && i < chunk.size()) {
+                keySetter.accept(rows.get(chunk.get(i++)), keys.getInt(1));
+            }
+        }
+    }
+
+    private static boolean isConnectionFailure(SQLException e) {
+        return e instanceof SQLTransientConnectionException || ConnectionPool.isFatal(e);
+    }
+}
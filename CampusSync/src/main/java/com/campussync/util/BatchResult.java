@@ -0,0 +1,83 @@
+package com.campussync.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BatchResult
+ *
+ * Outcome of a BatchInsert: how many rows went in, and which rows did not
+ * (with the reason), so one bad row never hides the thousands that worked.
+ *
+ * Failure.getIndex() is the row's position in the list passed to insert(),
+ * so callers can point the user at "line 1,204" of an upload.
+ */
+public final class BatchResult<T> {
+
+    /**
+     * A row that was not inserted.
+     */
+    public static final class Failure<T> {
+        private final int index;
+        private final T row;
+        private final String message;
+
+        Failure(int index, T row, String message) {
+            this.index = index;
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getIndex() { return index; }
+        public T getRow() { return row; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "row " + index + ": " + message;
+        }
+    }
+
+    private final int total;
+    private int inserted;
+    private int chunks;
+    private long elapsedMs;
+    private final List<Failure<T>> failures = new ArrayList<>();
+
+    BatchResult(int total) {
+        this.total = total;
+    }
+
+    void addInserted(int count) { inserted += count; }
+    void addChunk() { chunks++; }
+    void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    void fail(int index, T row, String message) {
+        failures.add(new Failure<>(index, row, message));
+    }
+
+    public int getTotal() { return total; }
+    public int getInserted() { return inserted; }
+    public int getChunks() { return chunks; }
+    public long getElapsedMs() { return elapsedMs; }
+    public int getFailedCount() { return failures.size(); }
+
+    /** Failed rows in input order. */
+    public List<Failure<T>> getFailures() {
+        List<Failure<T>> sorted = new ArrayList<>(failures);
+        sorted.sort((a, b) -> Integer.compare(a.index, b.index));
+        return Collections.unmodifiableList(sorted);
+    }
+
+    /** true when every row was inserted. */
+    public boolean isComplete() {
+        return failures.isEmpty() && inserted == total;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{total=" + total + ", inserted=" + inserted + ", failed=" + failures.size()
+                + ", chunks=" + chunks + ", elapsedMs=" + elapsedMs + "}";
+    }
+}
@@ -0,0 +1,314 @@
+package com.campussync.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BeanRowMapper
+ *
+ * Generic RowMapper for the com.campussync.model POJOs. Replaces hand-written
+ * rs.getXxx("column") loops in the DAOs.
+ *
+ * Working:
+ *  - Once per model class: the no-arg constructor and every setXxx(one arg)
+ *    are turned into MethodHandles (cached in BeanRowMapper.of)
+ *  - Once per result set (prepare): each column label is matched to a setter
+ *    ("student_id" / "studentId" → setStudentId) and a column reader is
+ *    chosen from the setter's parameter type; the plan is cached per column
+ *    list, so repeated queries skip even that step
+ *  - Per row: constructor handle + one getXxx(int index) + setter handle per
+ *    column. No label lookups, no reflection, no boxing for int/long/double/
+ *    boolean setters.
+ *
+ * Type handling:
+ *  - Primitive setters (int, long, double, float, boolean): SQL NULL leaves
+ *    the field at its default instead of failing ("nullable primitives")
+ *  - Wrapper setters (Integer, Long, ...): SQL NULL → null
+ *  - LocalDate / LocalDateTime: read with getObject(index, type) (JDBC 4.2)
+ *  - Columns without a matching setter are ignored
+ *
+ * Usage:
+ * private static final RowMapper<Student> STUDENT_MAPPER = BeanRowMapper.of(Student.class);
+ * QueryStream.forEach(sql, binder, STUDENT_MAPPER, list::add);   // prepared once per query
+ * List<Course> courses = BeanRowMapper.of(Course.class).mapAll(rs);
+ */
+public final class BeanRowMapper<T> implements RowMapper<T> {
+
+    private static final ConcurrentHashMap<Class<?>, BeanRowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private final Class<T> type;
+    private final MethodHandle constructor;                 // () → Object
+    private final Map<String, Method> setters;              // normalized property → setter
+    private final ConcurrentHashMap<String, Plan<T>> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Mapper for a model class; built once and shared (thread-safe).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanRowMapper<T> of(Class<T> type) {
+        return (BeanRowMapper<T>) MAPPERS.computeIfAbsent(type, BeanRowMapper::new);
+    }
+
+    private BeanRowMapper(Class<T> type) {
+        this.type = type;
+        try {
+            this.constructor = LOOKUP.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(type.getName() + " needs a public no-arg constructor", e);
+        }
+
+        Map<String, Method> found = new HashMap<>();
+        for (Method m : type.getMethods()) {
+            if (m.getName().length() > 3 && m.getName().startsWith("set")
+                    && m.getParameterCount() == 1 && !Modifier.isStatic(m.getModifiers())) {
+                found.put(normalize(m.getName().substring(3)), m);
+            }
+        }
+        this.setters = Collections.unmodifiableMap(found);
+    }
+
+    /** "student_id", "studentId", "STUDENT_ID" → "studentid" */
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    // ---------------------------------------------------------------------
+    // RowMapper
+    // ---------------------------------------------------------------------
+
+    /**
+     * Resolves column indexes and setters for this result set once.
+     * QueryStream calls this automatically before the first row.
+     */
+    @Override
+    public RowMapper<T> prepare(ResultSet rs) throws SQLException {
+        ResultSetMetaData md = rs.getMetaData();
+        int count = md.getColumnCount();
+
+        String[] labels = new String[count];
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            labels[i] = md.getColumnLabel(i + 1);
+            key.append(labels[i]).append(',');
+        }
+
+        Plan<T> plan = plans.get(key.toString());
+        if (plan == null) {
+            plan = buildPlan(labels);
+            plans.putIfAbsent(key.toString(), plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Unprepared use (one-off rows): resolves the plan on every call.
+     * Prefer prepare(rs) / mapAll(rs) / QueryStream for more than one row.
+     */
+    @Override
+    public T map(ResultSet rs) throws SQLException {
+        return prepare(rs).map(rs);
+    }
+
+    /**
+     * Maps every remaining row of the result set.
+     */
+    public List<T> mapAll(ResultSet rs) throws SQLException {
+        RowMapper<T> plan = prepare(rs);
+        List<T> list = new ArrayList<>();
+        while (rs.next()) {
+            list.add(plan.map(rs));
+        }
+        return list;
+    }
+
+    private Plan<T> buildPlan(String[] labels) {
+        List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < labels.length; i++) {
+            Method setter = setters.get(normalize(labels[i]));
+            if (setter != null) {
+                columns.add(Column.of(i + 1, setter));
+            }
+        }
+        return new Plan<>(type, constructor, columns.toArray(new Column[0]));
+    }
+
+    // =====================================================================
+    // Plan: resolved mapping for one column list
+    // =====================================================================
+    private static final class Plan<T> implements RowMapper<T> {
+        private final Class<T> type;
+        private final MethodHandle constructor;
+        private final Column[] columns;
+
+        Plan(Class<T> type, MethodHandle constructor, Column[] columns) {
+            this.type = type;
+            this.constructor = constructor;
+            this.columns = columns;
+        }
+
+        @Override
+        public T map(ResultSet rs) throws SQLException {
+            Object bean;
+            try {
+                bean = (Object) constructor.invokeExact();
+                for (Column c : columns) {
+                    c.apply(bean, rs);
+                }
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new SQLException("Cannot map row to " + type.getSimpleName(), t);
+            }
+            return type.cast(bean);
+        }
+    }
+
+    // =====================================================================
+    // Column: reads one column by index and calls one setter
+    // =====================================================================
+    private abstract static class Column {
+        final int index;
+        final MethodHandle setter;
+
+        Column(int index, MethodHandle setter) {
+            this.index = index;
+            this.setter = setter;
+        }
+
+        abstract void apply(Object bean, ResultSet rs) throws Throwable;
+
+        static Column of(int index, Method method) {
+            Class<?> p = method.getParameterTypes()[0];
+            MethodHandle h;
+            try {
+                h = LOOKUP.unreflect(method);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Setter not accessible: " + method, e);
+            }
+
+            if (p == int.class) return new IntColumn(index, adapt(h, int.class));
+            if (p == long.class) return new LongColumn(index, adapt(h, long.class));
+            if (p == double.class) return new DoubleColumn(index, adapt(h, double.class));
+            if (p == float.class) return new FloatColumn(index, adapt(h, float.class));
+            if (p == boolean.class) return new BooleanColumn(index, adapt(h, boolean.class));
+
+            MethodHandle objectSetter = adapt(h, Object.class);
+            if (p == String.class) return new StringColumn(index, objectSetter);
+            if (p == Integer.class) return new ObjectColumn(index, objectSetter, rs -> nullable(rs, rs.getInt(index)));
+            if (p == Long.class) return new ObjectColumn(index, objectSetter, rs -> nullable(rs, rs.getLong(index)));
+            if (p == Double.class) return new ObjectColumn(index, objectSetter, rs -> nullable(rs, rs.getDouble(index)));
+            if (p == Boolean.class) return new ObjectColumn(index, objectSetter, rs -> nullable(rs, rs.getBoolean(index)));
+            if (p == BigDecimal.class) return new ObjectColumn(index, objectSetter, rs -> rs.getBigDecimal(index));
+            if (p == LocalDate.class) return new ObjectColumn(index, objectSetter, rs -> rs.getObject(index, LocalDate.class));
+            if (p == LocalDateTime.class) return new ObjectColumn(index, objectSetter, rs -> rs.getObject(index, LocalDateTime.class));
+
+            return new ObjectColumn(index, objectSetter, rs -> rs.getObject(index, p));
+        }
+
+        /** (Bean, p) void → (Object, p) void so call sites can use invokeExact. */
+        private static MethodHandle adapt(MethodHandle h, Class<?> param) {
+            return h.asType(MethodType.methodType(void.class, Object.class, param));
+        }
+
+        private static Object nullable(ResultSet rs, Object value) throws SQLException {
+            return rs.wasNull() ? null : value;
+        }
+    }
+
+    private static final class IntColumn extends Column {
+        IntColumn(int index, MethodHandle setter) { super(index, setter); }
+
+        @Override
+        void apply(Object bean, ResultSet rs) throws Throwable {
+            int v = rs.getInt(index);
+            if (v != 0 || !rs.wasNull()) setter.invokeExact(bean, v);
+        }
+    }
+
+    private static final class LongColumn extends Column {
+        LongColumn(int index, MethodHandle setter) { super(index, setter); }
+
+        @Override
+        void apply(Object bean, ResultSet rs) throws Throwable {
+            long v = rs.getLong(index);
+            if (v != 0 || !rs.wasNull()) setter.invokeExact(bean, v);
+        }
+    }
+
+    private static final class DoubleColumn extends Column {
+        DoubleColumn(int index, MethodHandle setter) { super(index, setter); }
+
+        @Override
+        void apply(Object bean, ResultSet rs) throws Throwable {
+            double v = rs.getDouble(index);
+            if (v != 0 || !rs.wasNull()) setter.invokeExact(bean, v);
+        }
+    }
+
+    private static final class FloatColumn extends Column {
+        FloatColumn(int index, MethodHandle setter) { super(index, setter); }
+
+        @Override
+        void apply(Object bean, ResultSet rs) throws Throwable {
+            float v = rs.getFloat(index);
+            if (v != 0 || !rs.wasNull()) setter.invokeExact(bean, v);
+        }
+    }
+
+    private static final class BooleanColumn extends Column {
+        BooleanColumn(int index, MethodHandle setter) { super(index, setter); }
+
+        @Override
+        void apply(Object bean, ResultSet rs) throws Throwable {
+            boolean v = rs.getBoolean(index);
+            if (v || !rs.wasNull()) setter.invokeExact(bean, v);
+        }
+    }
+
+    private static final class StringColumn extends Column {
+        StringColumn(int index, MethodHandle setter) { super(index, setter); }
+
+        @Override
+        void apply(Object bean, ResultSet rs) throws Throwable {
+            setter.invokeExact(bean, (Object) rs.getString(index));
+        }
+    }
+
+    /** Reads a column value that may legitimately be null. */
+    @FunctionalInterface
+    private interface Reader {
+        Object read(ResultSet rs) throws SQLException;
+    }
+
+    private static final class ObjectColumn extends Column {
+        private final Reader reader;
+
+        ObjectColumn(int index, MethodHandle setter, Reader reader) {
+            super(index, setter);
+            this.reader = reader;
+        }
+
+        @Override
+        void apply(Object bean, ResultSet rs) throws Throwable {
+            setter.invokeExact(bean, reader.read(rs));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.campussync.util;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulkhead
+ *
+ * Per-portal concurrency limit for DAO work, so a burst of heavy admin
+ * listings cannot take every pooled connection away from student and
+ * faculty pages.
+ *
+ * Working:
+ *  - One Bulkhead per Portal (ADMIN / FACULTY / STUDENT), each with its own
+ *    maxConcurrent permits and a bounded wait queue (maxQueued callers waiting
+ *    at most maxWaitMs)
+ *  - The sum of all maxConcurrent stays at the primary pool size, so one
+ *    portal saturating its bulkhead still leaves connections for the others
+ *  - A call that finds the queue full, or waits too long, is rejected with
+ *    BulkheadFullException (BaseServlet answers 503 + Retry-After)
+ *  - Work runs inline on the calling request thread: the request waits for
+ *    the result anyway, and the thread-bound context the DAO layer relies on
+ *    (transaction, servlet action tag, read-your-writes routing) stays in place
+ *  - Inside an active transaction no permit is taken: the transaction already
+ *    holds its connection
+ *  - Only for page-sized work; long bulk jobs (CSV import) have their own
+ *    limits instead of pinning a portal permit for minutes
+ *
+ * Usage (through BaseServlet.load):
+ * List<Student> students = Bulkhead.forPortal(Portal.ADMIN).execute(dao::listStudentsAsList);
+ */
+public class Bulkhead {
+
+    /**
+     * Portals with their limits: maxConcurrent, maxQueued, maxWaitMs.
+     * ADMIN + FACULTY + STUDENT = 20 = DBConnection MAX_POOL_SIZE.
+     */
+    public enum Portal {
+        ADMIN(4, 8, 2_000),
+        FACULTY(6, 24, 2_000),
+        STUDENT(10, 60, 2_000);
+
+        final int maxConcurrent;
+        final int maxQueued;
+        final long maxWaitMs;
+
+        Portal(int maxConcurrent, int maxQueued, long maxWaitMs) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.maxWaitMs = maxWaitMs;
+        }
+    }
+
+    /**
+     * A DAO call; may throw SQLException like the DAO itself.
+     */
+    @FunctionalInterface
+    public interface DaoCall<T> {
+        T call() throws SQLException;
+    }
+
+    private static final Map<Portal, Bulkhead> BULKHEADS = new EnumMap<>(Portal.class);
+
+    static {
+        for (Portal p : Portal.values()) {
+            BULKHEADS.put(p, new Bulkhead(p));
+        }
+    }
+
+    private final Portal portal;
+    private final Semaphore permits;
+
+    // Monitoring
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger peakQueued = new AtomicInteger();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+
+    private Bulkhead(Portal portal) {
+        this.portal = portal;
+        this.permits = new Semaphore(portal.maxConcurrent, true);
+    }
+
+    public static Bulkhead forPortal(Portal portal) {
+        return BULKHEADS.get(portal);
+    }
+
+    public static Map<Portal, Bulkhead> all() {
+        return Collections.unmodifiableMap(BULKHEADS);
+    }
+
+    // ---------------------------------------------------------------------
+    // Execute
+    // ---------------------------------------------------------------------
+
+    /**
+     * Runs the call inside this bulkhead.
+     *
+     * @throws BulkheadFullException if no permit became free in time
+     * @throws SQLException          whatever the DAO call throws
+     */
+    public <T> T execute(DaoCall<T> call) throws SQLException {
+        if (TransactionManager.isActive()) {
+            return call.call();
+        }
+
+        acquire();
+        try {
+            return call.call();
+        } finally {
+            permits.release();
+            completedCount.incrementAndGet();
+        }
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) return;
+
+        int depth = queued.incrementAndGet();
+        try {
+            if (depth > portal.maxQueued) {
+                throw reject("queue full (" + portal.maxQueued + " waiting)");
+            }
+            peakQueued.accumulateAndGet(depth, Math::max);
+
+            long start = System.currentTimeMillis();
+            boolean acquired = permits.tryAcquire(portal.maxWaitMs, TimeUnit.MILLISECONDS);
+            totalWaitMs.addAndGet(System.currentTimeMillis() - start);
+
+            if (!acquired) {
+                throw reject("no permit within " + portal.maxWaitMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the " + portal + " bulkhead", "HY008", e);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    private BulkheadFullException reject(String reason) {
+        rejectedCount.incrementAndGet();
+        String msg = "Bulkhead " + portal + " rejected " + DBConnection.getCurrentAction() + ": " + reason;
+        Logger.warn(msg);
+        return new BulkheadFullException(msg, portal);
+    }
+
+    // ---------------------------------------------------------------------
+    // Monitoring
+    // ---------------------------------------------------------------------
+    public Portal getPortal() { return portal; }
+    public int getMaxConcurrent() { return portal.maxConcurrent; }
+    public int getMaxQueued() { return portal.maxQueued; }
+    public int getActiveCount() { return portal.maxConcurrent - permits.availablePermits(); }
+    public int getQueueDepth() { return queued.get(); }
+    public int getPeakQueueDepth() { return peakQueued.get(); }
+    public long getCompletedCount() { return completedCount.get(); }
+    public long getRejectedCount() { return rejectedCount.get(); }
+    public long getTotalWaitMs() { return totalWaitMs.get(); }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{portal=" + portal + ", active=" + getActiveCount() + "/" + portal.maxConcurrent
+                + ", queued=" + getQueueDepth() + "/" + portal.maxQueued + ", peakQueued=" + getPeakQueueDepth()
+                + ", completed=" + getCompletedCount() + ", rejected=" + getRejectedCount() + "}";
+    }
+}
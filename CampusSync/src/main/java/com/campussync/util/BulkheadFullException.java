@@ -0,0 +1,23 @@
+package com.campussync.util;
+
+/**
+ * BulkheadFullException
+ *
+ * Thrown when a portal's Bulkhead has no free permit and its wait queue is
+ * full (or the wait timed out). The database itself is fine - this portal is
+ * simply over its share - but to the user it means the same thing, so it is
+ * a DatabaseUnavailableException and BaseServlet answers 503 + Retry-After.
+ */
+public class BulkheadFullException extends DatabaseUnavailableException {
+
+    private final Bulkhead.Portal portal;
+
+    public BulkheadFullException(String message, Bulkhead.Portal portal) {
+        super(message, 1);
+        this.portal = portal;
+    }
+
+    public Bulkhead.Portal getPortal() {
+        return portal;
+    }
+}
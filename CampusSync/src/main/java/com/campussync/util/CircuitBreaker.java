@@ -0,0 +1,167 @@
+package com.campussync.util;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CircuitBreaker
+ *
+ * Fail-fast guard in front of a ConnectionPool. While MySQL is down, request
+ * threads get a DatabaseUnavailableException immediately instead of each
+ * blocking on a connect timeout until Tomcat runs out of threads.
+ *
+ * States:
+ *  - CLOSED    → normal operation; consecutive connection failures are counted
+ *  - OPEN      → failureThreshold consecutive failures seen; every borrow fails
+ *                fast until openDurationMs has passed
+ *  - HALF_OPEN → one probe request is let through; success closes the circuit,
+ *                failure opens it again for another openDurationMs
+ *
+ * Only connection-level failures count (SQLState class 08, e.g. MySQL
+ * restarting or unreachable). Pool borrow timeouts (SQLTransientConnectionException)
+ * mean "busy", not "down", and SQL errors such as duplicate keys mean the
+ * database is answering - neither trips the breaker.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt = 0;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean(false);
+
+    // Monitoring
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong tripCount = new AtomicLong();
+    private volatile long lastStateChangeAt = System.currentTimeMillis();
+    private volatile String lastFailure;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMs) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+    }
+
+    // ---------------------------------------------------------------------
+    // Permission
+    // ---------------------------------------------------------------------
+
+    /**
+     * Called before touching the database.
+     *
+     * @return true if the caller is the half-open probe (must report back
+     *         through onSuccess/onFailure/onIgnored)
+     * @throws DatabaseUnavailableException if the circuit is open, or half-open
+     *                                      with a probe already in flight
+     */
+    public boolean acquirePermission() throws DatabaseUnavailableException {
+        if (state == State.CLOSED) return false;
+
+        if (state == State.OPEN) {
+            long remaining = openedAt + openDurationMs - System.currentTimeMillis();
+            if (remaining > 0) {
+                throw reject(remaining);
+            }
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+
+        // HALF_OPEN: exactly one probe at a time
+        if (probeInFlight.compareAndSet(false, true)) {
+            Logger.info("Circuit '" + name + "' half-open, probing the database");
+            return true;
+        }
+        throw reject(openDurationMs);
+    }
+
+    private DatabaseUnavailableException reject(long retryAfterMs) {
+        rejectedCount.incrementAndGet();
+        return new DatabaseUnavailableException(
+                "Database unavailable (circuit '" + name + "' is " + state + "): " + lastFailure,
+                Math.max(1, (retryAfterMs + 999) / 1000));
+    }
+
+    // ---------------------------------------------------------------------
+    // Outcome reporting
+    // ---------------------------------------------------------------------
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state != State.CLOSED) {
+            probeInFlight.set(false);
+            if (transition(State.HALF_OPEN, State.CLOSED)) {
+                Logger.info("Circuit '" + name + "' closed, database reachable again");
+            }
+        }
+    }
+
+    public void onFailure(SQLException e) {
+        if (!isOutage(e)) {
+            onIgnored();
+            return;
+        }
+        lastFailure = e.getMessage();
+
+        if (state == State.HALF_OPEN) {
+            probeInFlight.set(false);
+            if (transition(State.HALF_OPEN, State.OPEN)) {
+                Logger.warn("Circuit '" + name + "' probe failed, open for another " + openDurationMs + "ms");
+            }
+            return;
+        }
+
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && transition(State.CLOSED, State.OPEN)) {
+            tripCount.incrementAndGet();
+            Logger.error("Circuit '" + name + "' opened after " + failureThreshold
+                    + " consecutive connection failures; failing fast for " + openDurationMs + "ms", e);
+        }
+    }
+
+    /**
+     * The probe ended without telling us anything about the database
+     * (e.g. pool busy) - let the next request probe instead.
+     */
+    public void onIgnored() {
+        if (state == State.HALF_OPEN) probeInFlight.set(false);
+    }
+
+    /** SQLState class 08 (connection exception), excluding pool borrow timeouts. */
+    public static boolean isOutage(SQLException e) {
+        if (e instanceof SQLTransientConnectionException) return false;
+        return ConnectionPool.isFatal(e);
+    }
+
+    private synchronized boolean transition(State from, State to) {
+        if (state != from) return false;
+        state = to;
+        lastStateChangeAt = System.currentTimeMillis();
+        if (to == State.OPEN) openedAt = lastStateChangeAt;
+        if (to == State.CLOSED) consecutiveFailures.set(0);
+        return true;
+    }
+
+    // ---------------------------------------------------------------------
+    // Monitoring
+    // ---------------------------------------------------------------------
+    public String getName() { return name; }
+    public State getState() { return state; }
+    public int getConsecutiveFailures() { return consecutiveFailures.get(); }
+    public int getFailureThreshold() { return failureThreshold; }
+    public long getOpenDurationMs() { return openDurationMs; }
+    public long getRejectedCount() { return rejectedCount.get(); }
+    public long getTripCount() { return tripCount.get(); }
+    public long getLastStateChangeAt() { return lastStateChangeAt; }
+    public String getLastFailure() { return lastFailure; }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{name='" + name + "', state=" + state + ", failures=" + getConsecutiveFailures()
+                + "/" + failureThreshold + ", trips=" + getTripCount() + ", rejected=" + getRejectedCount() + "}";
+    }
+}
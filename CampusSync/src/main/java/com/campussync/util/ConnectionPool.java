@@ -0,0 +1,793 @@
+package com.campussync.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConnectionPool
+ *
+ * Small, dependency-free JDBC connection pool used behind
+ * {@link DBConnection#getConnection()}.
+ *
+ * Responsibilities:
+ *  - Keep physical MySQL connections open between requests (no TCP + auth
+ *    handshake per DAO call)
+ *  - Bound the number of physical connections (never exceeds maxSize, so
+ *    MySQL max_connections is protected at peak time)
+ *  - Keep at least minIdle connections warm, evict connections idle for
+ *    longer than idleTimeout or older than maxLifetime
+ *  - Validate a connection with a cheap ping (Connection.isValid → COM_PING)
+ *    before handing it out, unless it was used moments ago
+ *  - Fail with a clear SQLTransientConnectionException when no connection
+ *    becomes available within borrowTimeout
+ *
+ * Borrowed connections are proxies: calling close() returns the physical
+ * connection to the pool instead of dropping the socket. Statements that the
+ * caller forgot to close are closed at that point, and autocommit/read-only
+ * state is reset so the next borrower always gets a clean connection.
+ *
+ * Leak Detection:
+ *  - Every borrow records its call site (first CampusSync frame outside util),
+ *    the servlet action tag (see DBConnection.setCurrentAction) and the stack
+ *  - Connections held longer than leakDetectionThreshold are logged once with
+ *    the borrowing stack and counted as "leaked" for that call site
+ *  - Connections held longer than leakReclaimThreshold are force-reclaimed:
+ *    the physical socket is closed and the pool slot is freed
+ *  - Leases marked with markLongRunning(conn) (exports, imports, migrations,
+ *    batch jobs) are exempt: past leakDetectionThreshold they are logged once
+ *    as "long-running" (not counted as leaked) and never reclaimed
+ *  - getLeakStats() exposes leaked/reclaimed/long-running counts per call site
+ *
+ * Circuit Breaker:
+ *  - With breakerFailureThreshold > 0 a CircuitBreaker guards borrow():
+ *    after that many consecutive connection failures (SQLState 08) borrows
+ *    fail fast with DatabaseUnavailableException for breakerOpenMs, then a
+ *    single probe decides whether to close the circuit again
+ *  - While the circuit is not closed the housekeeper does not try to refill
+ *    idle connections
+ *
+ * Statement Cache:
+ *  - With statementCacheSize > 0 every physical connection keeps an LRU cache
+ *    of its PreparedStatements (see StatementCache), so hot queries are
+ *    parsed/prepared once per connection lifetime instead of once per call
+ *  - getStatementCacheStats() exposes pool-wide hit/miss/eviction counters
+ *
+ * Hold-time Metrics:
+ *  - Every returned connection records how long it was held, keyed by the
+ *    servlet action that borrowed it (getHoldTimeStats()). Used to verify that
+ *    actions release their connection before rendering the JSP.
+ *
+ * Usage (callers never see this class directly):
+ * try (Connection conn = DBConnection.getConnection()) {
+ *     ...
+ * }   // → connection goes back to the pool
+ */
+public class ConnectionPool {
+
+    /**
+     * Tunable pool settings. Defaults are sized for a single Tomcat instance
+     * in front of one MySQL server.
+     */
+    public static class Settings {
+        private int minIdle = 2;
+        private int maxSize = 20;
+        private long borrowTimeoutMs = 5_000;
+        private long idleTimeoutMs = 5 * 60_000;
+        private long maxLifetimeMs = 30 * 60_000;
+        private long aliveBypassMs = 500;
+        private int validationTimeoutSec = 2;
+        private long housekeepingIntervalMs = 30_000;
+        private long leakDetectionThresholdMs = 30_000;     // 0 = disabled
+        private long leakReclaimThresholdMs = 5 * 60_000;   // 0 = never force-reclaim
+        private long leakCheckIntervalMs = 5_000;
+        private int statementCacheSize = 0;                 // per connection; 0 = disabled
+        private int breakerFailureThreshold = 0;            // 0 = no circuit breaker
+        private long breakerOpenMs = 10_000;
+
+        public int getMinIdle() { return minIdle; }
+        public Settings setMinIdle(int minIdle) { this.minIdle = minIdle; return this; }
+
+        public int getMaxSize() { return maxSize; }
+        public Settings setMaxSize(int maxSize) { this.maxSize = maxSize; return this; }
+
+        public long getBorrowTimeoutMs() { return borrowTimeoutMs; }
+        public Settings setBorrowTimeoutMs(long borrowTimeoutMs) { this.borrowTimeoutMs = borrowTimeoutMs; return this; }
+
+        public long getIdleTimeoutMs() { return idleTimeoutMs; }
+        public Settings setIdleTimeoutMs(long idleTimeoutMs) { this.idleTimeoutMs = idleTimeoutMs; return this; }
+
+        public long getMaxLifetimeMs() { return maxLifetimeMs; }
+        public Settings setMaxLifetimeMs(long maxLifetimeMs) { this.maxLifetimeMs = maxLifetimeMs; return this; }
+
+        public long getAliveBypassMs() { return aliveBypassMs; }
+        public Settings setAliveBypassMs(long aliveBypassMs) { this.aliveBypassMs = aliveBypassMs; return this; }
+
+        public int getValidationTimeoutSec() { return validationTimeoutSec; }
+        public Settings setValidationTimeoutSec(int validationTimeoutSec) { this.validationTimeoutSec = validationTimeoutSec; return this; }
+
+        public long getHousekeepingIntervalMs() { return housekeepingIntervalMs; }
+        public Settings setHousekeepingIntervalMs(long housekeepingIntervalMs) { this.housekeepingIntervalMs = housekeepingIntervalMs; return this; }
+
+        public long getLeakDetectionThresholdMs() { return leakDetectionThresholdMs; }
+        public Settings setLeakDetectionThresholdMs(long leakDetectionThresholdMs) { this.leakDetectionThresholdMs = leakDetectionThresholdMs; return this; }
+
+        public long getLeakReclaimThresholdMs() { return leakReclaimThresholdMs; }
+        public Settings setLeakReclaimThresholdMs(long leakReclaimThresholdMs) { this.leakReclaimThresholdMs = leakReclaimThresholdMs; return this; }
+
+        public long getLeakCheckIntervalMs() { return leakCheckIntervalMs; }
+        public Settings setLeakCheckIntervalMs(long leakCheckIntervalMs) { this.leakCheckIntervalMs = leakCheckIntervalMs; return this; }
+
+        public int getStatementCacheSize() { return statementCacheSize; }
+        public Settings setStatementCacheSize(int statementCacheSize) { this.statementCacheSize = statementCacheSize; return this; }
+
+        public int getBreakerFailureThreshold() { return breakerFailureThreshold; }
+        public Settings setBreakerFailureThreshold(int breakerFailureThreshold) { this.breakerFailureThreshold = breakerFailureThreshold; return this; }
+
+        public long getBreakerOpenMs() { return breakerOpenMs; }
+        public Settings setBreakerOpenMs(long breakerOpenMs) { this.breakerOpenMs = breakerOpenMs; return this; }
+    }
+
+    /**
+     * Leak counters for one call site (e.g. "AdminDAO.getAllNotices(AdminDAO.java:190)").
+     */
+    public static class LeakStats {
+        private final AtomicLong leaked = new AtomicLong();
+        private final AtomicLong reclaimed = new AtomicLong();
+        private final AtomicLong longRunning = new AtomicLong();
+        private volatile String lastAction;
+
+        public long getLeaked() { return leaked.get(); }
+        public long getReclaimed() { return reclaimed.get(); }
+        public long getLongRunning() { return longRunning.get(); }
+        public String getLastAction() { return lastAction; }
+
+        @Override
+        public String toString() {
+            return "leaked=" + leaked + ", reclaimed=" + reclaimed + ", longRunning=" + longRunning
+                    + ", lastAction=" + lastAction;
+        }
+    }
+
+    /**
+     * Connection hold-time counters for one servlet action (e.g. "student:attendance").
+     */
+    public static class HoldStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalMs = new AtomicLong();
+        private final AtomicLong maxMs = new AtomicLong();
+
+        void record(long heldMs) {
+            count.incrementAndGet();
+            totalMs.addAndGet(heldMs);
+            maxMs.accumulateAndGet(heldMs, Math::max);
+        }
+
+        public long getCount() { return count.get(); }
+        public long getTotalMs() { return totalMs.get(); }
+        public long getMaxMs() { return maxMs.get(); }
+        public double getAverageMs() {
+            long c = count.get();
+            return c == 0 ? 0 : (double) totalMs.get() / c;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, avg=%.1fms, max=%dms", getCount(), getAverageMs(), getMaxMs());
+        }
+    }
+
+    private final String name;
+    private final String url;
+    private final String user;
+    private final String pass;
+    private final Settings settings;
+
+    // Idle physical connections, most recently used first (LIFO keeps a hot
+    // working set and lets surplus connections age out via idleTimeout)
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    // One permit per connection that may be lent out at the same time
+    private final Semaphore permits;
+
+    // Physical connections currently open (idle + borrowed + being created)
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong borrowTimeoutCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+
+    // Leases currently held by callers, scanned by the leak detector
+    private final Set<Lease> activeLeases = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, LeakStats> leakStats = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, HoldStats> holdStats = new ConcurrentHashMap<>();
+    private final AtomicLong leakedCount = new AtomicLong();
+    private final AtomicLong reclaimedCount = new AtomicLong();
+    private final AtomicLong longRunningCount = new AtomicLong();
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+    private final CircuitBreaker breaker;       // null when disabled
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    public ConnectionPool(String name, String url, String user, String pass, Settings settings) {
+        this.name = name;
+        this.url = url;
+        this.user = user;
+        this.pass = pass;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxSize(), true);
+        this.breaker = settings.getBreakerFailureThreshold() > 0
+                ? new CircuitBreaker(name, settings.getBreakerFailureThreshold(), settings.getBreakerOpenMs())
+                : null;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "campussync-pool-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep,
+                0, settings.getHousekeepingIntervalMs(), TimeUnit.MILLISECONDS);
+        if (settings.getLeakDetectionThresholdMs() > 0) {
+            this.housekeeper.scheduleWithFixedDelay(this::detectLeaks,
+                    settings.getLeakCheckIntervalMs(), settings.getLeakCheckIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+
+        Logger.info("Connection pool '" + name + "' started (min=" + settings.getMinIdle()
+                + ", max=" + settings.getMaxSize() + ")");
+    }
+
+    // ---------------------------------------------------------------------
+    // Borrow
+    //
+    // Waits at most borrowTimeout for a free slot, then hands out a validated
+    // idle connection or opens a new physical one. Fails fast while the
+    // circuit breaker is open.
+    // ---------------------------------------------------------------------
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool '" + name + "' has been shut down", "08003");
+        }
+        if (breaker == null) {
+            return borrowPermit();
+        }
+
+        breaker.acquirePermission();
+        try {
+            Connection conn = borrowPermit();
+            breaker.onSuccess();
+            return conn;
+        } catch (SQLException e) {
+            breaker.onFailure(e);
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.onIgnored();
+            throw e;
+        }
+    }
+
+    private Connection borrowPermit() throws SQLException {
+        long timeoutMs = settings.getBorrowTimeoutMs();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw borrowTimeout();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", "08001", e);
+        }
+
+        try {
+            PooledConnection pc = acquirePhysical(deadline);
+            return pc.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection acquirePhysical(long deadline) throws SQLException {
+        while (true) {
+            PooledConnection pc = idle.pollFirst();
+
+            if (pc != null) {
+                if (isUsable(pc)) {
+                    return pc;
+                }
+                destroy(pc);
+                continue;
+            }
+
+            if (reserveSlot()) {
+                return create();
+            }
+
+            // Every slot is taken by a connection that is on its way back to
+            // the idle queue (housekeeper refill in progress) - wait for it.
+            long remainingNs = deadline - System.nanoTime();
+            if (remainingNs <= 0) {
+                throw borrowTimeout();
+            }
+            try {
+                pc = idle.pollFirst(remainingNs, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", "08001", e);
+            }
+            if (pc != null) {
+                idle.offerFirst(pc);
+            }
+        }
+    }
+
+    /**
+     * Checks an idle connection before it is handed out.
+     * Connections used within the last aliveBypass window skip the ping.
+     */
+    private boolean isUsable(PooledConnection pc) {
+        long now = System.currentTimeMillis();
+
+        if (now - pc.createdAt > settings.getMaxLifetimeMs()) {
+            return false;
+        }
+        if (now - pc.lastReturnedAt < settings.getAliveBypassMs()) {
+            return true;
+        }
+
+        try {
+            if (pc.physical.isValid(settings.getValidationTimeoutSec())) {
+                return true;
+            }
+        } catch (SQLException e) {
+            Logger.debug("Validation of pooled connection failed: " + e.getMessage());
+        }
+        validationFailureCount.incrementAndGet();
+        return false;
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = total.get();
+            if (current >= settings.getMaxSize()) return false;
+            if (total.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /** Opens a new physical connection; the caller must already hold a reserved slot. */
+    private PooledConnection create() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, user, pass);
+            createdCount.incrementAndGet();
+            Logger.debug("Pool '" + name + "' opened a new connection (total=" + total.get() + ")");
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            Logger.error("Pool '" + name + "' failed to establish database connection", e);
+            throw e;
+        }
+    }
+
+    private void destroy(PooledConnection pc) {
+        total.decrementAndGet();
+        destroyedCount.incrementAndGet();
+        if (pc.statements != null) pc.statements.clear();
+        closeQuietly(pc.physical);
+    }
+
+    private SQLTransientConnectionException borrowTimeout() {
+        borrowTimeoutCount.incrementAndGet();
+        String msg = "Timed out after " + settings.getBorrowTimeoutMs() + "ms waiting for a connection from pool '"
+                + name + "' (active=" + getActiveCount() + ", idle=" + getIdleCount()
+                + ", max=" + settings.getMaxSize() + ", waiting=" + getWaitingCount() + ")";
+        Logger.warn(msg);
+        return new SQLTransientConnectionException(msg, "08001");
+    }
+
+    // ---------------------------------------------------------------------
+    // Return (called from the proxy's close())
+    // ---------------------------------------------------------------------
+    private void giveBack(PooledConnection pc, boolean broken) {
+        try {
+            if (shutdown || broken || !pc.reset()) {
+                destroy(pc);
+            } else {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pc);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Exempts a borrowed connection from leak detection and force-reclaim, for
+     * work that legitimately holds one connection for minutes (streamed
+     * exports, CSV imports, migrations, batch jobs). Call it right after
+     * borrowing; the mark ends when the connection is returned.
+     *
+     * @return false if conn is not a connection currently lent out by this pool
+     */
+    public boolean markLongRunning(Connection conn) {
+        if (conn == null || !Proxy.isProxyClass(conn.getClass())) return false;
+        InvocationHandler handler = Proxy.getInvocationHandler(conn);
+        if (!(handler instanceof Lease) || ((Lease) handler).pool() != this) return false;
+        ((Lease) handler).longRunning = true;
+        return true;
+    }
+
+    // ---------------------------------------------------------------------
+    // Housekeeping: idle eviction, lifetime expiry and minIdle refill
+    // ---------------------------------------------------------------------
+    private void housekeep() {
+        if (shutdown) return;
+
+        try {
+            long now = System.currentTimeMillis();
+            int surplus = idle.size() - settings.getMinIdle();
+
+            // Oldest idle connections sit at the tail of the deque
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection pc = it.next();
+                boolean expired = now - pc.createdAt > settings.getMaxLifetimeMs();
+                boolean idleTooLong = surplus > 0 && now - pc.lastReturnedAt > settings.getIdleTimeoutMs();
+
+                if ((expired || idleTooLong) && idle.remove(pc)) {
+                    destroy(pc);
+                    surplus--;
+                }
+            }
+
+            // No refill attempts while the database is known to be down
+            boolean circuitClosed = breaker == null || breaker.getState() == CircuitBreaker.State.CLOSED;
+
+            while (!shutdown && circuitClosed && idle.size() < settings.getMinIdle() && reserveSlot()) {
+                PooledConnection pc = create();
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.offerLast(pc);
+            }
+        } catch (SQLException e) {
+            // Database unreachable - next borrow will report the error to the caller
+            if (breaker != null) breaker.onFailure(e);
+            Logger.warn("Pool '" + name + "' could not refill idle connections: " + e.getMessage());
+        } catch (RuntimeException e) {
+            Logger.error("Pool '" + name + "' housekeeping failed", e);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Leak detection: flag long-held connections, force-reclaim abandoned ones
+    // ---------------------------------------------------------------------
+    private void detectLeaks() {
+        long now = System.currentTimeMillis();
+        long flagAfter = settings.getLeakDetectionThresholdMs();
+        long reclaimAfter = settings.getLeakReclaimThresholdMs();
+
+        for (Lease lease : activeLeases) {
+            long heldMs = now - lease.borrowedAt;
+
+            if (lease.longRunning) {
+                // Declared by the borrower: reported, never counted as a leak or reclaimed
+                if (heldMs > flagAfter && !lease.flagged) {
+                    lease.flagged = true;
+                    longRunningCount.incrementAndGet();
+                    statsFor(lease).longRunning.incrementAndGet();
+                    Logger.info("Long-running connection in pool '" + name + "': held " + heldMs + "ms by "
+                            + lease.callSite + " [action=" + lease.action + "]");
+                }
+                continue;
+            }
+
+            if (heldMs > flagAfter && !lease.flagged) {
+                lease.flagged = true;
+                leakedCount.incrementAndGet();
+                statsFor(lease).leaked.incrementAndGet();
+
+                Exception trace = new Exception("Connection borrowed here (thread " + lease.threadName + ")");
+                trace.setStackTrace(lease.borrowStack);
+                Logger.error("Possible connection leak in pool '" + name + "': held " + heldMs + "ms by "
+                        + lease.callSite + " [action=" + lease.action + "]", trace);
+            }
+
+            if (reclaimAfter > 0 && heldMs > reclaimAfter) {
+                lease.reclaim(heldMs);
+            }
+        }
+    }
+
+    private LeakStats statsFor(Lease lease) {
+        LeakStats stats = leakStats.computeIfAbsent(lease.callSite, k -> new LeakStats());
+        stats.lastAction = lease.action;
+        return stats;
+    }
+
+    /**
+     * Finds the first application frame outside the util package
+     * (the DAO or servlet line that called DBConnection.getConnection()).
+     */
+    private static String callSite(StackTraceElement[] stack) {
+        for (StackTraceElement e : stack) {
+            String cls = e.getClassName();
+            if (cls.startsWith("com.campussync.") && !cls.startsWith("com.campussync.util.")) {
+                return cls.substring(cls.lastIndexOf('.') + 1) + "." + e.getMethodName()
+                        + "(" + e.getFileName() + ":" + e.getLineNumber() + ")";
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper.
+     * Connections still borrowed are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            destroy(pc);
+        }
+        Logger.info("Connection pool '" + name + "' shut down");
+    }
+
+    // ---------------------------------------------------------------------
+    // Monitoring
+    // ---------------------------------------------------------------------
+    public String getName() { return name; }
+    public int getMaxSize() { return settings.getMaxSize(); }
+    public int getTotalCount() { return total.get(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getActiveCount() { return settings.getMaxSize() - permits.availablePermits(); }
+    public int getWaitingCount() { return permits.getQueueLength(); }
+    public long getCreatedCount() { return createdCount.get(); }
+    public long getDestroyedCount() { return destroyedCount.get(); }
+    public long getBorrowTimeoutCount() { return borrowTimeoutCount.get(); }
+    public long getValidationFailureCount() { return validationFailureCount.get(); }
+    public long getLeakedCount() { return leakedCount.get(); }
+    public long getReclaimedCount() { return reclaimedCount.get(); }
+    public long getLongRunningCount() { return longRunningCount.get(); }
+    public StatementCache.Stats getStatementCacheStats() { return statementStats; }
+
+    /** Circuit breaker guarding this pool, or null if disabled. */
+    public CircuitBreaker getCircuitBreaker() { return breaker; }
+
+    /** Connection hold times keyed by servlet action, sorted for display. */
+    public Map<String, HoldStats> getHoldTimeStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(holdStats));
+    }
+
+    /** Leak counters keyed by call site, sorted for display. */
+    public Map<String, LeakStats> getLeakStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(leakStats));
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool{" +
+                "name='" + name + '\'' +
+                ", active=" + getActiveCount() +
+                ", idle=" + getIdleCount() +
+                ", total=" + getTotalCount() +
+                ", max=" + getMaxSize() +
+                ", waiting=" + getWaitingCount() +
+                ", created=" + getCreatedCount() +
+                ", destroyed=" + getDestroyedCount() +
+                ", borrowTimeouts=" + getBorrowTimeoutCount() +
+                ", leaked=" + getLeakedCount() +
+                ", reclaimed=" + getReclaimedCount() +
+                ", longRunning=" + getLongRunningCount() +
+                ", statementCache={" + statementStats + "}" +
+                (breaker == null ? "" : ", circuit=" + breaker.getState()) +
+                '}';
+    }
+
+    // =====================================================================
+    // PooledConnection: one physical connection owned by the pool
+    // =====================================================================
+    private final class PooledConnection {
+        final Connection physical;
+        final StatementCache statements;        // null when caching is disabled
+        final long createdAt = System.currentTimeMillis();
+        volatile long lastReturnedAt = createdAt;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = settings.getStatementCacheSize() > 0
+                    ? new StatementCache(settings.getStatementCacheSize(), statementStats)
+                    : null;
+        }
+
+        /** Wraps the physical connection in a fresh single-use proxy. */
+        Connection lease() {
+            Lease lease = new Lease(this);
+            activeLeases.add(lease);
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    lease);
+        }
+
+        /**
+         * Restores default session state before the connection is reused.
+         * @return false if the connection should be discarded instead
+         */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) return false;
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();          // never leak half-finished work
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                Logger.warn("Discarding pooled connection that failed to reset: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    // =====================================================================
+    // Lease: the Connection proxy handed to DAOs/servlets
+    // =====================================================================
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pc;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private boolean broken = false;
+
+        // Borrower details, used for leak reports
+        final long borrowedAt = System.currentTimeMillis();
+        final String threadName = Thread.currentThread().getName();
+        final String action = DBConnection.getCurrentAction();
+        final StackTraceElement[] borrowStack;
+        final String callSite;
+        volatile boolean flagged = false;
+        volatile boolean longRunning = false;     // see markLongRunning
+
+        Lease(PooledConnection pc) {
+            this.pc = pc;
+            if (settings.getLeakDetectionThresholdMs() > 0) {
+                this.borrowStack = new Throwable().getStackTrace();
+                this.callSite = callSite(borrowStack);
+            } else {
+                this.borrowStack = new StackTraceElement[0];
+                this.callSite = "unknown";
+            }
+        }
+
+        ConnectionPool pool() {
+            return ConnectionPool.this;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String m = method.getName();
+
+            switch (m) {
+                case "close":
+                    closeLease();
+                    return null;
+                case "isClosed":
+                    return closed.get() || pc.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + name + "]" + (closed.get() ? " (closed)" : "");
+                default:
+                    break;
+            }
+
+            if (closed.get()) {
+                throw new SQLException("Connection is closed (already returned to pool '" + name + "')", "08003");
+            }
+
+            if (pc.statements != null && StatementCache.isCacheable(method)) {
+                String key = StatementCache.key(args);
+                PreparedStatement ps = pc.statements.checkout(key);
+                if (ps == null) {
+                    ps = pc.statements.put(key, (PreparedStatement) invokePhysical(method, args));
+                }
+                openStatements.add(ps);
+                return ps;
+            }
+
+            Object result = invokePhysical(method, args);
+            if (result instanceof Statement) {
+                openStatements.add((Statement) result);
+            }
+            return result;
+        }
+
+        private Object invokePhysical(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(pc.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+                    broken = true;
+                    if (breaker != null) breaker.onFailure((SQLException) cause);
+                }
+                throw cause;
+            }
+        }
+
+        private void closeLease() {
+            if (!closed.compareAndSet(false, true)) return;
+            activeLeases.remove(this);
+
+            long heldMs = System.currentTimeMillis() - borrowedAt;
+            holdStats.computeIfAbsent(action == null ? "untagged" : action, k -> new HoldStats()).record(heldMs);
+
+            // Close statements the caller forgot about - otherwise they pile up
+            // on the long-lived physical connection
+            for (Statement st : openStatements) {
+                closeQuietly(st);
+            }
+            openStatements.clear();
+
+            giveBack(pc, broken);
+        }
+
+        /**
+         * Takes the connection away from a borrower that held it too long.
+         * The physical socket is closed (the borrower may still be using it,
+         * so it cannot go back to the idle queue) and the slot is freed.
+         */
+        void reclaim(long heldMs) {
+            if (!closed.compareAndSet(false, true)) return;
+            activeLeases.remove(this);
+
+            reclaimedCount.incrementAndGet();
+            statsFor(this).reclaimed.incrementAndGet();
+            Logger.warn("Force-reclaimed connection held " + heldMs + "ms by " + callSite
+                    + " [action=" + action + ", thread=" + threadName + "]");
+
+            giveBack(pc, true);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable ac) {
+        try {
+            ac.close();
+        } catch (Exception ignored) { }
+    }
+
+    /** SQLState class 08 = connection exception; the socket cannot be reused. */
+    static boolean isFatal(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+}
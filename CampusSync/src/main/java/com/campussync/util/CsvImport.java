@@ -0,0 +1,228 @@
+package com.campussync.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * CsvImport
+ *
+ * parse → validate → batch-insert pipeline for bulk account uploads
+ * (admin portal: students.csv / faculty.csv).
+ *
+ * Working:
+ *  - The file is read record by record (CsvReader); only the current chunk
+ *    of rows and the set of keys seen so far are held in memory
+ *  - The header line maps column names to positions, so column order in the
+ *    file does not matter; missing required columns fail the import up front
+ *  - Each record is parsed into a model object; a parse error rejects that
+ *    line only (ImportProgress keeps line number + reason)
+ *  - Duplicate keys (emails) inside the file are rejected on their second
+ *    occurrence
+ *  - Per chunk, keys that already exist in the table are found with ONE
+ *    "WHERE email IN (...)" query against the unique index instead of one
+ *    lookup per row
+ *  - The remaining rows go to the sink (BatchInsert: multi-row INSERT, one
+ *    transaction per chunk); rows MySQL still rejects are mapped back to
+ *    their CSV line
+ *  - ImportProgress is updated as the file streams, for the polling page
+ *
+ * Usage:
+ * new CsvImport<>(new String[] {"name", "email", "password"}, AdminServlet::studentFromCsv,
+ *         s -> s.getEmail(), studentDAO::findExistingEmails, studentDAO::createStudents)
+ *         .run(reader, progress);
+ */
+public final class CsvImport<T> {
+
+    /**
+     * One CSV record with access by (case-insensitive) column name.
+     */
+    public static final class Row {
+        private final Map<String, Integer> columns;
+        private final String[] values;
+
+        Row(Map<String, Integer> columns, String[] values) {
+            this.columns = columns;
+            this.values = values;
+        }
+
+        /** Trimmed value of the column, or null when absent or blank. */
+        public String get(String column) {
+            Integer index = columns.get(column.toLowerCase(Locale.ROOT));
+            if (index == null || index >= values.length) return null;
+            String value = values[index].trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    /**
+     * Builds a model object from a record; throws IllegalArgumentException
+     * with a user-facing message when the record is invalid.
+     */
+    @FunctionalInterface
+    public interface RowParser<T> {
+        T parse(Row row);
+    }
+
+    /**
+     * Returns which of the given keys already exist in the table (lower case).
+     */
+    @FunctionalInterface
+    public interface KeyLookup {
+        Set<String> findExisting(Collection<String> keys) throws SQLException;
+    }
+
+    /**
+     * Inserts one chunk of validated rows.
+     */
+    @FunctionalInterface
+    public interface Sink<T> {
+        BatchResult<T> insert(List<T> rows) throws SQLException;
+    }
+
+    private final String[] requiredColumns;
+    private final RowParser<T> parser;
+    private final Function<T, String> key;
+    private final KeyLookup lookup;
+    private final Sink<T> sink;
+    private int chunkSize = BatchInsert.DEFAULT_CHUNK_SIZE;
+
+    public CsvImport(String[] requiredColumns, RowParser<T> parser, Function<T, String> key,
+                     KeyLookup lookup, Sink<T> sink) {
+        this.requiredColumns = requiredColumns;
+        this.parser = parser;
+        this.key = key;
+        this.lookup = lookup;
+        this.sink = sink;
+    }
+
+    public CsvImport<T> chunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+        return this;
+    }
+
+    // ---------------------------------------------------------------------
+    // Run
+    // ---------------------------------------------------------------------
+
+    /**
+     * Streams the whole file through the pipeline. Rows from completed chunks
+     * stay committed if the import fails part way.
+     *
+     * @throws IOException  if the file is not valid CSV (progress is FAILED)
+     * @throws SQLException if the database fails (progress is FAILED)
+     */
+    public void run(Reader reader, ImportProgress progress) throws IOException, SQLException {
+        try (CsvReader csv = new CsvReader(reader)) {
+            Map<String, Integer> columns = readHeader(csv, progress);
+            if (columns == null) return;
+
+            Map<String, Integer> seen = new HashMap<>();     // key → first line
+            List<T> rows = new ArrayList<>(chunkSize);
+            List<Integer> lines = new ArrayList<>(chunkSize);
+
+            String[] record;
+            while ((record = csv.next()) != null) {
+                progress.lineRead();
+                int line = csv.getLineNumber();
+
+                T row;
+                try {
+                    row = parser.parse(new Row(columns, record));
+                } catch (IllegalArgumentException e) {
+                    progress.reject(line, e.getMessage());
+                    continue;
+                }
+
+                String k = normalize(key.apply(row));
+                Integer firstLine = seen.putIfAbsent(k, line);
+                if (firstLine != null) {
+                    progress.reject(line, "Duplicate " + k + " (already on line " + firstLine + ")");
+                    continue;
+                }
+
+                rows.add(row);
+                lines.add(line);
+                if (rows.size() == chunkSize) {
+                    flush(rows, lines, progress);
+                }
+            }
+            flush(rows, lines, progress);
+            progress.finish();
+
+        } catch (IOException | SQLException | RuntimeException e) {
+            progress.fail(e.getMessage());
+            throw e;
+        } finally {
+            Logger.info("CSV import finished: " + progress);
+        }
+    }
+
+    private Map<String, Integer> readHeader(CsvReader csv, ImportProgress progress) throws IOException {
+        String[] header = csv.next();
+        if (header == null) {
+            progress.fail("The file is empty");
+            return null;
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (String required : requiredColumns) {
+            if (!columns.containsKey(required)) missing.add(required);
+        }
+        if (!missing.isEmpty()) {
+            progress.fail("Missing column(s) in header line: " + String.join(", ", missing));
+            return null;
+        }
+        return columns;
+    }
+
+    /** Bulk duplicate check against the table, then one batch insert. */
+    private void flush(List<T> rows, List<Integer> lines, ImportProgress progress) throws SQLException {
+        if (rows.isEmpty()) return;
+
+        Set<String> keys = new LinkedHashSet<>();
+        for (T row : rows) keys.add(normalize(key.apply(row)));
+        Set<String> existing = lookup.findExisting(keys);
+
+        List<T> fresh = new ArrayList<>(rows.size());
+        List<Integer> freshLines = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            String k = normalize(key.apply(rows.get(i)));
+            if (existing.contains(k)) {
+                progress.reject(lines.get(i), k + " is already registered");
+            } else {
+                fresh.add(rows.get(i));
+                freshLines.add(lines.get(i));
+            }
+        }
+
+        if (!fresh.isEmpty()) {
+            BatchResult<T> result = sink.insert(fresh);
+            progress.addInserted(result.getInserted());
+            for (BatchResult.Failure<T> f : result.getFailures()) {
+                progress.reject(freshLines.get(f.getIndex()), f.getMessage());
+            }
+        }
+
+        rows.clear();
+        lines.clear();
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,159 @@
+package com.campussync.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvReader
+ *
+ * Streaming RFC 4180 CSV parser: reads one record at a time from a Reader,
+ * so a 50k-line upload never sits in memory as a whole.
+ *
+ * Supports:
+ *  - comma separated fields, optionally "quoted"
+ *  - "" inside quotes as an escaped quote, commas and line breaks inside quotes
+ *  - \n, \r\n and \r line endings, a leading UTF-8 byte order mark
+ *  - blank lines (skipped)
+ *
+ * A field longer than MAX_FIELD_LENGTH or a quote that is never closed means
+ * the file is not CSV at all; both throw IOException with the line number.
+ *
+ * Usage:
+ * try (CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+ *     String[] record;
+ *     while ((record = csv.next()) != null) { ... csv.getLineNumber() ... }
+ * }
+ */
+public final class CsvReader implements Closeable {
+
+    /** Guards against unterminated quotes swallowing the rest of a big file. */
+    public static final int MAX_FIELD_LENGTH = 10_000;
+
+    private static final int BUFFER_SIZE = 8_192;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+
+    private int line = 1;            // physical line the reader is on
+    private int recordLine = 0;      // physical line where the last record started
+    private boolean started = false;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the fields of the record, or null at end of input
+     */
+    public String[] next() throws IOException {
+        if (!started) {
+            started = true;
+            if (peek() == '\uFEFF') read();     // byte order mark
+        }
+
+        // Skip blank lines
+        int c;
+        while ((c = peek()) == '\n' || c == '\r') {
+            readLineBreak();
+        }
+        if (c == -1) return null;
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+
+        while (true) {
+            c = read();
+            if (c == '"' && field.length() == 0) {
+                readQuoted(field);
+                c = read();
+                // Anything between the closing quote and the separator is kept as-is
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    append(field, (char) c);
+                    c = read();
+                }
+            } else {
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    append(field, (char) c);
+                    c = read();
+                }
+            }
+
+            fields.add(field.toString());
+            field.setLength(0);
+
+            if (c == ',') continue;
+            if (c == '\r' && peek() == '\n') read();
+            if (c != -1) line++;
+            return fields.toArray(new String[0]);
+        }
+    }
+
+    /** Physical line (1-based) on which the record returned by next() started. */
+    public int getLineNumber() {
+        return recordLine;
+    }
+
+    private void readQuoted(StringBuilder field) throws IOException {
+        int startLine = line;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unterminated quoted field starting on line " + startLine);
+            }
+            if (c == '"') {
+                if (peek() == '"') {
+                    read();
+                    append(field, '"');
+                    continue;
+                }
+                return;
+            }
+            if (c == '\n' || (c == '\r' && peek() != '\n')) line++;
+            append(field, (char) c);
+        }
+    }
+
+    private void append(StringBuilder field, char c) throws IOException {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IOException("Field longer than " + MAX_FIELD_LENGTH + " characters on line " + recordLine);
+        }
+        field.append(c);
+    }
+
+    private void readLineBreak() throws IOException {
+        int c = read();
+        if (c == '\r' && peek() == '\n') read();
+        line++;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos];
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) return false;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
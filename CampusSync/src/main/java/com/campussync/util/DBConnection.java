@@ -1,24 +1,26 @@
 package com.campussync.util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * DBConnection
  *
- * Centralized utility class for creating JDBC connections to the MySQL
+ * Centralized utility class for obtaining JDBC connections to the MySQL
  * database used by the CampusSync application.
  *
  * Responsibilities:
  *  - Load MySQL JDBC driver once (static block)
  *  - Provide getConnection() for DAOs and Servlets
  *  - Maintain clean, reusable, isolated database configuration
+ *  - Own the application-wide ConnectionPool (bounded, validated, idle-evicted)
+ *  - Route read-only queries to an optional replica pool (getReadConnection)
  *
  * Notes:
  *  - Credentials stored as constants for prototype simplicity.
  *  - In production → move credentials to environment variables, JNDI, or config files.
- *  - For scalability → use Connection Pooling (HikariCP, Apache DBCP).
+ *  - getConnection() hands out pooled connections; close() returns them to the pool.
  */
 public class DBConnection {
 
@@ -31,13 +33,84 @@ public class DBConnection {
     private static final String USER = "root";
     private static final String PASS = "1234";
 
+    // Bounds how long a connect attempt can block a request thread while
+    // MySQL is down (before the circuit breaker opens)
+    private static final int CONNECT_TIMEOUT_MS = 3_000;
+
     // JDBC connection URL
     // serverTimezone avoids timezone-related warnings in MySQL Connector/J
+    // useCursorFetch lets statements with a fetch size read through a
+    // server-side cursor instead of buffering the whole result (QueryStream)
+    // useServerPrepStmts prepares on the server once; together with the pool's
+    // statement cache a hot query is parsed once per connection lifetime
+    // rewriteBatchedStatements sends an INSERT batch as one multi-row INSERT
+    // (BatchInsert: 500 rows per round trip instead of 500 round trips)
     private static final String URL = String.format(
-            "jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC",
-            HOST, PORT, DBNAME
+            "jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"
+                    + "&useCursorFetch=true&useServerPrepStmts=true&rewriteBatchedStatements=true"
+                    + "&connectTimeout=%d",
+            HOST, PORT, DBNAME, CONNECT_TIMEOUT_MS
+    );
+
+    // ---------------------------------------------------------------------
+    // Connection Pool Configuration
+    // MAX_POOL_SIZE must stay well below MySQL max_connections (default 151)
+    // ---------------------------------------------------------------------
+    private static final int MIN_IDLE = 2;
+    private static final int MAX_POOL_SIZE = 20;
+    private static final long BORROW_TIMEOUT_MS = 5_000;       // wait for a free connection
+    private static final long IDLE_TIMEOUT_MS = 5 * 60_000;    // evict surplus idle connections
+    private static final long MAX_LIFETIME_MS = 30 * 60_000;   // stay below MySQL wait_timeout
+
+    // Leak detection: log connections held longer than LEAK_DETECTION_MS,
+    // force-reclaim connections held longer than LEAK_RECLAIM_MS
+    // (except those marked with markLongRunning: only reported after LEAK_DETECTION_MS)
+    private static final long LEAK_DETECTION_MS = 30_000;
+    private static final long LEAK_RECLAIM_MS = 5 * 60_000;
+
+    // Prepared statements kept per physical connection (LRU). The app has
+    // well under 100 distinct statements; stay below max_prepared_stmt_count
+    // (default 16382) across MAX_POOL_SIZE connections.
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    // Circuit breaker: after BREAKER_FAILURE_THRESHOLD consecutive connection
+    // failures, fail fast (HTTP 503) for BREAKER_OPEN_MS, then probe once.
+    private static final int BREAKER_FAILURE_THRESHOLD = 5;
+    private static final long BREAKER_OPEN_MS = 10_000;
+
+    // ---------------------------------------------------------------------
+    // Read Replica Configuration (disabled unless -Dcampussync.replica.enabled=true)
+    // Reads fall back to the primary while the replica is down or lagging more
+    // than MAX_REPLICA_LAG_SECONDS, and for READ_YOUR_WRITES_MS after a session
+    // has written (see BaseServlet).
+    // ---------------------------------------------------------------------
+    private static final boolean REPLICA_ENABLED =
+            Boolean.parseBoolean(System.getProperty("campussync.replica.enabled", "false"));
+    private static final String REPLICA_HOST = System.getProperty("campussync.replica.host", "localhost");
+    private static final String REPLICA_PORT = System.getProperty("campussync.replica.port", "3307");
+    private static final int REPLICA_MAX_POOL_SIZE = 20;
+    private static final long REPLICA_BORROW_TIMEOUT_MS = 1_000;  // fail over quickly
+    private static final long MAX_REPLICA_LAG_SECONDS = 5;
+    private static final long REPLICA_CHECK_INTERVAL_MS = 2_000;
+    public static final long READ_YOUR_WRITES_MS = 10_000;         // > max lag + check interval
+
+    private static final String REPLICA_URL = String.format(
+            "jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"
+                    + "&useCursorFetch=true&useServerPrepStmts=true&connectTimeout=%d",
+            REPLICA_HOST, REPLICA_PORT, DBNAME, CONNECT_TIMEOUT_MS
     );
 
+    // Set while the current request must read from the primary (read-your-writes)
+    private static final ThreadLocal<Boolean> READ_FROM_PRIMARY = new ThreadLocal<>();
+
+    // Read routing metrics
+    private static final AtomicLong REPLICA_READS = new AtomicLong();
+    private static final AtomicLong STICKY_READS = new AtomicLong();
+    private static final AtomicLong FALLBACK_READS = new AtomicLong();
+
+    // Servlet action that is currently running on this thread (for leak reports)
+    private static final ThreadLocal<String> CURRENT_ACTION = new ThreadLocal<>();
+
     // ---------------------------------------------------------------------
     // Static Initialization Block
     // Loads MySQL Driver ONCE when class is loaded.
@@ -51,23 +124,206 @@ public class DBConnection {
         }
     }
 
+    // ---------------------------------------------------------------------
+    // Pool Holder
+    // Pool is created lazily on first use (after the driver is loaded).
+    // ---------------------------------------------------------------------
+    private static volatile boolean poolStarted = false;
+
+    private static class PoolHolder {
+        static final ConnectionPool POOL = new ConnectionPool("primary", URL, USER, PASS,
+                new ConnectionPool.Settings()
+                        .setMinIdle(MIN_IDLE)
+                        .setMaxSize(MAX_POOL_SIZE)
+                        .setBorrowTimeoutMs(BORROW_TIMEOUT_MS)
+                        .setIdleTimeoutMs(IDLE_TIMEOUT_MS)
+                        .setMaxLifetimeMs(MAX_LIFETIME_MS)
+                        .setLeakDetectionThresholdMs(LEAK_DETECTION_MS)
+                        .setLeakReclaimThresholdMs(LEAK_RECLAIM_MS)
+                        .setStatementCacheSize(STATEMENT_CACHE_SIZE)
+                        .setBreakerFailureThreshold(BREAKER_FAILURE_THRESHOLD)
+                        .setBreakerOpenMs(BREAKER_OPEN_MS));
+
+        static {
+            poolStarted = true;
+        }
+    }
+
+    private static volatile boolean replicaStarted = false;
+
+    private static class ReplicaHolder {
+        static final ConnectionPool POOL = new ConnectionPool("replica", REPLICA_URL, USER, PASS,
+                new ConnectionPool.Settings()
+                        .setMinIdle(MIN_IDLE)
+                        .setMaxSize(REPLICA_MAX_POOL_SIZE)
+                        .setBorrowTimeoutMs(REPLICA_BORROW_TIMEOUT_MS)
+                        .setIdleTimeoutMs(IDLE_TIMEOUT_MS)
+                        .setMaxLifetimeMs(MAX_LIFETIME_MS)
+                        .setLeakDetectionThresholdMs(LEAK_DETECTION_MS)
+                        .setLeakReclaimThresholdMs(LEAK_RECLAIM_MS)
+                        .setStatementCacheSize(STATEMENT_CACHE_SIZE)
+                        .setBreakerFailureThreshold(BREAKER_FAILURE_THRESHOLD)
+                        .setBreakerOpenMs(BREAKER_OPEN_MS));
+
+        static final ReplicaMonitor MONITOR =
+                new ReplicaMonitor(POOL, MAX_REPLICA_LAG_SECONDS, REPLICA_CHECK_INTERVAL_MS);
+
+        static {
+            replicaStarted = true;
+        }
+    }
+
     // ---------------------------------------------------------------------
     // Get Connection
     //
-    // @return A fresh JDBC Connection object
-    // @throws SQLException If connection cannot be established
+    // @return A pooled JDBC Connection object
+    // @throws SQLException If no connection can be obtained within the
+    //                      borrow timeout or MySQL is unreachable
     //
-    // Caller (DAO/Servlet) MUST close the connection after use.
+    // Caller (DAO/Servlet) MUST close the connection after use - close()
+    // returns it to the pool instead of dropping the socket.
+    //
+    // Inside TransactionManager.execute(...) this returns the transaction's
+    // connection instead (close() is then a no-op), so DAOs join the
+    // surrounding transaction automatically.
     // ---------------------------------------------------------------------
     public static Connection getConnection() throws SQLException {
-        try {
-            Connection conn = DriverManager.getConnection(URL, USER, PASS);
-            Logger.debug("Database connection established");
-            return conn;
-        } catch (SQLException e) {
-            Logger.error("Failed to establish database connection", e);
-            throw e;
+        Connection bound = TransactionManager.currentConnection();
+        if (bound != null) return bound;
+        return PoolHolder.POOL.borrow();
+    }
+
+    // Always borrows a fresh pooled connection (transaction boundaries)
+    static Connection borrowConnection() throws SQLException {
+        return PoolHolder.POOL.borrow();
+    }
+
+    // ---------------------------------------------------------------------
+    // Get Read Connection
+    //
+    // Routing hint for read-only DAO calls (listings, dashboards). Returns a
+    // replica connection when it is safe to do so, otherwise the primary:
+    //  - inside a transaction → the transaction's connection
+    //  - replica disabled / unhealthy / lagging → primary
+    //  - session wrote recently (read-your-writes) → primary
+    //  - replica borrow fails → replica marked down, primary
+    //
+    // Never use it for reads that decide a write (check-then-insert) or for
+    // authentication.
+    // ---------------------------------------------------------------------
+    public static Connection getReadConnection() throws SQLException {
+        if (TransactionManager.isActive() || !REPLICA_ENABLED) {
+            return getConnection();
+        }
+
+        if (Boolean.TRUE.equals(READ_FROM_PRIMARY.get())) {
+            STICKY_READS.incrementAndGet();
+            return PoolHolder.POOL.borrow();
+        }
+
+        ReplicaMonitor monitor = ReplicaHolder.MONITOR;
+        if (monitor.isUsable()) {
+            try {
+                Connection conn = ReplicaHolder.POOL.borrow();
+                REPLICA_READS.incrementAndGet();
+                return conn;
+            } catch (SQLException e) {
+                monitor.markDown(e.getMessage());
+            }
+        }
+
+        FALLBACK_READS.incrementAndGet();
+        return PoolHolder.POOL.borrow();
+    }
+
+    // ---------------------------------------------------------------------
+    // Read-your-writes
+    // Set per request by BaseServlet while the session is inside its sticky
+    // window, so every getReadConnection() on this thread goes to the primary.
+    // ---------------------------------------------------------------------
+    public static void setReadFromPrimary(boolean primary) {
+        if (primary) READ_FROM_PRIMARY.set(Boolean.TRUE);
+        else READ_FROM_PRIMARY.remove();
+    }
+
+    public static boolean isReadFromPrimary() {
+        return Boolean.TRUE.equals(READ_FROM_PRIMARY.get());
+    }
+
+    public static boolean isReplicaEnabled() {
+        return REPLICA_ENABLED;
+    }
+
+    /** Replica pool, or null when read splitting is disabled. */
+    public static ConnectionPool getReplicaPool() {
+        return REPLICA_ENABLED ? ReplicaHolder.POOL : null;
+    }
+
+    /** Replica health monitor, or null when read splitting is disabled. */
+    public static ReplicaMonitor getReplicaMonitor() {
+        return REPLICA_ENABLED ? ReplicaHolder.MONITOR : null;
+    }
+
+    public static long getReplicaReadCount() { return REPLICA_READS.get(); }
+    public static long getStickyReadCount() { return STICKY_READS.get(); }
+    public static long getFallbackReadCount() { return FALLBACK_READS.get(); }
+
+    // ---------------------------------------------------------------------
+    // Pool access for monitoring (active/idle/waiting counts)
+    // ---------------------------------------------------------------------
+    public static ConnectionPool getPool() {
+        return PoolHolder.POOL;
+    }
+
+    // ---------------------------------------------------------------------
+    // Long-running work
+    // Exports, imports, migrations and batch jobs hold one connection for
+    // minutes on purpose. Marking it right after borrowing exempts it from the
+    // leak reclaim (the socket is never closed under the work); it is logged
+    // as "long-running" instead of as a leak. Accepts a transaction's
+    // connection (TransactionManager callbacks) as well as a plain one.
+    //
+    // try (Connection conn = DBConnection.getReadConnection()) {
+    //     DBConnection.markLongRunning(conn);
+    //     ...
+    // }
+    // ---------------------------------------------------------------------
+    public static void markLongRunning(Connection conn) {
+        Connection leased = TransactionManager.leasedConnection(conn);
+        boolean marked = (poolStarted && PoolHolder.POOL.markLongRunning(leased))
+                || (replicaStarted && ReplicaHolder.POOL.markLongRunning(leased));
+        if (!marked) Logger.debug("markLongRunning: not a pooled connection, nothing to exempt");
+    }
+
+    // ---------------------------------------------------------------------
+    // Action Tagging
+    // Records which servlet action borrows connections on this thread, so a
+    // leak report says "admin:notices" and not just a stack trace.
+    // Set/cleared per request by ConnectionTrackingFilter.
+    // ---------------------------------------------------------------------
+    public static void setCurrentAction(String action) {
+        CURRENT_ACTION.set(action);
+    }
+
+    public static String getCurrentAction() {
+        return CURRENT_ACTION.get();
+    }
+
+    public static void clearCurrentAction() {
+        CURRENT_ACTION.remove();
+    }
+
+    // ---------------------------------------------------------------------
+    // Shutdown
+    // Called on webapp undeploy so pooled sockets are not left open.
+    // ---------------------------------------------------------------------
+    public static void shutdown() {
+        if (replicaStarted) {
+            ReplicaHolder.MONITOR.shutdown();
+            ReplicaHolder.POOL.shutdown();
         }
+        if (!poolStarted) return;   // never used → nothing to close
+        getPool().shutdown();
     }
 
     // ---------------------------------------------------------------------
@@ -0,0 +1,27 @@
+package com.campussync.util;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * DatabaseUnavailableException
+ *
+ * Thrown instead of attempting a connection while the CircuitBreaker is open.
+ * BaseServlet turns it into an HTTP 503 with a Retry-After header.
+ *
+ * Extends SQLTransientConnectionException so existing catch (SQLException)
+ * blocks keep working, and RetryPolicy does not replay it.
+ */
+public class DatabaseUnavailableException extends SQLTransientConnectionException {
+
+    private final long retryAfterSeconds;
+
+    public DatabaseUnavailableException(String message, long retryAfterSeconds) {
+        super(message, "08001");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /** Seconds until the circuit will let a probe through. */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,39 @@
+package com.campussync.util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * HotQuery
+ *
+ * Marks a SQL constant (static final String field of a DAO or servlet) as a
+ * query on a request path, so QueryPlanGuard EXPLAINs it against the seeded
+ * development database and fails the build if its plan regresses.
+ *
+ * Working:
+ *  - params are bound to the ? placeholders in order; ${student}, ${subject},
+ *    ${faculty}, ${email}, ${date}, ${today} and ${termStart} (first day of
+ *    the current AcademicTerm) are replaced by values QueryPlanGuard looks up
+ *  - maxRows bounds the plan's row estimate (product of the rows column over
+ *    the joined tables), i.e. how much the query may read per request
+ *  - type=ALL (full table scan) fails unless allowFullScan is set
+ *
+ * Usage:
+ * @HotQuery(params = "${student}", maxRows = 2_000)
+ * private static final String SQL_STUDENT_HISTORY = "SELECT ... WHERE a.student_id=? ...";
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface HotQuery {
+
+    /** Values for the ? placeholders, in order. */
+    String[] params() default {};
+
+    /** Largest acceptable row estimate for one execution. */
+    long maxRows();
+
+    /** Set for queries that read a whole (small) table by design. */
+    boolean allowFullScan() default false;
+}
@@ -0,0 +1,130 @@
+package com.campussync.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ImportProgress
+ *
+ * Live status of one CSV import, kept in the admin's session so the import
+ * page can poll it (adminPanel?action=importStatus) while the upload request
+ * is still running, and show the final report afterwards.
+ *
+ * Written by the importing thread only; read by the polling requests, hence
+ * the volatile counters. Line errors are capped at MAX_ERRORS so a file that
+ * is wrong on every line cannot fill the session.
+ */
+public final class ImportProgress implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Line errors kept for display; the count keeps going past this. */
+    public static final int MAX_ERRORS = 500;
+
+    public enum State { RUNNING, DONE, FAILED }
+
+    /**
+     * One rejected CSV line.
+     */
+    public static final class LineError implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int line;
+        private final String message;
+
+        LineError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() { return line; }
+        public String getMessage() { return message; }
+    }
+
+    private final String type;
+    private final String fileName;
+    private final long startedAt = System.currentTimeMillis();
+
+    private volatile State state = State.RUNNING;
+    private volatile int linesRead;
+    private volatile int inserted;
+    private volatile int rejected;
+    private volatile long finishedAt;
+    private volatile String failure;
+    private final List<LineError> errors = Collections.synchronizedList(new ArrayList<>());
+
+    public ImportProgress(String type, String fileName) {
+        this.type = type;
+        this.fileName = fileName;
+    }
+
+    // ---------------------------------------------------------------------
+    // Updates (importing thread)
+    // ---------------------------------------------------------------------
+    void lineRead() { linesRead++; }
+    void addInserted(int count) { inserted += count; }
+
+    void reject(int line, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    void finish() {
+        finishedAt = System.currentTimeMillis();
+        state = State.DONE;
+    }
+
+    void fail(String message) {
+        failure = message;
+        finishedAt = System.currentTimeMillis();
+        state = State.FAILED;
+    }
+
+    // ---------------------------------------------------------------------
+    // Status
+    // ---------------------------------------------------------------------
+    public String getType() { return type; }
+    public String getFileName() { return fileName; }
+    public State getState() { return state; }
+    public boolean isRunning() { return state == State.RUNNING; }
+    public int getLinesRead() { return linesRead; }
+    public int getInserted() { return inserted; }
+    public int getRejected() { return rejected; }
+    public String getFailure() { return failure; }
+    public long getStartedAt() { return startedAt; }
+
+    public long getElapsedMs() {
+        return (finishedAt == 0 ? System.currentTimeMillis() : finishedAt) - startedAt;
+    }
+
+    /** Rejected lines in file order (at most MAX_ERRORS). */
+    public List<LineError> getErrors() {
+        synchronized (errors) {
+            List<LineError> copy = new ArrayList<>(errors);
+            copy.sort((a, b) -> Integer.compare(a.line, b.line));
+            return copy;
+        }
+    }
+
+    /** Status for the polling endpoint; line errors are rendered by the JSP instead. */
+    public String toJson() {
+        return "{\"type\":" + Json.string(type)
+                + ",\"file\":" + Json.string(fileName)
+                + ",\"state\":\"" + state + "\""
+                + ",\"linesRead\":" + linesRead
+                + ",\"inserted\":" + inserted
+                + ",\"rejected\":" + rejected
+                + ",\"elapsedMs\":" + getElapsedMs()
+                + ",\"failure\":" + Json.string(failure) + "}";
+    }
+
+    @Override
+    public String toString() {
+        return "ImportProgress{" + type + " " + fileName + ", state=" + state + ", lines=" + linesRead
+                + ", inserted=" + inserted + ", rejected=" + rejected + ", elapsedMs=" + getElapsedMs() + "}";
+    }
+}
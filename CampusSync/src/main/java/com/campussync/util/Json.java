@@ -0,0 +1,36 @@
+package com.campussync.util;
+
+/**
+ * Json
+ *
+ * Minimal JSON helpers for the hand-written JSON endpoints (/health, import
+ * status). CampusSync has no JSON library; the responses are small, flat
+ * objects, so escaping string values correctly is all that is needed.
+ */
+public final class Json {
+
+    private Json() { }
+
+    /**
+     * JSON string literal, or null. Messages can contain quotes, backslashes
+     * or newlines (SQL error texts, CSV content).
+     */
+    public static String string(String value) {
+        if (value == null) return "null";
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
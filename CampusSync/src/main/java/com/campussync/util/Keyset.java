@@ -0,0 +1,156 @@
+package com.campussync.util;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keyset
+ *
+ * Keyset ("seek") pagination for one listing query. Replaces loading a whole
+ * table into a List and rendering it on one page.
+ *
+ * Working:
+ *  - Instead of OFFSET, each page continues from the last row the user saw:
+ *      Sort.ID   → WHERE id > ? ORDER BY id LIMIT size+1
+ *      Sort.NAME → WHERE name >= ? AND (name > ? OR id > ?) ORDER BY name, id LIMIT size+1
+ *    With an index on (id) / (name, id) MySQL seeks straight to the cursor,
+ *    so page 800 costs the same as page 1
+ *  - "Previous" runs the mirrored query (<, DESC) and reverses the rows
+ *  - The extra (size+1)th row only tells whether another page exists; it is
+ *    never returned
+ *  - id must be unique (primary key) so (name, id) is a total order; name
+ *    must be NOT NULL (NULLs fail every comparison and would be skipped)
+ *  - Listings without a usable name column are built with nameColumn = null
+ *    and always page by id
+ *
+ * Usage:
+ * private static final Keyset<Student> STUDENT_PAGES = new Keyset<>(
+ *         "SELECT student_id, name, email, course, semester FROM student",
+ *         "student_id", "name", BeanRowMapper.of(Student.class), Student::getStudentId, Student::getName);
+ * Page<Student> page = STUDENT_PAGES.fetch(request);
+ */
+public final class Keyset<T> {
+
+    private final String idColumn;
+    private final String nameColumn;
+    private final RowMapper<T> mapper;
+    private final ToIntFunction<T> idOf;
+    private final Function<T, String> nameOf;
+
+    // SQL per direction, built once
+    private final String sqlFirstById;
+    private final String sqlAfterId;
+    private final String sqlBeforeId;
+    private final String sqlFirstByName;
+    private final String sqlAfterName;
+    private final String sqlBeforeName;
+
+    /**
+     * @param select     SELECT ... FROM ... [JOIN ...] without WHERE / ORDER BY / LIMIT
+     * @param idColumn   unique key column, e.g. "student_id" or "s.subject_id"
+     * @param nameColumn NOT NULL name column for Sort.NAME, or null (id only)
+     */
+    public Keyset(String select, String idColumn, String nameColumn, RowMapper<T> mapper,
+                  ToIntFunction<T> idOf, Function<T, String> nameOf) {
+        this.idColumn = idColumn;
+        this.nameColumn = nameColumn;
+        this.mapper = mapper;
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+
+        this.sqlFirstById = select + " ORDER BY " + idColumn + " LIMIT ?";
+        this.sqlAfterId = select + " WHERE " + idColumn + " > ? ORDER BY " + idColumn + " LIMIT ?";
+        this.sqlBeforeId = select + " WHERE " + idColumn + " < ? ORDER BY " + idColumn + " DESC LIMIT ?";
+
+        if (nameColumn == null) {
+            this.sqlFirstByName = this.sqlAfterName = this.sqlBeforeName = null;
+        } else {
+            this.sqlFirstByName = select + " ORDER BY " + nameColumn + ", " + idColumn + " LIMIT ?";
+            this.sqlAfterName = select
+                    + " WHERE " + nameColumn + " >= ? AND (" + nameColumn + " > ? OR " + idColumn + " > ?)"
+                    + " ORDER BY " + nameColumn + ", " + idColumn + " LIMIT ?";
+            this.sqlBeforeName = select
+                    + " WHERE " + nameColumn + " <= ? AND (" + nameColumn + " < ? OR " + idColumn + " < ?)"
+                    + " ORDER BY " + nameColumn + " DESC, " + idColumn + " DESC LIMIT ?";
+        }
+    }
+
+    /**
+     * Loads one page. The connection is released before this method returns.
+     */
+    public Page<T> fetch(PageRequest request) throws SQLException {
+        PageRequest.Sort sort = nameColumn == null ? PageRequest.Sort.ID : request.getSort();
+        boolean byName = sort == PageRequest.Sort.NAME;
+        int size = request.getSize();
+        int limit = size + 1;                  // one extra row = "there is another page"
+
+        PageRequest.Cursor position = request.isBackward() ? request.getBefore() : request.getAfter();
+        if (byName && position != null && position.getName() == null) {
+            position = null;                   // id cursor from a different sort order → restart
+        }
+
+        List<T> rows = new ArrayList<>(limit);
+        if (position == null) {
+            QueryStream.forEach(byName ? sqlFirstByName : sqlFirstById,
+                    ps -> ps.setInt(1, limit), mapper, limit, rows::add);
+            return forwardPage(rows, sort, size, false);
+        }
+
+        final PageRequest.Cursor c = position;
+        String sql;
+        QueryStream.Binder binder;
+        if (byName) {
+            sql = request.isBackward() ? sqlBeforeName : sqlAfterName;
+            binder = ps -> {
+                ps.setString(1, c.getName());
+                ps.setString(2, c.getName());
+                ps.setInt(3, c.getId());
+                ps.setInt(4, limit);
+            };
+        } else {
+            sql = request.isBackward() ? sqlBeforeId : sqlAfterId;
+            binder = ps -> {
+                ps.setInt(1, c.getId());
+                ps.setInt(2, limit);
+            };
+        }
+        QueryStream.forEach(sql, binder, mapper, limit, rows::add);
+
+        if (!request.isBackward()) {
+            return forwardPage(rows, sort, size, true);
+        }
+
+        // Backward: rows arrived in reverse order
+        boolean morePrev = rows.size() > size;
+        if (!morePrev) {
+            // Reached the start; show a full first page instead of a short one
+            return fetch(PageRequest.first(sort, size));
+        }
+        rows = new ArrayList<>(rows.subList(0, size));
+        Collections.reverse(rows);
+        return new Page<>(rows, sort, size, cursor(rows.get(0), byName), cursor(rows.get(rows.size() - 1), byName));
+    }
+
+    private Page<T> forwardPage(List<T> rows, PageRequest.Sort sort, int size, boolean hasPrev) {
+        boolean byName = sort == PageRequest.Sort.NAME;
+        boolean moreNext = rows.size() > size;
+        if (moreNext) rows = new ArrayList<>(rows.subList(0, size));
+
+        String prev = hasPrev && !rows.isEmpty() ? cursor(rows.get(0), byName) : null;
+        String next = moreNext ? cursor(rows.get(rows.size() - 1), byName) : null;
+        return new Page<>(rows, sort, size, prev, next);
+    }
+
+    private String cursor(T row, boolean byName) {
+        return new PageRequest.Cursor(idOf.applyAsInt(row), byName ? nameOf.apply(row) : null).encode();
+    }
+
+    @Override
+    public String toString() {
+        return "Keyset{id=" + idColumn + ", name=" + nameColumn + "}";
+    }
+}
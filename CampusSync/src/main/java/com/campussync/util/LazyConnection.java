@@ -0,0 +1,82 @@
+package com.campussync.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LazyConnection
+ *
+ * Per-request connection handle that only borrows from the pool on first
+ * real use. Actions that never touch the database (dashboards, upload forms,
+ * redirects) therefore cost zero pooled connections.
+ *
+ * Usage (through BaseServlet.db(req)):
+ * LazyConnection db = db(req);
+ * PreparedStatement ps = db.get().prepareStatement(...);   // borrows here
+ * ...
+ * db.close();   // returns the connection (if one was borrowed)
+ *
+ * After close() the handle can be used again - get() simply borrows a new
+ * connection. This lets a servlet release the connection before rendering
+ * a JSP and still be safe if the view triggers another query.
+ */
+public class LazyConnection implements AutoCloseable {
+
+    // Monitoring: how many handles were created vs. how many actually borrowed
+    private static final AtomicLong HANDLES = new AtomicLong();
+    private static final AtomicLong BORROWS = new AtomicLong();
+
+    private Connection connection;
+
+    public LazyConnection() {
+        HANDLES.incrementAndGet();
+    }
+
+    /**
+     * Returns the connection, borrowing it from the pool on first call.
+     *
+     * @return pooled Connection (do not close it directly - close the handle)
+     * @throws SQLException if no connection can be obtained
+     */
+    public Connection get() throws SQLException {
+        // Inside a transaction, hand out the transaction's connection without
+        // caching it - it must not outlive TransactionManager.execute(...)
+        if (TransactionManager.isActive()) {
+            return DBConnection.getConnection();
+        }
+        if (connection == null) {
+            connection = DBConnection.getConnection();
+            BORROWS.incrementAndGet();
+        }
+        return connection;
+    }
+
+    /**
+     * @return true if a connection is currently borrowed through this handle
+     */
+    public boolean isAcquired() {
+        return connection != null;
+    }
+
+    /**
+     * Returns the borrowed connection to the pool. No-op if nothing was borrowed.
+     */
+    @Override
+    public void close() {
+        if (connection != null) {
+            DBConnection.closeQuietly(connection);
+            connection = null;
+        }
+    }
+
+    /** Number of handles created (≈ requests served by BaseServlet). */
+    public static long getHandleCount() {
+        return HANDLES.get();
+    }
+
+    /** Number of handles that actually borrowed a connection. */
+    public static long getBorrowCount() {
+        return BORROWS.get();
+    }
+}
@@ -0,0 +1,435 @@
+package com.campussync.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MigrationRunner
+ *
+ * Applies the versioned SQL scripts in src/main/resources/db/migration on top
+ * of the baseline schema (db/campussync.sql), once each and in order.
+ *
+ * Working:
+ *  - Scripts are named V<version>__<description>.sql (V3__notice_posted_at_index.sql)
+ *    and applied in ascending version order
+ *  - Every applied script is recorded in schema_version with a SHA-256 checksum;
+ *    editing a script after it ran fails validation (ship a new version instead)
+ *  - A MySQL named lock (GET_LOCK) serializes app servers starting at the same
+ *    time, so each script runs on exactly one of them
+ *  - MySQL commits DDL implicitly, so a script is not one transaction: it is
+ *    recorded only after its last statement succeeded, and "duplicate key name"
+ *    (1061) is tolerated so a script that failed half-way can simply run again
+ *  - "can't drop, does not exist" (1091) is tolerated only for a statement
+ *    that does nothing but drop one named index or foreign key (MySQL 5.7 has
+ *    no DROP INDEX IF EXISTS); anywhere else it fails the migration, so a
+ *    script that guessed a name wrong stops at that statement. Scripts that
+ *    cannot know a name look it up in information_schema (see V10)
+ *  - Row counts of DELETE / UPDATE statements are logged
+ *  - Statements are split on a ';' that ends a line; "--" comment lines are skipped
+ *
+ * Usage:
+ * - Startup: AppLifecycleListener calls migrate() unless
+ *   -Dcampussync.migrations.enabled=false
+ * - CLI:     java -cp "WEB-INF/classes:WEB-INF/lib/*" com.campussync.util.MigrationRunner [migrate|validate|info]
+ */
+public final class MigrationRunner {
+
+    /** Classpath directory holding the scripts. */
+    public static final String LOCATION = "db/migration";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private static final String LOCK_NAME = "campussync.schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    // MySQL error: index name already exists (CREATE INDEX replayed)
+    private static final int ER_DUP_KEYNAME = 1061;
+
+    // MySQL error: key / foreign key to drop does not exist (DROP replayed)
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+
+    // Statements whose only effect is dropping one named index / foreign key: the
+    // nearest MySQL 5.7 has to DROP ... IF EXISTS, so 1091 is tolerated for these alone
+    private static final Pattern DROP_ONLY = Pattern.compile(
+            "ALTER\\s+TABLE\\s+`?\\w+`?\\s+DROP\\s+(INDEX|KEY|FOREIGN\\s+KEY)\\s+`?\\w+`?" +
+            "|DROP\\s+INDEX\\s+`?\\w+`?\\s+ON\\s+`?\\w+`?",
+            Pattern.CASE_INSENSITIVE);
+
+    // Data changes whose row counts go to the log (a migration deleting rows says how many)
+    private static final Pattern DML = Pattern.compile("(DELETE|UPDATE)\\s.*", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private static final String SQL_CREATE_HISTORY =
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+            "  version INT PRIMARY KEY," +
+            "  description VARCHAR(200) NOT NULL," +
+            "  script VARCHAR(255) NOT NULL," +
+            "  checksum CHAR(64) NOT NULL," +
+            "  execution_ms INT NOT NULL," +
+            "  installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")";
+
+    private static final String SQL_APPLIED =
+            "SELECT version, checksum FROM schema_version ORDER BY version";
+
+    private static final String SQL_RECORD =
+            "INSERT INTO schema_version(version, description, script, checksum, execution_ms) VALUES(?,?,?,?,?)";
+
+    private MigrationRunner() {}
+
+    /**
+     * One script of db/migration.
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+        private final String sql;
+        private final String checksum;
+
+        Migration(int version, String description, String script, String sql) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.sql = sql.replace("\r\n", "\n");
+            this.checksum = sha256(this.sql);
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public String getScript() { return script; }
+        public String getChecksum() { return checksum; }
+
+        /** The script's statements, without comment lines and trailing ';'. */
+        public List<String> statements() {
+            return splitStatements(sql);
+        }
+    }
+
+    /**
+     * Splits a SQL script into statements: a statement ends with a ';' at the
+     * end of a line; blank and "--" comment lines are dropped.
+     */
+    public static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.replace("\r\n", "\n").split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) continue;
+
+            if (current.length() > 0) current.append('\n');
+            current.append(line);
+            if (trimmed.endsWith(";")) {
+                statements.add(current.substring(0, current.lastIndexOf(";")).trim());
+                current.setLength(0);
+            }
+        }
+        if (current.toString().trim().length() > 0) statements.add(current.toString().trim());
+        return statements;
+    }
+
+    // ---------------------------------------------------------------------
+    // Commands
+    // ---------------------------------------------------------------------
+
+    /**
+     * Validates the applied scripts and applies the pending ones.
+     *
+     * @return number of scripts applied
+     * @throws IllegalStateException if an applied script was changed or is missing a version
+     */
+    public static int migrate() throws SQLException {
+        List<Migration> migrations = discover();
+
+        try (Connection conn = DBConnection.getConnection()) {
+            DBConnection.markLongRunning(conn);     // table rebuilds (V10) take minutes on large installs
+            lock(conn);
+            try {
+                Map<Integer, String> applied = ensureHistory(conn);
+                check(migrations, applied);
+
+                int count = 0;
+                for (Migration m : migrations) {
+                    if (applied.containsKey(m.getVersion())) continue;
+                    apply(conn, m);
+                    count++;
+                }
+                Logger.info(count == 0
+                        ? "Schema is up to date (" + applied.size() + " migrations applied)"
+                        : "Applied " + count + " schema migration(s)");
+                return count;
+            } finally {
+                unlock(conn);
+            }
+        }
+    }
+
+    /**
+     * Compares the scripts with schema_version without changing anything.
+     *
+     * @return number of pending scripts
+     * @throws IllegalStateException if an applied script was changed
+     */
+    public static int validate() throws SQLException {
+        List<Migration> migrations = discover();
+        try (Connection conn = DBConnection.getConnection()) {
+            Map<Integer, String> applied = ensureHistory(conn);
+            check(migrations, applied);
+            int pending = 0;
+            for (Migration m : migrations) {
+                if (!applied.containsKey(m.getVersion())) pending++;
+            }
+            return pending;
+        }
+    }
+
+    /**
+     * Lines like "V1  attendance_student_date_index  applied", for the CLI.
+     */
+    public static List<String> info() throws SQLException {
+        List<Migration> migrations = discover();
+        Map<Integer, String> applied;
+        try (Connection conn = DBConnection.getConnection()) {
+            applied = ensureHistory(conn);
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (Migration m : migrations) {
+            String state = !applied.containsKey(m.getVersion()) ? "pending"
+                    : applied.get(m.getVersion()).equals(m.getChecksum()) ? "applied" : "CHANGED";
+            lines.add(String.format("V%-4d %-45s %s", m.getVersion(), m.getDescription(), state));
+        }
+        return lines;
+    }
+
+    // ---------------------------------------------------------------------
+    // Discovery
+    // ---------------------------------------------------------------------
+
+    /**
+     * All V*__*.sql scripts under LOCATION on the classpath (exploded
+     * WEB-INF/classes or a jar), sorted by version.
+     */
+    public static List<Migration> discover() {
+        ClassLoader cl = MigrationRunner.class.getClassLoader();
+        Set<String> names = listResources(cl, LOCATION);
+
+        Map<Integer, Migration> byVersion = new TreeMap<>();
+        for (String name : names) {
+            Matcher m = SCRIPT_NAME.matcher(name);
+            if (!m.matches()) {
+                if (name.endsWith(".sql")) Logger.warn("Ignoring migration with a bad name: " + name);
+                continue;
+            }
+            Migration migration = new Migration(Integer.parseInt(m.group(1)), m.group(2),
+                    name, read(cl, LOCATION + "/" + name));
+            Migration clash = byVersion.put(migration.getVersion(), migration);
+            if (clash != null) {
+                throw new IllegalStateException("Two migrations with version " + migration.getVersion()
+                        + ": " + clash.getScript() + ", " + name);
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(byVersion.values()));
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    /**
+     * File names directly under a classpath directory, from every classpath
+     * root that has it (exploded directory or jar).
+     */
+    static Set<String> listResources(ClassLoader cl, String dir) {
+        Set<String> names = new TreeSet<>();
+        try {
+            Enumeration<URL> roots = cl.getResources(dir);
+            while (roots.hasMoreElements()) {
+                URL root = roots.nextElement();
+                if ("file".equals(root.getProtocol())) {
+                    try (DirectoryStream<Path> entries = Files.newDirectoryStream(Paths.get(root.toURI()))) {
+                        for (Path p : entries) names.add(p.getFileName().toString());
+                    }
+                } else if ("jar".equals(root.getProtocol())) {
+                    JarURLConnection jar = (JarURLConnection) root.openConnection();
+                    jar.setUseCaches(false);
+                    try (JarFile file = jar.getJarFile()) {
+                        Enumeration<JarEntry> entries = file.entries();
+                        while (entries.hasMoreElements()) {
+                            String entry = entries.nextElement().getName();
+                            String rest = entry.startsWith(dir + "/") ? entry.substring(dir.length() + 1) : "";
+                            if (!rest.isEmpty() && rest.indexOf('/') < 0) names.add(rest);
+                        }
+                    }
+                } else {
+                    throw new IllegalStateException("Cannot list " + dir + " at " + root);
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("Cannot list classpath directory " + dir, e);
+        }
+        return names;
+    }
+
+    private static Map<Integer, String> ensureHistory(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new TreeMap<>();
+        try (Statement st = conn.createStatement()) {
+            st.execute(SQL_CREATE_HISTORY);
+            try (ResultSet rs = st.executeQuery(SQL_APPLIED)) {
+                while (rs.next()) applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static void check(List<Migration> migrations, Map<Integer, String> applied) {
+        Map<Integer, String> unknown = new TreeMap<>(applied);
+        for (Migration m : migrations) {
+            String checksum = unknown.remove(m.getVersion());
+            if (checksum != null && !checksum.equals(m.getChecksum())) {
+                throw new IllegalStateException("Migration " + m.getScript() + " was changed after it was applied"
+                        + " (checksum " + checksum + " in schema_version); add a new migration instead");
+            }
+        }
+        if (!unknown.isEmpty()) {
+            // Applied by a newer build: keep running, but say so
+            Logger.warn("schema_version has migrations this build does not know: " + unknown.keySet());
+        }
+    }
+
+    private static void apply(Connection conn, Migration m) throws SQLException {
+        Logger.info("Applying migration " + m.getScript());
+        long start = System.nanoTime();
+
+        for (String sql : m.statements()) {
+            try (Statement st = conn.createStatement()) {
+                st.execute(sql);
+                if (DML.matcher(sql).matches() && st.getUpdateCount() > 0) {
+                    Logger.warn(m.getScript() + ": " + st.getUpdateCount() + " row(s) changed by: " + sql);
+                }
+            } catch (SQLException e) {
+                if (e.getErrorCode() == ER_DUP_KEYNAME) {
+                    Logger.warn(m.getScript() + ": index already exists, skipping: " + e.getMessage());
+                    continue;
+                }
+                if (e.getErrorCode() == ER_CANT_DROP_FIELD_OR_KEY && DROP_ONLY.matcher(sql).matches()) {
+                    Logger.warn(m.getScript() + ": already dropped, skipping: " + e.getMessage());
+                    continue;
+                }
+                throw new SQLException("Migration " + m.getScript() + " failed at: " + sql, e.getSQLState(),
+                        e.getErrorCode(), e);
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        try (PreparedStatement ps = conn.prepareStatement(SQL_RECORD)) {
+            ps.setInt(1, m.getVersion());
+            ps.setString(2, m.getDescription().replace('_', ' '));
+            ps.setString(3, m.getScript());
+            ps.setString(4, m.getChecksum());
+            ps.setInt(5, (int) elapsedMs);
+            ps.executeUpdate();
+        }
+        if (!conn.getAutoCommit()) conn.commit();
+        Logger.info("Applied migration " + m.getScript() + " in " + elapsedMs + " ms");
+    }
+
+    private static void lock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the schema migration lock (another server migrating?)");
+                }
+            }
+        }
+    }
+
+    private static void unlock(Connection conn) {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            Logger.warn("Could not release the schema migration lock: " + e.getMessage());
+        }
+    }
+
+    /** A classpath resource as UTF-8 text. */
+    static String read(ClassLoader cl, String resource) {
+        try (InputStream in = cl.getResourceAsStream(resource)) {
+            if (in == null) throw new IllegalStateException("Migration not found: " + resource);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            for (int n; (n = in.read(buf)) != -1; ) out.write(buf, 0, n);
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read migration " + resource, e);
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);   // every JRE ships SHA-256
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // CLI
+    // ---------------------------------------------------------------------
+
+    public static void main(String[] args) {
+        String command = args.length == 0 ? "migrate" : args[0];
+        int status = 0;
+        try {
+            switch (command) {
+                case "migrate":
+                    System.out.println("Applied " + migrate() + " migration(s)");
+                    break;
+                case "validate":
+                    System.out.println("OK, " + validate() + " pending migration(s)");
+                    break;
+                case "info":
+                    for (String line : info()) System.out.println(line);
+                    break;
+                default:
+                    System.err.println("Usage: MigrationRunner [migrate|validate|info]");
+                    status = 2;
+            }
+        } catch (SQLException | IllegalStateException e) {
+            System.err.println("Migration " + command + " failed: " + e.getMessage());
+            status = 1;
+        } finally {
+            DBConnection.shutdown();
+        }
+        System.exit(status);
+    }
+}
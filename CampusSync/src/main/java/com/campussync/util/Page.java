@@ -0,0 +1,47 @@
+package com.campussync.util;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page
+ *
+ * One page of a keyset-paginated listing, as returned by Keyset.fetch().
+ *
+ * Holds the rows plus the cursors for the neighbouring pages; a cursor is
+ * null when there is no page in that direction. JSPs build the
+ * "Previous" / "Next" links from getPrevCursor() / getNextCursor()
+ * (see admin/pager.jspf).
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final PageRequest.Sort sort;
+    private final int size;
+    private final String prevCursor;
+    private final String nextCursor;
+
+    public Page(List<T> items, PageRequest.Sort sort, int size, String prevCursor, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.sort = sort;
+        this.size = size;
+        this.prevCursor = prevCursor;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+    public PageRequest.Sort getSort() { return sort; }
+    public int getSize() { return size; }
+    public String getPrevCursor() { return prevCursor; }
+    public String getNextCursor() { return nextCursor; }
+
+    public boolean isEmpty() { return items.isEmpty(); }
+    public boolean hasPrev() { return prevCursor != null; }
+    public boolean hasNext() { return nextCursor != null; }
+
+    @Override
+    public String toString() {
+        return "Page{rows=" + items.size() + ", sort=" + sort + ", size=" + size
+                + ", hasPrev=" + hasPrev() + ", hasNext=" + hasNext() + "}";
+    }
+}
@@ -0,0 +1,115 @@
+package com.campussync.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * PageRequest
+ *
+ * What the caller asked for in a keyset-paginated listing: sort order,
+ * page size and an optional position (after / before a cursor).
+ *
+ * Cursors are opaque URL-safe strings encoding the last seen (id, name);
+ * the client only passes back what Page.getNextCursor() /
+ * Page.getPrevCursor() handed out. A malformed cursor is treated as
+ * "first page" rather than an error, so an edited URL never fails.
+ *
+ * Usage (AdminServlet):
+ * PageRequest page = PageRequest.of(req.getParameter("sort"), req.getParameter("size"),
+ *         req.getParameter("after"), req.getParameter("before"), PageRequest.Sort.ID);
+ */
+public final class PageRequest {
+
+    /** Rows per page when the request does not say. */
+    public static final int DEFAULT_SIZE = 50;
+
+    /** Upper bound on the page size, whatever the request says. */
+    public static final int MAX_SIZE = 200;
+
+    public enum Sort { ID, NAME }
+
+    private final Sort sort;
+    private final int size;
+    private final Cursor after;
+    private final Cursor before;
+
+    private PageRequest(Sort sort, int size, Cursor after, Cursor before) {
+        this.sort = sort;
+        this.size = size;
+        this.after = after;
+        this.before = after == null ? before : null;   // "after" wins if both are sent
+    }
+
+    /** First page in the given order. */
+    public static PageRequest first(Sort sort, int size) {
+        return new PageRequest(sort, Math.max(1, Math.min(size, MAX_SIZE)), null, null);
+    }
+
+    /**
+     * Builds a request from raw HTTP parameters (any of them may be null).
+     */
+    public static PageRequest of(String sort, String size, String after, String before, Sort defaultSort) {
+        Sort s = defaultSort;
+        if ("name".equalsIgnoreCase(sort)) s = Sort.NAME;
+        else if ("id".equalsIgnoreCase(sort)) s = Sort.ID;
+
+        int n = DEFAULT_SIZE;
+        if (size != null) {
+            try {
+                n = Integer.parseInt(size.trim());
+            } catch (NumberFormatException e) {
+                n = DEFAULT_SIZE;
+            }
+        }
+        n = Math.max(1, Math.min(n, MAX_SIZE));
+
+        return new PageRequest(s, n, Cursor.decode(after), Cursor.decode(before));
+    }
+
+    public Sort getSort() { return sort; }
+    public int getSize() { return size; }
+    public Cursor getAfter() { return after; }
+    public Cursor getBefore() { return before; }
+
+    /** true when paging backwards (the "Previous" link). */
+    public boolean isBackward() { return before != null; }
+
+    /** true for the first page in either sort order. */
+    public boolean isFirst() { return after == null && before == null; }
+
+    // =====================================================================
+    // Cursor: position of one row in the sort order
+    // =====================================================================
+    public static final class Cursor {
+        private final int id;
+        private final String name;      // null for Sort.ID cursors
+
+        public Cursor(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() { return id; }
+        public String getName() { return name; }
+
+        /** "id" or "id:name", Base64 URL-safe (no padding). */
+        public String encode() {
+            String raw = name == null ? String.valueOf(id) : id + ":" + name;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            if (token == null || token.isEmpty()) return null;
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int colon = raw.indexOf(':');
+                return colon < 0
+                        ? new Cursor(Integer.parseInt(raw), null)
+                        : new Cursor(Integer.parseInt(raw.substring(0, colon)), raw.substring(colon + 1));
+            } catch (IllegalArgumentException e) {   // bad Base64 or bad number
+                Logger.warn("Ignoring malformed page cursor: " + token);
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.campussync.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * QueryStream
+ *
+ * Streaming cursor API for large result sets. Replaces DAO methods that
+ * returned a live ResultSet to the caller (and never closed the connection).
+ *
+ * Two styles:
+ *  - forEach(...)  → rows are pushed to a Consumer; connection is released
+ *                    before the method returns (preferred)
+ *  - stream(...)   → lazy java.util.stream.Stream; connection is released as
+ *                    soon as the last row has been read, on error, or when the
+ *                    stream is closed (use try-with-resources)
+ *
+ * QueryStream is read-only by definition, so connections come from
+ * DBConnection.getReadConnection() (replica when healthy, primary otherwise).
+ *
+ * Rows are fetched FETCH_SIZE at a time through a MySQL server-side cursor
+ * (useCursorFetch=true in DBConnection.URL), so a 100k-row listing is never
+ * fully materialized in memory - neither in the driver nor in the DAO.
+ *
+ * Usage:
+ * try (Stream<Notice> notices = QueryStream.stream(SQL, ps -> {}, NOTICE_MAPPER)) {
+ *     notices.forEach(n -> out.println(n.getTitle()));
+ * }
+ */
+public class QueryStream {
+
+    /** Rows per server round trip; large enough to amortize latency, small enough to keep memory flat. */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Sets PreparedStatement parameters before execution.
+     */
+    @FunctionalInterface
+    public interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+
+        /** Binder for queries without parameters. */
+        static Binder none() {
+            return ps -> { };
+        }
+    }
+
+    /**
+     * Unchecked wrapper used inside java.util.stream pipelines, which cannot
+     * throw SQLException. getCause() returns the original SQLException.
+     */
+    public static class UncheckedSQLException extends RuntimeException {
+        public UncheckedSQLException(SQLException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+
+    private QueryStream() { }
+
+    // ---------------------------------------------------------------------
+    // forEach: push every row to the consumer, then release everything
+    // ---------------------------------------------------------------------
+    public static <T> void forEach(String sql, Binder binder, RowMapper<T> mapper, Consumer<? super T> action)
+            throws SQLException {
+        forEach(sql, binder, mapper, DEFAULT_FETCH_SIZE, action);
+    }
+
+    public static <T> void forEach(String sql, Binder binder, RowMapper<T> mapper, int fetchSize,
+                                   Consumer<? super T> action) throws SQLException {
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement ps = prepare(conn, sql, fetchSize)) {
+
+            binder.bind(ps);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<T> rows = mapper.prepare(rs);
+                while (rs.next()) {
+                    action.accept(rows.map(rs));
+                }
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // stream: lazy Stream<T>, resources released on exhaustion/error/close
+    // ---------------------------------------------------------------------
+    public static <T> Stream<T> stream(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        return stream(sql, binder, mapper, DEFAULT_FETCH_SIZE);
+    }
+
+    public static <T> Stream<T> stream(String sql, Binder binder, RowMapper<T> mapper, int fetchSize)
+            throws SQLException {
+        Cursor<T> cursor = new Cursor<>(mapper);
+        try {
+            cursor.conn = DBConnection.getReadConnection();
+            cursor.ps = prepare(cursor.conn, sql, fetchSize);
+            binder.bind(cursor.ps);
+            cursor.rs = cursor.ps.executeQuery();
+            cursor.mapper = mapper.prepare(cursor.rs);
+        } catch (SQLException | RuntimeException e) {
+            cursor.close();
+            throw e;
+        }
+
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static PreparedStatement prepare(Connection conn, String sql, int fetchSize) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(fetchSize);
+        return ps;
+    }
+
+    // =====================================================================
+    // Cursor: Spliterator over an open ResultSet that owns its resources
+    // =====================================================================
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        RowMapper<T> mapper;
+        Connection conn;
+        PreparedStatement ps;
+        ResultSet rs;
+        private boolean closed = false;
+
+        Cursor(RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) return false;
+
+            T row;
+            try {
+                if (!rs.next()) {
+                    close();            // last row read → release connection immediately
+                    return false;
+                }
+                row = mapper.map(rs);
+            } catch (SQLException e) {
+                close();
+                throw new UncheckedSQLException(e);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+
+            action.accept(row);
+            return true;
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            DBConnection.closeQuietly(rs);
+            DBConnection.closeQuietly(ps);
+            DBConnection.closeQuietly(conn);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.campussync.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReplicaMonitor
+ *
+ * Periodically checks that the read replica is reachable and not lagging too
+ * far behind the primary. DBConnection.getReadConnection() only routes to the
+ * replica while isUsable() is true.
+ *
+ * Working:
+ *  - Every checkIntervalMs: borrow a replica connection and run
+ *    SHOW REPLICA STATUS (MySQL 8.0.22+, falls back to SHOW SLAVE STATUS)
+ *  - Seconds_Behind_Source NULL  → replication stopped → unhealthy
+ *  - Seconds_Behind_Source > maxLagSeconds → lagging → not usable
+ *  - A failed borrow on the request path calls markDown(), so reads fall back
+ *    immediately instead of waiting for the next check
+ *  - Empty status (server is not a replica, e.g. a plain second instance in
+ *    development) is treated as healthy with zero lag
+ */
+public class ReplicaMonitor {
+
+    private final ConnectionPool pool;
+    private final long maxLagSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean healthy = false;       // unknown until the first check passes
+    private volatile long lagSeconds = -1;
+    private volatile long lastCheckAt = 0;
+    private volatile String lastError;
+
+    public ReplicaMonitor(ConnectionPool pool, long maxLagSeconds, long checkIntervalMs) {
+        this.pool = pool;
+        this.maxLagSeconds = maxLagSeconds;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "campussync-replica-monitor");
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::check, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ---------------------------------------------------------------------
+    // Health check
+    // ---------------------------------------------------------------------
+    void check() {
+        try (Connection conn = pool.borrow()) {
+            long lag = readLag(conn);
+            boolean wasHealthy = healthy;
+
+            lagSeconds = lag;
+            healthy = lag >= 0;
+            lastError = healthy ? null : "Replication is not running";
+
+            if (healthy != wasHealthy) {
+                Logger.info("Replica is now " + (healthy ? "healthy" : "unhealthy") + " (lag=" + lag + "s)");
+            }
+        } catch (SQLException e) {
+            if (healthy) Logger.warn("Replica health check failed: " + e.getMessage());
+            healthy = false;
+            lastError = e.getMessage();
+        } catch (RuntimeException e) {
+            Logger.error("Replica health check crashed", e);
+            healthy = false;
+            lastError = e.toString();
+        } finally {
+            lastCheckAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return replication lag in seconds, 0 if the server is not a replica,
+     *         -1 if replication is configured but not running
+     */
+    private static long readLag(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            ResultSet rs;
+            String column;
+            try {
+                rs = st.executeQuery("SHOW REPLICA STATUS");
+                column = "Seconds_Behind_Source";
+            } catch (SQLException e) {
+                rs = st.executeQuery("SHOW SLAVE STATUS");      // MySQL < 8.0.22
+                column = "Seconds_Behind_Master";
+            }
+
+            try (ResultSet status = rs) {
+                if (!status.next()) return 0;
+                long lag = status.getLong(column);
+                return status.wasNull() ? -1 : lag;
+            }
+        }
+    }
+
+    /**
+     * Marks the replica as down until the next successful check.
+     */
+    public void markDown(String reason) {
+        if (healthy) Logger.warn("Replica marked down: " + reason);
+        healthy = false;
+        lastError = reason;
+    }
+
+    // ---------------------------------------------------------------------
+    // State
+    // ---------------------------------------------------------------------
+
+    /** Healthy and within the lag budget. */
+    public boolean isUsable() {
+        return healthy && lagSeconds <= maxLagSeconds;
+    }
+
+    public boolean isHealthy() { return healthy; }
+    public long getLagSeconds() { return lagSeconds; }
+    public long getMaxLagSeconds() { return maxLagSeconds; }
+    public long getLastCheckAt() { return lastCheckAt; }
+    public String getLastError() { return lastError; }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "ReplicaMonitor{healthy=" + healthy + ", lag=" + lagSeconds + "s, maxLag=" + maxLagSeconds
+                + "s, lastError=" + lastError + "}";
+    }
+}
@@ -0,0 +1,113 @@
+package com.campussync.util;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RetryPolicy
+ *
+ * Decides whether a failed transaction may be replayed and how long to wait
+ * before the next attempt. Used by TransactionManager.execute(RetryPolicy, ...).
+ *
+ * Retryable (the server already rolled the transaction back, so replaying the
+ * whole unit of work is safe):
+ *  - SQLState 40001 / SQLTransactionRollbackException (serialization failure)
+ *  - MySQL 1213 ER_LOCK_DEADLOCK
+ *  - MySQL 1205 ER_LOCK_WAIT_TIMEOUT
+ *  - other SQLTransientExceptions, except connection timeouts from the pool
+ *    (retrying those would only add load to an exhausted pool)
+ *
+ * Backoff: exponential (base * 2^(attempt-1), capped at maxDelayMs) with
+ * "equal jitter" - half the delay is fixed, half is random - so concurrent
+ * faculty submissions that deadlocked together do not retry in lock-step.
+ */
+public class RetryPolicy {
+
+    public static final String SQLSTATE_SERIALIZATION_FAILURE = "40001";
+    public static final int ER_LOCK_DEADLOCK = 1213;
+    public static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    /** 3 attempts, 50ms → 100ms backoff; fits well inside a web request. */
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, 50, 1_000);
+
+    /** Single attempt; execute(NONE, ...) behaves like execute(...). */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1");
+        if (baseDelayMs < 0 || maxDelayMs < baseDelayMs) {
+            throw new IllegalArgumentException("Invalid backoff: base=" + baseDelayMs + ", max=" + maxDelayMs);
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public long getBaseDelayMs() { return baseDelayMs; }
+    public long getMaxDelayMs() { return maxDelayMs; }
+
+    /**
+     * @return true if the exception (or anything chained to it) is transient
+     */
+    public boolean isRetryable(SQLException e) {
+        return findTransient(e) != null;
+    }
+
+    /**
+     * Returns the first transient SQLException in the cause / next-exception
+     * chain (the driver sometimes wraps the deadlock), or null.
+     */
+    public static SQLException findTransient(SQLException e) {
+        int guard = 0;   // chains are short; protects against cycles
+        for (Throwable t = e; t != null && guard < 16; guard++) {
+            if (t instanceof SQLException) {
+                SQLException sql = (SQLException) t;
+                if (isTransient(sql)) return sql;
+                if (sql.getNextException() != null && sql.getNextException() != t.getCause()) {
+                    SQLException next = findTransient(sql.getNextException());
+                    if (next != null) return next;
+                }
+            }
+            t = t.getCause();
+        }
+        return null;
+    }
+
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLTransactionRollbackException) return true;
+        if (SQLSTATE_SERIALIZATION_FAILURE.equals(e.getSQLState())) return true;
+
+        int code = e.getErrorCode();
+        if (code == ER_LOCK_DEADLOCK || code == ER_LOCK_WAIT_TIMEOUT) return true;
+
+        return e instanceof SQLTransientException && !(e instanceof SQLTransientConnectionException);
+    }
+
+    /**
+     * Delay before the next attempt.
+     *
+     * @param attempt the attempt that just failed (1-based)
+     * @return milliseconds to sleep, in [delay/2, delay]
+     */
+    public long backoffMillis(int attempt) {
+        if (baseDelayMs == 0) return 0;
+
+        int shift = Math.min(attempt - 1, 20);   // avoid overflow on silly budgets
+        long delay = Math.min(maxDelayMs, baseDelayMs << shift);
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy[maxAttempts=" + maxAttempts + ", base=" + baseDelayMs + "ms, max=" + maxDelayMs + "ms]";
+    }
+}
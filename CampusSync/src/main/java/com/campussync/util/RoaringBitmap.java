@@ -0,0 +1,530 @@
+package com.campussync.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * RoaringBitmap
+ *
+ * Compressed set of non-negative ints (student ids), in the layout of Roaring
+ * bitmaps: values are split by their high 16 bits into chunks, and each chunk
+ * is stored in whichever container is smaller for its density.
+ *
+ * Working:
+ *  - Array container: sorted 16-bit low halves, up to 4096 values (8 KB max);
+ *    a class of 60 students costs 120 bytes
+ *  - Bitmap container: 1024 longs (8 KB) once a chunk holds more than 4096 values;
+ *    containers convert in both directions as values are added / removed
+ *  - or / andNot work container by container (merge of sorted arrays,
+ *    word-wise OR / AND NOT on bitmaps)
+ *  - serialize() / deserialize(): version byte, container count, per container
+ *    key + cardinality, then the containers (16-bit values or 64-bit words),
+ *    big-endian; the cardinality tells which container type follows
+ *  - contains(blob, value) answers a membership test straight from the
+ *    serialized form: it walks the header to the one container that can hold
+ *    the value and probes it, without decoding the others
+ *
+ * Not thread-safe; intended to be built, stored and read within one request.
+ *
+ * Usage:
+ * RoaringBitmap present = new RoaringBitmap();
+ * present.add(studentId);
+ * byte[] blob = present.serialize();
+ * boolean wasPresent = RoaringBitmap.contains(blob, studentId);
+ */
+public final class RoaringBitmap {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    // ---------------------------------------------------------------------
+    // Set operations on single values
+    // ---------------------------------------------------------------------
+
+    /** @throws IllegalArgumentException if value is negative */
+    public void add(int value) {
+        checkValue(value);
+        char high = (char) (value >>> 16);
+        int i = indexOf(high);
+        if (i >= 0) {
+            containers[i] = containers[i].add((char) value);
+        } else {
+            insertAt(-i - 1, high, new ArrayContainer().add((char) value));
+        }
+    }
+
+    public void remove(int value) {
+        if (value < 0) return;
+        int i = indexOf((char) (value >>> 16));
+        if (i < 0) return;
+        Container c = containers[i].remove((char) value);
+        if (c.cardinality() == 0) {
+            removeAt(i);
+        } else {
+            containers[i] = c;
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) return false;
+        int i = indexOf((char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    public int getCardinality() {
+        int n = 0;
+        for (int i = 0; i < size; i++) n += containers[i].cardinality();
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Visits the values in ascending order. */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) containers[i].forEach(keys[i] << 16, action);
+    }
+
+    public int[] toArray() {
+        int[] values = new int[getCardinality()];
+        int[] pos = {0};
+        forEach(v -> values[pos[0]++] = v);
+        return values;
+    }
+
+    // ---------------------------------------------------------------------
+    // Bitwise operations
+    // ---------------------------------------------------------------------
+
+    /** Values in a or b. */
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.append(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /** Values in a but not in b. */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) j++;
+            if (j < b.size && b.keys[j] == a.keys[i]) {
+                result.append(a.keys[i], a.containers[i].andNot(b.containers[j]));
+            } else {
+                result.append(a.keys[i], a.containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    // ---------------------------------------------------------------------
+    // Serialization
+    // ---------------------------------------------------------------------
+
+    public byte[] serialize() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(3 + size * 4 + getCardinality() * 2);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(size);
+            for (int i = 0; i < size; i++) {
+                out.writeChar(keys[i]);
+                out.writeChar(containers[i].cardinality() - 1);
+            }
+            for (int i = 0; i < size; i++) containers[i].write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);      // in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    /** @throws IllegalArgumentException if data is not a serialized RoaringBitmap */
+    public static RoaringBitmap deserialize(byte[] data) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        if (data == null || data.length == 0) return bitmap;
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported bitmap format version " + version);
+            }
+            int count = in.readUnsignedShort();
+            char[] keys = new char[count];
+            int[] cardinalities = new int[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = in.readChar();
+                cardinalities[i] = in.readUnsignedShort() + 1;
+                if (i > 0 && keys[i] <= keys[i - 1]) throw new IllegalArgumentException("Corrupt bitmap: keys out of order");
+            }
+            for (int i = 0; i < count; i++) {
+                bitmap.append(keys[i], cardinalities[i] > ARRAY_MAX
+                        ? BitmapContainer.read(in, cardinalities[i])
+                        : ArrayContainer.read(in, cardinalities[i]));
+            }
+            if (in.available() > 0) throw new IllegalArgumentException("Corrupt bitmap: trailing bytes");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupt bitmap: " + e.getMessage(), e);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Membership test on a serialized bitmap: reads the header up to the value's
+     * container and probes only that one (binary search / single word).
+     *
+     * @throws IllegalArgumentException if data is not a serialized RoaringBitmap
+     */
+    public static boolean contains(byte[] data, int value) {
+        if (value < 0 || data == null || data.length == 0) return false;
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);     // big-endian, as written
+            int version = in.get(0) & 0xFF;
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported bitmap format version " + version);
+            }
+            int count = in.getChar(1);
+            int offset = 3 + count * 4;                // first container
+            for (int i = 0; i < count; i++) {
+                char key = in.getChar(3 + i * 4);
+                int cardinality = in.getChar(5 + i * 4) + 1;
+                if (key > high) return false;
+                if (key == high) {
+                    if (cardinality > ARRAY_MAX) {
+                        return (in.getLong(offset + (low >>> 6) * 8) & (1L << low)) != 0;
+                    }
+                    int lo = 0;
+                    int hi = cardinality - 1;
+                    while (lo <= hi) {
+                        int mid = (lo + hi) >>> 1;
+                        char v = in.getChar(offset + mid * 2);
+                        if (v < low) lo = mid + 1;
+                        else if (v > low) hi = mid - 1;
+                        else return true;
+                    }
+                    return false;
+                }
+                offset += cardinality > ARRAY_MAX ? BITMAP_WORDS * 8 : cardinality * 2;
+            }
+            return false;
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Corrupt bitmap: truncated", e);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Object
+    // ---------------------------------------------------------------------
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RoaringBitmap && Arrays.equals(toArray(), ((RoaringBitmap) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return "RoaringBitmap{cardinality=" + getCardinality() + ", containers=" + size + '}';
+    }
+
+    // ---------------------------------------------------------------------
+    // Container index
+    // ---------------------------------------------------------------------
+
+    private int indexOf(char high) {
+        // Appends are in key order: check the last container before searching
+        if (size > 0 && keys[size - 1] == high) return size - 1;
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insertAt(int i, char high, Container c) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = high;
+        containers[i] = c;
+        size++;
+    }
+
+    private void removeAt(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        containers[--size] = null;
+    }
+
+    /** Adds a container after the last one; empty containers are dropped. */
+    private void append(char high, Container c) {
+        if (c.cardinality() > 0) insertAt(size, high, c);
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) throw new IllegalArgumentException("Negative value: " + value);
+    }
+
+    // =====================================================================
+    // Containers (one 16-bit chunk each)
+    // =====================================================================
+
+    private abstract static class Container {
+        abstract int cardinality();
+        abstract boolean contains(char low);
+        /** Returns the container now holding the chunk (may change type). */
+        abstract Container add(char low);
+        abstract Container remove(char low);
+        abstract Container or(Container other);
+        abstract Container andNot(Container other);
+        abstract Container copy();
+        abstract void forEach(int base, IntConsumer action);
+        abstract void write(DataOutputStream out) throws IOException;
+    }
+
+    /** Sorted low halves; at most ARRAY_MAX of them. */
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        static ArrayContainer read(DataInputStream in, int cardinality) throws IOException {
+            char[] values = new char[cardinality];
+            for (int i = 0; i < cardinality; i++) {
+                values[i] = in.readChar();
+                if (i > 0 && values[i] <= values[i - 1]) throw new IOException("values out of order");
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+
+        @Override int cardinality() { return cardinality; }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        Container add(char low) {
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            if (i >= 0) return this;
+            if (cardinality == ARRAY_MAX) return toBitmap().add(low);
+
+            i = -i - 1;
+            if (cardinality == values.length) values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            if (i < 0) return this;
+            System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) return other.or(this);
+
+            ArrayContainer o = (ArrayContainer) other;
+            char[] out = new char[cardinality + o.cardinality];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < o.cardinality) {
+                if (j == o.cardinality || (i < cardinality && values[i] < o.values[j])) out[n++] = values[i++];
+                else if (i == cardinality || values[i] > o.values[j]) out[n++] = o.values[j++];
+                else {
+                    out[n++] = values[i++];
+                    j++;
+                }
+            }
+            ArrayContainer merged = new ArrayContainer(out, n);
+            return n > ARRAY_MAX ? merged.toBitmap() : merged;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] out = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) out[n++] = values[i];
+            }
+            return new ArrayContainer(out, n);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) action.accept(base | values[i]);
+        }
+
+        @Override
+        void write(DataOutputStream out) throws IOException {
+            for (int i = 0; i < cardinality; i++) out.writeChar(values[i]);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer(new long[BITMAP_WORDS], 0);
+            for (int i = 0; i < cardinality; i++) bitmap.add(values[i]);
+            return bitmap;
+        }
+    }
+
+    /** 65536 bits; used above ARRAY_MAX values. */
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        static BitmapContainer read(DataInputStream in, int cardinality) throws IOException {
+            long[] words = new long[BITMAP_WORDS];
+            int counted = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] = in.readLong();
+                counted += Long.bitCount(words[i]);
+            }
+            if (counted != cardinality) throw new IOException("cardinality mismatch");
+            return new BitmapContainer(words, cardinality);
+        }
+
+        @Override int cardinality() { return cardinality; }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Container add(char low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before | (1L << low);
+            if (before != words[low >>> 6]) cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long before = words[low >>> 6];
+            words[low >>> 6] = before & ~(1L << low);
+            if (before != words[low >>> 6]) cardinality--;
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] out = words.clone();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int i = 0; i < o.cardinality; i++) out[o.values[i] >>> 6] |= 1L << o.values[i];
+            } else {
+                long[] o = ((BitmapContainer) other).words;
+                for (int i = 0; i < BITMAP_WORDS; i++) out[i] |= o[i];
+            }
+            return shrink(out);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] out = words.clone();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int i = 0; i < o.cardinality; i++) out[o.values[i] >>> 6] &= ~(1L << o.values[i]);
+            } else {
+                long[] o = ((BitmapContainer) other).words;
+                for (int i = 0; i < BITMAP_WORDS; i++) out[i] &= ~o[i];
+            }
+            return shrink(out);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(base | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        void write(DataOutputStream out) throws IOException {
+            for (long word : words) out.writeLong(word);
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[cardinality];
+            int[] n = {0};
+            forEach(0, v -> values[n[0]++] = (char) v);
+            return new ArrayContainer(values, cardinality);
+        }
+
+        /** Result container for new words: a bitmap, or an array once it fits. */
+        private static Container shrink(long[] words) {
+            int cardinality = 0;
+            for (long word : words) cardinality += Long.bitCount(word);
+            BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+            return cardinality <= ARRAY_MAX ? bitmap.toArray() : bitmap;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.campussync.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper
+ *
+ * Converts the current row of a ResultSet into a model object.
+ * Used by QueryStream so DAOs only describe "how to read one row" while
+ * cursor handling and resource cleanup stay in one place.
+ *
+ * For plain model POJOs prefer BeanRowMapper.of(Model.class), which resolves
+ * column indexes once per result set instead of looking up labels per row.
+ *
+ * Usage:
+ * RowMapper<Course> mapper = rs -> {
+ *     Course c = new Course();
+ *     c.setCourseId(rs.getInt("course_id"));
+ *     c.setCourseName(rs.getString("course_name"));
+ *     return c;
+ * };
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the row the ResultSet is currently positioned on.
+     * Implementations must not call rs.next().
+     */
+    T map(ResultSet rs) throws SQLException;
+
+    /**
+     * Called once after executeQuery and before the first row, so a mapper can
+     * resolve column indexes from the metadata up front. Returns the mapper
+     * to use for the rows of this result set (default: this).
+     */
+    default RowMapper<T> prepare(ResultSet rs) throws SQLException {
+        return this;
+    }
+}
@@ -0,0 +1,284 @@
+package com.campussync.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StatementCache
+ *
+ * LRU cache of PreparedStatements for ONE physical pooled connection, keyed
+ * by SQL text (plus result set type/concurrency or generated-keys flag).
+ * Owned by ConnectionPool; DAOs keep calling prepareStatement()/close() as
+ * before and never see this class.
+ *
+ * Working:
+ *  - prepareStatement(sql) → cached statement not in use? hand it out (hit),
+ *    otherwise prepare a new one (miss) and remember it
+ *  - close() on the handed-out statement is a logical close: open result set
+ *    closed, parameters/batch cleared, fetch size/max rows/timeout restored
+ *    to defaults, statement returned to the cache
+ *  - Least recently used statements beyond maxSize are closed (evicted)
+ *  - With useServerPrepStmts=true a hit skips both the client-side parse and
+ *    the server-side COM_STMT_PREPARE round trip
+ *  - The same SQL prepared twice before the first is closed gets an uncached
+ *    statement for the second use (closed for real on close())
+ *
+ * Not thread-safe on its own: a physical connection is used by one borrower
+ * at a time; the methods are synchronized only so the pool can clear() the
+ * cache from the housekeeper thread.
+ */
+public class StatementCache {
+
+    /**
+     * Pool-wide counters, shared by the caches of all physical connections.
+     */
+    public static class Stats {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+
+        public long getHits() { return hits.get(); }
+        public long getMisses() { return misses.get(); }
+        public long getEvictions() { return evictions.get(); }
+
+        public double getHitRatio() {
+            long h = hits.get();
+            long total = h + misses.get();
+            return total == 0 ? 0.0 : (double) h / total;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions()
+                    + String.format(", hitRatio=%.2f", getHitRatio());
+        }
+    }
+
+    private final int maxSize;
+    private final Stats stats;
+    private final LinkedHashMap<String, Entry> entries;
+
+    StatementCache(int maxSize, Stats stats) {
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);   // access order = LRU
+    }
+
+    // ---------------------------------------------------------------------
+    // Keys
+    // ---------------------------------------------------------------------
+
+    /**
+     * Only the common prepareStatement(String[, int[, int]]) variants are
+     * cached; column-index/column-name key variants are passed through.
+     */
+    static boolean isCacheable(Method method) {
+        if (!"prepareStatement".equals(method.getName())) return false;
+        Class<?>[] types = method.getParameterTypes();
+        if (types.length == 0 || types[0] != String.class) return false;
+        for (int i = 1; i < types.length; i++) {
+            if (types[i] != int.class) return false;
+        }
+        return types.length <= 3;
+    }
+
+    static String key(Object[] args) {
+        StringBuilder key = new StringBuilder((String) args[0]);
+        for (int i = 1; i < args.length; i++) {
+            key.append('\u0000').append(args[i]);
+        }
+        return key.toString();
+    }
+
+    // ---------------------------------------------------------------------
+    // Checkout / put
+    // ---------------------------------------------------------------------
+
+    /**
+     * @return a logical handle on a cached statement, or null on a miss
+     */
+    synchronized PreparedStatement checkout(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.inUse) {
+            stats.misses.incrementAndGet();
+            return null;
+        }
+        entry.inUse = true;
+        stats.hits.incrementAndGet();
+        return entry.handle();
+    }
+
+    /**
+     * Registers a freshly prepared statement and returns the handle to give
+     * to the caller. If the key is already cached (and in use) the statement
+     * is returned as-is and closed normally by its caller.
+     */
+    synchronized PreparedStatement put(String key, PreparedStatement statement) {
+        if (entries.containsKey(key)) {
+            return statement;
+        }
+
+        Entry entry = new Entry(key, statement);
+        entry.inUse = true;
+        entries.put(key, entry);
+        evictOverflow();
+        return entry.handle();
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            stats.evictions.incrementAndGet();
+            eldest.evicted = true;
+            if (!eldest.inUse) closeQuietly(eldest.statement);
+            // in use → closed for real when its borrower closes it
+        }
+    }
+
+    private synchronized void release(Entry entry, boolean discard) {
+        entry.inUse = false;
+        if (discard || entry.evicted) {
+            if (entries.get(entry.key) == entry) entries.remove(entry.key);
+            closeQuietly(entry.statement);
+        }
+    }
+
+    /**
+     * Closes every cached statement (physical connection is being destroyed).
+     */
+    synchronized void clear() {
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            closeQuietly(e.getValue().statement);
+        }
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static void closeQuietly(AutoCloseable ac) {
+        try {
+            ac.close();
+        } catch (Exception ignored) { }
+    }
+
+    // =====================================================================
+    // Entry: one cached physical statement
+    // =====================================================================
+    private final class Entry {
+        final String key;
+        final PreparedStatement statement;
+        boolean inUse = false;
+        boolean evicted = false;
+
+        Entry(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+
+        /** Fresh single-use proxy, so a stale reference cannot touch the next borrower's statement. */
+        PreparedStatement handle() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Handle(this));
+        }
+    }
+
+    // =====================================================================
+    // Handle: the PreparedStatement proxy handed to the caller
+    // =====================================================================
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private boolean closed = false;
+        private boolean dirty = false;          // per-statement settings changed
+        private ResultSet lastResult;
+
+        Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String m = method.getName();
+
+            switch (m) {
+                case "close":
+                    logicalClose();
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "closeOnCompletion":
+                    return null;                // would close the cached statement
+                case "isCloseOnCompletion":
+                    return false;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed", "HY010");
+            }
+
+            if (m.equals("setFetchSize") || m.equals("setMaxRows") || m.equals("setLargeMaxRows")
+                    || m.equals("setQueryTimeout") || m.equals("setMaxFieldSize")
+                    || m.equals("setFetchDirection") || m.equals("setEscapeProcessing")) {
+                dirty = true;
+            }
+
+            try {
+                Object result = method.invoke(entry.statement, args);
+                if (result instanceof ResultSet) {
+                    lastResult = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void logicalClose() {
+            if (closed) return;
+            closed = true;
+
+            PreparedStatement ps = entry.statement;
+            boolean discard = false;
+            try {
+                if (lastResult != null) lastResult.close();     // releases a server-side cursor
+                ps.clearParameters();
+                ps.clearBatch();
+                if (dirty) {
+                    ps.setFetchSize(0);
+                    ps.setMaxRows(0);
+                    ps.setQueryTimeout(0);
+                    ps.setMaxFieldSize(0);
+                    ps.setFetchDirection(ResultSet.FETCH_FORWARD);
+                    ps.setEscapeProcessing(true);
+                }
+                ps.clearWarnings();
+            } catch (SQLException e) {
+                discard = true;                                 // unknown state → do not reuse
+            }
+            lastResult = null;
+            release(entry, discard);
+        }
+    }
+}
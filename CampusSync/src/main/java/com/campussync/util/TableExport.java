@@ -0,0 +1,247 @@
+package com.campussync.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TableExport
+ *
+ * Streams a query result straight into a Writer as CSV or JSON, for the
+ * registrar's full-table exports (students, attendance, marks).
+ *
+ * Working:
+ *  - One read-only transaction on a read connection (replica when healthy):
+ *    every row comes from the same InnoDB snapshot even while attendance is
+ *    being written. An export may be several SELECTs with the same columns
+ *    (writeAll, e.g. attendance + attendance_archive); they run one after the
+ *    other in that transaction and are written as one file with one header,
+ *    so a row moved between the tables meanwhile is seen exactly once
+ *  - The statement is forward-only / read-only with fetch size
+ *    Integer.MIN_VALUE: Connector/J then streams rows off the socket one by
+ *    one instead of buffering the result (and the server does not build a
+ *    temp table as it would for useCursorFetch), so memory stays constant
+ *    for 10M rows
+ *  - Connector/J raises net_write_timeout for streaming results
+ *    (netTimeoutForStreamingResults, 600 s), so a slow client does not make
+ *    MySQL abort the query
+ *  - Columns come from ResultSetMetaData; no model objects are created
+ *  - If writing fails (client went away), the query is cancelled before the
+ *    result set is closed - closing a streaming result set would otherwise
+ *    read every remaining row
+ *
+ * Usage:
+ * long rows = TableExport.write(SQL_EXPORT_STUDENTS, QueryStream.Binder.none(), Format.CSV, writer);
+ * long rows = TableExport.writeAll(Arrays.asList(SQL_LIVE, SQL_ARCHIVE), QueryStream.Binder.none(), Format.CSV, writer);
+ */
+public final class TableExport {
+
+    /**
+     * Output formats with their content type and file extension.
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        JSON("application/json", "json");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        /** "json" → JSON, anything else → CSV. */
+        public static Format of(String value) {
+            return "json".equalsIgnoreCase(value) ? JSON : CSV;
+        }
+    }
+
+    private TableExport() { }
+
+    /**
+     * Runs the query and writes every row.
+     *
+     * @return number of rows written
+     * @throws IOException  if the client disconnects (the query is cancelled)
+     * @throws SQLException if the query fails
+     */
+    public static long write(String sql, QueryStream.Binder binder, Format format, Writer out)
+            throws SQLException, IOException {
+        return writeAll(Collections.singletonList(sql), binder, format, out);
+    }
+
+    /**
+     * Runs the queries one after the other in one snapshot and writes their
+     * rows as a single file. The header (CSV) comes from the first query, so
+     * every query must select the same columns; binder is applied to each.
+     *
+     * @return number of rows written
+     * @throws IOException  if the client disconnects (the running query is cancelled)
+     * @throws SQLException if a query fails
+     */
+    public static long writeAll(List<String> sqls, QueryStream.Binder binder, Format format, Writer out)
+            throws SQLException, IOException {
+
+        long start = System.currentTimeMillis();
+        long rows = 0;
+
+        try (Connection conn = DBConnection.getReadConnection()) {
+            DBConnection.markLongRunning(conn);     // held for the whole download
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+
+            for (int part = 0; part < sqls.size(); part++) {
+                try (PreparedStatement ps = conn.prepareStatement(sqls.get(part),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    ps.setFetchSize(Integer.MIN_VALUE);
+                    binder.bind(ps);
+
+                    try (ResultSet rs = ps.executeQuery()) {
+                        try {
+                            if (part == 0) writeHeader(rs, format, out);
+                            rows += format == Format.JSON ? writeJson(rs, out, rows) : writeCsv(rs, out);
+                        } catch (IOException e) {
+                            cancelQuietly(ps);
+                            throw e;
+                        }
+                    }
+                }
+            }
+            if (format == Format.JSON) out.write("\n]\n");
+            out.flush();
+            conn.commit();
+        } finally {
+            Logger.info("Export (" + format + "): " + rows + " rows in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        }
+        return rows;
+    }
+
+    /** CSV: the column labels of the first query; JSON: the opening bracket. */
+    private static void writeHeader(ResultSet rs, Format format, Writer out) throws SQLException, IOException {
+        if (format == Format.JSON) {
+            out.write('[');
+            return;
+        }
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (i > 1) out.write(',');
+            out.write(csv(meta.getColumnLabel(i), true));
+        }
+        out.write("\r\n");
+    }
+
+    // ---------------------------------------------------------------------
+    // CSV
+    // ---------------------------------------------------------------------
+    private static long writeCsv(ResultSet rs, Writer out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        boolean[] text = new boolean[columns + 1];
+        for (int i = 1; i <= columns; i++) {
+            text[i] = !isNumeric(meta.getColumnType(i));
+        }
+
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) out.write(',');
+                String value = rs.getString(i);
+                if (value != null) out.write(csv(value, text[i]));
+            }
+            out.write("\r\n");
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * RFC 4180 quoting. Text starting with = + - @ is prefixed with ' so a
+     * spreadsheet does not evaluate a student-supplied name as a formula.
+     */
+    private static String csv(String value, boolean text) {
+        if (text && !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+
+    // ---------------------------------------------------------------------
+    // JSON: one array, one object per row
+    // ---------------------------------------------------------------------
+
+    /** @param before rows already written by earlier queries (for the separating comma) */
+    private static long writeJson(ResultSet rs, Writer out, long before) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[] keys = new String[columns + 1];
+        int[] types = new int[columns + 1];
+        for (int i = 1; i <= columns; i++) {
+            keys[i] = (i == 1 ? "{" : ",") + Json.string(meta.getColumnLabel(i)) + ":";
+            types[i] = meta.getColumnType(i);
+        }
+
+        long rows = 0;
+        while (rs.next()) {
+            if (before + rows > 0) out.write(',');
+            out.write('\n');
+            for (int i = 1; i <= columns; i++) {
+                out.write(keys[i]);
+                String value = rs.getString(i);
+                if (value == null) {
+                    out.write("null");
+                } else if (isNumeric(types[i])) {
+                    out.write(value);
+                } else if (types[i] == Types.BIT || types[i] == Types.BOOLEAN) {
+                    out.write(rs.getBoolean(i) ? "true" : "false");
+                } else {
+                    out.write(Json.string(value));
+                }
+            }
+            out.write('}');
+            rows++;
+        }
+        return rows;
+    }
+
+    private static boolean isNumeric(int type) {
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void cancelQuietly(PreparedStatement ps) {
+        try {
+            ps.cancel();
+        } catch (SQLException e) {
+            Logger.warn("Could not cancel export query: " + e.getMessage());
+        }
+    }
+}
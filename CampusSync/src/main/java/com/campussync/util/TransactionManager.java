@@ -1,7 +1,15 @@
 package com.campussync.util;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * TransactionManager
@@ -10,7 +18,35 @@ import java.sql.SQLException;
  * Ensures data integrity through automatic commit/rollback and proper resource cleanup.
  * Includes comprehensive error logging for debugging transaction issues.
  * 
- * Usage Pattern:
+ * Thread-bound transactions (preferred):
+ * TransactionManager.execute(conn -> {
+ *     pdao.insertParent(conn, data);
+ *     cdao.insertChild(data);          // DAO opening its own connection joins too
+ *     return null;
+ * });
+ *
+ * Working:
+ *  - The transaction's connection is bound to the current thread. While it is
+ *    active, DBConnection.getConnection() returns that same connection (wrapped
+ *    so close() is a no-op), so DAOs join without any extra parameter.
+ *  - One connection and one COMMIT per outermost execute(...) call.
+ *  - Propagation decides what happens when a transaction is already active:
+ *      REQUIRED      → join it (default); a failing participant marks the whole
+ *                      transaction rollback-only
+ *      REQUIRES_NEW  → suspend it and run in a separate connection/commit
+ *      NESTED        → run inside a savepoint; a failure rolls back only the
+ *                      savepoint (and any rollback-only mark set inside it)
+ *                      and the outer transaction carries on
+ *    TransactionPropagationCheck (src/test, mvn -Ptx-check verify) runs
+ *    these cases against a development database.
+ *  - execute(RetryPolicy, work) replays the whole unit of work after
+ *    deadlocks / lock-wait timeouts with jittered exponential backoff.
+ *    Only the outermost transaction retries - inside an active transaction
+ *    it simply joins, and the failure propagates to whoever owns the commit.
+ *    The work must therefore be safe to run more than once (no side effects
+ *    outside the database).
+ *
+ * Legacy usage pattern (explicit, instance based):
  * TransactionManager txn = new TransactionManager();
  * try {
  *     Connection conn = txn.beginTransaction();
@@ -26,6 +62,337 @@ import java.sql.SQLException;
  * }
  */
 public class TransactionManager {
+
+    /**
+     * Behaviour of execute(...) when a transaction is already bound to the thread.
+     */
+    public enum Propagation {
+        REQUIRED,
+        REQUIRES_NEW,
+        NESTED
+    }
+
+    /**
+     * Unit of work run inside a transaction.
+     */
+    @FunctionalInterface
+    public interface TransactionalWork<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    // Active transactions on this thread, innermost first (REQUIRES_NEW pushes)
+    private static final ThreadLocal<Deque<Scope>> SCOPES = new ThreadLocal<>();
+
+    // Retry metrics (exposed for monitoring)
+    private static final AtomicLong TRANSIENT_FAILURES = new AtomicLong();
+    private static final AtomicLong RETRIES = new AtomicLong();
+    private static final AtomicLong RECOVERED = new AtomicLong();
+    private static final AtomicLong EXHAUSTED = new AtomicLong();
+
+    // ---------------------------------------------------------------------
+    // Thread-bound API
+    // ---------------------------------------------------------------------
+
+    /**
+     * Runs work with REQUIRED propagation: joins the current transaction or
+     * starts a new one.
+     */
+    public static <T> T execute(TransactionalWork<T> work) throws SQLException {
+        return execute(Propagation.REQUIRED, work);
+    }
+
+    /**
+     * Runs work with the given propagation.
+     *
+     * @return whatever the work returns
+     * @throws SQLException if the work fails or the commit fails (the
+     *                      transaction/savepoint has been rolled back)
+     */
+    public static <T> T execute(Propagation propagation, TransactionalWork<T> work) throws SQLException {
+        Scope current = currentScope();
+
+        if (current != null) {
+            switch (propagation) {
+                case REQUIRED:
+                    return join(current, work);
+                case NESTED:
+                    return nested(current, work);
+                case REQUIRES_NEW:
+                default:
+                    break;
+            }
+        }
+        return begin(work);
+    }
+
+    /**
+     * Runs work in a new transaction (REQUIRED) and replays it when it fails
+     * with a transient error, as classified by the policy.
+     *
+     * @throws SQLException the last failure once the attempt budget is used up,
+     *                      or immediately for non-transient failures
+     */
+    public static <T> T execute(RetryPolicy policy, TransactionalWork<T> work) throws SQLException {
+        Scope current = currentScope();
+        if (current != null) {
+            return join(current, work);     // outer transaction owns the retry
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = begin(work);
+                if (attempt > 1) {
+                    RECOVERED.incrementAndGet();
+                    Logger.info("Transaction succeeded on attempt " + attempt + " (" + DBConnection.getCurrentAction() + ")");
+                }
+                return result;
+
+            } catch (SQLException e) {
+                SQLException cause = RetryPolicy.findTransient(e);
+                if (cause == null) throw e;
+
+                TRANSIENT_FAILURES.incrementAndGet();
+
+                if (attempt >= policy.getMaxAttempts()) {
+                    EXHAUSTED.incrementAndGet();
+                    Logger.warn("Giving up after " + attempt + " attempts: SQLState=" + cause.getSQLState()
+                            + ", code=" + cause.getErrorCode() + " (" + DBConnection.getCurrentAction() + ")");
+                    throw e;
+                }
+
+                long delay = policy.backoffMillis(attempt);
+                Logger.warn("Transient failure on attempt " + attempt + "/" + policy.getMaxAttempts()
+                        + " (SQLState=" + cause.getSQLState() + ", code=" + cause.getErrorCode()
+                        + "), retrying in " + delay + "ms");
+                RETRIES.incrementAndGet();
+
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if a transaction is bound to the current thread
+     */
+    public static boolean isActive() {
+        return currentScope() != null;
+    }
+
+    /**
+     * Marks the current transaction so that it rolls back instead of
+     * committing. No-op outside a transaction.
+     */
+    public static void setRollbackOnly() {
+        Scope scope = currentScope();
+        if (scope != null) scope.rollbackOnly = true;
+    }
+
+    /**
+     * Connection of the transaction bound to this thread, or null.
+     * Used by DBConnection.getConnection() so DAOs join automatically.
+     */
+    static Connection currentConnection() {
+        Scope scope = currentScope();
+        return scope == null ? null : scope.handle;
+    }
+
+    /**
+     * The pooled connection behind a transaction handle (what callbacks and
+     * joined DAOs get), or conn itself if it is not one.
+     * Used by DBConnection.markLongRunning().
+     */
+    static Connection leasedConnection(Connection conn) {
+        if (conn != null && Proxy.isProxyClass(conn.getClass())
+                && Proxy.getInvocationHandler(conn) instanceof Scope) {
+            return ((Scope) Proxy.getInvocationHandler(conn)).connection;
+        }
+        return conn;
+    }
+
+    private static Scope currentScope() {
+        Deque<Scope> scopes = SCOPES.get();
+        return scopes == null ? null : scopes.peek();
+    }
+
+    // ---------------------------------------------------------------------
+    // Propagation implementations
+    // ---------------------------------------------------------------------
+    private static <T> T begin(TransactionalWork<T> work) throws SQLException {
+        Connection conn = DBConnection.borrowConnection();
+        Scope scope = new Scope(conn);
+
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        scopes.push(scope);
+
+        try {
+            conn.setAutoCommit(false);
+            Logger.debug("Transaction started");
+
+            T result = work.execute(scope.handle);
+
+            if (scope.rollbackOnly) throw rollbackOnly("Transaction", scope.rollbackCause);
+            conn.commit();
+            Logger.debug("Transaction committed successfully");
+            return result;
+
+        } catch (SQLException | RuntimeException e) {
+            try {
+                conn.rollback();
+                Logger.debug("Transaction rolled back successfully");
+            } catch (SQLException re) {
+                Logger.error("Rollback failed", re);
+                e.addSuppressed(re);
+            }
+            throw e;
+
+        } finally {
+            scopes.pop();
+            if (scopes.isEmpty()) SCOPES.remove();
+            DBConnection.closeQuietly(conn);   // pool restores autocommit
+        }
+    }
+
+    private static <T> T join(Scope scope, TransactionalWork<T> work) throws SQLException {
+        try {
+            return work.execute(scope.handle);
+        } catch (SQLException e) {
+            // The caller may swallow the exception; the outer commit must not
+            scope.rollbackOnly = true;
+            if (scope.rollbackCause == null) scope.rollbackCause = e;
+            throw e;
+        } catch (RuntimeException e) {
+            scope.rollbackOnly = true;
+            throw e;
+        }
+    }
+
+    /**
+     * A REQUIRED participant failing inside the savepoint marks the whole
+     * scope rollback-only (join); rolling back to the savepoint undoes that
+     * participant's work, so the mark is undone with it - the outer
+     * transaction keeps whatever state it had before the savepoint. Work that
+     * swallows such a failure and returns is rolled back to the savepoint too.
+     */
+    private static <T> T nested(Scope scope, TransactionalWork<T> work) throws SQLException {
+        boolean outerRollbackOnly = scope.rollbackOnly;
+        SQLException outerCause = scope.rollbackCause;
+
+        Savepoint savepoint = scope.connection.setSavepoint("sp_" + (++scope.savepointDepth));
+        try {
+            T result = work.execute(scope.handle);
+            if (scope.rollbackOnly && !outerRollbackOnly) {
+                throw rollbackOnly("Nested transaction", scope.rollbackCause);
+            }
+            scope.connection.releaseSavepoint(savepoint);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                scope.connection.rollback(savepoint);
+                scope.rollbackOnly = outerRollbackOnly;
+                scope.rollbackCause = outerCause;
+                Logger.debug("Rolled back to savepoint sp_" + scope.savepointDepth);
+            } catch (SQLException re) {
+                // Savepoint lost → the outer transaction is no longer consistent
+                scope.rollbackOnly = true;
+                e.addSuppressed(re);
+            }
+            throw e;
+        } finally {
+            scope.savepointDepth--;
+        }
+    }
+
+    /** Keeps the participant's SQLState/code so retry classification still works. */
+    private static SQLException rollbackOnly(String what, SQLException cause) {
+        String message = what + " was marked rollback-only by a participant";
+        return cause == null ? new SQLException(message)
+                             : new SQLException(message, cause.getSQLState(), cause.getErrorCode(), cause);
+    }
+
+    // ---------------------------------------------------------------------
+    // Retry metrics
+    // ---------------------------------------------------------------------
+
+    /** Transient failures seen by execute(RetryPolicy, ...), including the last one of an exhausted run. */
+    public static long getTransientFailureCount() { return TRANSIENT_FAILURES.get(); }
+
+    /** Replays performed. */
+    public static long getRetryCount() { return RETRIES.get(); }
+
+    /** Units of work that failed at least once and then committed. */
+    public static long getRecoveredCount() { return RECOVERED.get(); }
+
+    /** Units of work that ran out of attempts. */
+    public static long getExhaustedCount() { return EXHAUSTED.get(); }
+
+    // =====================================================================
+    // Scope: one physical transaction bound to the thread
+    // =====================================================================
+    private static final class Scope implements InvocationHandler {
+        final Connection connection;    // pooled connection owned by begin()
+        final Connection handle;        // what DAOs and callbacks get
+        boolean rollbackOnly = false;
+        SQLException rollbackCause;     // first participant failure, if any
+        int savepointDepth = 0;
+
+        Scope(Connection connection) {
+            this.connection = connection;
+            this.handle = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, this);
+        }
+
+        /**
+         * Participants share the connection but not its lifecycle: close(),
+         * commit() and setAutoCommit() belong to the outermost execute(...),
+         * and a participant's rollback() only marks the transaction.
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                case "setAutoCommit":
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        rollbackOnly = true;
+                        return null;
+                    }
+                    break;
+                case "unwrap":
+                    if (args[0] == Connection.class) return proxy;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "TransactionalConnection[" + connection + "]";
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Legacy instance API
+    // ---------------------------------------------------------------------
+
     private Connection connection;
     private boolean isTransactionActive = false;
 
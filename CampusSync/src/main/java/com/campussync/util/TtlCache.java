@@ -0,0 +1,126 @@
+package com.campussync.util;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TtlCache
+ *
+ * Small in-memory read-through cache for data that changes rarely but is read
+ * on every page view (e.g. the student roster of a subject).
+ *
+ * Working:
+ *  - get(key, loader) returns the cached value while it is younger than ttlMs,
+ *    otherwise runs the loader (a DAO query) and caches the result
+ *  - Writers call invalidate(key) after changing the underlying rows, so this
+ *    JVM never serves a stale value; other app servers see the change at the
+ *    latest after ttlMs
+ *  - A load that races with an invalidation is returned to its caller but not
+ *    cached (generation check), so an invalidation is never undone
+ *  - Loads are not locked: two requests missing at the same moment may both
+ *    query, which is cheaper than making one wait on the other's connection
+ *  - At most maxEntries values; when full, expired entries are dropped first,
+ *    then everything (the cache simply warms up again)
+ *
+ * Usage:
+ * private static final TtlCache<Integer, List<RosterEntry>> ROSTERS = new TtlCache<>("roster", 300_000, 1_000);
+ * List<RosterEntry> roster = ROSTERS.get(subjectId, () -> loadRoster(subjectId));
+ */
+public final class TtlCache<K, V> {
+
+    /**
+     * Loads a value on a cache miss; may throw SQLException like the DAO itself.
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws SQLException;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final String name;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    // Monitoring
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TtlCache(String name, long ttlMs, int maxEntries) {
+        this.name = name;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Cached value for key, loading it on a miss or after expiry.
+     */
+    public V get(K key, Loader<V> loader) throws SQLException {
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt < ttlMs) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+
+        misses.incrementAndGet();
+        long gen = generation.get();
+        V value = loader.load();
+
+        if (entries.size() >= maxEntries) evict(now);
+        entries.put(key, new Entry<>(value, now));
+        if (generation.get() != gen) {
+            entries.remove(key);        // invalidated while loading: do not keep it
+        }
+        return value;
+    }
+
+    /** Drops the cached value of key (call after writing the underlying rows). */
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+        invalidations.incrementAndGet();
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        invalidations.incrementAndGet();
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(e -> now - e.loadedAt >= ttlMs);
+        if (entries.size() >= maxEntries) {
+            Logger.debug("Cache " + name + " full (" + maxEntries + " entries); clearing");
+            entries.clear();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Monitoring
+    // ---------------------------------------------------------------------
+    public String getName() { return name; }
+    public int getSize() { return entries.size(); }
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getInvalidationCount() { return invalidations.get(); }
+
+    @Override
+    public String toString() {
+        return "TtlCache{" + name + ", size=" + entries.size() + ", hits=" + hits.get()
+                + ", misses=" + misses.get() + ", invalidations=" + invalidations.get() + "}";
+    }
+}
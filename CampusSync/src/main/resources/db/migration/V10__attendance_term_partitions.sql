@@ -0,0 +1,63 @@
+-- Range-partitions attendance by date, so term partitions can be added and
+-- archived as units (job.AttendancePartitionJob) and current-term queries
+-- (att_date >= term start) only read the current partitions.
+--
+-- MySQL rules for partitioned tables:
+--  - the partitioning column cannot be NULL here: rows without a date are
+--    moved to attendance_undated first (kept for review, reported in the
+--    migration log as affected rows), then att_date becomes NOT NULL
+--  - every unique key must contain att_date: the primary key becomes
+--    (attendance_id, att_date); uq_attendance_student_subject_date already does
+--  - InnoDB partitioned tables cannot have foreign keys: every attendance FK
+--    is dropped by the name information_schema reports (the baseline's are
+--    unnamed, so installs differ); StudentDAO.deleteStudent deletes a
+--    student's attendance explicitly instead of the cascade
+--
+-- All rows start in p_future; the partition job splits it into one partition
+-- per academic term on its first run. Rebuilds the table: run it in a
+-- maintenance window on large installs. Every statement can run again after
+-- a failure half-way.
+--
+-- Verify: EXPLAIN SELECT att_date FROM attendance WHERE student_id = 1 AND att_date >= CURDATE();
+--         → partitions: only the current / upcoming term partitions
+--         SELECT COUNT(*) FROM attendance_undated;   → rows that had no date
+CREATE TABLE IF NOT EXISTS attendance_undated LIKE attendance;
+
+INSERT IGNORE INTO attendance_undated SELECT * FROM attendance WHERE att_date IS NULL;
+
+DELETE FROM attendance WHERE att_date IS NULL;
+
+ALTER TABLE attendance MODIFY att_date DATE NOT NULL;
+
+-- One ALTER dropping whatever foreign keys exist (none on a rerun: DO 0)
+SET @attendance_fks = (
+    SELECT GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', CONSTRAINT_NAME, '`') SEPARATOR ', ')
+    FROM information_schema.REFERENTIAL_CONSTRAINTS
+    WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'attendance');
+
+SET @attendance_fks = IF(@attendance_fks IS NULL, 'DO 0', CONCAT('ALTER TABLE attendance ', @attendance_fks));
+
+PREPARE drop_attendance_fks FROM @attendance_fks;
+
+EXECUTE drop_attendance_fks;
+
+DEALLOCATE PREPARE drop_attendance_fks;
+
+ALTER TABLE attendance DROP PRIMARY KEY, ADD PRIMARY KEY (attendance_id, att_date);
+
+ALTER TABLE attendance PARTITION BY RANGE COLUMNS (att_date) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+-- Closed terms moved out of attendance by the partition job. Compressed:
+-- archived history is written once and rarely read.
+CREATE TABLE IF NOT EXISTS attendance_archive (
+    attendance_id INT NOT NULL,
+    student_id INT,
+    subject_id INT,
+    att_date DATE NOT NULL,
+    status ENUM('P','A') DEFAULT 'A',
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (attendance_id),
+    KEY idx_attendance_archive_student_date (student_id, att_date)
+) ROW_FORMAT=COMPRESSED;
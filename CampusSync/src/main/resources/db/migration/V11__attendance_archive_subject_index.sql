@@ -0,0 +1,8 @@
+-- Packing archived terms into attendance_session (SessionAttendanceStore.packFromRows):
+--   WHERE subject_id = ?  on attendance_archive, once per subject
+-- V10 only indexed the archive by student; without this each subject would
+-- read the whole archive. Same shape as idx_attendance_subject_date (V5).
+--
+-- Verify: EXPLAIN SELECT att_date, student_id, status FROM attendance_archive WHERE subject_id = 1;
+--         → type=ref, key=idx_attendance_archive_subject_date
+CREATE INDEX idx_attendance_archive_subject_date ON attendance_archive(subject_id, att_date);
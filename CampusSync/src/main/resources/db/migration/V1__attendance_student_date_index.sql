@@ -0,0 +1,11 @@
+-- Student attendance page (StudentDAO.listAttendance):
+--   WHERE a.student_id = ? ORDER BY a.att_date DESC
+-- The baseline only has the index InnoDB created for the student_id foreign
+-- key: it finds the student's rows, but every view filesorts their whole
+-- history by att_date. (student_id, att_date) returns the rows already in
+-- date order.
+--
+-- Verify: EXPLAIN SELECT s.subject_name, a.att_date, a.status FROM attendance a
+--           JOIN subject s ON a.subject_id = s.subject_id WHERE a.student_id = 1 ORDER BY a.att_date DESC;
+--         → a: type=ref, key=idx_attendance_student_date, no "Using filesort"
+CREATE INDEX idx_attendance_student_date ON attendance(student_id, att_date);
@@ -0,0 +1,9 @@
+-- Upcoming assignments (AssignmentDAO.listOpenAssignments):
+--   WHERE a.due_date >= CURDATE() ORDER BY a.due_date
+-- Without an index every request scans all assignments ever posted.
+-- The index range-scans only future due dates, in order.
+--
+-- Verify: EXPLAIN SELECT a.assignment_id, a.title, a.due_date FROM assignment a
+--           WHERE a.due_date >= CURDATE() ORDER BY a.due_date;
+--         → type=range, key=idx_assignment_due_date, no "Using filesort"
+CREATE INDEX idx_assignment_due_date ON assignment(due_date);
@@ -0,0 +1,9 @@
+-- Notice boards (AdminDAO.listNotices / streamNotices):
+--   ORDER BY posted_at DESC
+-- Lets the newest notices be read in index order (backward scan) instead of
+-- sorting the whole table. On a full listing of a small table MySQL may still
+-- prefer scan + sort; any newest-N read (LIMIT) uses the index.
+--
+-- Verify: EXPLAIN SELECT notice_id, title, message, posted_at FROM notice ORDER BY posted_at DESC LIMIT 20;
+--         → type=index, key=idx_notice_posted_at, no "Using filesort"
+CREATE INDEX idx_notice_posted_at ON notice(posted_at);
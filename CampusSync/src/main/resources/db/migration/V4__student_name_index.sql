@@ -0,0 +1,8 @@
+-- Admin student table, keyset pagination by name (AdminDAO.pageStudents):
+--   WHERE name >= ? AND (name > ? OR student_id > ?) ORDER BY name, student_id LIMIT ?
+-- Without the index every page sorts the whole student table.
+--
+-- Verify: EXPLAIN SELECT student_id, name, email FROM student
+--           WHERE name >= 'M' ORDER BY name, student_id LIMIT 50;
+--         → type=range, key=idx_student_name_id, no "Using filesort"
+CREATE INDEX idx_student_name_id ON student(name, student_id);
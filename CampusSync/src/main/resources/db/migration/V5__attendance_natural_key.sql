@@ -0,0 +1,19 @@
+-- One attendance row per student, subject and day: AttendanceDAO writes with
+-- INSERT ... ON DUPLICATE KEY UPDATE against this key, so a double-click or
+-- retried save overwrites the row instead of adding a second one.
+-- Also the class register lookup (AttendanceDAO.findRegister):
+--   WHERE subject_id = ? AND att_date = ?
+--
+-- Existing rows: duplicates are removed first, keeping the latest
+-- (highest attendance_id) of each student / subject / day.
+--
+-- Verify: SHOW INDEX FROM attendance;
+--         → uq_attendance_student_subject_date (unique), idx_attendance_subject_date
+DELETE a1 FROM attendance a1
+JOIN attendance a2 ON a1.student_id = a2.student_id AND a1.subject_id = a2.subject_id
+                  AND a1.att_date = a2.att_date AND a1.attendance_id < a2.attendance_id;
+
+ALTER TABLE attendance
+    ADD UNIQUE KEY uq_attendance_student_subject_date (student_id, subject_id, att_date);
+
+CREATE INDEX idx_attendance_subject_date ON attendance(subject_id, att_date);
@@ -0,0 +1,29 @@
+-- Several assessments per subject (MarksDAO, gradebook): one grade per
+-- student, subject and assessment, written with INSERT ... ON DUPLICATE KEY
+-- UPDATE against the unique key. Rows from before assessments existed
+-- become 'Final'.
+--
+-- Existing rows: duplicates are removed first, keeping the latest
+-- (highest marks_id) of each student / subject / assessment.
+--
+-- MySQL 5.7 has no ADD COLUMN IF NOT EXISTS: the column is only added when
+-- information_schema does not list it yet, so the script can run again.
+--
+-- Verify: SHOW INDEX FROM marks;
+--         → uq_marks_student_subject_assessment (unique)
+SET @add_assessment = (
+    SELECT IF(COUNT(*) = 0,
+              'ALTER TABLE marks ADD COLUMN assessment VARCHAR(50) NOT NULL DEFAULT ''Final'' AFTER subject_id',
+              'DO 0')
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'marks' AND COLUMN_NAME = 'assessment');
+PREPARE add_assessment FROM @add_assessment;
+EXECUTE add_assessment;
+DEALLOCATE PREPARE add_assessment;
+
+DELETE m1 FROM marks m1
+JOIN marks m2 ON m1.student_id = m2.student_id AND m1.subject_id = m2.subject_id
+             AND m1.assessment = m2.assessment AND m1.marks_id < m2.marks_id;
+
+ALTER TABLE marks
+    ADD UNIQUE KEY uq_marks_student_subject_assessment (student_id, subject_id, assessment);
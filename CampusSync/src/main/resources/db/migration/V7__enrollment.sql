@@ -0,0 +1,28 @@
+-- Which students take which subject (EnrollmentDAO): faculty screens load the
+-- class roster instead of the whole student body, and register / gradebook
+-- saves reject students who are not enrolled.
+--
+-- Clustered by subject: a class roster is one range scan of the primary key;
+-- idx_enrollment_student serves the other direction and the student foreign key.
+--
+-- Existing data: every student is enrolled in the subjects of their course
+-- (student.course = course name); INSERT IGNORE makes it safe to re-run.
+--
+-- Verify: EXPLAIN SELECT st.student_id, st.name FROM enrollment e
+--           JOIN student st ON st.student_id = e.student_id WHERE e.subject_id = 1;
+--         → e: type=ref, key=PRIMARY
+CREATE TABLE IF NOT EXISTS enrollment (
+    subject_id INT NOT NULL,
+    student_id INT NOT NULL,
+    enrolled_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (subject_id, student_id),
+    KEY idx_enrollment_student (student_id),
+    FOREIGN KEY (subject_id) REFERENCES subject(subject_id) ON DELETE CASCADE,
+    FOREIGN KEY (student_id) REFERENCES student(student_id) ON DELETE CASCADE
+);
+
+INSERT IGNORE INTO enrollment(subject_id, student_id)
+SELECT s.subject_id, st.student_id
+FROM subject s
+JOIN course c ON c.course_id = s.course_id
+JOIN student st ON st.course = c.course_name;
@@ -0,0 +1,29 @@
+-- Student attendance percentages (AttendanceSummaryDAO.listForStudent):
+-- one row per student and subject with classes attended / held, kept up to
+-- date by AttendanceDAO in the same transaction as every attendance write,
+-- so a percentage is a primary key read instead of COUNT/SUM over the
+-- student's whole history.
+--
+-- Rebuild at any time (e.g. after loading attendance outside the app):
+--   java com.campussync.job.RebuildAttendanceSummary
+--
+-- Verify: EXPLAIN SELECT sm.subject_id, s.subject_name, sm.present, sm.total FROM attendance_summary sm
+--           JOIN subject s ON s.subject_id = sm.subject_id WHERE sm.student_id = 1 ORDER BY s.subject_name;
+--         → sm: type=ref, key=PRIMARY
+CREATE TABLE IF NOT EXISTS attendance_summary (
+    student_id INT NOT NULL,
+    subject_id INT NOT NULL,
+    present INT NOT NULL DEFAULT 0,
+    total INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (student_id, subject_id),
+    KEY idx_attendance_summary_subject (subject_id),
+    FOREIGN KEY (student_id) REFERENCES student(student_id) ON DELETE CASCADE,
+    FOREIGN KEY (subject_id) REFERENCES subject(subject_id) ON DELETE CASCADE
+);
+
+-- Backfill from the existing history (idempotent)
+INSERT INTO attendance_summary(student_id, subject_id, present, total)
+SELECT student_id, subject_id, SUM(status = 'P'), COUNT(*)
+FROM attendance
+GROUP BY student_id, subject_id
+ON DUPLICATE KEY UPDATE present = VALUES(present), total = VALUES(total);
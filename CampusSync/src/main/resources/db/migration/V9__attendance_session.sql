@@ -0,0 +1,21 @@
+-- Session-mode attendance storage (SessionAttendanceStore, enabled with
+-- -Dcampussync.attendance.store=sessions): one row per class session instead
+-- of one attendance row per student. marked / present are serialized
+-- RoaringBitmap sets of student ids; absent = marked andNot present.
+-- The table stays empty in the default rows mode.
+--
+-- Existing data: java com.campussync.job.PackAttendanceSessions
+--
+-- Verify: EXPLAIN SELECT marked, present FROM attendance_session WHERE subject_id = 1 AND att_date = CURDATE();
+--         → type=const, key=PRIMARY
+CREATE TABLE IF NOT EXISTS attendance_session (
+    subject_id INT NOT NULL,
+    att_date DATE NOT NULL,
+    marked BLOB NOT NULL,
+    present BLOB NOT NULL,
+    marked_count INT NOT NULL,
+    present_count INT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (subject_id, att_date),
+    FOREIGN KEY (subject_id) REFERENCES subject(subject_id) ON DELETE CASCADE
+);
@@ -224,6 +224,26 @@
             <p>Create and broadcast important announcements</p>
         </div>
 
+        <!-- Bulk Import -->
+        <div class="option-card">
+            <div class="icon"><i class="fas fa-file-csv"></i></div>
+            <a href="<%= request.getContextPath() %>/adminPanel?action=importAccounts">Bulk Import</a>
+            <p>Upload a CSV of new students or faculty accounts</p>
+        </div>
+
+        <!-- Registrar Exports -->
+        <div class="option-card">
+            <div class="icon"><i class="fas fa-file-export"></i></div>
+            <a href="<%= request.getContextPath() %>/export?table=students">Export Data</a>
+            <p>
+                Download full CSV exports:
+                <a href="<%= request.getContextPath() %>/export?table=students" style="font-size: 13px;">students</a>,
+                <a href="<%= request.getContextPath() %>/export?table=attendance" style="font-size: 13px;">attendance</a>,
+                <a href="<%= request.getContextPath() %>/export?table=marks" style="font-size: 13px;">marks</a>
+                (add <code>&amp;format=json</code> for JSON)
+            </p>
+        </div>
+
     </div>
 </div>
 
@@ -0,0 +1,333 @@
+<%@ page import="com.campussync.util.ImportProgress" %>
+
+<%
+    javax.servlet.http.HttpSession s = request.getSession(false);
+    if (s == null || !"admin".equals(s.getAttribute("role"))) {
+        response.sendRedirect(request.getContextPath() + "/login.jsp");
+        return;
+    }
+
+    ImportProgress progress = (ImportProgress) request.getAttribute("importProgress");
+%>
+
+<%!
+    private static String esc(Object value) {
+        if (value == null) return "";
+        return value.toString().replace("&", "&amp;").replace("<", "&lt;")
+                .replace(">", "&gt;").replace("\"", "&quot;");
+    }
+%>
+
+<!DOCTYPE html>
+<html>
+<head>
+    <title>Bulk Import - CampusSync</title>
+    <style>
+        * {
+            margin: 0;
+            padding: 0;
+            box-sizing: border-box;
+        }
+
+        body {
+            font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+            background: #f7fafc;
+            color: #2d3748;
+        }
+
+        .header {
+            background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);
+            color: white;
+            padding: 20px 30px;
+            box-shadow: 0 2px 8px rgba(0, 0, 0, 0.1);
+        }
+
+        .header a {
+            color: rgba(255, 255, 255, 0.9);
+            text-decoration: none;
+            font-size: 14px;
+            display: inline-flex;
+            align-items: center;
+        }
+
+        .header a:hover {
+            opacity: 0.7;
+        }
+
+        .back-arrow {
+            margin-right: 6px;
+        }
+
+        .container {
+            padding: 40px 30px;
+            max-width: 800px;
+            margin: 0 auto;
+        }
+
+        .form-section {
+            background: white;
+            padding: 30px;
+            border-radius: 10px;
+            box-shadow: 0 2px 8px rgba(0, 0, 0, 0.08);
+            border: 1px solid #e2e8f0;
+            margin-bottom: 25px;
+        }
+
+        .form-section h3 {
+            font-size: 18px;
+            margin-bottom: 15px;
+            color: #1a202c;
+        }
+
+        .form-group {
+            margin-bottom: 20px;
+        }
+
+        label {
+            display: block;
+            font-weight: 600;
+            margin-bottom: 8px;
+            font-size: 14px;
+        }
+
+        select,
+        input[type="file"] {
+            width: 100%;
+            padding: 10px 12px;
+            border: 2px solid #e2e8f0;
+            border-radius: 6px;
+            font-size: 14px;
+            font-family: inherit;
+        }
+
+        .hint {
+            font-size: 13px;
+            color: #718096;
+            line-height: 1.6;
+        }
+
+        .hint code {
+            background: #edf2f7;
+            padding: 1px 5px;
+            border-radius: 4px;
+        }
+
+        button {
+            width: 100%;
+            padding: 12px;
+            background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);
+            border: none;
+            color: white;
+            font-size: 16px;
+            font-weight: 600;
+            cursor: pointer;
+            border-radius: 6px;
+            transition: all 0.3s;
+        }
+
+        button:disabled {
+            opacity: 0.6;
+            cursor: wait;
+        }
+
+        .stats {
+            display: flex;
+            gap: 15px;
+            margin-bottom: 10px;
+        }
+
+        .stat {
+            flex: 1;
+            background: #f7fafc;
+            border: 1px solid #e2e8f0;
+            border-radius: 8px;
+            padding: 12px;
+            text-align: center;
+        }
+
+        .stat strong {
+            display: block;
+            font-size: 22px;
+            color: #1a202c;
+        }
+
+        .stat span {
+            font-size: 12px;
+            color: #718096;
+        }
+
+        .state {
+            font-weight: 600;
+            margin-bottom: 15px;
+        }
+
+        .state.failed { color: #c53030; }
+        .state.done { color: #2f855a; }
+
+        table {
+            width: 100%;
+            border-collapse: collapse;
+            font-size: 14px;
+        }
+
+        th, td {
+            text-align: left;
+            padding: 8px 10px;
+            border-bottom: 1px solid #e2e8f0;
+        }
+
+        th {
+            background: #f7fafc;
+        }
+    </style>
+</head>
+<body>
+
+<div class="header">
+    <h2>Bulk Import</h2>
+    <a href="<%= request.getContextPath() %>/adminPanel">
+        <svg class="back-arrow" viewBox="0 0 24 24" fill="none" stroke="currentColor" stroke-width="2" style="width: 18px; height: 18px;">
+            <polyline points="15 18 9 12 15 6"></polyline>
+        </svg>
+        Back to Dashboard
+    </a>
+</div>
+
+<div class="container">
+
+    <!-- Upload form -->
+    <div class="form-section">
+        <h3>Upload CSV</h3>
+        <form id="importForm" action="<%= request.getContextPath() %>/adminPanel" method="post" enctype="multipart/form-data">
+            <input type="hidden" name="action" value="importAccounts">
+
+            <div class="form-group">
+                <label for="type">Account Type</label>
+                <select id="type" name="type">
+                    <option value="students">Students</option>
+                    <option value="faculty">Faculty</option>
+                </select>
+            </div>
+
+            <div class="form-group">
+                <label for="file">CSV File</label>
+                <input type="file" id="file" name="file" accept=".csv,text/csv" required>
+            </div>
+
+            <p class="hint" style="margin-bottom: 20px;">
+                First line is the header; column order does not matter.<br>
+                Students: <code>name,email,password</code> and optionally <code>course,semester</code><br>
+                Faculty: <code>name,email,password</code> and optionally <code>department</code><br>
+                Lines with errors or an email that is already registered are skipped and listed below;
+                all other lines are imported.
+            </p>
+
+            <button type="submit" id="importButton">Start Import</button>
+        </form>
+    </div>
+
+    <!-- Progress / last report -->
+    <div class="form-section" id="progressSection" style="<%= progress == null ? "display: none;" : "" %>">
+        <h3>Import <span id="progressFile"><%= progress == null ? "" : esc(progress.getFileName()) %></span></h3>
+
+        <p id="progressState" class="state <%= progress == null ? "" : progress.getState().name().toLowerCase() %>">
+            <%= progress == null ? "" : progress.getState() + (progress.getFailure() == null ? "" : ": " + esc(progress.getFailure())) %>
+        </p>
+
+        <div class="stats">
+            <div class="stat"><strong id="linesRead"><%= progress == null ? 0 : progress.getLinesRead() %></strong><span>Lines read</span></div>
+            <div class="stat"><strong id="inserted"><%= progress == null ? 0 : progress.getInserted() %></strong><span>Imported</span></div>
+            <div class="stat"><strong id="rejected"><%= progress == null ? 0 : progress.getRejected() %></strong><span>Skipped</span></div>
+        </div>
+    </div>
+
+    <% if (progress != null && !progress.isRunning() && progress.getRejected() > 0) { %>
+    <div class="form-section">
+        <h3>Skipped Lines</h3>
+        <% if (progress.getRejected() > ImportProgress.MAX_ERRORS) { %>
+        <p class="hint" style="margin-bottom: 10px;">Showing the first <%= ImportProgress.MAX_ERRORS %> of <%= progress.getRejected() %>.</p>
+        <% } %>
+        <table>
+            <tr><th>Line</th><th>Reason</th></tr>
+            <% for (ImportProgress.LineError e : progress.getErrors()) { %>
+            <tr><td><%= e.getLine() %></td><td><%= esc(e.getMessage()) %></td></tr>
+            <% } %>
+        </table>
+    </div>
+    <% } %>
+</div>
+
+<script>
+    (function () {
+        var base = '<%= request.getContextPath() %>/adminPanel';
+        var form = document.getElementById('importForm');
+        var button = document.getElementById('importButton');
+        var timer = null;
+
+        function show(p) {
+            if (!p || !p.state) return;
+            document.getElementById('progressSection').style.display = '';
+            document.getElementById('progressFile').textContent = p.file || '';
+            var state = document.getElementById('progressState');
+            state.className = 'state ' + p.state.toLowerCase();
+            state.textContent = p.state + (p.failure ? ': ' + p.failure : '');
+            document.getElementById('linesRead').textContent = p.linesRead;
+            document.getElementById('inserted').textContent = p.inserted;
+            document.getElementById('rejected').textContent = p.rejected;
+        }
+
+        function poll() {
+            fetch(base + '?action=importStatus', { credentials: 'same-origin' })
+                .then(function (r) { return r.json(); })
+                .then(show)
+                .catch(function () { /* next tick retries */ });
+        }
+
+        // Upload with fetch so the page can poll progress while the request runs;
+        // reload at the end to render the skipped-lines report
+        form.addEventListener('submit', function (e) {
+            if (!window.fetch) return;              // plain form post fallback
+            e.preventDefault();
+            button.disabled = true;
+            button.textContent = 'Importing...';
+            timer = setInterval(poll, 1000);
+
+            fetch(base, {
+                method: 'POST',
+                body: new FormData(form),
+                credentials: 'same-origin',
+                headers: { 'X-Requested-By': 'fetch' }
+            }).then(function (r) {
+                clearInterval(timer);
+                if (r.status === 429) {             // another admin's import is running
+                    alert('Another import is running, please try again shortly.');
+                    button.disabled = false;
+                    button.textContent = 'Start Import';
+                    return;
+                }
+                window.location = base + '?action=importAccounts';
+            }).catch(function () {
+                clearInterval(timer);
+                button.disabled = false;
+                button.textContent = 'Start Import';
+                poll();
+            });
+        });
+
+        <% if (progress != null && progress.isRunning()) { %>
+        // An import from another tab is still running
+        button.disabled = true;
+        timer = setInterval(function () {
+            fetch(base + '?action=importStatus', { credentials: 'same-origin' })
+                .then(function (r) { return r.json(); })
+                .then(function (p) {
+                    show(p);
+                    if (p.state !== 'RUNNING') window.location = base + '?action=importAccounts';
+                });
+        }, 1000);
+        <% } %>
+    })();
+</script>
+
+</body>
+</html>
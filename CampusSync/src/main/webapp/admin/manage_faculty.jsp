@@ -1,4 +1,5 @@
-<%@ page import="java.sql.ResultSet" %>
+<%@ page import="com.campussync.model.Faculty" %>
+<%@ page import="com.campussync.util.Page" %>
 
 <%
     javax.servlet.http.HttpSession s = request.getSession(false);
@@ -216,21 +217,31 @@
             </tr>
 
         <%
-            ResultSet rs = (ResultSet) request.getAttribute("facultyData");
+            // One keyset page (AdminDAO.pageFaculty), already loaded; connection is released
+            Page<Faculty> facultyData = (Page<Faculty>) request.getAttribute("facultyData");
 
-            while (rs != null && rs.next()) {
+            if (facultyData != null) {
+                for (Faculty faculty : facultyData.getItems()) {
         %>
             <tr>
-                <td><%= rs.getInt("faculty_id") %></td>
-                <td><%= rs.getString("name") %></td>
-                <td><%= rs.getString("email") %></td>
-                <td><%= rs.getString("department") %></td>
+                <td><%= faculty.getFacultyId() %></td>
+                <td><%= faculty.getName() %></td>
+                <td><%= faculty.getEmail() %></td>
+                <td><%= faculty.getDepartment() %></td>
             </tr>
         <%
+                }
             }
         %>
 
         </table>
+
+        <%
+            Page<?> pg = facultyData;
+            String pagerAction = "faculty";
+            boolean pagerSortable = false;
+        %>
+        <%@ include file="/WEB-INF/jspf/pager.jspf" %>
     </div>
 </div>
 
@@ -1,5 +1,5 @@
-<%@ page import="java.util.List" %>
 <%@ page import="com.campussync.model.Student" %>
+<%@ page import="com.campussync.util.Page" %>
 
 <%
     javax.servlet.http.HttpSession s = request.getSession(false);
@@ -224,10 +224,11 @@
             </tr>
 
             <%
-                List<Student> students = (List<Student>) request.getAttribute("students");
+                // One keyset page (AdminDAO.pageStudents); links below move between pages
+                Page<Student> students = (Page<Student>) request.getAttribute("students");
 
                 if (students != null && !students.isEmpty()) {
-                    for (Student student : students) {
+                    for (Student student : students.getItems()) {
             %>
                 <tr>
                     <td><%= student.getStudentId() %></td>
@@ -246,6 +247,13 @@
             <% } %>
 
         </table>
+
+        <%
+            Page<?> pg = students;
+            String pagerAction = "students";
+            boolean pagerSortable = true;
+        %>
+        <%@ include file="/WEB-INF/jspf/pager.jspf" %>
     </div>
 </div>
 
@@ -2,6 +2,7 @@
 <%@ page import="com.campussync.model.Subject" %>
 <%@ page import="com.campussync.model.Course" %>
 <%@ page import="com.campussync.model.Faculty" %>
+<%@ page import="com.campussync.util.Page" %>
 
 <%
     javax.servlet.http.HttpSession s = request.getSession(false);
@@ -247,13 +248,13 @@
             </tr>
 
             <%
-                // Retrieve the list of all subjects from request attributes
-                // SubjectDAO.getAllSubjectsJoined() returns subjects with joined course and faculty names
-                List<Subject> subjects = (List<Subject>) request.getAttribute("subjectData");
+                // Retrieve the current page of subjects from request attributes
+                // SubjectDAO.pageSubjectsJoined() returns subjects with joined course and faculty names
+                Page<Subject> subjects = (Page<Subject>) request.getAttribute("subjectData");
                 
                 if (subjects != null && !subjects.isEmpty()) {
                     // Display each subject as a table row
-                    for (Subject subject : subjects) {
+                    for (Subject subject : subjects.getItems()) {
             %>
             <tr>
                 <td><%= subject.getSubjectId() %></td>
@@ -262,6 +263,7 @@
                 <td><%= subject.getFacultyName() %></td>
 
                 <td class="actions">
+                    <a class="edit" href="adminPanel?action=subjectRoster&subject_id=<%= subject.getSubjectId() %>">Roster</a>
                     <a class="edit" href="edit_subject.jsp?id=<%= subject.getSubjectId() %>">Edit</a>
                     <a class="delete" href="delete_subject.jsp?id=<%= subject.getSubjectId() %>">Delete</a>
                 </td>
@@ -272,6 +274,13 @@
             %>
 
         </table>
+
+        <%
+            Page<?> pg = subjects;
+            String pagerAction = "subjects";
+            boolean pagerSortable = false;
+        %>
+        <%@ include file="/WEB-INF/jspf/pager.jspf" %>
     </div>
 
 </div>
@@ -1,4 +1,8 @@
-<%@ page import="java.sql.ResultSet" %>
+<%@ page import="java.util.Collections" %>
+<%@ page import="java.util.Iterator" %>
+<%@ page import="java.util.stream.Stream" %>
+<%@ page import="java.time.format.DateTimeFormatter" %>
+<%@ page import="com.campussync.model.Notice" %>
 <%@ page import="javax.servlet.http.HttpSession" %>
 
 <%
@@ -110,21 +114,23 @@
         </tr>
 
         <%
-            ResultSet rs = (ResultSet) request.getAttribute("noticeList");
+            // Notices are streamed from the DB cursor; the servlet closes the stream after rendering
+            Stream<Notice> notices = (Stream<Notice>) request.getAttribute("noticeList");
+            Iterator<Notice> it = notices != null ? notices.iterator() : Collections.<Notice>emptyIterator();
+            DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("HH:mm:ss");
 
-            if (rs != null && rs.next()) {
+            if (it.hasNext()) {
                 do {
+                    Notice notice = it.next();
         %>
 
         <tr>
-            <td><%= rs.getString("title") %></td>
-            <td><%= rs.getString("message") %></td>
+            <td><%= notice.getTitle() %></td>
+            <td><%= notice.getMessage() %></td>
             <td class="date" style="text-align:center;">
                 <%
-                    String datetime = rs.getString("posted_at");
-                    String[] parts = datetime.split(" ");
-                    String date = parts[0];
-                    String time = parts.length > 1 ? parts[1] : "";
+                    String date = notice.getPostedAt() != null ? notice.getPostedAt().toLocalDate().toString() : "";
+                    String time = notice.getPostedAt() != null ? notice.getPostedAt().format(timeFormat) : "";
                 %>
 
                 <div style="font-weight:600;"><%= date %></div>
@@ -133,7 +139,7 @@
 
         </tr>
 
-        <% } while (rs.next()); } else { %>
+        <% } while (it.hasNext()); } else { %>
 
         <tr>
             <td colspan="3" style="text-align:center; padding: 20px;">No notices available</td>
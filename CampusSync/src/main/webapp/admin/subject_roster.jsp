@@ -0,0 +1,246 @@
+<%@ page import="java.util.Collections" %>
+<%@ page import="java.util.List" %>
+<%@ page import="com.campussync.model.RosterEntry" %>
+<%@ page import="com.campussync.model.Subject" %>
+
+<%
+    javax.servlet.http.HttpSession s = request.getSession(false);
+    if (s == null || !"admin".equals(s.getAttribute("role"))) {
+        response.sendRedirect(request.getContextPath() + "/login.jsp");
+        return;
+    }
+
+    Subject subject = (Subject) request.getAttribute("subject");
+    List<RosterEntry> roster = (List<RosterEntry>) request.getAttribute("roster");
+    if (roster == null) roster = Collections.emptyList();
+    String subjectId = request.getParameter("subject_id");
+    String msg = request.getParameter("msg");
+    String error = request.getParameter("error");
+%>
+
+<%!
+    private static String esc(Object value) {
+        if (value == null) return "";
+        return value.toString().replace("&", "&amp;").replace("<", "&lt;")
+                .replace(">", "&gt;").replace("\"", "&quot;");
+    }
+%>
+
+<!DOCTYPE html>
+<html>
+<head>
+    <title>Subject Roster - CampusSync</title>
+
+    <style>
+        * { margin: 0; padding: 0; box-sizing: border-box; }
+
+        body {
+            font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+            background: #f7fafc;
+            color: #2d3748;
+        }
+
+        .header {
+            background: linear-gradient(135deg,#667eea 0%,#764ba2 100%);
+            color: white;
+            padding: 20px 30px;
+            box-shadow: 0 2px 8px rgba(0,0,0,0.1);
+        }
+
+        .header a {
+            color: rgba(255,255,255,0.9);
+            text-decoration: none;
+            font-size: 14px;
+            display: inline-flex;
+            align-items: center;
+            margin-top: 4px;
+        }
+
+        .back-arrow { margin-right: 6px; }
+
+        .container {
+            max-width: 900px;
+            margin: 30px auto;
+            padding: 0 20px;
+        }
+
+        .form-section, .table-section {
+            background: white;
+            padding: 30px;
+            border-radius: 10px;
+            box-shadow: 0 2px 8px rgba(0,0,0,0.08);
+            margin-bottom: 40px;
+            border: 1px solid #e2e8f0;
+        }
+
+        h3 {
+            margin-bottom: 18px;
+            font-size: 20px;
+            font-weight: 700;
+        }
+
+        .form-group { margin-bottom: 18px; }
+
+        .form-group label {
+            font-size: 14px;
+            font-weight: 600;
+            margin-bottom: 6px;
+            display: block;
+            color: #2d3748;
+        }
+
+        .form-group small { color: #718096; }
+
+        input[type="text"] {
+            width: 100%;
+            max-width: 350px;
+            padding: 10px 14px;
+            border: 2px solid #e2e8f0;
+            border-radius: 6px;
+            font-size: 14px;
+            transition: .3s;
+        }
+
+        input:focus {
+            border-color: #667eea;
+            box-shadow: 0 0 0 3px rgba(102,126,234,.15);
+            outline: none;
+        }
+
+        button {
+            padding: 10px 24px;
+            background: linear-gradient(135deg,#667eea 0%,#764ba2 100%);
+            border: none;
+            color: white;
+            font-size: 14px;
+            font-weight: 600;
+            cursor: pointer;
+            border-radius: 6px;
+            transition: .3s;
+        }
+
+        button:hover {
+            transform: translateY(-3px);
+            box-shadow: 0 8px 16px rgba(102,126,234,.35);
+        }
+
+        button.link {
+            padding: 0;
+            background: none;
+            color: #e53e3e;
+        }
+
+        button.link:hover { transform: none; box-shadow: none; }
+
+        .message { margin-bottom: 20px; color: #2f855a; font-weight: 600; }
+        .message.error { color: #e53e3e; }
+
+        table {
+            width: 100%;
+            border-collapse: collapse;
+            font-size: 14px;
+        }
+
+        table th {
+            background: #f7fafc;
+            padding: 14px;
+            font-weight: 600;
+            color: #2d3748;
+            border-bottom: 2px solid #e2e8f0;
+            text-align: left;
+        }
+
+        table td {
+            padding: 14px;
+            border-bottom: 1px solid #e2e8f0;
+            color: #4a5568;
+        }
+
+        table tr:hover {
+            background: #f7fafc;
+        }
+    </style>
+</head>
+
+<body>
+
+<div class="header">
+    <h2>Roster: <%= subject == null ? "Unknown subject" : esc(subject.getSubjectName()) %></h2>
+    <a href="<%= request.getContextPath() %>/adminPanel?action=subjects">
+        <svg class="back-arrow" viewBox="0 0 24 24" fill="none"
+             stroke="currentColor" stroke-width="2" style="width:18px;height:18px;">
+            <polyline points="15 18 9 12 15 6"></polyline>
+        </svg>
+        Back to Subjects
+    </a>
+</div>
+
+<div class="container">
+
+    <% if (msg != null) { %>
+    <div class="message"><%= esc(msg) %></div>
+    <% } %>
+    <% if (error != null) { %>
+    <div class="message error"><%= esc(error) %></div>
+    <% } %>
+
+    <% if (subject != null) { %>
+    <!-- Enroll students: IDs or the subject's whole course -->
+    <div class="form-section">
+        <h3>Enroll Students</h3>
+
+        <form action="<%= request.getContextPath() %>/adminPanel" method="post">
+            <input type="hidden" name="action" value="enrollStudents">
+            <input type="hidden" name="subject_id" value="<%= esc(subjectId) %>">
+
+            <div class="form-group">
+                <label>Student IDs</label>
+                <input type="text" name="student_ids" placeholder="e.g. 12, 15, 31" required>
+                <small>Separate IDs with commas or spaces; unknown IDs are skipped.</small>
+            </div>
+
+            <button type="submit">Enroll</button>
+        </form>
+
+        <br>
+
+        <form action="<%= request.getContextPath() %>/adminPanel" method="post">
+            <input type="hidden" name="action" value="enrollCourse">
+            <input type="hidden" name="subject_id" value="<%= esc(subjectId) %>">
+            <button type="submit">Enroll all students of <%= esc(subject.getCourseName()) %></button>
+        </form>
+    </div>
+    <% } %>
+
+    <!-- Enrolled students (the roster faculty see in attendance and marks) -->
+    <div class="table-section">
+        <h3><%= roster.size() %> Enrolled Students</h3>
+
+        <table>
+            <tr>
+                <th>ID</th>
+                <th>Name</th>
+                <th>Actions</th>
+            </tr>
+
+            <% for (RosterEntry st : roster) { %>
+            <tr>
+                <td><%= st.getStudentId() %></td>
+                <td><%= esc(st.getName()) %></td>
+                <td>
+                    <form action="<%= request.getContextPath() %>/adminPanel" method="post">
+                        <input type="hidden" name="action" value="unenrollStudent">
+                        <input type="hidden" name="subject_id" value="<%= esc(subjectId) %>">
+                        <input type="hidden" name="student_id" value="<%= st.getStudentId() %>">
+                        <button type="submit" class="link">Remove</button>
+                    </form>
+                </td>
+            </tr>
+            <% } %>
+        </table>
+    </div>
+
+</div>
+
+</body>
+</html>
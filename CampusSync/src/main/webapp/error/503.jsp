@@ -0,0 +1,70 @@
+<%@ page language="java" isErrorPage="true" %>
+<%-- Shown while the database circuit breaker is open (see BaseServlet). No database access here. --%>
+
+<!DOCTYPE html>
+<html>
+<head>
+    <title>Temporarily Unavailable - Campus Sync</title>
+
+    <style>
+        * {
+            margin: 0;
+            padding: 0;
+            box-sizing: border-box;
+        }
+
+        body {
+            font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+            background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);
+            display: flex;
+            justify-content: center;
+            align-items: center;
+            height: 100vh;
+            padding: 20px;
+        }
+
+        .error-container {
+            background: white;
+            padding: 40px;
+            border-radius: 12px;
+            width: 100%;
+            max-width: 460px;
+            box-shadow: 0 20px 60px rgba(0, 0, 0, 0.3);
+            text-align: center;
+        }
+
+        h2 {
+            color: #333;
+            margin-bottom: 15px;
+        }
+
+        p {
+            color: #666;
+            margin-bottom: 25px;
+            line-height: 1.5;
+        }
+
+        a {
+            display: inline-block;
+            padding: 12px 24px;
+            background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);
+            color: white;
+            text-decoration: none;
+            border-radius: 6px;
+            font-weight: 600;
+        }
+    </style>
+</head>
+<body>
+
+<div class="error-container">
+    <h2>We'll be right back</h2>
+    <p>
+        Campus Sync cannot reach its database at the moment.<br>
+        Please try again in a few seconds.
+    </p>
+    <a href="javascript:location.reload()">Try Again</a>
+</div>
+
+</body>
+</html>
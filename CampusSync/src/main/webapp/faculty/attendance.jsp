@@ -1,4 +1,9 @@
-<%@ page import="java.sql.ResultSet" %>
+<%@ page import="com.campussync.model.RegisterResult" %>
+<%@ page import="com.campussync.model.RosterEntry" %>
+<%@ page import="com.campussync.model.Subject" %>
+<%@ page import="java.util.Collections" %>
+<%@ page import="java.util.List" %>
+<%@ page import="java.util.Map" %>
 
 <%
     javax.servlet.http.HttpSession s = request.getSession(false);
@@ -6,6 +11,25 @@
         response.sendRedirect(request.getContextPath() + "/login.jsp");
         return;
     }
+
+    List<Subject> subjects = (List<Subject>) request.getAttribute("subjects");
+    List<RosterEntry> students = (List<RosterEntry>) request.getAttribute("students");
+    Integer registerSubject = (Integer) request.getAttribute("registerSubject");
+    Object registerDate = request.getAttribute("registerDate");
+    Map<Integer, String> saved = (Map<Integer, String>) request.getAttribute("saved");
+    RegisterResult result = (RegisterResult) request.getAttribute("registerResult");
+
+    if (subjects == null) subjects = Collections.emptyList();
+    if (students == null) students = Collections.emptyList();
+    if (saved == null) saved = Collections.emptyMap();
+%>
+
+<%!
+    private static String esc(Object value) {
+        if (value == null) return "";
+        return value.toString().replace("&", "&amp;").replace("<", "&lt;")
+                .replace(">", "&gt;").replace("\"", "&quot;");
+    }
 %>
 
 <!DOCTYPE html>
@@ -58,7 +82,7 @@
 
         .container {
             padding: 40px 30px;
-            max-width: 600px;
+            max-width: 800px;
             margin: 0 auto;
         }
 
@@ -124,6 +148,72 @@
             margin-top: 10px;
         }
 
+        .form-row {
+            display: flex;
+            gap: 15px;
+            align-items: flex-end;
+        }
+
+        .form-row .form-group {
+            flex: 1;
+        }
+
+        .msg {
+            background: #f0fff4;
+            border: 1px solid #9ae6b4;
+            color: #276749;
+            padding: 10px 14px;
+            border-radius: 6px;
+            margin-bottom: 20px;
+            font-size: 14px;
+        }
+
+        .register {
+            width: 100%;
+            border-collapse: collapse;
+            font-size: 14px;
+            margin-top: 10px;
+        }
+
+        .register th,
+        .register td {
+            text-align: left;
+            padding: 8px 10px;
+            border-bottom: 1px solid #e2e8f0;
+        }
+
+        .register th {
+            background: #f7fafc;
+        }
+
+        .register td.mark {
+            width: 70px;
+            text-align: center;
+        }
+
+        .register .rejected {
+            color: #c53030;
+        }
+
+        .register .ok {
+            color: #2f855a;
+        }
+
+        .bulk {
+            display: flex;
+            gap: 10px;
+            margin-top: 20px;
+        }
+
+        .bulk button {
+            width: auto;
+            padding: 6px 14px;
+            font-size: 13px;
+            margin-top: 0;
+            background: #edf2f7;
+            color: #2d3748;
+        }
+
         button:hover {
             transform: translateY(-3px);
             box-shadow: 0 8px 16px rgba(102, 126, 234, 0.35);
@@ -200,38 +290,100 @@
 </div>
 
 <div class="container">
+
+    <% if (request.getParameter("msg") != null) { %>
+    <div class="msg"><%= esc(request.getParameter("msg")) %></div>
+    <% } %>
+
+    <!-- Choose the class -->
+    <div class="form-section" style="margin-bottom: 25px;">
+        <form action="<%= request.getContextPath() %>/faculty" method="get">
+            <input type="hidden" name="action" value="attendance">
+
+            <div class="form-row">
+                <div class="form-group">
+                    <label for="subject_id">Subject</label>
+                    <select id="subject_id" name="subject_id" required>
+                        <option value="">Select subject...</option>
+                        <% for (Subject sub : subjects) { %>
+                        <option value="<%= sub.getSubjectId() %>"
+                                <%= registerSubject != null && registerSubject == sub.getSubjectId() ? "selected" : "" %>>
+                            <%= esc(sub.getSubjectName()) %>
+                        </option>
+                        <% } %>
+                    </select>
+                </div>
+
+                <div class="form-group">
+                    <label for="date">Date</label>
+                    <input type="date" id="date" name="date" value="<%= esc(registerDate) %>" required>
+                </div>
+
+                <div class="form-group" style="flex: 0 0 140px;">
+                    <button type="submit" style="margin-top: 0;">Open Register</button>
+                </div>
+            </div>
+        </form>
+    </div>
+
+    <% if (registerSubject != null) { %>
+    <!-- Whole-class register: one request, one batched transaction -->
     <div class="form-section">
         <form action="<%= request.getContextPath() %>/faculty" method="post">
-            <input type="hidden" name="action" value="saveAttendance">
+            <input type="hidden" name="action" value="saveRegister">
+            <input type="hidden" name="subject_id" value="<%= registerSubject %>">
+            <input type="hidden" name="date" value="<%= esc(registerDate) %>">
 
-            <div class="form-group">
-                <label for="student">Student ID</label>
-                <input type="number" id="student" name="student" required>
-            </div>
+            <label><%= students.size() %> students &middot; <%= saved.isEmpty() ? "not saved yet" : "saved register loaded" %></label>
 
-            <div class="form-group">
-                <label for="subject_id">Subject ID</label>
-                <input type="number" id="subject_id" name="subject_id" required>
-            </div>
+            <% if (students.isEmpty()) { %>
+            <p>No students are enrolled in this subject yet. Ask the admin to enroll the class.</p>
+            <% } %>
 
-            <div class="form-group">
-                <label for="date">Date</label>
-                <input type="date" id="date" name="date" required>
-            </div>
+            <table class="register">
+                <tr>
+                    <th>ID</th>
+                    <th>Name</th>
+                    <th>Present</th>
+                    <th>Absent</th>
+                    <% if (result != null) { %><th>Result</th><% } %>
+                </tr>
+                <% for (RosterEntry st : students) {
+                       String current = saved.get(st.getStudentId());
+                       boolean absent = "A".equals(current);
+                       RegisterResult.Line line = result == null ? null : result.lineFor(st.getStudentId());
+                %>
+                <tr>
+                    <td><%= st.getStudentId() %></td>
+                    <td><%= esc(st.getName()) %></td>
+                    <td class="mark"><input type="radio" name="status_<%= st.getStudentId() %>" value="P" <%= absent ? "" : "checked" %>></td>
+                    <td class="mark"><input type="radio" name="status_<%= st.getStudentId() %>" value="A" <%= absent ? "checked" : "" %>></td>
+                    <% if (result != null) { %>
+                    <td class="<%= line == null ? "" : line.isSaved() ? "ok" : "rejected" %>">
+                        <%= line == null ? "" : line.isSaved() ? "Saved" : esc(line.getMessage()) %>
+                    </td>
+                    <% } %>
+                </tr>
+                <% } %>
+            </table>
 
-            <div class="form-group">
-                <label for="status">Status</label>
-                <select id="status" name="status" required>
-                    <option value="">Select status...</option>
-                    <option value="P">Present</option>
-                    <option value="A">Absent</option>
-                </select>
+            <div class="bulk">
+                <button type="button" onclick="markAll('P')">All present</button>
+                <button type="button" onclick="markAll('A')">All absent</button>
             </div>
 
-            <button type="submit">Submit Attendance</button>
+            <button type="submit">Save Register</button>
         </form>
     </div>
+    <% } %>
 </div>
 
+<script>
+    function markAll(status) {
+        document.querySelectorAll('.register input[type=radio][value=' + status + ']')
+            .forEach(function (r) { r.checked = true; });
+    }
+</script>
+
 </body>
 </html>
@@ -1,4 +1,9 @@
 <%@ page import="javax.servlet.http.HttpSession" %>
+<%@ page import="com.campussync.dao.MarksDAO" %>
+<%@ page import="com.campussync.model.Gradebook" %>
+<%@ page import="com.campussync.model.Subject" %>
+<%@ page import="java.util.Collections" %>
+<%@ page import="java.util.List" %>
 
 <%
     HttpSession s = request.getSession(false);
@@ -6,6 +11,22 @@
         response.sendRedirect(request.getContextPath() + "/login.jsp");
         return;
     }
+
+    List<Subject> subjects = (List<Subject>) request.getAttribute("subjects");
+    Gradebook gradebook = (Gradebook) request.getAttribute("gradebook");
+    if (subjects == null) subjects = Collections.emptyList();
+
+    // Column being edited: ?assessment=..., else the default one
+    String assessment = request.getParameter("assessment");
+    if (assessment == null || assessment.trim().isEmpty()) assessment = MarksDAO.DEFAULT_ASSESSMENT;
+%>
+
+<%!
+    private static String esc(Object value) {
+        if (value == null) return "";
+        return value.toString().replace("&", "&amp;").replace("<", "&lt;")
+                .replace(">", "&gt;").replace("\"", "&quot;");
+    }
 %>
 
 <!DOCTYPE html>
@@ -57,7 +78,7 @@
 
         .container {
             padding: 40px 30px;
-            max-width: 600px;
+            max-width: 900px;
             margin: 0 auto;
         }
 
@@ -89,6 +110,51 @@
             font-size: 14px;
         }
 
+        .form-row {
+            display: flex;
+            gap: 15px;
+            align-items: flex-end;
+        }
+
+        .form-row .form-group {
+            flex: 1;
+        }
+
+        .msg {
+            background: #ebf8ff;
+            border: 1px solid #90cdf4;
+            color: #2c5282;
+            padding: 10px 14px;
+            border-radius: 6px;
+            margin-bottom: 20px;
+            font-size: 14px;
+        }
+
+        .gradebook {
+            width: 100%;
+            border-collapse: collapse;
+            font-size: 14px;
+            margin-top: 10px;
+        }
+
+        .gradebook th,
+        .gradebook td {
+            text-align: left;
+            padding: 8px 10px;
+            border-bottom: 1px solid #e2e8f0;
+        }
+
+        .gradebook th {
+            background: #f7fafc;
+        }
+
+        .gradebook input[type="number"] {
+            width: 90px;
+            padding: 6px 8px;
+        }
+
+        select,
+        input[type="text"],
         input[type="number"] {
             width: 100%;
             padding: 10px 12px;
@@ -98,6 +164,8 @@
             transition: all 0.3s;
         }
 
+        select:focus,
+        input[type="text"]:focus,
         input[type="number"]:focus {
             outline: none;
             border-color: #667eea;
@@ -194,28 +262,89 @@
 </div>
 
 <div class="container">
-    <div class="form-section">
-        <form action="<%= request.getContextPath() %>/faculty" method="post">
-            <input type="hidden" name="action" value="enterMarks">
 
-            <div class="form-group">
-                <label for="student_id">Student ID</label>
-                <input type="number" id="student_id" name="student_id" required>
-            </div>
+    <% if (request.getParameter("msg") != null) { %>
+    <div class="msg"><%= esc(request.getParameter("msg")) %></div>
+    <% } %>
 
-            <div class="form-group">
-                <label for="subject_id">Subject ID</label>
-                <input type="number" id="subject_id" name="subject_id" required>
-            </div>
+    <!-- Choose subject and the assessment column to edit -->
+    <div class="form-section" style="margin-bottom: 25px;">
+        <form action="<%= request.getContextPath() %>/faculty" method="get">
+            <input type="hidden" name="action" value="marks">
 
-            <div class="form-group">
-                <label for="marks">Marks</label>
-                <input type="number" id="marks" name="marks" min="0" required>
+            <div class="form-row">
+                <div class="form-group">
+                    <label for="subject_id">Subject</label>
+                    <select id="subject_id" name="subject_id" required>
+                        <option value="">Select subject...</option>
+                        <% for (Subject sub : subjects) { %>
+                        <option value="<%= sub.getSubjectId() %>"
+                                <%= gradebook != null && gradebook.getSubjectId() == sub.getSubjectId() ? "selected" : "" %>>
+                            <%= esc(sub.getSubjectName()) %>
+                        </option>
+                        <% } %>
+                    </select>
+                </div>
+
+                <div class="form-group">
+                    <label for="assessment">Assessment</label>
+                    <input type="text" id="assessment" name="assessment" value="<%= esc(assessment) %>"
+                           maxlength="<%= MarksDAO.MAX_ASSESSMENT_LENGTH %>" list="assessments">
+                    <datalist id="assessments">
+                        <% if (gradebook != null) for (String a : gradebook.getAssessments()) { %>
+                        <option value="<%= esc(a) %>">
+                        <% } %>
+                    </datalist>
+                </div>
+
+                <div class="form-group" style="flex: 0 0 150px;">
+                    <button type="submit" style="margin-top: 0;">Open Gradebook</button>
+                </div>
             </div>
+        </form>
+    </div>
+
+    <% if (gradebook != null) { %>
+    <!-- Gradebook: saved columns read-only, the chosen assessment editable -->
+    <div class="form-section">
+        <form action="<%= request.getContextPath() %>/faculty" method="post">
+            <input type="hidden" name="action" value="saveGradebook">
+            <input type="hidden" name="subject_id" value="<%= gradebook.getSubjectId() %>">
+            <input type="hidden" name="assessment" value="<%= esc(assessment) %>">
+
+            <% if (gradebook.getRows().isEmpty()) { %>
+            <p>No students are enrolled in this subject yet. Ask the admin to enroll the class.</p>
+            <% } %>
+
+            <table class="gradebook">
+                <tr>
+                    <th>ID</th>
+                    <th>Name</th>
+                    <% for (String a : gradebook.getAssessments()) { if (a.equals(assessment)) continue; %>
+                    <th><%= esc(a) %></th>
+                    <% } %>
+                    <th><%= esc(assessment) %> (<%= MarksDAO.MIN_MARKS %>-<%= MarksDAO.MAX_MARKS %>)</th>
+                </tr>
+                <% for (Gradebook.Row row : gradebook.getRows()) { %>
+                <tr>
+                    <td><%= row.getStudentId() %></td>
+                    <td><%= esc(row.getName()) %></td>
+                    <% for (String a : gradebook.getAssessments()) { if (a.equals(assessment)) continue; %>
+                    <td><%= row.get(a) == null ? "-" : row.get(a) %></td>
+                    <% } %>
+                    <td>
+                        <input type="number" name="marks_<%= row.getStudentId() %>"
+                               min="<%= MarksDAO.MIN_MARKS %>" max="<%= MarksDAO.MAX_MARKS %>"
+                               value="<%= row.get(assessment) == null ? "" : row.get(assessment) %>">
+                    </td>
+                </tr>
+                <% } %>
+            </table>
 
-            <button type="submit">Save Marks</button>
+            <button type="submit">Save <%= esc(assessment) %> Marks</button>
         </form>
     </div>
+    <% } %>
 </div>
 
 </body>
@@ -1,4 +1,7 @@
-<%@ page import="java.sql.ResultSet" %>
+<%@ page import="java.util.List" %>
+<%@ page import="java.util.Iterator" %>
+<%@ page import="java.time.format.DateTimeFormatter" %>
+<%@ page import="com.campussync.model.Notice" %>
 <%@ page import="javax.servlet.http.HttpSession" %>
 
 <%
@@ -98,21 +101,22 @@
         </tr>
 
         <%
-            ResultSet rs = (ResultSet) request.getAttribute("noticeList");
+            List<Notice> noticeList = (List<Notice>) request.getAttribute("noticeList");
+            DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("HH:mm:ss");
 
-            if (rs != null && rs.next()) {
+            if (noticeList != null && !noticeList.isEmpty()) {
+                Iterator<Notice> it = noticeList.iterator();
                 do {
+                    Notice notice = it.next();
         %>
 
         <tr>
-            <td><%= rs.getString("title") %></td>
-            <td><%= rs.getString("message") %></td>
+            <td><%= notice.getTitle() %></td>
+            <td><%= notice.getMessage() %></td>
             <td class="date">
                 <%
-                    String datetime = rs.getString("posted_at");
-                    String[] parts = datetime.split(" ");
-                    String date = parts[0];
-                    String time = parts.length > 1 ? parts[1] : "";
+                    String date = notice.getPostedAt() != null ? notice.getPostedAt().toLocalDate().toString() : "";
+                    String time = notice.getPostedAt() != null ? notice.getPostedAt().format(timeFormat) : "";
                 %>
                 <div><strong><%= date %></strong></div>
                 <div style="font-size: 13px; color:#4a5568;"><%= time %></div>
@@ -120,7 +124,7 @@
         </tr>
 
         <%
-                } while (rs.next());
+                } while (it.hasNext());
             } else {
         %>
 
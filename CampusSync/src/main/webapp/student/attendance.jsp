@@ -1,4 +1,7 @@
-<%@ page import="java.sql.ResultSet" %>
+<%@ page import="java.util.List" %>
+<%@ page import="com.campussync.model.AttendanceEntry" %>
+<%@ page import="com.campussync.model.AttendanceSummary" %>
+<%@ page import="com.campussync.util.AcademicTerm" %>
 <%@ page import="javax.servlet.http.HttpSession" %>
 
 <%
@@ -133,6 +136,21 @@
             transition: all 0.3s;
         }
 
+        .table-section + .table-section {
+            margin-top: 30px;
+        }
+
+        .term-filter {
+            margin-bottom: 16px;
+            font-size: 14px;
+            color: #4a5568;
+        }
+
+        .term-filter a {
+            color: #667eea;
+            margin-left: 8px;
+        }
+
         .present:hover {
             transform: scale(1.05);
             box-shadow: 0 2px 8px rgba(34, 134, 58, 0.2);
@@ -192,7 +210,50 @@
 </div>
 
 <div class="container">
+    <%
+        List<AttendanceSummary> summaries = (List<AttendanceSummary>) request.getAttribute("summaries");
+        if (summaries != null && !summaries.isEmpty()) {
+    %>
+    <div class="table-section">
+        <table border="1" cellpadding="5">
+            <tr>
+                <th>Subject</th>
+                <th>Attended</th>
+                <th>Held</th>
+                <th>Percentage</th>
+            </tr>
+        <%
+            for (AttendanceSummary summary : summaries) {
+        %>
+            <tr>
+                <td><%= summary.getSubjectName() %></td>
+                <td><%= summary.getPresent() %></td>
+                <td><%= summary.getTotal() %></td>
+                <td><%= summary.getPercentage() %>%</td>
+            </tr>
+        <%
+            }
+        %>
+        </table>
+    </div>
+    <%
+        }
+    %>
+
+    <%
+        AcademicTerm term = (AcademicTerm) request.getAttribute("term");
+        boolean allTerms = Boolean.TRUE.equals(request.getAttribute("allTerms"));
+    %>
     <div class="table-section">
+        <div class="term-filter">
+        <% if (allTerms) { %>
+            All terms not yet archived
+            <a href="<%= request.getContextPath() %>/student?action=attendance">This term only</a>
+        <% } else { %>
+            Classes since <%= term.getStart() %> (this term)
+            <a href="<%= request.getContextPath() %>/student?action=attendance&amp;terms=all">Show earlier terms</a>
+        <% } %>
+        </div>
         <table border="1" cellpadding="5">
             <tr>
                 <th>Subject</th>
@@ -201,20 +262,21 @@
             </tr>
 
         <%
-            ResultSet rs = (ResultSet) request.getAttribute("attendanceList");
+            List<AttendanceEntry> attendanceList = (List<AttendanceEntry>) request.getAttribute("attendanceList");
 
-            while (rs != null && rs.next()) {
-                String status = rs.getString("status");
-                String css = status.equals("P") ? "present" : "absent";
+            if (attendanceList != null) {
+                for (AttendanceEntry entry : attendanceList) {
+                    String css = entry.isPresent() ? "present" : "absent";
         %>
             <tr>
-                <td><%= rs.getString("subject_name") %></td>
-                <td><%= rs.getDate("att_date") %></td>
+                <td><%= entry.getSubjectName() %></td>
+                <td><%= entry.getDate() %></td>
                 <td><span class="<%= css %>">
-                    <%= status.equals("P") ? "Present" : "Absent" %>
+                    <%= entry.isPresent() ? "Present" : "Absent" %>
                 </span></td>
             </tr>
         <%
+                }
             }
         %>
 
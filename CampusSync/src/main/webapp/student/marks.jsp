@@ -1,4 +1,5 @@
-<%@ page import="java.sql.ResultSet" %>
+<%@ page import="java.util.List" %>
+<%@ page import="com.campussync.model.MarkEntry" %>
 <%@ page import="javax.servlet.http.HttpSession" %>
 
 <%
@@ -196,21 +197,25 @@
         <table border="1" cellpadding="5">
             <tr>
                 <th>Subject</th>
+                <th>Assessment</th>
                 <th>Marks</th>
             </tr>
 
         <%
-            ResultSet rs = (ResultSet) request.getAttribute("marksList");
+            List<MarkEntry> marksList = (List<MarkEntry>) request.getAttribute("marksList");
 
-            while (rs != null && rs.next()) {
-                int mark = rs.getInt("marks");
-                String css = (mark >= 40) ? "high" : "low";
+            if (marksList != null) {
+                for (MarkEntry entry : marksList) {
+                    int mark = entry.getMarks();
+                    String css = (mark >= 40) ? "high" : "low";
         %>
             <tr>
-                <td><%= rs.getString("subject_name") %></td>
+                <td><%= entry.getSubjectName() %></td>
+                <td><%= entry.getAssessment() == null ? "" : entry.getAssessment() %></td>
                 <td><span class="<%= css %>"><%= mark %></span></td>
             </tr>
         <%
+                }
             }
         %>
 
@@ -0,0 +1,221 @@
+package com.campussync.dao;
+
+import com.campussync.model.RegisterResult;
+import com.campussync.util.AcademicTerm;
+import com.campussync.util.DBConnection;
+import com.campussync.util.MigrationRunner;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * RegisterBenchmark
+ *
+ * Reproducible timing of AttendanceDAO.saveRegister for one class against a
+ * local development MySQL, checked against AttendanceDAO.REGISTER_BUDGET_MS.
+ *
+ * Working:
+ *  - Applies pending migrations, then creates (once) a fixture faculty member,
+ *    subject and STUDENTS enrolled students, all recognisable by their
+ *    '@register.bench' e-mails / 'Bench' names
+ *  - Clears the fixture subject's attendance and summary rows, so every run
+ *    starts from the same state
+ *  - Phase "new": saves a full register (about 85% present) for ITERATIONS
+ *    consecutive dates of the current term - the first save of a class
+ *  - Phase "correction": re-saves each of those dates with 10% of the
+ *    statuses flipped - the summary moves by deltas
+ *  - WARMUP extra saves before each phase are not measured (JIT, statement
+ *    cache, buffer pool)
+ *  - Prints min / p50 / p95 / max per phase (wall time around saveRegister);
+ *    fails (non-zero exit / build failure) when a phase's p95 is over the budget
+ *  - Runs with whatever -Dcampussync.attendance.store is set (rows / sessions)
+ *
+ * Usage:
+ * mvn -Pregister-bench verify
+ * java -cp "target/classes:target/test-classes:..." com.campussync.dao.RegisterBenchmark [students] [iterations]
+ *
+ * Development databases only: it writes and deletes the fixture's rows.
+ */
+public final class RegisterBenchmark {
+
+    private static final int DEFAULT_STUDENTS = 200;
+    private static final int DEFAULT_ITERATIONS = 50;
+    private static final int WARMUP = 10;
+
+    private static final String FIXTURE_EMAIL = "@register.bench";
+
+    private RegisterBenchmark() {}
+
+    public static void main(String[] args) throws SQLException {
+        int students = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_STUDENTS;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ITERATIONS;
+
+        try {
+            MigrationRunner.migrate();
+            int[] fixture = createFixture(students);
+            int facultyId = fixture[0];
+            int subjectId = fixture[1];
+            List<Integer> roster = loadRoster(subjectId);
+            clearAttendance(subjectId);
+
+            System.out.println("Register benchmark: " + roster.size() + " students, " + iterations
+                    + " saves per phase, store=" + AttendanceDAO.STORE_MODE
+                    + ", budget=" + AttendanceDAO.REGISTER_BUDGET_MS + " ms (p95)");
+
+            AttendanceDAO dao = new AttendanceDAO();
+            LocalDate first = AcademicTerm.current().getStart();
+
+            // Warm-up dates come after the measured ones, so both phases touch fresh rows
+            run(dao, facultyId, subjectId, roster, first.plusDays(iterations), WARMUP, 0);
+            long[] created = run(dao, facultyId, subjectId, roster, first, iterations, 0);
+            run(dao, facultyId, subjectId, roster, first.plusDays(iterations), WARMUP, 10);
+            long[] corrected = run(dao, facultyId, subjectId, roster, first, iterations, 10);
+
+            boolean ok = report("new", created) & report("correction", corrected);
+            if (!ok) {
+                // Uncaught: non-zero exit from the CLI, build failure under exec:java
+                throw new IllegalStateException("Attendance register p95 over "
+                        + AttendanceDAO.REGISTER_BUDGET_MS + " ms (see above)");
+            }
+        } finally {
+            DBConnection.shutdown();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Measurement
+    // ---------------------------------------------------------------------
+
+    /**
+     * Saves one register per date and returns the wall time of each save in
+     * microseconds, sorted.
+     *
+     * @param flipPercent 0 for the first save; otherwise the share of students
+     *                    whose status differs from the first save
+     */
+    private static long[] run(AttendanceDAO dao, int facultyId, int subjectId, List<Integer> roster,
+                              LocalDate firstDate, int saves, int flipPercent) throws SQLException {
+        long[] micros = new long[saves];
+        for (int i = 0; i < saves; i++) {
+            Map<Integer, String> register = new TreeMap<>();
+            for (int s = 0; s < roster.size(); s++) {
+                // Deterministic pattern: the same statuses on every run
+                boolean present = (s * 31 + i * 7) % 100 < 85;
+                if ((s * 17 + i) % 100 < flipPercent) present = !present;
+                register.put(roster.get(s), present ? AttendanceDAO.PRESENT : AttendanceDAO.ABSENT);
+            }
+
+            long start = System.nanoTime();
+            RegisterResult result = dao.saveRegister(facultyId, subjectId, firstDate.plusDays(i), register);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+
+            if (result.getSavedCount() != roster.size()) {
+                throw new IllegalStateException("Only " + result.getSavedCount() + " of " + roster.size()
+                        + " students saved on " + firstDate.plusDays(i));
+            }
+        }
+        Arrays.sort(micros);
+        return micros;
+    }
+
+    /** @return false if the phase's p95 is over the budget */
+    private static boolean report(String phase, long[] sortedMicros) {
+        long p95 = percentile(sortedMicros, 95);
+        boolean ok = p95 <= AttendanceDAO.REGISTER_BUDGET_MS * 1_000;
+        System.out.printf("%-10s min %6.1f ms  p50 %6.1f ms  p95 %6.1f ms  max %6.1f ms  %s%n", phase,
+                sortedMicros[0] / 1000.0, percentile(sortedMicros, 50) / 1000.0, p95 / 1000.0,
+                sortedMicros[sortedMicros.length - 1] / 1000.0, ok ? "OK" : "OVER BUDGET");
+        return ok;
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    // ---------------------------------------------------------------------
+    // Fixture
+    // ---------------------------------------------------------------------
+
+    /** @return {facultyId, subjectId} */
+    private static int[] createFixture(int students) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            int courseId = findOrInsert(conn,
+                    "SELECT course_id FROM course WHERE course_name='Bench Course'",
+                    "INSERT INTO course(course_name) VALUES('Bench Course')");
+            int facultyId = findOrInsert(conn,
+                    "SELECT faculty_id FROM faculty WHERE email='faculty" + FIXTURE_EMAIL + "'",
+                    "INSERT INTO faculty(name, email, password, department) " +
+                    "VALUES('Bench Faculty', 'faculty" + FIXTURE_EMAIL + "', 'x', 'BENCH')");
+            int subjectId = findOrInsert(conn,
+                    "SELECT subject_id FROM subject WHERE subject_name='Bench Subject'",
+                    "INSERT INTO subject(subject_name, course_id, faculty_id) " +
+                    "VALUES('Bench Subject', " + courseId + ", " + facultyId + ")");
+
+            try (PreparedStatement student = conn.prepareStatement(
+                         "INSERT IGNORE INTO student(name, email, password, course, semester) " +
+                         "VALUES(?, ?, 'x', 'Bench Course', 1)");
+                 PreparedStatement enroll = conn.prepareStatement(
+                         "INSERT IGNORE INTO enrollment(subject_id, student_id) " +
+                         "SELECT ?, student_id FROM student WHERE email LIKE ? ORDER BY student_id LIMIT ?")) {
+                for (int n = 1; n <= students; n++) {
+                    student.setString(1, String.format("Bench Student %04d", n));
+                    student.setString(2, "student" + n + FIXTURE_EMAIL);
+                    student.addBatch();
+                }
+                student.executeBatch();
+
+                enroll.setInt(1, subjectId);
+                enroll.setString(2, "student%" + FIXTURE_EMAIL);
+                enroll.setInt(3, students);
+                enroll.executeUpdate();
+            }
+            conn.commit();
+            return new int[] {facultyId, subjectId};
+        }
+    }
+
+    private static int findOrInsert(Connection conn, String find, String insert) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery(find)) {
+                if (rs.next()) return rs.getInt(1);
+            }
+            st.executeUpdate(insert, Statement.RETURN_GENERATED_KEYS);
+            try (ResultSet keys = st.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    private static List<Integer> loadRoster(int subjectId) throws SQLException {
+        List<Integer> roster = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT student_id FROM enrollment WHERE subject_id=? ORDER BY student_id")) {
+            ps.setInt(1, subjectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) roster.add(rs.getInt(1));
+            }
+        }
+        return roster;
+    }
+
+    private static void clearAttendance(int subjectId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            for (String table : new String[] {"attendance", "attendance_session", "attendance_summary"}) {
+                try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + table + " WHERE subject_id=?")) {
+                    ps.setInt(1, subjectId);
+                    ps.executeUpdate();
+                }
+            }
+            conn.commit();
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.campussync.util;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * QueryPlanGuard
+ *
+ * Build-time check that the queries on request paths keep using indexes.
+ * Runs EXPLAIN for every @HotQuery constant in the DAOs and servlets against
+ * a local development MySQL and fails when a plan regresses.
+ *
+ * Working:
+ *  - Applies pending migrations (MigrationRunner) so the indexes exist
+ *  - With --seed, loads db/plan-guard-seed.sql once: plans are only meaningful
+ *    with realistic table sizes (MySQL full-scans tiny tables whatever the indexes)
+ *  - Finds @HotQuery fields in com.campussync.dao / com.campussync.servlet,
+ *    binds their params (${student}, ${subject}, ... looked up in the data,
+ *    ${today} / ${termStart} from the clock)
+ *    and runs EXPLAIN on the statement
+ *  - Fails a query when any table is read with type=ALL (unless allowFullScan)
+ *    or when the row estimate (product of the rows column) exceeds maxRows
+ *  - Writes a snapshot (query, access path per table, row estimate) and
+ *    reports access paths that changed since the previous snapshot
+ *
+ * Usage:
+ * mvn -Pplan-guard verify
+ * java -cp "target/classes:target/test-classes:..." com.campussync.util.QueryPlanGuard [--seed] [snapshotFile]
+ *
+ * Test sources only (with db/plan-guard-seed.sql): not packaged in the WAR,
+ * so it cannot be launched from a deployed server. Never point it at a
+ * production database with --seed.
+ */
+public final class QueryPlanGuard {
+
+    private static final String[] PACKAGES = {"com.campussync.dao", "com.campussync.servlet"};
+
+    private static final String SEED_SCRIPT = "db/plan-guard-seed.sql";
+    private static final String DEFAULT_SNAPSHOT = "query-plans.snapshot";
+
+    private QueryPlanGuard() {}
+
+    /**
+     * One @HotQuery constant.
+     */
+    static final class Check {
+        final String name;          // e.g. StudentDAO.SQL_ATTENDANCE
+        final String sql;
+        final HotQuery spec;
+
+        Check(String name, String sql, HotQuery spec) {
+            this.name = name;
+            this.sql = sql;
+            this.spec = spec;
+        }
+    }
+
+    /**
+     * EXPLAIN outcome of one check.
+     */
+    static final class Result {
+        final Check check;
+        final List<String> steps = new ArrayList<>();      // table:type:key
+        long estimate = 1;
+        final List<String> violations = new ArrayList<>();
+
+        Result(Check check) {
+            this.check = check;
+        }
+
+        String accessPath() {
+            return String.join(" ", steps);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Entry point
+    // ---------------------------------------------------------------------
+
+    public static void main(String[] args) throws Exception {
+        boolean seed = false;
+        Path snapshot = Paths.get(DEFAULT_SNAPSHOT);
+        for (String arg : args) {
+            if ("--seed".equals(arg)) seed = true;
+            else snapshot = Paths.get(arg);
+        }
+
+        try {
+            MigrationRunner.migrate();
+            if (seed) seed();
+
+            List<Result> results = run(discover());
+            int failed = report(results, readSnapshot(snapshot));
+            writeSnapshot(snapshot, results);
+
+            if (failed > 0) {
+                // Uncaught: non-zero exit from the CLI, build failure under exec:java
+                throw new IllegalStateException(failed + " hot quer" + (failed == 1 ? "y" : "ies")
+                        + " failed the plan check (see above)");
+            }
+        } finally {
+            DBConnection.shutdown();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Discovery
+    // ---------------------------------------------------------------------
+
+    /** All @HotQuery String constants of the DAO and servlet classes. */
+    static List<Check> discover() {
+        ClassLoader cl = QueryPlanGuard.class.getClassLoader();
+        List<Check> checks = new ArrayList<>();
+
+        for (String pkg : PACKAGES) {
+            for (String file : MigrationRunner.listResources(cl, pkg.replace('.', '/'))) {
+                if (!file.endsWith(".class") || file.contains("$")) continue;
+                String className = pkg + "." + file.substring(0, file.length() - ".class".length());
+                try {
+                    Class<?> type = Class.forName(className, false, cl);
+                    for (Field field : type.getDeclaredFields()) {
+                        HotQuery spec = field.getAnnotation(HotQuery.class);
+                        if (spec == null) continue;
+                        if (!Modifier.isStatic(field.getModifiers()) || field.getType() != String.class) {
+                            throw new IllegalStateException("@HotQuery must be on a static String: " + className
+                                    + "." + field.getName());
+                        }
+                        field.setAccessible(true);
+                        checks.add(new Check(type.getSimpleName() + "." + field.getName(),
+                                (String) field.get(null), spec));
+                    }
+                } catch (ClassNotFoundException | LinkageError | IllegalAccessException e) {
+                    Logger.warn("Plan guard skipped " + className + ": " + e);
+                }
+            }
+        }
+        return checks;
+    }
+
+    // ---------------------------------------------------------------------
+    // EXPLAIN
+    // ---------------------------------------------------------------------
+
+    static List<Result> run(List<Check> checks) throws SQLException {
+        List<Result> results = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection()) {
+            Map<String, String> values = sampleValues(conn);
+
+            for (Check check : checks) {
+                Result result = new Result(check);
+                try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + check.sql)) {
+                    String[] params = check.spec.params();
+                    for (int i = 0; i < params.length; i++) {
+                        ps.setString(i + 1, resolve(params[i], values));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) explainRow(rs, result);
+                    }
+                } catch (SQLException e) {
+                    result.violations.add("EXPLAIN failed: " + e.getMessage());
+                }
+                if (result.estimate > check.spec.maxRows()) {
+                    result.violations.add("row estimate " + result.estimate + " > budget " + check.spec.maxRows());
+                }
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private static void explainRow(ResultSet rs, Result result) throws SQLException {
+        String table = rs.getString("table");
+        String type = rs.getString("type");
+        String key = rs.getString("key");
+        long rows = rs.getLong("rows");
+        String extra = rs.getString("Extra");
+
+        result.steps.add((table == null ? "-" : table) + ":" + (type == null ? "-" : type)
+                + ":" + (key == null ? "-" : key)
+                + (extra != null && extra.contains("Using filesort") ? ":filesort" : ""));
+        result.estimate *= Math.max(rows, 1);
+
+        boolean derived = table != null && table.startsWith("<");
+        if ("ALL".equals(type) && !derived && !result.check.spec.allowFullScan()) {
+            result.violations.add("full table scan of " + table + " (" + rows + " rows)");
+        }
+    }
+
+    /**
+     * Values for the ${...} placeholders, taken from the data so lookups hit
+     * real rows (an enrolled student, a subject with a register, ...).
+     */
+    private static Map<String, String> sampleValues(Connection conn) throws SQLException {
+        Map<String, String> values = new HashMap<>();
+        values.put("today", LocalDate.now().toString());
+        values.put("termStart", AcademicTerm.current().getStart().toString());
+
+        // The largest class and the busiest student: the worst case a request sees
+        String subject = scalar(conn,
+                "SELECT subject_id FROM enrollment GROUP BY subject_id ORDER BY COUNT(*) DESC, subject_id LIMIT 1");
+        String student = scalar(conn,
+                "SELECT student_id FROM enrollment GROUP BY student_id ORDER BY COUNT(*) DESC, student_id LIMIT 1");
+        if (student == null || subject == null) {
+            throw new IllegalStateException("No enrollments to run the plans against; run with --seed on a development database");
+        }
+        values.put("student", student);
+        values.put("subject", subject);
+        values.put("faculty", scalar(conn, "SELECT faculty_id FROM subject WHERE subject_id=" + subject));
+        values.put("email", scalar(conn, "SELECT email FROM student WHERE student_id=" + student));
+        String date = scalar(conn, "SELECT MAX(att_date) FROM attendance WHERE subject_id=" + subject);
+        values.put("date", date == null ? values.get("today") : date);
+        return values;
+    }
+
+    private static String resolve(String param, Map<String, String> values) {
+        if (!param.startsWith("${")) return param;
+        String name = param.substring(2, param.length() - 1);
+        if (!values.containsKey(name)) throw new IllegalStateException("Unknown @HotQuery parameter " + param);
+        return values.get(name);
+    }
+
+    private static String scalar(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Seed data
+    // ---------------------------------------------------------------------
+
+    private static void seed() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            String seeded = scalar(conn, "SELECT COUNT(*) FROM student WHERE email LIKE '%@plan.guard'");
+            if (!"0".equals(seeded)) {
+                Logger.info("Plan guard seed data already present");
+                return;
+            }
+
+            Logger.info("Loading plan guard seed data");
+            String script = MigrationRunner.read(QueryPlanGuard.class.getClassLoader(), SEED_SCRIPT);
+            try (Statement st = conn.createStatement()) {
+                for (String sql : MigrationRunner.splitStatements(script)) {
+                    st.execute(sql);
+                }
+            }
+            if (!conn.getAutoCommit()) conn.commit();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Report / snapshot
+    // ---------------------------------------------------------------------
+
+    private static int report(List<Result> results, Map<String, String> previous) {
+        int failed = 0;
+        System.out.println("Query plan guard: " + results.size() + " hot queries");
+        for (Result r : results) {
+            boolean ok = r.violations.isEmpty();
+            if (!ok) failed++;
+            System.out.println(String.format("  %-4s %-40s est=%-8d budget=%-7d %s",
+                    ok ? "OK" : "FAIL", r.check.name, r.estimate, r.check.spec.maxRows(), r.accessPath()));
+            for (String v : r.violations) System.out.println("         - " + v);
+
+            String before = previous.get(r.check.name);
+            if (before != null && !before.equals(r.accessPath())) {
+                System.out.println("         access path changed, was: " + before);
+            }
+        }
+        return failed;
+    }
+
+    /** name → access path of the previous run; empty on the first run. */
+    private static Map<String, String> readSnapshot(Path file) throws IOException {
+        Map<String, String> paths = new LinkedHashMap<>();
+        if (!Files.exists(file)) return paths;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.startsWith("#") || line.trim().isEmpty()) continue;
+            String[] cols = line.split("\t");
+            if (cols.length >= 2) paths.put(cols[0], cols[1]);
+        }
+        return paths;
+    }
+
+    private static void writeSnapshot(Path file, List<Result> results) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# QueryPlanGuard snapshot: query <TAB> table:type:key[:filesort] ... <TAB> row estimate");
+        for (Result r : results) {
+            lines.add(r.check.name + "\t" + r.accessPath() + "\t" + r.estimate);
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,190 @@
+package com.campussync.util;
+
+import com.campussync.util.TransactionManager.Propagation;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TransactionPropagationCheck
+ *
+ * Checks TransactionManager's NESTED and REQUIRES_NEW propagation against a
+ * local development MySQL: which rows survive when inner units of work fail,
+ * are swallowed, or commit on their own.
+ *
+ * Working:
+ *  - Creates a scratch InnoDB table (TABLE) and empties it before each case;
+ *    drops it at the end
+ *  - Participant failures are real ones: a duplicate primary key (1062) from
+ *    MySQL, not a thrown stand-in, so join() marks the scope exactly as a DAO
+ *    failure would
+ *  - Each case runs its units of work, then compares the committed ids with
+ *    the expected ones (read on a fresh connection) and prints OK / FAIL
+ *  - Fails (non-zero exit / build failure) when any case does
+ *
+ * Usage:
+ * mvn -Ptx-check verify
+ * java -cp "target/classes:target/test-classes:..." com.campussync.util.TransactionPropagationCheck
+ *
+ * Development databases only: it creates and drops its own table.
+ */
+public final class TransactionPropagationCheck {
+
+    private static final String TABLE = "tx_propagation_check";
+
+    private TransactionPropagationCheck() {}
+
+    /**
+     * One scenario: runs against an empty table and must leave exactly
+     * expected committed.
+     */
+    @FunctionalInterface
+    private interface Case {
+        void run() throws SQLException;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        List<String> failed = new ArrayList<>();
+        try {
+            execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (id INT PRIMARY KEY) ENGINE=InnoDB");
+
+            check(failed, "NESTED failure rolls back only the savepoint", new int[] {1, 3}, () ->
+                    TransactionManager.execute(conn -> {
+                        insert(1);
+                        expectFailure(() -> TransactionManager.execute(Propagation.NESTED, inner -> {
+                            insert(2);
+                            insert(1);              // participant fails: duplicate key
+                            return null;
+                        }));
+                        insert(3);
+                        return null;
+                    }));
+
+            check(failed, "NESTED swallowing a participant failure is rolled back", new int[] {1, 3}, () ->
+                    TransactionManager.execute(conn -> {
+                        insert(1);
+                        expectFailure(() -> TransactionManager.execute(Propagation.NESTED, inner -> {
+                            insert(2);
+                            try {
+                                insert(1);
+                            } catch (SQLException ignored) { }
+                            return null;
+                        }));
+                        insert(3);
+                        return null;
+                    }));
+
+            check(failed, "NESTED success keeps its rows", new int[] {1, 2}, () ->
+                    TransactionManager.execute(conn -> {
+                        insert(1);
+                        TransactionManager.execute(Propagation.NESTED, inner -> insert(2));
+                        return null;
+                    }));
+
+            check(failed, "NESTED rollback keeps an earlier rollback-only mark", new int[0], () ->
+                    expectFailure(() -> TransactionManager.execute(conn -> {
+                        insert(1);
+                        try {
+                            insert(1);                  // marks the outer transaction
+                        } catch (SQLException ignored) { }
+                        expectFailure(() -> TransactionManager.execute(Propagation.NESTED, inner -> insert(1)));
+                        return null;
+                    })));
+
+            check(failed, "REQUIRES_NEW commits even if the outer rolls back", new int[] {2}, () ->
+                    expectFailure(() -> TransactionManager.execute(conn -> {
+                        insert(1);
+                        TransactionManager.execute(Propagation.REQUIRES_NEW, inner -> insert(2));
+                        throw new SQLException("outer fails after the inner commit");
+                    })));
+
+            check(failed, "REQUIRES_NEW failure leaves the outer usable", new int[] {1, 3}, () ->
+                    TransactionManager.execute(conn -> {
+                        insert(1);
+                        expectFailure(() -> TransactionManager.execute(Propagation.REQUIRES_NEW, inner -> {
+                            insert(2);
+                            insert(2);              // fails; only the inner transaction rolls back
+                            return null;
+                        }));
+                        insert(3);                  // joins the outer transaction again
+                        return null;
+                    }));
+
+            if (!failed.isEmpty()) {
+                // Uncaught: non-zero exit from the CLI, build failure under exec:java
+                throw new IllegalStateException("Transaction propagation checks failed: " + failed);
+            }
+        } finally {
+            try {
+                execute("DROP TABLE IF EXISTS " + TABLE);
+            } finally {
+                DBConnection.shutdown();
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Cases
+    // ---------------------------------------------------------------------
+
+    private static void check(List<String> failed, String name, int[] expected, Case scenario) throws SQLException {
+        execute("DELETE FROM " + TABLE);
+        String outcome;
+        try {
+            scenario.run();
+            int[] committed = committedIds();
+            outcome = Arrays.equals(expected, committed) ? null
+                    : "committed " + Arrays.toString(committed) + ", expected " + Arrays.toString(expected);
+        } catch (SQLException | RuntimeException e) {
+            outcome = "unexpected " + e;
+        }
+        System.out.printf("%-58s %s%n", name, outcome == null ? "OK" : "FAIL (" + outcome + ")");
+        if (outcome != null) failed.add(name);
+    }
+
+    /** Runs work that must throw; the failure is the point of the case. */
+    private static void expectFailure(Case work) {
+        try {
+            work.run();
+        } catch (SQLException e) {
+            return;
+        }
+        throw new IllegalStateException("expected the unit of work to fail");
+    }
+
+    // ---------------------------------------------------------------------
+    // SQL
+    // ---------------------------------------------------------------------
+
+    /**
+     * Inserts as a REQUIRED participant, like a DAO method with its own
+     * TransactionManager.execute(...): a failure marks the joined scope.
+     */
+    private static Void insert(int id) throws SQLException {
+        return TransactionManager.execute(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO " + TABLE + "(id) VALUES(?)")) {
+                ps.setInt(1, id);
+                ps.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    private static int[] committedIds() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT id FROM " + TABLE + " ORDER BY id")) {
+            while (rs.next()) ids.add(rs.getInt(1));
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+-- Representative data for QueryPlanGuard (DEVELOPMENT DATABASES ONLY).
+--
+-- With a handful of rows MySQL reads every table with a full scan whatever the
+-- indexes, so plans are only meaningful at a realistic size:
+--   5 courses, 50 faculty, 100 subjects, 2000 students (400 per course),
+--   8000 enrollments (each subject has its course's 400 students),
+--   20 class days of attendance per enrollment (160k rows), 2 assessments of marks,
+--   500 assignments (mostly past due) and 500 notices, plus the matching
+--   attendance_summary rows.
+-- Seed rows are recognisable by their names / '@plan.guard' e-mails.
+-- QueryPlanGuard runs this only with --seed and only once per database.
+
+SET SESSION cte_max_recursion_depth = 10000;
+
+INSERT INTO course(course_name)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 5)
+SELECT CONCAT('Seed Course ', n) FROM seq;
+
+INSERT INTO faculty(name, email, password, department)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 50)
+SELECT CONCAT('Seed Faculty ', n), CONCAT('seedfac', n, '@plan.guard'), 'x', 'SEED' FROM seq;
+
+INSERT INTO subject(subject_name, course_id, faculty_id)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 100)
+SELECT CONCAT('Seed Subject ', n), c.course_id, f.faculty_id
+FROM seq
+JOIN course c ON c.course_name = CONCAT('Seed Course ', 1 + n % 5)
+JOIN faculty f ON f.email = CONCAT('seedfac', 1 + n % 50, '@plan.guard');
+
+INSERT INTO student(name, email, password, course, semester)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 2000)
+SELECT CONCAT('Seed Student ', LPAD(n, 4, '0')), CONCAT('seed', n, '@plan.guard'), 'x',
+       CONCAT('Seed Course ', 1 + n % 5), 1 + n % 8
+FROM seq;
+
+INSERT IGNORE INTO enrollment(subject_id, student_id)
+SELECT s.subject_id, st.student_id
+FROM subject s
+JOIN course c ON c.course_id = s.course_id
+JOIN student st ON st.course = c.course_name
+WHERE s.subject_name LIKE 'Seed Subject %';
+
+INSERT IGNORE INTO attendance(student_id, subject_id, att_date, status)
+WITH RECURSIVE days(n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM days WHERE n < 19)
+SELECT e.student_id, e.subject_id, DATE_SUB(CURDATE(), INTERVAL days.n DAY),
+       IF(RAND() < 0.85, 'P', 'A')
+FROM enrollment e
+JOIN subject s ON s.subject_id = e.subject_id AND s.subject_name LIKE 'Seed Subject %'
+CROSS JOIN days;
+
+INSERT IGNORE INTO marks(student_id, subject_id, assessment, marks)
+SELECT e.student_id, e.subject_id, a.assessment, FLOOR(RAND() * 101)
+FROM enrollment e
+JOIN subject s ON s.subject_id = e.subject_id AND s.subject_name LIKE 'Seed Subject %'
+CROSS JOIN (SELECT 'Midterm' AS assessment UNION ALL SELECT 'Final') a;
+
+INSERT INTO assignment(subject_id, title, description, due_date)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 500)
+SELECT s.subject_id, CONCAT('Seed Assignment ', n), 'Seed', DATE_ADD(CURDATE(), INTERVAL (n % 330) - 300 DAY)
+FROM seq
+JOIN subject s ON s.subject_name = CONCAT('Seed Subject ', 1 + n % 100);
+
+INSERT INTO notice(title, message, posted_at)
+WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 500)
+SELECT CONCAT('Seed Notice ', n), 'Seed', DATE_SUB(NOW(), INTERVAL n DAY) FROM seq;
+
+-- Attendance was inserted directly: bring the summary projection up to date
+INSERT INTO attendance_summary(student_id, subject_id, present, total)
+SELECT a.student_id, a.subject_id, SUM(a.status = 'P'), COUNT(*)
+FROM attendance a
+JOIN student st ON st.student_id = a.student_id AND st.email LIKE '%@plan.guard'
+GROUP BY a.student_id, a.subject_id
+ON DUPLICATE KEY UPDATE present = VALUES(present), total = VALUES(total);
+
+ANALYZE TABLE course, faculty, subject, student, enrollment, attendance, attendance_summary, marks, assignment, notice;